@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * anchor-core
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.core.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Limits on how many entries an {@link LRUCache} retains, and for how long.
+ *
+ * <p>The size of the cache is limited either by the <i>number</i> of entries, or by the total
+ * <i>weight</i> of the entries, where the weight of each entry is calculated from its value (e.g. an
+ * approximate size in bytes).
+ *
+ * <p>Optionally, entries can also expire after a period of time without being accessed.
+ *
+ * <p>This is an immutable class.
+ *
+ * @author Owen Feehan
+ * @param <V> value-type used in the cache
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CacheLimits<V> {
+
+    /** The maximum number of entries, or the maximum total weight if {@code weigher} is present. */
+    @Getter private final long maximum;
+
+    /** If present, calculates the weight of each value. If absent, each entry has a weight of 1. */
+    @Getter private final Optional<ToIntFunction<V>> weigher;
+
+    /** If present, entries are evicted after not having been accessed for this duration. */
+    @Getter private final Optional<Duration> expireAfterAccess;
+
+    /**
+     * Limits the cache to a maximum number of entries.
+     *
+     * @param <V> value-type used in the cache
+     * @param maximumNumberEntries the maximum number of entries in the cache.
+     * @return newly created limits.
+     */
+    public static <V> CacheLimits<V> numberEntries(long maximumNumberEntries) {
+        return new CacheLimits<>(maximumNumberEntries, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Limits the cache to a maximum total weight of all entries.
+     *
+     * @param <V> value-type used in the cache
+     * @param maximumWeight the maximum total weight of all entries in the cache.
+     * @param weigher calculates the weight of a value, which should be non-negative and not change
+     *     while the value is in the cache.
+     * @return newly created limits.
+     */
+    public static <V> CacheLimits<V> weight(long maximumWeight, ToIntFunction<V> weigher) {
+        return new CacheLimits<>(maximumWeight, Optional.of(weigher), Optional.empty());
+    }
+
+    /**
+     * Derives limits that additionally evict entries that have not been accessed for a duration.
+     *
+     * <p>This is an <i>immutable</i> operation.
+     *
+     * @param duration how long an entry may remain in the cache without being accessed.
+     * @return newly created limits, identical to the existing limits, but with the expiry.
+     */
+    public CacheLimits<V> expireAfterAccess(Duration duration) {
+        return new CacheLimits<>(maximum, weigher, Optional.of(duration));
+    }
+}
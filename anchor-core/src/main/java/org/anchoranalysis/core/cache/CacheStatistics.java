@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * anchor-core
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.core.cache;
+
+import lombok.Value;
+
+/**
+ * Counts of how often a cache was used successfully or not.
+ *
+ * <p>These counts are cumulative since the cache was created.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class CacheStatistics {
+
+    /** The number of times a requested entry was already present in the cache. */
+    private long hitCount;
+
+    /** The number of times a requested entry was absent from the cache, and was calculated. */
+    private long missCount;
+
+    /** The number of entries that were removed from the cache, to satisfy its limits. */
+    private long evictionCount;
+
+    /**
+     * The ratio of requests that were hits.
+     *
+     * @return the ratio between 0 and 1 (inclusive), or 1 if no requests have occurred.
+     */
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : ((double) hitCount) / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d hits, %d misses (%.1f%% hit rate), %d evictions",
+                hitCount, missCount, hitRate() * 100, evictionCount);
+    }
+}
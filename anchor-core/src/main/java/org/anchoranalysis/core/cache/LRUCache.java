@@ -28,10 +28,13 @@ package org.anchoranalysis.core.cache;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 import org.anchoranalysis.core.exception.friendly.AnchorFriendlyRuntimeException;
 import org.anchoranalysis.core.functional.checked.CheckedFunction;
 import org.anchoranalysis.core.index.GetOperationFailedException;
@@ -41,6 +44,12 @@ import org.anchoranalysis.core.index.GetOperationFailedException;
  *
  * <p>The discard strategy comes from Guava's size-based eviction's defaults.
  *
+ * <p>The size may be limited by the number of entries, or by a total weight (e.g. an approximate
+ * size in bytes) across entries, and entries may optionally expire after a period without access.
+ * See {@link CacheLimits}.
+ *
+ * <p>Counts of hits, misses and evictions are recorded, see {@link #statistics()}.
+ *
  * <p>See <a href="https://github.com/google/guava/wiki/CachesExplained">Guava Caches Explained</a>.
  *
  * <p>It's thread-safe.
@@ -61,9 +70,22 @@ public class LRUCache<K, V> {
      * @param calculator calculates the value for a given key if it's not already in the cache.
      */
     public <E extends Exception> LRUCache(int cacheSize, CheckedFunction<K, V, E> calculator) {
+        this(CacheLimits.numberEntries(cacheSize), calculator);
+    }
 
-        if (cacheSize <= 0) {
-            throw new AnchorFriendlyRuntimeException("cacheSize must be a positive integer");
+    /**
+     * Constructor with particular limits.
+     *
+     * @param <E> type of an exception that may be thrown by {@code calculator}.
+     * @param limits limits on the size of the cache, and for how long entries are retained.
+     * @param calculator calculates the value for a given key if it's not already in the cache.
+     */
+    public <E extends Exception> LRUCache(
+            CacheLimits<V> limits, CheckedFunction<K, V, E> calculator) {
+
+        if (limits.getMaximum() <= 0) {
+            throw new AnchorFriendlyRuntimeException(
+                    "The maximum of the cache (number of entries or total weight) must be a positive integer");
         }
 
         CacheLoader<K, V> loader =
@@ -72,7 +94,7 @@ public class LRUCache<K, V> {
                         return calculator.apply(key);
                     }
                 };
-        cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build(loader);
+        cache = build(limits, loader);
     }
 
     /**
@@ -94,11 +116,14 @@ public class LRUCache<K, V> {
     /**
      * Is a particular key present already in the cache?
      *
+     * <p>This is neither counted as a hit nor a miss in {@link #statistics()}, nor does it count as
+     * a use of the key, when determining which entries to discard.
+     *
      * @param key they key to check.
      * @return true iff the key already exists in the cache.
      */
     public boolean has(K key) {
-        return cache.getIfPresent(key) != null;
+        return cache.asMap().containsKey(key);
     }
 
     /**
@@ -129,4 +154,34 @@ public class LRUCache<K, V> {
     public void put(K key, V value) {
         cache.put(key, value);
     }
+
+    /**
+     * Counts of hits, misses and evictions since the cache was created.
+     *
+     * @return a newly created snapshot of the counts.
+     */
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    /** Builds the cache, so that it respects {@code limits}. */
+    private static <K, V> LoadingCache<K, V> build(
+            CacheLimits<V> limits, CacheLoader<K, V> loader) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+
+        if (limits.getExpireAfterAccess().isPresent()) {
+            builder.expireAfterAccess(
+                    limits.getExpireAfterAccess().get().toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        if (limits.getWeigher().isPresent()) {
+            ToIntFunction<V> weigher = limits.getWeigher().get();
+            return builder.maximumWeight(limits.getMaximum())
+                    .weigher((K key, V value) -> weigher.applyAsInt(value))
+                    .build(loader);
+        } else {
+            return builder.maximumSize(limits.getMaximum()).build(loader);
+        }
+    }
 }
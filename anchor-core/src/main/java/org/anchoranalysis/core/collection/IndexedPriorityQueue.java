@@ -0,0 +1,265 @@
+/*-
+ * #%L
+ * anchor-core
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.core.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue, implemented as a binary heap, that additionally tracks the position of each
+ * element, so that arbitrary elements can be removed or re-prioritized in logarithmic time.
+ *
+ * <p>In contrast, {@link java.util.PriorityQueue#remove(Object)} requires a linear search.
+ *
+ * <p>Like {@link java.util.PriorityQueue}, the head of the queue is the <i>least</i> element, as
+ * determined by the {@link Comparator}.
+ *
+ * <p>Elements are identified by {@link Object#equals} and {@link Object#hashCode}, and each element
+ * may occur at most once in the queue. Unlike {@link java.util.PriorityQueue}, adding an element
+ * that is equal to an existing element is an error, so distinct elements must not be equal.
+ *
+ * <p>It is not thread-safe.
+ *
+ * @author Owen Feehan
+ * @param <T> element-type
+ */
+public class IndexedPriorityQueue<T> {
+
+    /** The elements, ordered as a binary heap. */
+    private final List<T> heap;
+
+    /** The position of each element in {@code heap}. */
+    private final Map<T, Integer> positions;
+
+    /** Determines the order of elements. */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * Creates with elements, which must be {@link Comparable}, ordered by their natural ordering.
+     *
+     * @param <S> element-type
+     * @param elements the elements to initially add.
+     * @return a newly created queue, containing {@code elements}.
+     */
+    public static <S extends Comparable<? super S>> IndexedPriorityQueue<S> naturalOrder(
+            Collection<S> elements) {
+        return new IndexedPriorityQueue<>(elements, Comparator.naturalOrder());
+    }
+
+    /**
+     * Creates with elements.
+     *
+     * @param elements the elements to initially add.
+     * @param comparator determines the order of elements.
+     * @throws IllegalArgumentException if {@code elements} contains the same element more than
+     *     once.
+     */
+    public IndexedPriorityQueue(Collection<T> elements, Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.heap = new ArrayList<>(elements);
+        this.positions = new HashMap<>(Math.max(16, (int) (elements.size() / 0.75f) + 1));
+        for (int i = 0; i < heap.size(); i++) {
+            if (positions.put(heap.get(i), i) != null) {
+                throw new IllegalArgumentException("The same element occurs more than once.");
+            }
+        }
+        // Build the heap bottom-up, in linear time
+        for (int i = (heap.size() / 2) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param element the element to add.
+     * @throws IllegalArgumentException if the element already exists in the queue.
+     */
+    public void add(T element) {
+        if (positions.containsKey(element)) {
+            throw new IllegalArgumentException("The element already exists in the queue.");
+        }
+        heap.add(element);
+        int position = heap.size() - 1;
+        positions.put(element, position);
+        siftUp(position);
+    }
+
+    /**
+     * The element at the head of the queue, without removing it.
+     *
+     * @return the head, or null if the queue is empty.
+     */
+    public T peek() {
+        return heap.isEmpty() ? null : heap.get(0);
+    }
+
+    /**
+     * Removes and returns the element at the head of the queue.
+     *
+     * @return the head, or null if the queue is empty.
+     */
+    public T poll() {
+        if (heap.isEmpty()) {
+            return null;
+        }
+        T head = heap.get(0);
+        removeAt(0);
+        return head;
+    }
+
+    /**
+     * Removes a particular element from the queue.
+     *
+     * @param element the element to remove.
+     * @return true if the element existed and was removed, false if it did not exist.
+     */
+    public boolean remove(T element) {
+        Integer position = positions.get(element);
+        if (position == null) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Restores the ordering of the queue, after the priority of an element has changed.
+     *
+     * <p>This supports both decreasing and increasing the priority of the element.
+     *
+     * @param element the element, whose priority has changed.
+     * @throws NoSuchElementException if the element does not exist in the queue.
+     */
+    public void update(T element) {
+        Integer position = positions.get(element);
+        if (position == null) {
+            throw new NoSuchElementException("The element does not exist in the queue.");
+        }
+        if (siftUp(position) == position) {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Whether a particular element exists in the queue.
+     *
+     * @param element the element to search for.
+     * @return true if the element exists.
+     */
+    public boolean contains(T element) {
+        return positions.containsKey(element);
+    }
+
+    /**
+     * Whether the queue contains no elements.
+     *
+     * @return true if the queue is empty.
+     */
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * The number of elements in the queue.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /** Removes the element at a particular position in the heap. */
+    private void removeAt(int position) {
+        int last = heap.size() - 1;
+        positions.remove(heap.get(position));
+        if (position == last) {
+            heap.remove(last);
+            return;
+        }
+
+        // Replace with the last element, and then restore the heap property.
+        T moved = heap.remove(last);
+        place(moved, position);
+        if (siftUp(position) == position) {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Moves an element towards the head, until it is not less than its parent.
+     *
+     * @return the final position of the element.
+     */
+    private int siftUp(int position) {
+        T element = heap.get(position);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            T parentElement = heap.get(parent);
+            if (comparator.compare(element, parentElement) >= 0) {
+                break;
+            }
+            place(parentElement, position);
+            position = parent;
+        }
+        place(element, position);
+        return position;
+    }
+
+    /** Moves an element away from the head, until it is not greater than its children. */
+    private void siftDown(int position) {
+        T element = heap.get(position);
+        int size = heap.size();
+        while (true) {
+            int child = (2 * position) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && comparator.compare(heap.get(child + 1), heap.get(child)) < 0) {
+                child++;
+            }
+            T childElement = heap.get(child);
+            if (comparator.compare(childElement, element) >= 0) {
+                break;
+            }
+            place(childElement, position);
+            position = child;
+        }
+        place(element, position);
+    }
+
+    /** Places an element at a position in the heap, and records the position. */
+    private void place(T element, int position) {
+        heap.set(position, element);
+        positions.put(element, position);
+    }
+}
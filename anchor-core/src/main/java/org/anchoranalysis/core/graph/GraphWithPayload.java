@@ -26,10 +26,13 @@ package org.anchoranalysis.core.graph;
  * #L%
  */
 
-import com.google.common.collect.HashBasedTable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -38,23 +41,69 @@ import org.anchoranalysis.core.exception.OperationFailedException;
 /**
  * A graph, either directed or undirected, with edges containing a payload of type {@code E}.
  *
+ * <p>Internally, each vertex is assigned a dense integer index, and each edge is stored exactly
+ * once in a compact list. Each vertex then records the edges it participates in as a growable
+ * array of integers, rather than as entries in a hash-table. Vertices and edges are both removed
+ * by moving the last element into the vacated position, so removal is cheap and the storage
+ * remains densely packed.
+ *
  * @author Owen Feehan
  * @param <V> vertex-type
  * @param <P> edge payload-type
  */
 public class GraphWithPayload<V, P> {
 
-    /** The vertices in the graph. */
-    private HashSet<V> vertices;
+    /** Initial capacity of the array of edge references for each vertex. */
+    private static final int INITIAL_ADJACENCY_CAPACITY = 4;
+
+    /** The side of an edge referring to the vertex it joins <i>from</i>. */
+    private static final int SIDE_FROM = 0;
+
+    /** The side of an edge referring to the vertex it joins <i>to</i>. */
+    private static final int SIDE_TO = 1;
+
+    /** If true, it's an undirected graph, otherwise directed graph. */
+    private final boolean undirected;
+
+    /** Maps each vertex to its index. */
+    private HashMap<V, Integer> vertexIndices;
+
+    /** The vertex at each index. */
+    private ArrayList<V> vertexAtIndex;
 
     /**
-     * A table for storing the edges in a given direction. Rows index outgoing edges. Columns index
-     * incoming edges.
+     * For each vertex-index, references to the edges that are outgoing from the vertex (and for an
+     * undirected graph, all edges connected to the vertex).
+     *
+     * <p>Each reference is encoded as {@code (edgeIndex * 2) + side}, where {@code side} indicates
+     * which end of the edge is attached to the vertex.
      */
-    private HashBasedTable<V, V, TypedEdge<V, P>> edges;
+    private int[][] outgoing;
 
-    /** If true, it's an undirected graph, otherwise directed graph. */
-    private boolean undirected = true;
+    /** How many references are used in each array in {@code outgoing}. */
+    private int[] outgoingSize;
+
+    /**
+     * For each vertex-index, references to the edges that are incoming to the vertex, encoded as
+     * for {@code outgoing}. Unused for an undirected graph.
+     */
+    private int[][] incoming;
+
+    /** How many references are used in each array in {@code incoming}. */
+    private int[] incomingSize;
+
+    /** All edges in the graph, each edge occurring once only. */
+    private ArrayList<TypedEdge<V, P>> edges;
+
+    /** The index of the vertex at each side of each edge, indexed by an edge reference. */
+    private int[] edgeVertex;
+
+    /**
+     * The position in the relevant adjacency-array of each side of each edge, indexed by an edge
+     * reference, or -1 if this side is not stored (as occurs for the second side of a self-loop in
+     * an undirected graph).
+     */
+    private int[] edgePosition;
 
     /**
      * Creates the graph.
@@ -64,9 +113,16 @@ public class GraphWithPayload<V, P> {
      *     only).
      */
     public GraphWithPayload(boolean undirected) {
-        this.edges = HashBasedTable.create();
-        this.vertices = new HashSet<>();
         this.undirected = undirected;
+        this.vertexIndices = new HashMap<>();
+        this.vertexAtIndex = new ArrayList<>();
+        this.outgoing = new int[0][];
+        this.outgoingSize = new int[0];
+        this.incoming = new int[0][];
+        this.incomingSize = new int[0];
+        this.edges = new ArrayList<>();
+        this.edgeVertex = new int[0];
+        this.edgePosition = new int[0];
     }
 
     /**
@@ -76,21 +132,28 @@ public class GraphWithPayload<V, P> {
      * @return a newly created graph, with newly created vertices and edges, but reusing the
      *     data-objects of tyoe {@code V} and {@code E}.
      */
-    @SuppressWarnings("unchecked")
     public GraphWithPayload<V, P> shallowCopy() {
         GraphWithPayload<V, P> out = new GraphWithPayload<>(undirected);
-        out.vertices = (HashSet<V>) vertices.clone();
-        out.edges = HashBasedTable.create(edges);
+        out.vertexIndices = new HashMap<>(vertexIndices);
+        out.vertexAtIndex = new ArrayList<>(vertexAtIndex);
+        out.outgoing = deepCopy(outgoing, outgoingSize);
+        out.outgoingSize = outgoingSize.clone();
+        out.incoming = deepCopy(incoming, incomingSize);
+        out.incomingSize = incomingSize.clone();
+        out.edges = new ArrayList<>(edges);
+        out.edgeVertex = edgeVertex.clone();
+        out.edgePosition = edgePosition.clone();
         return out;
     }
 
     /**
      * The set of all vertices in the graph.
      *
-     * @return the set (as is used internally within the class, without any duplication).
+     * @return the set (as is used internally within the class, without any duplication), which
+     *     may not be modified.
      */
     public Set<V> vertices() {
-        return vertices;
+        return Collections.unmodifiableSet(vertexIndices.keySet());
     }
 
     /**
@@ -99,7 +162,7 @@ public class GraphWithPayload<V, P> {
      * @return the number of vertices
      */
     public int numberVertices() {
-        return vertices.size();
+        return vertexAtIndex.size();
     }
 
     /**
@@ -108,7 +171,7 @@ public class GraphWithPayload<V, P> {
      * @return the number of edges
      */
     public int numberEdges() {
-        return edgesUnique().size();
+        return edges.size();
     }
 
     /**
@@ -118,7 +181,7 @@ public class GraphWithPayload<V, P> {
      * @return true iff the graph contains the vertex
      */
     public boolean containsVertex(V vertex) {
-        return vertices.contains(vertex);
+        return vertexIndices.containsKey(vertex);
     }
 
     /**
@@ -129,16 +192,18 @@ public class GraphWithPayload<V, P> {
      * @return true iff an edge exists from {@code from} to {@code to}.
      */
     public boolean containsEdge(V from, V to) {
-        return edges.contains(from, to);
+        return findEdge(from, to) != -1;
     }
 
     /**
      * Adds a vertex.
      *
+     * <p>If the vertex already exists, nothing happens.
+     *
      * @param vertex the vertex to add
      */
     public void addVertex(V vertex) {
-        vertices.add(vertex);
+        indexForVertex(vertex);
     }
 
     /**
@@ -149,15 +214,28 @@ public class GraphWithPayload<V, P> {
      */
     public void removeVertex(V vertex) throws OperationFailedException {
 
-        if (!vertices.remove(vertex)) {
+        Integer index = vertexIndices.remove(vertex);
+        if (index == null) {
             throw new OperationFailedException(
                     String.format(
                             "A vertex cannot be removed, because it does not exist in the graph: %s",
                             vertex));
         }
 
-        edges.row(vertex).clear();
-        edges.column(vertex).clear();
+        while (outgoingSize[index] > 0) {
+            removeEdgeAt(outgoing[index][outgoingSize[index] - 1] >> 1);
+        }
+        while (incomingSize[index] > 0) {
+            removeEdgeAt(incoming[index][incomingSize[index] - 1] >> 1);
+        }
+
+        int last = vertexAtIndex.size() - 1;
+        if (index != last) {
+            moveVertex(last, index);
+        }
+        vertexAtIndex.remove(last);
+        outgoing[last] = null;
+        incoming[last] = null;
     }
 
     /**
@@ -166,15 +244,29 @@ public class GraphWithPayload<V, P> {
      * <p>For an undirected graph, the directionality is irrelevant, and will achieve the same
      * effect, whatever the order of {@code from} and {@code to}.
      *
+     * <p>Any existing edge between the two vertices is replaced. Either vertex is added to the
+     * graph, if it does not already exist.
+     *
      * @param from the vertex the edge joins <i>from</i>.
      * @param to the vertex the edge joins <i>to</i>.
      * @param edgePayload the payload for the edge.
      */
     public void addEdge(V from, V to, P edgePayload) {
-        TypedEdge<V, P> edgeWithVertices = new TypedEdge<>(edgePayload, from, to);
-        edges.put(from, to, edgeWithVertices);
-        if (undirected) {
-            edges.put(to, from, edgeWithVertices);
+        removeEdge(from, to);
+
+        int fromIndex = indexForVertex(from);
+        int toIndex = indexForVertex(to);
+
+        int edgeIndex = edges.size();
+        edges.add(new TypedEdge<>(edgePayload, from, to));
+        ensureEdgeCapacity(edges.size());
+
+        attach(edgeIndex, SIDE_FROM, fromIndex, false);
+        if (undirected && fromIndex == toIndex) {
+            edgeVertex[reference(edgeIndex, SIDE_TO)] = toIndex;
+            edgePosition[reference(edgeIndex, SIDE_TO)] = -1;
+        } else {
+            attach(edgeIndex, SIDE_TO, toIndex, !undirected);
         }
     }
 
@@ -188,34 +280,46 @@ public class GraphWithPayload<V, P> {
      * @param to the vertex the edge joins <i>to</i>.
      */
     public void removeEdge(V from, V to) {
-        edges.remove(from, to);
-        if (undirected) {
-            edges.remove(to, from);
+        int edgeIndex = findEdge(from, to);
+        if (edgeIndex != -1) {
+            removeEdgeAt(edgeIndex);
         }
     }
 
     /**
      * The edges in the graph, all of them, without any duplicates.
      *
-     * <p>This operation is more expensive than {@link #edgesMaybeDuplicates()} but guarantees that
-     * no edge is repeated.
-     *
      * @return a newly created set containing the edges of the graph.
      */
     public Set<TypedEdge<V, P>> edgesUnique() {
-        return edgesMaybeDuplicates().stream().collect(Collectors.toSet());
+        return edges.stream().collect(Collectors.toSet());
     }
 
     /**
-     * The edges in the graph, all of them, but with some edges possibly duplicated.
+     * The edges in the graph, all of them.
      *
-     * <p>This operation is more cheaper than {@link #edgesUnique()} but edges may exist twice.
+     * <p>As each edge is stored only once internally, no edge is in fact duplicated, but this
+     * operation remains cheaper than {@link #edgesUnique()} as no set is created.
      *
-     * @return the collection (as exists internally) of edges in the graph, with some edges may
-     *     exist twice.
+     * @return the collection (as exists internally) of edges in the graph, which may not be
+     *     modified.
      */
     public Collection<TypedEdge<V, P>> edgesMaybeDuplicates() {
-        return edges.values();
+        return Collections.unmodifiableList(edges);
+    }
+
+    /**
+     * The edge at a particular index, with indices ranging from 0 (inclusive) to {@link
+     * #numberEdges()} (exclusive).
+     *
+     * <p>This allows an edge to be uniformly sampled in constant time. Note that the index of an
+     * edge may change, whenever any edge or vertex is removed from the graph.
+     *
+     * @param index the index of the edge.
+     * @return the edge at that index.
+     */
+    public TypedEdge<V, P> edgeAt(int index) {
+        return edges.get(index);
     }
 
     /**
@@ -245,11 +349,19 @@ public class GraphWithPayload<V, P> {
      * All outgoing edges for a given vertex.
      *
      * @param vertex the vertex
-     * @return a collection (based on an internal data structure, unduplicated) of outgoing edges
-     *     for the vertex.
+     * @return a newly created collection (unduplicated) of outgoing edges for the vertex, which is
+     *     empty if the vertex does not exist.
      */
     public Collection<TypedEdge<V, P>> outgoingEdgesFor(V vertex) {
-        return edges.row(vertex).values();
+        Integer index = vertexIndices.get(vertex);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<TypedEdge<V, P>> out = new ArrayList<>(outgoingSize[index]);
+        for (int i = 0; i < outgoingSize[index]; i++) {
+            out.add(edges.get(outgoing[index][i] >> 1));
+        }
+        return out;
     }
 
     @Override
@@ -269,7 +381,7 @@ public class GraphWithPayload<V, P> {
         builder.append("<graph>");
         builder.append(System.lineSeparator());
 
-        for (V vertex : vertices) {
+        for (V vertex : vertices()) {
 
             builder.append("Vertex: ");
             builder.append(vertex);
@@ -300,4 +412,179 @@ public class GraphWithPayload<V, P> {
             builder.append(edgeWith.describeTo(includePayload));
         }
     }
+
+    /** The index of a vertex, adding the vertex to the graph if it doesn't already exist. */
+    private int indexForVertex(V vertex) {
+        Integer existing = vertexIndices.get(vertex);
+        if (existing != null) {
+            return existing;
+        }
+
+        int index = vertexAtIndex.size();
+        vertexIndices.put(vertex, index);
+        vertexAtIndex.add(vertex);
+
+        if (index == outgoing.length) {
+            int capacity = Math.max(INITIAL_ADJACENCY_CAPACITY, index * 2);
+            outgoing = Arrays.copyOf(outgoing, capacity);
+            outgoingSize = Arrays.copyOf(outgoingSize, capacity);
+            incoming = Arrays.copyOf(incoming, capacity);
+            incomingSize = Arrays.copyOf(incomingSize, capacity);
+        }
+        outgoing[index] = new int[INITIAL_ADJACENCY_CAPACITY];
+        outgoingSize[index] = 0;
+        incoming[index] = undirected ? null : new int[INITIAL_ADJACENCY_CAPACITY];
+        incomingSize[index] = 0;
+        return index;
+    }
+
+    /**
+     * The index of the edge from {@code from} to {@code to}, or -1 if no such edge exists.
+     *
+     * <p>This searches the outgoing edges of {@code from}, so its cost is proportional to the
+     * degree of the vertex.
+     */
+    private int findEdge(V from, V to) {
+        Integer fromIndex = vertexIndices.get(from);
+        Integer toIndex = vertexIndices.get(to);
+        if (fromIndex == null || toIndex == null) {
+            return -1;
+        }
+
+        int[] references = outgoing[fromIndex];
+        for (int i = 0; i < outgoingSize[fromIndex]; i++) {
+            int reference = references[i];
+            // The vertex at the opposite side of the edge
+            if (edgeVertex[reference ^ 1] == toIndex) {
+                return reference >> 1;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes the edge at a particular index, moving the last edge into its position. */
+    private void removeEdgeAt(int edgeIndex) {
+        detach(reference(edgeIndex, SIDE_FROM), false);
+        detach(reference(edgeIndex, SIDE_TO), !undirected);
+
+        int last = edges.size() - 1;
+        if (edgeIndex != last) {
+            edges.set(edgeIndex, edges.get(last));
+            moveEdgeSide(last, edgeIndex, SIDE_FROM, false);
+            moveEdgeSide(last, edgeIndex, SIDE_TO, !undirected);
+        }
+        edges.remove(last);
+    }
+
+    /** Moves one side of an edge from index {@code source} to index {@code destination}. */
+    private void moveEdgeSide(int source, int destination, int side, boolean sideIncoming) {
+        int sourceReference = reference(source, side);
+        int destinationReference = reference(destination, side);
+
+        int vertexIndex = edgeVertex[sourceReference];
+        int position = edgePosition[sourceReference];
+        edgeVertex[destinationReference] = vertexIndex;
+        edgePosition[destinationReference] = position;
+        if (position != -1) {
+            adjacency(vertexIndex, sideIncoming)[position] = destinationReference;
+        }
+    }
+
+    /** Records one side of an edge in the adjacency-array of a vertex. */
+    private void attach(int edgeIndex, int side, int vertexIndex, boolean sideIncoming) {
+        int[] sizes = sideIncoming ? incomingSize : outgoingSize;
+        int[][] arrays = sideIncoming ? incoming : outgoing;
+
+        int position = sizes[vertexIndex]++;
+        if (position == arrays[vertexIndex].length) {
+            arrays[vertexIndex] = Arrays.copyOf(arrays[vertexIndex], position * 2);
+        }
+
+        int reference = reference(edgeIndex, side);
+        arrays[vertexIndex][position] = reference;
+        edgeVertex[reference] = vertexIndex;
+        edgePosition[reference] = position;
+    }
+
+    /**
+     * Removes one side of an edge from the adjacency-array of a vertex, moving the last reference
+     * in the array into its position.
+     */
+    private void detach(int reference, boolean sideIncoming) {
+        int position = edgePosition[reference];
+        if (position == -1) {
+            return;
+        }
+
+        int vertexIndex = edgeVertex[reference];
+        int[] sizes = sideIncoming ? incomingSize : outgoingSize;
+        int[] array = adjacency(vertexIndex, sideIncoming);
+
+        int last = --sizes[vertexIndex];
+        if (position != last) {
+            int moved = array[last];
+            array[position] = moved;
+            edgePosition[moved] = position;
+        }
+    }
+
+    /** Moves a vertex from index {@code source} to index {@code destination}. */
+    private void moveVertex(int source, int destination) {
+        V vertex = vertexAtIndex.get(source);
+        vertexAtIndex.set(destination, vertex);
+        vertexIndices.put(vertex, destination);
+
+        outgoing[destination] = outgoing[source];
+        outgoingSize[destination] = outgoingSize[source];
+        incoming[destination] = incoming[source];
+        incomingSize[destination] = incomingSize[source];
+
+        for (int i = 0; i < outgoingSize[destination]; i++) {
+            edgeVertex[outgoing[destination][i]] = destination;
+        }
+        for (int i = 0; i < incomingSize[destination]; i++) {
+            edgeVertex[incoming[destination][i]] = destination;
+        }
+
+        // The unstored side of any self-loop in an undirected graph must also be updated
+        if (undirected) {
+            for (int i = 0; i < outgoingSize[destination]; i++) {
+                int opposite = outgoing[destination][i] ^ 1;
+                if (edgePosition[opposite] == -1) {
+                    edgeVertex[opposite] = destination;
+                }
+            }
+        }
+    }
+
+    /** The array of edge-references for a vertex, either incoming or outgoing. */
+    private int[] adjacency(int vertexIndex, boolean sideIncoming) {
+        return sideIncoming ? incoming[vertexIndex] : outgoing[vertexIndex];
+    }
+
+    /** Ensures the per-edge arrays can accommodate at least a certain number of edges. */
+    private void ensureEdgeCapacity(int numberEdges) {
+        int required = numberEdges * 2;
+        if (required > edgeVertex.length) {
+            int capacity = Math.max(required, edgeVertex.length * 2);
+            edgeVertex = Arrays.copyOf(edgeVertex, capacity);
+            edgePosition = Arrays.copyOf(edgePosition, capacity);
+        }
+    }
+
+    /** Copies the used part of each array. */
+    private static int[][] deepCopy(int[][] arrays, int[] sizes) {
+        int[][] out = new int[arrays.length][];
+        for (int i = 0; i < arrays.length; i++) {
+            if (arrays[i] != null) {
+                out[i] = Arrays.copyOf(arrays[i], Math.max(sizes[i], INITIAL_ADJACENCY_CAPACITY));
+            }
+        }
+        return out;
+    }
+
+    /** Encodes a reference to one side of an edge. */
+    private static int reference(int edgeIndex, int side) {
+        return (edgeIndex << 1) | side;
+    }
 }
@@ -191,8 +191,8 @@ public class GraphWithoutPayload<V> {
 
         addVertex(merged);
 
-        addEdges(merged, adjacentSource);
-        addEdges(merged, adjacentOverlapping);
+        addEdgesExcept(merged, adjacentSource, element1, element2);
+        addEdgesExcept(merged, adjacentOverlapping, element1, element2);
     }
 
     /**
@@ -230,4 +230,16 @@ public class GraphWithoutPayload<V> {
     public String describe() {
         return delegate.describe(false);
     }
+
+    /**
+     * Adds edges to {@code from} from each vertex in {@code toCollection}, apart from {@code
+     * exclude1} and {@code exclude2}, which are no longer in the graph.
+     */
+    private void addEdgesExcept(V from, Collection<V> toCollection, V exclude1, V exclude2) {
+        for (V other : toCollection) {
+            if (!other.equals(exclude1) && !other.equals(exclude2)) {
+                addEdge(from, other);
+            }
+        }
+    }
 }
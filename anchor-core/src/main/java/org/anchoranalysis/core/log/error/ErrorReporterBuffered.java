@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * anchor-core
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.core.log.error;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Records errors and warnings into a buffer, so they can later be reported to another {@link
+ * ErrorReporter}.
+ *
+ * <p>This allows each of several threads to record errors into its own instance, with the errors
+ * later transferred (in a deterministic order) to an {@link ErrorReporter} that need not be
+ * thread-safe.
+ *
+ * @author Owen Feehan
+ */
+public class ErrorReporterBuffered implements ErrorReporter {
+
+    /** Each recorded error or warning, as an operation to perform on another reporter. */
+    private final List<Consumer<ErrorReporter>> buffer = new ArrayList<>();
+
+    /** Whether at least one warning has been recorded. */
+    private boolean warningOccurred = false;
+
+    @Override
+    public void recordError(Class<?> classOriginating, String message, Throwable exc) {
+        buffer.add(reporter -> reporter.recordError(classOriginating, message, exc));
+    }
+
+    @Override
+    public void recordError(Class<?> classOriginating, Throwable exc) {
+        buffer.add(reporter -> reporter.recordError(classOriginating, exc));
+    }
+
+    @Override
+    public void recordError(Class<?> classOriginating, String message) {
+        buffer.add(reporter -> reporter.recordError(classOriginating, message));
+    }
+
+    @Override
+    public void recordWarning(String message) {
+        warningOccurred = true;
+        buffer.add(reporter -> reporter.recordWarning(message));
+    }
+
+    @Override
+    public boolean hasWarningOccurred() {
+        return warningOccurred;
+    }
+
+    /**
+     * Reports all buffered errors and warnings to another {@link ErrorReporter}, in the order they
+     * were recorded, and then empties the buffer.
+     *
+     * @param reporter the reporter to report to.
+     */
+    public void transferTo(ErrorReporter reporter) {
+        buffer.forEach(operation -> operation.accept(reporter));
+        buffer.clear();
+    }
+}
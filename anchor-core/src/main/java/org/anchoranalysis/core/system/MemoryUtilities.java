@@ -31,7 +31,7 @@ import lombok.NoArgsConstructor;
 import org.anchoranalysis.core.log.MessageLogger;
 
 /**
- * Logs a message about approximate memory (RAM) usage of the JVM.
+ * Measures, and logs messages about, approximate memory (RAM) usage of the JVM.
  *
  * @author Owen Feehan
  */
@@ -46,13 +46,38 @@ public class MemoryUtilities {
      * @param logger the logger to record the message onto
      */
     public static void logMemoryUsage(String identifier, MessageLogger logger) {
-        Runtime runtime = java.lang.Runtime.getRuntime();
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long memory = totalMemory - freeMemory;
-
+        long totalMemory = Runtime.getRuntime().totalMemory();
         logger.logFormatted(
                 "Total used memory (%s): %d MB (out of %d MB)",
-                identifier, memory / 1000000, totalMemory / 1000000);
+                identifier, toMegabytes(usedMemory()), toMegabytes(totalMemory));
+    }
+
+    /**
+     * The memory currently used by the JVM.
+     *
+     * @return the number of bytes currently used on the heap.
+     */
+    public static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The maximum memory the JVM will attempt to use.
+     *
+     * @return the maximum number of bytes that the heap may grow to.
+     */
+    public static long maxMemory() {
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * Converts a number of bytes to megabytes.
+     *
+     * @param bytes the number of bytes.
+     * @return the number of megabytes (using 1000000 bytes per megabyte), rounded down.
+     */
+    public static long toMegabytes(long bytes) {
+        return bytes / 1000000;
     }
 }
@@ -26,6 +26,7 @@
 
 package org.anchoranalysis.core.cache;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -59,4 +60,28 @@ class LRUCacheTest {
                 cache.has(KEY2), "KEY2 remains after fourth added after being most recently used");
         assertFalse(cache.has(KEY1), "KEY1 is removed as being least recently used");
     }
+
+    /** Limits the cache by the total length of the values, and checks the statistics. */
+    @Test
+    void testWeightedEviction() throws GetOperationFailedException {
+
+        LRUCache<String, String> cache =
+                new LRUCache<>(
+                        CacheLimits.weight(11, String::length), // Total characters in cache
+                        string -> string.toUpperCase());
+
+        cache.get(KEY1);
+        cache.get(KEY2);
+        cache.get(KEY1);
+        cache.get(KEY3);
+
+        assertTrue(cache.has(KEY1), "KEY1 remains after being recently used");
+        assertFalse(cache.has(KEY2), "KEY2 is removed as being least recently used");
+
+        // Calling has() should not affect the statistics
+        CacheStatistics statistics = cache.statistics();
+        assertEquals(1, statistics.getHitCount(), "hits");
+        assertEquals(3, statistics.getMissCount(), "misses");
+        assertEquals(1, statistics.getEvictionCount(), "evictions");
+    }
 }
@@ -0,0 +1,178 @@
+/*-
+ * #%L
+ * anchor-core
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.core.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link IndexedPriorityQueue}.
+ *
+ * @author Owen Feehan
+ */
+class IndexedPriorityQueueTest {
+
+    /** The number of elements initially in the queue. */
+    private static final int NUMBER_ELEMENTS = 500;
+
+    /** The number of elements removed, or updated, from the queue. */
+    private static final int NUMBER_CHANGED = 200;
+
+    private static final long SEED = 42;
+
+    /** An element with a mutable priority, whose equality is by identity. */
+    private static class Element {
+        private int priority;
+
+        public Element(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    /** Elements are polled in order of priority. */
+    @Test
+    void testPoll() {
+        Random random = new Random(SEED);
+        List<Element> elements = randomElements(random);
+        IndexedPriorityQueue<Element> queue = createQueue(elements);
+        assertEquals(NUMBER_ELEMENTS, queue.size());
+        assertPolledInOrder(queue, elements);
+    }
+
+    /** Elements are polled in order of priority, after elements are added and removed. */
+    @Test
+    void testRemove() {
+        Random random = new Random(SEED);
+        List<Element> elements = randomElements(random);
+        IndexedPriorityQueue<Element> queue = createQueue(elements);
+
+        for (int i = 0; i < NUMBER_CHANGED; i++) {
+            Element removed = elements.remove(random.nextInt(elements.size()));
+            assertTrue(queue.remove(removed));
+            assertFalse(queue.contains(removed));
+            assertFalse(queue.remove(removed));
+
+            Element added = new Element(random.nextInt(NUMBER_ELEMENTS));
+            elements.add(added);
+            queue.add(added);
+            assertTrue(queue.contains(added));
+        }
+
+        assertPolledInOrder(queue, elements);
+    }
+
+    /** Elements are polled in order of priority, after priorities both increase and decrease. */
+    @Test
+    void testUpdate() {
+        Random random = new Random(SEED);
+        List<Element> elements = randomElements(random);
+        IndexedPriorityQueue<Element> queue = createQueue(elements);
+
+        for (int i = 0; i < NUMBER_CHANGED; i++) {
+            Element element = elements.get(random.nextInt(elements.size()));
+            element.priority = random.nextInt(NUMBER_ELEMENTS);
+            queue.update(element);
+        }
+
+        assertPolledInOrder(queue, elements);
+    }
+
+    /** Updating an element that does not exist is an error. */
+    @Test
+    void testUpdateMissing() {
+        IndexedPriorityQueue<Element> queue = createQueue(new ArrayList<>());
+        Element element = new Element(1);
+        assertThrows(NoSuchElementException.class, () -> queue.update(element));
+    }
+
+    /** Adding the same element twice is an error, but adding a distinct element is not. */
+    @Test
+    void testDuplicate() {
+        Element element = new Element(1);
+        Element samePriority = new Element(1);
+
+        IndexedPriorityQueue<Element> queue = createQueue(new ArrayList<>(Arrays.asList(element)));
+        queue.add(samePriority);
+        assertEquals(2, queue.size());
+        assertThrows(IllegalArgumentException.class, () -> queue.add(element));
+        assertEquals(2, queue.size());
+
+        List<Element> duplicated = Arrays.asList(element, samePriority, element);
+        assertThrows(IllegalArgumentException.class, () -> createQueue(duplicated));
+    }
+
+    /** Polling or peeking an empty queue returns null. */
+    @Test
+    void testEmpty() {
+        IndexedPriorityQueue<Integer> queue = IndexedPriorityQueue.naturalOrder(Arrays.asList(3));
+        assertEquals(3, (int) queue.poll());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+        assertNull(queue.poll());
+    }
+
+    private static IndexedPriorityQueue<Element> createQueue(List<Element> elements) {
+        return new IndexedPriorityQueue<>(elements, Comparator.comparingInt(e -> e.priority));
+    }
+
+    /** Elements with random priorities, where several elements may share the same priority. */
+    private static List<Element> randomElements(Random random) {
+        List<Element> out = new ArrayList<>();
+        for (int i = 0; i < NUMBER_ELEMENTS; i++) {
+            out.add(new Element(random.nextInt(NUMBER_ELEMENTS / 2)));
+        }
+        return out;
+    }
+
+    /** Asserts that polling the queue produces exactly {@code expected}, in order of priority. */
+    private static void assertPolledInOrder(
+            IndexedPriorityQueue<Element> queue, List<Element> expected) {
+        assertEquals(expected.size(), queue.size());
+        int previous = Integer.MIN_VALUE;
+        List<Element> polled = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            Element head = queue.peek();
+            assertEquals(head, queue.poll());
+            assertTrue(head.priority >= previous);
+            previous = head.priority;
+            polled.add(head);
+        }
+        assertEquals(expected.size(), polled.size());
+        assertTrue(polled.containsAll(expected));
+    }
+}
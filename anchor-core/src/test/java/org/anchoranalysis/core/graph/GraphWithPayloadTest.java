@@ -0,0 +1,233 @@
+/*-
+ * #%L
+ * anchor-core
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.core.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link GraphWithPayload}.
+ *
+ * @author Owen Feehan
+ */
+class GraphWithPayloadTest {
+
+    private static final String VERTEX_A = "a";
+    private static final String VERTEX_B = "b";
+    private static final String VERTEX_C = "c";
+    private static final String VERTEX_D = "d";
+
+    /** Edges are added to an undirected graph, with vertices added implicitly. */
+    @Test
+    void testAddEdgeUndirected() {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(true);
+        graph.addEdge(VERTEX_A, VERTEX_B, 1);
+
+        assertEquals(2, graph.numberVertices(), "vertices");
+        assertEquals(1, graph.numberEdges(), "edges");
+        assertEquals(1, graph.edgesMaybeDuplicates().size(), "edges with maybe duplicates");
+        assertTrue(graph.containsEdge(VERTEX_A, VERTEX_B), "edge in added direction");
+        assertTrue(graph.containsEdge(VERTEX_B, VERTEX_A), "edge in reverse direction");
+        assertAdjacent(graph, VERTEX_A, VERTEX_B);
+        assertAdjacent(graph, VERTEX_B, VERTEX_A);
+
+        // Adding the edge in the reverse direction replaces the existing edge
+        graph.addEdge(VERTEX_B, VERTEX_A, 2);
+        assertEquals(1, graph.numberEdges(), "edges after replacement");
+        assertEquals(2, graph.edgeAt(0).getPayload().intValue(), "payload after replacement");
+    }
+
+    /**
+     * Removes a vertex that is not the most recently added, so another vertex must be moved into
+     * its position.
+     */
+    @Test
+    void testRemoveVertex() throws OperationFailedException {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(true);
+        graph.addEdge(VERTEX_A, VERTEX_B, 1);
+        graph.addEdge(VERTEX_B, VERTEX_C, 2);
+        graph.addEdge(VERTEX_A, VERTEX_C, 3);
+        graph.addEdge(VERTEX_C, VERTEX_D, 4);
+
+        graph.removeVertex(VERTEX_A);
+
+        assertEquals(3, graph.numberVertices(), "vertices");
+        assertEquals(2, graph.numberEdges(), "edges");
+        assertFalse(graph.containsVertex(VERTEX_A), "removed vertex");
+        assertFalse(graph.containsEdge(VERTEX_B, VERTEX_A), "edge to removed vertex");
+        assertAdjacent(graph, VERTEX_B, VERTEX_C);
+        assertAdjacent(graph, VERTEX_C, VERTEX_B, VERTEX_D);
+        assertAdjacent(graph, VERTEX_D, VERTEX_C);
+
+        // The moved vertex remains fully connected
+        graph.removeEdge(VERTEX_D, VERTEX_C);
+        assertEquals(1, graph.numberEdges(), "edges after removing from moved vertex");
+        assertAdjacent(graph, VERTEX_D);
+
+        assertThrows(OperationFailedException.class, () -> graph.removeVertex(VERTEX_A));
+    }
+
+    /** Removes edges, including one that does not exist. */
+    @Test
+    void testRemoveEdge() {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(true);
+        graph.addEdge(VERTEX_A, VERTEX_B, 1);
+        graph.addEdge(VERTEX_B, VERTEX_C, 2);
+        graph.addEdge(VERTEX_C, VERTEX_D, 3);
+
+        graph.removeEdge(VERTEX_B, VERTEX_A);
+        graph.removeEdge(VERTEX_A, VERTEX_D);
+
+        assertEquals(4, graph.numberVertices(), "vertices are retained");
+        assertEquals(2, graph.numberEdges(), "edges");
+        assertFalse(graph.containsEdge(VERTEX_A, VERTEX_B), "removed edge");
+        assertEquals(
+                Arrays.asList(2, 3), payloads(graph), "payloads after the last edge is moved");
+        assertAdjacent(graph, VERTEX_A);
+        assertAdjacent(graph, VERTEX_B, VERTEX_C);
+        assertAdjacent(graph, VERTEX_C, VERTEX_B, VERTEX_D);
+    }
+
+    /** A self-loop in an undirected graph, whose vertex is moved when another is removed. */
+    @Test
+    void testSelfLoopUndirected() throws OperationFailedException {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(true);
+        graph.addVertex(VERTEX_D);
+        graph.addEdge(VERTEX_A, VERTEX_A, 1);
+        graph.addEdge(VERTEX_A, VERTEX_B, 2);
+
+        assertEquals(2, graph.numberEdges(), "edges");
+        assertTrue(graph.containsEdge(VERTEX_A, VERTEX_A), "self-loop");
+        assertAdjacent(graph, VERTEX_A, VERTEX_A, VERTEX_B);
+
+        // Moves vertex b, and then vertex a, into a different position
+        graph.removeVertex(VERTEX_D);
+        graph.removeVertex(VERTEX_B);
+        assertEquals(1, graph.numberEdges(), "edges after removing vertices");
+        assertAdjacent(graph, VERTEX_A, VERTEX_A);
+
+        graph.removeEdge(VERTEX_A, VERTEX_A);
+        assertEquals(0, graph.numberEdges(), "edges after removing self-loop");
+        assertAdjacent(graph, VERTEX_A);
+    }
+
+    /** Edges in a directed graph apply only in one direction. */
+    @Test
+    void testDirected() throws OperationFailedException {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(false);
+        graph.addEdge(VERTEX_A, VERTEX_B, 1);
+        graph.addEdge(VERTEX_C, VERTEX_B, 2);
+        graph.addEdge(VERTEX_B, VERTEX_B, 3);
+
+        assertTrue(graph.containsEdge(VERTEX_A, VERTEX_B), "edge in added direction");
+        assertFalse(graph.containsEdge(VERTEX_B, VERTEX_A), "edge in reverse direction");
+        assertAdjacent(graph, VERTEX_A, VERTEX_B);
+        assertAdjacent(graph, VERTEX_B, VERTEX_B);
+
+        // An edge in the reverse direction is separate
+        graph.addEdge(VERTEX_B, VERTEX_A, 4);
+        assertEquals(4, graph.numberEdges(), "edges");
+        assertAdjacent(graph, VERTEX_B, VERTEX_A, VERTEX_B);
+
+        // Removes both the incoming and outgoing edges of the vertex
+        graph.removeVertex(VERTEX_B);
+        assertEquals(0, graph.numberEdges(), "edges after removing vertex");
+        assertAdjacent(graph, VERTEX_A);
+        assertAdjacent(graph, VERTEX_C);
+
+        graph.addEdge(VERTEX_C, VERTEX_A, 5);
+        assertTrue(graph.containsEdge(VERTEX_C, VERTEX_A), "edge between moved vertices");
+        assertFalse(graph.containsEdge(VERTEX_A, VERTEX_C), "reverse edge between moved vertices");
+    }
+
+    /** Changes to a shallow copy do not affect the original, and vice versa. */
+    @Test
+    void testShallowCopyIndependent() throws OperationFailedException {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(true);
+        graph.addEdge(VERTEX_A, VERTEX_B, 1);
+        graph.addEdge(VERTEX_B, VERTEX_C, 2);
+
+        GraphWithPayload<String, Integer> copy = graph.shallowCopy();
+        copy.removeVertex(VERTEX_B);
+        copy.addEdge(VERTEX_A, VERTEX_D, 3);
+        copy.addEdge(VERTEX_A, VERTEX_C, 4);
+
+        assertEquals(3, graph.numberVertices(), "vertices in original");
+        assertEquals(Arrays.asList(1, 2), payloads(graph), "payloads in original");
+        assertAdjacent(graph, VERTEX_A, VERTEX_B);
+        assertAdjacent(graph, VERTEX_B, VERTEX_A, VERTEX_C);
+
+        graph.removeEdge(VERTEX_A, VERTEX_B);
+        assertEquals(Arrays.asList(3, 4), payloads(copy), "payloads in copy");
+        assertAdjacent(copy, VERTEX_A, VERTEX_C, VERTEX_D);
+        assertAdjacent(copy, VERTEX_C, VERTEX_A);
+    }
+
+    /** Changes to the incoming edges of a shallow copy of a directed graph. */
+    @Test
+    void testShallowCopyIndependentDirected() throws OperationFailedException {
+        GraphWithPayload<String, Integer> graph = new GraphWithPayload<>(false);
+        graph.addEdge(VERTEX_A, VERTEX_C, 1);
+        graph.addEdge(VERTEX_B, VERTEX_C, 2);
+
+        GraphWithPayload<String, Integer> copy = graph.shallowCopy();
+        // The last edge is moved into the position of the removed edge
+        copy.addEdge(VERTEX_D, VERTEX_B, 3);
+        copy.removeEdge(VERTEX_A, VERTEX_C);
+
+        graph.removeVertex(VERTEX_C);
+        assertEquals(0, graph.numberEdges(), "edges in original");
+
+        assertEquals(Arrays.asList(2, 3), payloads(copy), "payloads in copy");
+        copy.removeVertex(VERTEX_C);
+        assertEquals(Arrays.asList(3), payloads(copy), "payloads in copy after removal");
+    }
+
+    /** Asserts the vertices adjacent to {@code vertex} are exactly {@code expected}. */
+    private static void assertAdjacent(
+            GraphWithPayload<String, Integer> graph, String vertex, String... expected) {
+        List<String> adjacent = graph.adjacentVerticesOutgoing(vertex);
+        adjacent.sort(String::compareTo);
+        assertEquals(Arrays.asList(expected), adjacent, "vertices adjacent to " + vertex);
+    }
+
+    /** The payloads of all edges, in ascending order. */
+    private static List<Integer> payloads(GraphWithPayload<String, Integer> graph) {
+        return graph.edgesMaybeDuplicates().stream()
+                .map(TypedEdge::getPayload)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -55,6 +55,7 @@ import org.anchoranalysis.experiment.task.TaskStatistics;
 import org.anchoranalysis.io.input.InputFromManager;
 import org.anchoranalysis.io.input.InputReadFailedException;
 import org.anchoranalysis.io.input.InputsWithDirectory;
+import org.anchoranalysis.io.input.StreamedInputs;
 import org.anchoranalysis.io.input.bean.InputManager;
 import org.anchoranalysis.io.input.bean.InputManagerParameters;
 import org.anchoranalysis.io.input.file.NamedFile;
@@ -95,6 +96,9 @@ public class InputOutputExperiment<T extends InputFromManager, S> extends Output
 
     private static final Divider DIVIDER = new Divider();
 
+    /** The maximum number of streamed inputs that may be found, but not yet submitted as jobs. */
+    private static final int STREAMED_INPUTS_CAPACITY = 1024;
+
     // START BEAN PROPERTIES
     /** The input-manager to specify where/which/how necessary inputs for the experiment occur. */
     @BeanField @Getter @Setter private InputManager<T> input;
@@ -119,6 +123,16 @@ public class InputOutputExperiment<T extends InputFromManager, S> extends Output
      * early.
      */
     @BeanField @Getter @Setter private String messageNoInputs = "No inputs exist. Nothing to do.";
+
+    /**
+     * When true, jobs may begin executing while the search for inputs continues, rather than only
+     * after all inputs have been found.
+     *
+     * <p>This only has an effect if the task processor permits it, via {@link
+     * JobProcessor#canStreamInputs()}, and if non-input files are not copied. The total number of
+     * inputs is then not described in the log, and the inputs are executed in no particular order.
+     */
+    @BeanField @Getter @Setter private boolean streamInputs = false;
     // END BEAN PROPERTIES
 
     @Override
@@ -164,6 +178,12 @@ public class InputOutputExperiment<T extends InputFromManager, S> extends Output
                 parameters.getLoggerExperiment().log(DIVIDER.withLabel("Inputs"));
             }
 
+            if (streamInputs
+                    && taskProcessor.canStreamInputs()
+                    && !parameters.getExecutionArguments().input().isCopyNonInputs()) {
+                return executeExperimentStreaming(parametersInput, parameters);
+            }
+
             InputsWithDirectory<T> inputs =
                     parameters
                             .getExecutionTimeRecorder()
@@ -193,6 +213,40 @@ public class InputOutputExperiment<T extends InputFromManager, S> extends Output
         return taskDefaultOutputs;
     }
 
+    @Override
+    protected boolean reuseExistingOutputDirectory() {
+        // The outputs of jobs completed in an earlier execution must be retained, if they are
+        // to be skipped
+        return taskProcessor.isIncremental();
+    }
+
+    @Override
+    protected Optional<String> shardIdentifier() {
+        return taskProcessor.shardIdentifier();
+    }
+
+    /** Executes jobs as inputs are found, while the search for inputs continues. */
+    private Optional<TaskStatistics> executeExperimentStreaming(
+            InputManagerParameters parametersInput, ParametersExperiment parameters)
+            throws InputReadFailedException, ExperimentExecutionException {
+        try (StreamedInputs<T> inputs =
+                new StreamedInputs<>(getInput(), parametersInput, STREAMED_INPUTS_CAPACITY)) {
+            if (inputs.hasNext()) {
+                parameters.setLoggerTaskCreator(logTask);
+                return Optional.of(
+                        taskProcessor.executeLogStatistics(
+                                parameters.getOutputter(), inputs, parameters));
+            } else {
+                parameters.getLoggerExperiment().log(messageNoInputs);
+                parameters.getLoggerExperiment().logEmptyLine();
+                return Optional.empty();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExperimentExecutionException("Interrupted while searching for inputs.", e);
+        }
+    }
+
     private TaskStatistics executeExperimentWithInputs(
             InputsWithDirectory<T> inputs, ParametersExperiment parameters)
             throws ExperimentExecutionException {
@@ -217,12 +271,7 @@ public class InputOutputExperiment<T extends InputFromManager, S> extends Output
 
     private void checkCompabilityInputs(List<T> listInputs) throws ExperimentExecutionException {
         for (T inputObject : listInputs) {
-            if (!taskProcessor.isInputCompatibleWith(inputObject.getClass())) {
-                throw new ExperimentExecutionException(
-                        String.format(
-                                "Input has an incompatible class for the associated task: %s",
-                                inputObject.getClass().toString()));
-            }
+            taskProcessor.checkInputCompatible(inputObject);
         }
     }
 
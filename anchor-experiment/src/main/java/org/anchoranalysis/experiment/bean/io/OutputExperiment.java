@@ -145,6 +145,32 @@ public abstract class OutputExperiment extends Experiment {
      */
     protected abstract MultiLevelOutputEnabled defaultOutputs();
 
+    /**
+     * Whether an existing output directory should be reused, leaving its contents intact.
+     *
+     * <p>Otherwise, depending on the {@link OutputManager}, an existing output directory is either
+     * deleted or causes an error.
+     *
+     * @return true if an existing output directory should be reused. By default, false.
+     */
+    protected boolean reuseExistingOutputDirectory() {
+        return false;
+    }
+
+    /**
+     * The name of the shard, if the experiment is one of several processes that share the same
+     * inputs.
+     *
+     * <p>The name is appended to the experiment identifier, so that each shard writes into a
+     * separate output directory.
+     *
+     * @return the name of the shard, or {@link Optional#empty} if not executing as a shard. By
+     *     default, {@link Optional#empty}.
+     */
+    protected Optional<String> shardIdentifier() {
+        return Optional.empty();
+    }
+
     private void doExperimentWithParameters(ParametersExperiment parameters)
             throws ExperimentExecutionException {
         try {
@@ -197,7 +223,8 @@ public abstract class OutputExperiment extends Experiment {
                                     writeContext,
                                     arguments.derivePathPrefixerContext(),
                                     arguments.input().getCallUponDirectoryCreation(),
-                                    Optional.empty());
+                                    Optional.empty(),
+                                    reuseExistingOutputDirectory());
 
             Preconditions.checkArgument(rootOutputter.getSettings().hasBeenInitialized());
 
@@ -219,8 +246,18 @@ public abstract class OutputExperiment extends Experiment {
         }
     }
 
-    private String experimentIdentifierOrOmit(ExecutionArguments arguments) {
-        return experimentIdentifier.identifier(arguments.task().getTaskName());
+    private String experimentIdentifierOrOmit(ExecutionArguments arguments)
+            throws CreateException {
+        String identifier = experimentIdentifier.identifier(arguments.task().getTaskName());
+        Optional<String> shard = shardIdentifier();
+        if (!shard.isPresent()) {
+            return identifier;
+        }
+        if (arguments.output().isOmitExperimentIdentifier()) {
+            throw new CreateException(
+                    "The experiment identifier cannot be omitted from the output path, when executing as a shard, as each shard requires a separate output directory.");
+        }
+        return identifier + "_" + shard.get();
     }
 
     private StatefulMessageLogger createLogger(
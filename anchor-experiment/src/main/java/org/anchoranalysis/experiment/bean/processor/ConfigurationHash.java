@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.bean.processor;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.bean.AnchorBean;
+import org.anchoranalysis.core.exception.OperationFailedException;
+
+/**
+ * Calculates a hash of a bean's configuration, including all nested beans.
+ *
+ * <p>Two beans with identical types and bean-field values, recursively, produce identical hashes.
+ *
+ * <p>Any value that is neither a bean, a collection nor an array is described by its {@link
+ * Object#toString()}, which must therefore be overridden so the description is stable across
+ * executions. Otherwise, the default {@link Object#toString()} would include an identity
+ * hash-code, and produce a different hash on every execution.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ConfigurationHash {
+
+    /** The algorithm used to hash the description of the configuration. */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Calculates a hash of the configuration of {@code bean}.
+     *
+     * @param bean the bean.
+     * @return the hash, as a hexadecimal string.
+     * @throws OperationFailedException if a bean-field cannot be read, if a value has no stable
+     *     textual description, or the hash cannot be calculated.
+     */
+    public static String hash(AnchorBean<?> bean) throws OperationFailedException {
+        StringBuilder builder = new StringBuilder();
+        describe(bean, builder);
+        try {
+            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+            byte[] hash = digest.digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte value : hash) {
+                hex.append(String.format("%02x", value));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new OperationFailedException(e);
+        }
+    }
+
+    /** Appends a canonical description of a value, recursing into beans and collections. */
+    private static void describe(Object value, StringBuilder builder)
+            throws OperationFailedException {
+        if (value instanceof AnchorBean) {
+            AnchorBean<?> bean = (AnchorBean<?>) value;
+            builder.append(bean.getClass().getName());
+            builder.append('{');
+            for (Field field : bean.fields()) {
+                builder.append(field.getName());
+                builder.append('=');
+                describe(fieldValue(field, bean), builder);
+                builder.append(',');
+            }
+            builder.append('}');
+        } else if (value instanceof Collection) {
+            builder.append('[');
+            for (Object element : (Collection<?>) value) {
+                describe(element, builder);
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if (value != null && value.getClass().isArray()) {
+            builder.append('[');
+            for (int index = 0; index < Array.getLength(value); index++) {
+                describe(Array.get(value, index), builder);
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if (value == null || hasStableDescription(value)) {
+            builder.append(value);
+        } else {
+            throw new OperationFailedException(
+                    String.format(
+                            "Cannot hash a value of type %s, as it does not override toString().",
+                            value.getClass().getName()));
+        }
+    }
+
+    /** Whether {@code value} overrides {@link Object#toString()}. */
+    private static boolean hasStableDescription(Object value) {
+        try {
+            return value.getClass().getMethod("toString").getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /** The value of a bean-field. */
+    private static Object fieldValue(Field field, AnchorBean<?> bean)
+            throws OperationFailedException {
+        try {
+            return field.get(bean);
+        } catch (IllegalAccessException e) {
+            throw new OperationFailedException(e);
+        }
+    }
+}
@@ -26,20 +26,39 @@
 
 package org.anchoranalysis.experiment.bean.processor;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import lombok.Getter;
 import lombok.Setter;
 import org.anchoranalysis.bean.AnchorBean;
+import org.anchoranalysis.bean.BeanInstanceMap;
+import org.anchoranalysis.bean.annotation.AllowEmpty;
 import org.anchoranalysis.bean.annotation.BeanField;
+import org.anchoranalysis.bean.exception.BeanMisconfiguredException;
 import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
 import org.anchoranalysis.core.log.Divider;
+import org.anchoranalysis.core.log.error.ErrorReporter;
+import org.anchoranalysis.core.value.LanguageUtilities;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.bean.task.Task;
 import org.anchoranalysis.experiment.io.ReplaceTask;
+import org.anchoranalysis.experiment.task.ErrorReporterForTask;
 import org.anchoranalysis.experiment.task.ParametersExperiment;
 import org.anchoranalysis.experiment.task.TaskStatistics;
+import org.anchoranalysis.experiment.task.processor.JobManifest;
+import org.anchoranalysis.experiment.task.processor.LeaseWorkQueue;
+import org.anchoranalysis.experiment.task.processor.ShardOutputMerger;
+import org.anchoranalysis.inference.concurrency.ConcurrencyPlan;
 import org.anchoranalysis.io.input.InputFromManager;
+import org.anchoranalysis.io.input.InputReadFailedException;
+import org.anchoranalysis.io.input.StreamedInputs;
 import org.anchoranalysis.io.output.outputter.Outputter;
+import org.anchoranalysis.math.arithmetic.RunningSum;
 
 /**
  * Base class for a method to apply a task on inputs.
@@ -67,6 +86,63 @@ public abstract class JobProcessor<T extends InputFromManager, S>
      * stops.
      */
     @BeanField @Getter @Setter private boolean suppressExceptions = true;
+
+    /**
+     * When true, inputs whose jobs already successfully completed in an earlier execution are
+     * skipped.
+     *
+     * <p>Completed jobs are recorded in a {@link JobManifest} in {@code manifestDirectory}. A job
+     * is only skipped if its input's associated files and the task's configuration are unchanged.
+     *
+     * <p>An existing output directory is reused, leaving the outputs of earlier executions intact,
+     * rather than being deleted or causing an error.
+     *
+     * <p>This only has an effect if the task permits it, via {@link Task#canSkipCompletedJobs()}.
+     */
+    @BeanField @Getter @Setter private boolean incremental = false;
+
+    /**
+     * The directory in which the {@link JobManifest} is stored, when {@code incremental} is true.
+     *
+     * <p>If empty, the manifest is stored in the output directory. This only allows jobs to be
+     * skipped if each execution uses the same output directory, i.e. with a constant experiment
+     * identifier, rather than one that changes with the date and time of execution.
+     */
+    @BeanField @AllowEmpty @Getter @Setter private String manifestDirectory = "";
+
+    /**
+     * A directory of lease files, shared with other processes executing the same experiment, from
+     * which inputs are claimed before their jobs are executed.
+     *
+     * <p>This allows an experiment to be spread across several independent processes (shards), on
+     * one or more machines, each of which lists the same inputs. Each input is executed only by
+     * whichever shard first claims it.
+     *
+     * <p>The name of the shard is appended to the experiment identifier, so that each shard writes
+     * into a separate output directory. Whichever shard finishes last merges the outputs of all
+     * shards into {@code mergeDirectory}, using {@link ShardOutputMerger}. As this occurs directly
+     * after the jobs are executed, any file written later (e.g. the experiment log) is only
+     * partially merged.
+     *
+     * <p>If empty, no work-queue is used, and all inputs are executed.
+     */
+    @BeanField @AllowEmpty @Getter @Setter private String workQueueDirectory = "";
+
+    /**
+     * A unique name for this shard, which is required when {@code workQueueDirectory} is used.
+     *
+     * <p>A shard that is executed again with the same name reclaims its earlier leases, so that it
+     * may resume after abrupt termination.
+     */
+    @BeanField @AllowEmpty @Getter @Setter private String shardName = "";
+
+    /**
+     * The directory into which the outputs of all shards are merged, when {@code
+     * workQueueDirectory} is used.
+     *
+     * <p>If empty, a subdirectory {@code merged} of {@code workQueueDirectory} is used.
+     */
+    @BeanField @AllowEmpty @Getter @Setter private String mergeDirectory = "";
     // END BEAN PROPERTIES
 
     /**
@@ -87,17 +163,104 @@ public abstract class JobProcessor<T extends InputFromManager, S>
             Outputter rootOutputter, List<T> inputs, ParametersExperiment parametersExperiment)
             throws ExperimentExecutionException {
 
-        if (parametersExperiment.isDetailedLogging()) {
-            parametersExperiment.getLoggerExperiment().log(DIVIDER.withLabel("Processing"));
+        logDivider(parametersExperiment);
+
+        List<T> inputsToExecute =
+                incremental
+                        ? removeCompletedInputs(rootOutputter, inputs, parametersExperiment)
+                        : inputs;
+        if (incremental && inputsToExecute.isEmpty()) {
+            parametersExperiment
+                    .getLoggerExperiment()
+                    .log("All jobs already completed in an earlier execution.");
+            executeWithoutJobs(rootOutputter, parametersExperiment);
+            return new TaskStatistics(0, new RunningSum(), new RunningSum(), 0);
         }
 
-        TaskStatistics statistics = execute(rootOutputter, inputs, parametersExperiment);
+        return executeWithWorkQueue(
+                rootOutputter,
+                parametersExperiment,
+                () -> execute(rootOutputter, inputsToExecute, parametersExperiment));
+    }
 
-        if (parametersExperiment.isDetailedLogging()) {
-            logStatistics(statistics, parametersExperiment);
+    /**
+     * Executes the task on inputs as they are found, and logs statistics about this to the
+     * file-systen.
+     *
+     * <p>When {@link #canStreamInputs()} is true, jobs may begin executing before all inputs have
+     * been found. Otherwise, all inputs are first collected, and then executed as with {@link
+     * #executeLogStatistics(Outputter, List, ParametersExperiment)}.
+     *
+     * @param rootOutputter an outputter, bound to the base (root) output directory into which
+     *     outputed files are written.
+     * @param inputs the inputs to apply {@code task} on, which must contain at least one input.
+     * @param parametersExperiment parameters that exist pertaining to the experiment that is
+     *     underway.
+     * @return statistics about the success/failure/execution-time etc. of applying the task to
+     *     inputs.
+     * @throws ExperimentExecutionException if anything goes wrong executing the experiment,
+     *     including when searching for inputs, or if an input is incompatible with the task.
+     */
+    public TaskStatistics executeLogStatistics(
+            Outputter rootOutputter,
+            StreamedInputs<T> inputs,
+            ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        if (!canStreamInputs()) {
+            return executeLogStatistics(rootOutputter, collectInputs(inputs), parametersExperiment);
         }
 
-        return statistics;
+        logDivider(parametersExperiment);
+        return executeWithWorkQueue(
+                rootOutputter,
+                parametersExperiment,
+                () -> executeStreaming(rootOutputter, inputs, parametersExperiment));
+    }
+
+    /**
+     * Can jobs begin executing before all inputs have been found?
+     *
+     * <p>This requires that the task permits it, via {@link Task#canStreamInputs()}, and that
+     * {@code incremental} is false, as skipping completed jobs requires all inputs in advance.
+     *
+     * @return true iff jobs may begin before all inputs are found.
+     */
+    public boolean canStreamInputs() {
+        return !incremental && task.canStreamInputs();
+    }
+
+    /**
+     * Checks that an input is compatible with the task.
+     *
+     * @param input the input to check.
+     * @throws ExperimentExecutionException if the input is incompatible.
+     */
+    public void checkInputCompatible(T input) throws ExperimentExecutionException {
+        if (!isInputCompatibleWith(input.getClass())) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "Input has an incompatible class for the associated task: %s",
+                            input.getClass().toString()));
+        }
+    }
+
+    @Override
+    public void checkMisconfigured(BeanInstanceMap defaultInstances)
+            throws BeanMisconfiguredException {
+        super.checkMisconfigured(defaultInstances);
+        if (!workQueueDirectory.isEmpty() && shardName.isEmpty()) {
+            throw new BeanMisconfiguredException(
+                    "A shardName must be specified, when a workQueueDirectory is used.");
+        }
+    }
+
+    /**
+     * The name of this shard, if the inputs are shared with other processes via a work-queue.
+     *
+     * @return the name of the shard, or {@link Optional#empty} if no work-queue is used.
+     */
+    public Optional<String> shardIdentifier() {
+        return workQueueDirectory.isEmpty() ? Optional.empty() : Optional.of(shardName);
     }
 
     @SuppressWarnings("unchecked")
@@ -156,6 +319,243 @@ public abstract class JobProcessor<T extends InputFromManager, S>
             Outputter rootOutputter, List<T> inputs, ParametersExperiment parametersExperiment)
             throws ExperimentExecutionException;
 
+    /**
+     * Restores the results of skipped jobs into the shared-state, if any jobs were skipped.
+     *
+     * <p>This should be called immediately after {@link Task#beforeAnyJobIsExecuted}.
+     *
+     * @param sharedState the shared-state of the task.
+     * @param parametersExperiment parameters that exist pertaining to the experiment that is
+     *     underway.
+     * @throws ExperimentExecutionException if the results of a skipped job cannot be restored.
+     */
+    protected void restoreSkippedJobs(S sharedState, ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        List<String> skipped = parametersExperiment.getSkippedJobIdentifiers();
+        Optional<JobManifest> manifest = parametersExperiment.getJobManifest();
+        if (!skipped.isEmpty() && manifest.isPresent()) {
+            task.restoreSkippedJobs(sharedState, manifest.get(), skipped);
+        }
+    }
+
+    /**
+     * Executes the task on inputs as they are found.
+     *
+     * <p>By default, all inputs are first collected, and then passed to {@link #execute}.
+     * Sub-classes may override this, to begin executing jobs before all inputs have been found.
+     *
+     * @param rootOutputter an outputter, bound to the base (root) output directory into which
+     *     outputted files are written.
+     * @param inputs the inputs to apply {@code task} on, which contain at least one input.
+     * @param parametersExperiment parameters that exist pertaining to the experiment that is
+     *     underway.
+     * @return statistics about the success/failure/execution-time etc. of applying the task to
+     *     inputs.
+     * @throws ExperimentExecutionException if anything goes wrong executing the experiment (but not
+     *     necessarily if a processing a particular input fails when {@code suppressExceptions ==
+     *     true}.
+     */
+    protected TaskStatistics executeStreaming(
+            Outputter rootOutputter,
+            StreamedInputs<T> inputs,
+            ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        return execute(rootOutputter, collectInputs(inputs), parametersExperiment);
+    }
+
+    /**
+     * Takes the next input, as it is found, checking that it is compatible with the task.
+     *
+     * @param inputs the inputs to take from.
+     * @return the next input, or {@link Optional#empty} if all inputs have been taken.
+     * @throws ExperimentExecutionException if the search for inputs fails or is interrupted, or if
+     *     the input is incompatible with the task.
+     */
+    protected Optional<T> nextInput(StreamedInputs<T> inputs) throws ExperimentExecutionException {
+        try {
+            Optional<T> input = inputs.next();
+            if (input.isPresent()) {
+                checkInputCompatible(input.get());
+            }
+            return input;
+        } catch (InputReadFailedException e) {
+            throw new ExperimentExecutionException(
+                    "An error occured while searching for inputs", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExperimentExecutionException("Interrupted while searching for inputs.", e);
+        }
+    }
+
+    /** Takes all remaining inputs into a list, waiting until the search is complete. */
+    private List<T> collectInputs(StreamedInputs<T> inputs) throws ExperimentExecutionException {
+        List<T> list = new ArrayList<>();
+        Optional<T> input = nextInput(inputs);
+        while (input.isPresent()) {
+            list.add(input.get());
+            input = nextInput(inputs);
+        }
+        return list;
+    }
+
+    /**
+     * Executes jobs via {@code execute}, firstly creating any work-queue, and afterwards finishing
+     * the shard and logging statistics.
+     */
+    private TaskStatistics executeWithWorkQueue(
+            Outputter rootOutputter,
+            ParametersExperiment parametersExperiment,
+            CheckedSupplier<TaskStatistics, ExperimentExecutionException> execute)
+            throws ExperimentExecutionException {
+        Optional<LeaseWorkQueue> workQueue = Optional.empty();
+        if (!workQueueDirectory.isEmpty()) {
+            workQueue = Optional.of(createWorkQueue(rootOutputter));
+            parametersExperiment.setWorkQueue(workQueue);
+        }
+
+        TaskStatistics statistics = execute.get();
+
+        if (workQueue.isPresent()) {
+            finishShard(workQueue.get(), parametersExperiment);
+        }
+
+        if (parametersExperiment.isDetailedLogging()) {
+            logStatistics(statistics, parametersExperiment);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Creates and finalizes the shared-state of the task without executing any job, so that any
+     * outputs aggregated across jobs are still written from the restored results of skipped jobs.
+     */
+    private void executeWithoutJobs(
+            Outputter rootOutputter, ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        S sharedState =
+                task.beforeAnyJobIsExecuted(
+                        rootOutputter,
+                        ConcurrencyPlan.singleCPUProcessor(),
+                        new ArrayList<>(),
+                        parametersExperiment);
+        restoreSkippedJobs(sharedState, parametersExperiment);
+        task.afterAllJobsAreExecuted(sharedState, parametersExperiment.getContext());
+    }
+
+    /** Logs a divider before jobs are processed, if detailed-logging is enabled. */
+    private static void logDivider(ParametersExperiment parametersExperiment) {
+        if (parametersExperiment.isDetailedLogging()) {
+            parametersExperiment.getLoggerExperiment().log(DIVIDER.withLabel("Processing"));
+        }
+    }
+
+    /**
+     * Removes any inputs whose jobs are recorded as completed in the job-manifest, and assigns the
+     * manifest to {@code parametersExperiment} so that newly completed jobs are also recorded.
+     */
+    private List<T> removeCompletedInputs(
+            Outputter rootOutputter, List<T> inputs, ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        if (!task.canSkipCompletedJobs()) {
+            parametersExperiment
+                    .getLoggerExperiment()
+                    .logFormatted(
+                            "All jobs are executed, as the task %s aggregates outputs across jobs, and cannot restore them for skipped jobs.",
+                            task.getBeanName());
+            return inputs;
+        }
+
+        try {
+            Path directory =
+                    manifestDirectory.isEmpty()
+                            ? rootOutputter.getOutputDirectory()
+                            : Paths.get(manifestDirectory);
+            JobManifest manifest = JobManifest.open(directory, ConfigurationHash.hash(task));
+            parametersExperiment.setJobManifest(Optional.of(manifest));
+
+            List<T> remaining = new ArrayList<>(inputs.size());
+            List<String> skipped = new ArrayList<>();
+            ErrorReporter errorReporter =
+                    new ErrorReporterForTask(parametersExperiment.getLoggerExperiment());
+            for (T input : inputs) {
+                if (manifest.isCompleted(input)) {
+                    skipped.add(input.identifier());
+                    input.close(errorReporter);
+                } else {
+                    remaining.add(input);
+                }
+            }
+
+            parametersExperiment.setSkippedJobIdentifiers(skipped);
+
+            int numberSkipped = skipped.size();
+            if (numberSkipped > 0) {
+                parametersExperiment
+                        .getLoggerExperiment()
+                        .logFormatted(
+                                "Skipping %d %s that already completed in an earlier execution.",
+                                numberSkipped,
+                                LanguageUtilities.pluralizeMaybe(numberSkipped, "job"));
+            }
+            return remaining;
+        } catch (IOException | OperationFailedException e) {
+            throw new ExperimentExecutionException(
+                    "Cannot determine which jobs already completed in an earlier execution.", e);
+        }
+    }
+
+    /**
+     * Creates the work-queue, from which inputs are claimed, and registers this shard's output
+     * directory.
+     */
+    private LeaseWorkQueue createWorkQueue(Outputter rootOutputter)
+            throws ExperimentExecutionException {
+        try {
+            LeaseWorkQueue workQueue = new LeaseWorkQueue(Paths.get(workQueueDirectory), shardName);
+            workQueue.registerShard(rootOutputter.getOutputDirectory());
+            return workQueue;
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(
+                    "Cannot create the work-queue directory: " + workQueueDirectory, e);
+        }
+    }
+
+    /**
+     * Marks this shard as finished, and merges the outputs of all shards, if it is the last shard
+     * to finish.
+     */
+    private void finishShard(LeaseWorkQueue workQueue, ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        try {
+            Optional<List<Path>> shardDirectories = workQueue.finishShard();
+            if (shardDirectories.isPresent()) {
+                Path destination =
+                        mergeDirectory.isEmpty()
+                                ? Paths.get(workQueueDirectory, "merged")
+                                : Paths.get(mergeDirectory);
+                try {
+                    ShardOutputMerger.merge(shardDirectories.get(), destination);
+                } finally {
+                    workQueue.releaseMerge();
+                }
+                parametersExperiment
+                        .getLoggerExperiment()
+                        .logFormatted(
+                                "Merged the outputs of %d %s into %s",
+                                shardDirectories.get().size(),
+                                LanguageUtilities.pluralizeMaybe(
+                                        shardDirectories.get().size(), "shard"),
+                                destination);
+            }
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(
+                    "Cannot merge the outputs of the shards sharing the work-queue: "
+                            + workQueueDirectory,
+                    e);
+        }
+    }
+
     private static void logStatistics(
             TaskStatistics stats, ParametersExperiment parametersExperiment) {
         StatisticsLogger statisticsLogger =
@@ -26,13 +26,24 @@
 
 package org.anchoranalysis.experiment.bean.processor;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.Setter;
 import org.anchoranalysis.bean.annotation.BeanField;
+import org.anchoranalysis.core.system.MemoryUtilities;
 import org.anchoranalysis.core.value.LanguageUtilities;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.task.ParametersExperiment;
@@ -42,9 +53,12 @@ import org.anchoranalysis.experiment.task.processor.CallableJob;
 import org.anchoranalysis.experiment.task.processor.ConcurrentJobMonitor;
 import org.anchoranalysis.experiment.task.processor.JobDescription;
 import org.anchoranalysis.experiment.task.processor.JobStateMonitor;
+import org.anchoranalysis.experiment.task.processor.MemoryAdmission;
+import org.anchoranalysis.experiment.task.processor.PrioritizedJob;
 import org.anchoranalysis.experiment.task.processor.SubmittedJob;
 import org.anchoranalysis.inference.concurrency.ConcurrencyPlan;
 import org.anchoranalysis.io.input.InputFromManager;
+import org.anchoranalysis.io.input.StreamedInputs;
 import org.anchoranalysis.io.output.outputter.Outputter;
 
 /**
@@ -52,6 +66,14 @@ import org.anchoranalysis.io.output.outputter.Outputter;
  *
  * <p>Each input is processed in a separate thread on an available core.
  *
+ * <p>Jobs are placed on a single shared priority-queue, from which any idle thread takes the next
+ * job. Optionally, inputs with larger associated files are prioritized, so that long-running jobs
+ * start first, and shorter jobs fill the gaps afterwards.
+ *
+ * <p>If inputs are streamed, each job is submitted as soon as its input is found, so jobs begin
+ * executing while the search for inputs continues. Larger inputs are then only prioritized among
+ * those jobs that are waiting to start.
+ *
  * @author Owen Feehan
  * @param <T> input-object type
  * @param <S> shared-state type
@@ -85,14 +107,37 @@ public class ParallelProcessor<T extends InputFromManager, S> extends JobProcess
     /** How many GPU processors to use when this is possible as a substitute for a CPU processor */
     @BeanField @Getter @Setter
     private int numberGPUProcessors = ConcurrencyPlan.DEFAULT_NUMBER_GPUS;
+
+    /**
+     * When true, jobs are started in descending order of the total size of the files associated
+     * with each input. When false, jobs are started in the order of the inputs.
+     *
+     * <p>The file-size serves as a cheap estimate of how long a job will take to execute, so that
+     * e.g. large 3D stacks start first, and smaller 2D images fill the gaps afterwards.
+     */
+    @BeanField @Getter @Setter private boolean prioritizeLargerInputs = false;
+
+    /**
+     * The fraction of the maximum heap-size that concurrently executing jobs may use, as estimated
+     * from each input's metadata.
+     *
+     * <p>When positive, a job only starts when its estimated memory fits within this budget,
+     * alongside all other executing jobs. Otherwise it waits for other jobs to complete, rather
+     * than risk exhausting the heap. Zero disables this.
+     */
+    @BeanField @Getter @Setter private double memoryBudgetFraction = 0.0;
+
+    /**
+     * Multiplies the estimated size of each input's data, to approximate the total memory used
+     * while processing the input, including any intermediate copies.
+     */
+    @BeanField @Getter @Setter private double memoryEstimateFactor = 3.0;
     // END BEAN PROPERTIES
 
     @Override
     protected TaskStatistics execute(
             Outputter rootOutputter, List<T> inputs, ParametersExperiment parametersExperiment)
             throws ExperimentExecutionException {
-        int numberInputs = inputs.size();
-
         ProcessorChecker.checkAtLeastOneInput(inputs);
 
         ConcurrencyPlan concurrencyPlan = createConcurrencyPlan(parametersExperiment);
@@ -101,53 +146,132 @@ public class ParallelProcessor<T extends InputFromManager, S> extends JobProcess
                 getTask()
                         .beforeAnyJobIsExecuted(
                                 rootOutputter, concurrencyPlan, inputs, parametersExperiment);
+        restoreSkippedJobs(sharedState, parametersExperiment);
 
-        ExecutorService executorService =
-                Executors.newFixedThreadPool(concurrencyPlan.numberCPUs());
+        ThreadPoolExecutor executorService = createExecutor(concurrencyPlan.numberCPUs());
+
+        Optional<MemoryAdmission> admission = createMemoryAdmission(parametersExperiment);
 
         int count = 1;
 
         ConcurrentJobMonitor monitor = new ConcurrentJobMonitor(inputs.size());
 
+        if (prioritizeLargerInputs) {
+            // As threads are already waiting, each job may start as soon as it is submitted,
+            // so jobs must also be submitted in order of priority.
+            sortByDescendingPriority(inputs);
+        }
+
         ListIterator<T> iterator = inputs.listIterator();
         while (iterator.hasNext()) {
             T input = iterator.next();
             try {
                 submitJob(
-                        executorService, input, count, sharedState, parametersExperiment, monitor);
+                        executorService,
+                        input,
+                        count,
+                        sharedState,
+                        parametersExperiment,
+                        monitor,
+                        admission);
                 count++;
             } finally {
                 iterator.remove();
             }
         }
 
+        return completeJobs(executorService, monitor, admission, sharedState, parametersExperiment);
+    }
+
+    @Override
+    protected TaskStatistics executeStreaming(
+            Outputter rootOutputter,
+            StreamedInputs<T> inputs,
+            ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
+        ConcurrencyPlan concurrencyPlan = createConcurrencyPlan(parametersExperiment);
+
+        // The task permits streaming, so it does not use the inputs, which are not yet known
+        S sharedState =
+                getTask()
+                        .beforeAnyJobIsExecuted(
+                                rootOutputter,
+                                concurrencyPlan,
+                                new ArrayList<>(),
+                                parametersExperiment);
+
+        ThreadPoolExecutor executorService = createExecutor(concurrencyPlan.numberCPUs());
+
+        Optional<MemoryAdmission> admission = createMemoryAdmission(parametersExperiment);
+
+        ConcurrentJobMonitor monitor = ConcurrentJobMonitor.withUnknownTotal();
+
+        try {
+            int count = 1;
+            Optional<T> input = nextInput(inputs);
+            while (input.isPresent()) {
+                submitJob(
+                        executorService,
+                        input.get(),
+                        count,
+                        sharedState,
+                        parametersExperiment,
+                        monitor,
+                        admission);
+                count++;
+                input = nextInput(inputs);
+            }
+        } catch (ExperimentExecutionException e) {
+            executorService.shutdownNow();
+            throw e;
+        }
+        monitor.allJobsAdded();
+
+        return completeJobs(executorService, monitor, admission, sharedState, parametersExperiment);
+    }
+
+    /**
+     * Waits until all submitted jobs have completed, and then derives statistics.
+     *
+     * <p>No further jobs may be submitted afterwards.
+     */
+    private TaskStatistics completeJobs(
+            ThreadPoolExecutor executorService,
+            ConcurrentJobMonitor monitor,
+            Optional<MemoryAdmission> admission,
+            S sharedState,
+            ParametersExperiment parametersExperiment)
+            throws ExperimentExecutionException {
         // This will make the executor accept no new threads
         // and finish all existing threads in the queue
         executorService.shutdown();
 
-        // Wait until all threads are finish
-        while (!executorService.isTerminated())
-            ;
+        // Block (without consuming a CPU) until all threads are finished
+        awaitTermination(executorService);
 
         if (monitor.numberExecutingJobs() != 0
                 || monitor.numberUncompletedJobs() != 0
-                || monitor.numberCompletedJobs() != numberInputs) {
+                || monitor.numberCompletedJobs() != monitor.getTotalNumberJobs()) {
             parametersExperiment
                     .getLoggerExperiment()
                     .log("At least one experiment ended irregularly!");
         }
 
+        admission.ifPresent(
+                memory -> logThrottledJobs(memory.numberThrottled(), parametersExperiment));
+
         getTask().afterAllJobsAreExecuted(sharedState, parametersExperiment.getContext());
         return monitor.deriveStatistics();
     }
 
     private void submitJob(
-            ExecutorService executorService,
+            ThreadPoolExecutor executorService,
             T input,
             int index,
             S sharedState,
             ParametersExperiment parametersExperiment,
-            ConcurrentJobMonitor monitor) {
+            ConcurrentJobMonitor monitor,
+            Optional<MemoryAdmission> admission) {
 
         JobDescription description = new JobDescription(input.identifier(), index);
 
@@ -157,7 +281,7 @@ public class ParallelProcessor<T extends InputFromManager, S> extends JobProcess
 
         // Task always gets duplicated when it's called
         JobStateMonitor state = new JobStateMonitor();
-        executorService.submit(
+        CallableJob<T, S> job =
                 new CallableJob<>(
                         getTask(),
                         parametersUnbound,
@@ -165,11 +289,148 @@ public class ParallelProcessor<T extends InputFromManager, S> extends JobProcess
                         description,
                         monitor,
                         ProcessorUtilities.loggerForMonitor(parametersExperiment),
-                        showOngoingJobsLessThan));
+                        showOngoingJobsLessThan);
+        Runnable toExecute;
+        if (admission.isPresent()) {
+            toExecute =
+                    () ->
+                            executeAdmitted(
+                                    job,
+                                    input,
+                                    description,
+                                    admission.get(),
+                                    parametersExperiment);
+        } else {
+            toExecute = job::call;
+        }
+        executorService.execute(new PrioritizedJob(toExecute, priorityFor(input), index));
 
         monitor.add(new SubmittedJob(description, state));
     }
 
+    /**
+     * Executes a job, once its estimated memory is admitted within the budget.
+     *
+     * <p>The estimate is calculated only when the job is about to execute, from the input's
+     * metadata.
+     */
+    private void executeAdmitted(
+            CallableJob<T, S> job,
+            T input,
+            JobDescription description,
+            MemoryAdmission admission,
+            ParametersExperiment parametersExperiment) {
+        OptionalLong estimate =
+                input.estimateMemoryBytes(parametersExperiment.getContext().getLogger());
+        long bytes = (long) (estimate.orElse(0) * memoryEstimateFactor);
+        try {
+            admission.execute(description, bytes, job::call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failWithoutExecuting(
+                    String.format(
+                            "Job %s was interrupted while waiting for memory to become available.",
+                            description.getShortName()),
+                    e);
+        }
+    }
+
+    /** Creates the memory-admission control, if it is enabled. */
+    private Optional<MemoryAdmission> createMemoryAdmission(
+            ParametersExperiment parametersExperiment) {
+        if (memoryBudgetFraction > 0) {
+            long budget = (long) (MemoryUtilities.maxMemory() * memoryBudgetFraction);
+            if (parametersExperiment.isDetailedLogging()) {
+                parametersExperiment
+                        .getLoggerExperiment()
+                        .logFormatted(
+                                "Admitting jobs within a memory budget of %d MB.",
+                                MemoryUtilities.toMegabytes(budget));
+            }
+            return Optional.of(
+                    new MemoryAdmission(budget, parametersExperiment.getLoggerExperiment()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /** Logs how many jobs were delayed by the memory budget, if any. */
+    private static void logThrottledJobs(
+            int numberThrottled, ParametersExperiment parametersExperiment) {
+        if (numberThrottled > 0) {
+            parametersExperiment
+                    .getLoggerExperiment()
+                    .logFormatted(
+                            "The memory budget delayed %d %s from starting.",
+                            numberThrottled,
+                            LanguageUtilities.pluralizeMaybe(numberThrottled, "job"));
+        }
+    }
+
+    /**
+     * Creates an executor whose threads take jobs from a shared priority-queue.
+     *
+     * <p>All threads are started in advance, so that every job passes through the queue. As jobs
+     * are also submitted in order of priority, an idle thread always takes the job with the
+     * highest priority among those remaining.
+     */
+    private static ThreadPoolExecutor createExecutor(int numberThreads) {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        numberThreads,
+                        numberThreads,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new PriorityBlockingQueue<>());
+        executor.prestartAllCoreThreads();
+        return executor;
+    }
+
+    /** Blocks until all jobs in {@code executorService} have completed. */
+    private static void awaitTermination(ThreadPoolExecutor executorService)
+            throws ExperimentExecutionException {
+        try {
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new ExperimentExecutionException(
+                    "Interrupted while waiting for jobs to complete.", e);
+        }
+    }
+
+    /** Sorts {@code inputs} so that the input with the highest priority is first. */
+    private void sortByDescendingPriority(List<T> inputs) {
+        // Each priority is calculated only once, as it queries the file-system.
+        Map<T, Long> priorities = new IdentityHashMap<>();
+        for (T input : inputs) {
+            priorities.put(input, priorityFor(input));
+        }
+        inputs.sort(Comparator.comparing((T input) -> priorities.get(input)).reversed());
+    }
+
+    /** The priority for executing a job for {@code input}, with higher values executed first. */
+    private long priorityFor(T input) {
+        if (prioritizeLargerInputs) {
+            long totalSize = 0;
+            for (Path path : input.allAssociatedPaths()) {
+                totalSize += sizeOrZero(path);
+            }
+            return totalSize;
+        } else {
+            return 0;
+        }
+    }
+
+    /** The size of a file in bytes, or zero if it cannot be determined. */
+    private static long sizeOrZero(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
     private ConcurrencyPlan createConcurrencyPlan(ParametersExperiment parametersExperiment) {
 
         int availableProcessors = Runtime.getRuntime().availableProcessors();
@@ -34,6 +34,7 @@ import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.JobExecutionException;
 import org.anchoranalysis.experiment.log.StatefulMessageLogger;
 import org.anchoranalysis.experiment.task.ErrorReporterForTask;
+import org.anchoranalysis.experiment.task.JobOutcome;
 import org.anchoranalysis.experiment.task.ParametersExperiment;
 import org.anchoranalysis.experiment.task.ParametersUnbound;
 import org.anchoranalysis.experiment.task.TaskStatistics;
@@ -66,6 +67,7 @@ public class SequentialProcessor<T extends InputFromManager, S> extends JobProce
                 getTask()
                         .beforeAnyJobIsExecuted(
                                 rootOutputter, concurrencyPlan, inputs, parametersExperiment);
+        restoreSkippedJobs(sharedState, parametersExperiment);
 
         TaskStatistics statistics =
                 executeAllJobs(
@@ -95,7 +97,7 @@ public class SequentialProcessor<T extends InputFromManager, S> extends JobProce
         return executor.executeEachWithMonitor("Job: ", inputs);
     }
 
-    private boolean executeJobAndLog(
+    private JobOutcome executeJobAndLog(
             T input, S sharedState, ParametersExperiment parametersExperiment) {
 
         StatefulMessageLogger logger = parametersExperiment.getLoggerExperiment();
@@ -109,7 +111,7 @@ public class SequentialProcessor<T extends InputFromManager, S> extends JobProce
 
         } catch (JobExecutionException e) {
             errorReporter.recordError(SequentialProcessor.class, e);
-            return false;
+            return JobOutcome.FAILURE;
         }
     }
 }
@@ -73,6 +73,13 @@ class StatisticsLogger {
                     " failed.",
                     statistics::meanExecutionTimeFailed);
 
+            long numberSkipped = statistics.numberSkipped();
+            if (numberSkipped > 0) {
+                logger.logFormatted(
+                        "%s were skipped, as another process claimed them.",
+                        maybePluralizeJobs(numberSkipped));
+            }
+
             long numNotCompleted = statistics.numberNotCompleted();
             if (numNotCompleted > 0) {
                 logger.logFormatted(
@@ -27,6 +27,7 @@
 package org.anchoranalysis.experiment.bean.task;
 
 import com.google.common.base.Preconditions;
+import java.io.IOException;
 import java.util.List;
 import org.anchoranalysis.bean.AnchorBean;
 import org.anchoranalysis.core.exception.friendly.AnchorFriendlyCheckedException;
@@ -40,8 +41,10 @@ import org.anchoranalysis.experiment.task.ErrorReporterForTask;
 import org.anchoranalysis.experiment.task.InputBound;
 import org.anchoranalysis.experiment.task.InputOutputContextStateful;
 import org.anchoranalysis.experiment.task.InputTypesExpected;
+import org.anchoranalysis.experiment.task.JobOutcome;
 import org.anchoranalysis.experiment.task.ParametersExperiment;
 import org.anchoranalysis.experiment.task.ParametersUnbound;
+import org.anchoranalysis.experiment.task.processor.JobManifest;
 import org.anchoranalysis.inference.concurrency.ConcurrencyPlan;
 import org.anchoranalysis.io.input.InputFromManager;
 import org.anchoranalysis.io.output.bean.enabled.IgnoreUnderscorePrefix;
@@ -113,13 +116,25 @@ public abstract class Task<T extends InputFromManager, S> extends AnchorBean<Tas
     /**
      * Runs the task on one particular input (a job).
      *
+     * <p>If a work-queue exists, the job is skipped when another process has already claimed its
+     * input. If the job fails, its claim is released, so that it may be executed again.
+     *
      * @param parametersUnbound parameters for the input (unbound to any output location).
-     * @return whether the job finished successfully or not.
+     * @return whether the job finished successfully, failed or was skipped.
      * @throws JobExecutionException if anything goes wrong with the job which is <b>not</b> logged.
      */
-    public boolean executeJob(ParametersUnbound<T, S> parametersUnbound)
+    public JobOutcome executeJob(ParametersUnbound<T, S> parametersUnbound)
             throws JobExecutionException {
 
+        if (!claimFromWorkQueue(parametersUnbound)) {
+            // Another process is executing the job
+            ErrorReporter errorReporter =
+                    new ErrorReporterForTask(
+                            parametersUnbound.getParametersExperiment().getLoggerExperiment());
+            parametersUnbound.getInput().close(errorReporter);
+            return JobOutcome.SKIPPED;
+        }
+
         // Bind an outputter for the task
         // The outputter is initially created any log and this is attached later.
         OutputterChecked outputterTask =
@@ -132,7 +147,19 @@ public abstract class Task<T extends InputFromManager, S> extends AnchorBean<Tas
 
         outputterTask.assignLogger(parametersBound.getLogger());
 
-        return executeJobLogExceptions(parametersBound, parametersUnbound.isSuppressExceptions());
+        boolean success = false;
+        try {
+            success =
+                    executeJobLogExceptions(
+                            parametersBound, parametersUnbound.isSuppressExceptions());
+        } finally {
+            if (success) {
+                recordCompleted(parametersUnbound);
+            } else {
+                releaseToWorkQueue(parametersUnbound);
+            }
+        }
+        return JobOutcome.executed(success);
     }
 
     /**
@@ -146,6 +173,53 @@ public abstract class Task<T extends InputFromManager, S> extends AnchorBean<Tas
     public abstract void afterAllJobsAreExecuted(S sharedState, InputOutputContext context)
             throws ExperimentExecutionException;
 
+    /**
+     * Can a job be skipped, if it already completed successfully during an earlier execution?
+     *
+     * <p>This is only possible if the outputs of each job are independent, or if any outputs
+     * aggregated across jobs can be restored for skipped jobs via {@link #restoreSkippedJobs}.
+     * Otherwise skipped jobs would be missing from the aggregated outputs.
+     *
+     * <p>An aggregating task would typically persist each job's results to {@link
+     * JobManifest#resultsPath}, and read them again in {@link #restoreSkippedJobs} e.g. via {@code
+     * GroupedResults#addResultsFrom}.
+     *
+     * @return true iff completed jobs may be skipped. By default, false.
+     */
+    public boolean canSkipCompletedJobs() {
+        return false;
+    }
+
+    /**
+     * Called <i>once</i> after {@link #beforeAnyJobIsExecuted}, when jobs were skipped, as they
+     * already completed in an earlier execution.
+     *
+     * <p>This allows a task that aggregates outputs across jobs to restore the results of the
+     * skipped jobs into {@code sharedState}, so they are included in {@link
+     * #afterAllJobsAreExecuted}.
+     *
+     * @param sharedState the shared-state.
+     * @param manifest the manifest, in which the skipped jobs are recorded as completed.
+     * @param identifiers the identifiers of the inputs, whose jobs were skipped.
+     * @throws ExperimentExecutionException if the results of a skipped job cannot be restored.
+     */
+    public void restoreSkippedJobs(S sharedState, JobManifest manifest, List<String> identifiers)
+            throws ExperimentExecutionException {
+        // NOTHING TO DO BY DEFAULT, as nothing is aggregated across jobs.
+    }
+
+    /**
+     * Can jobs begin executing before all inputs have been found?
+     *
+     * <p>This is only possible if {@link #beforeAnyJobIsExecuted} does not use its list of inputs,
+     * as an empty list is then passed.
+     *
+     * @return true iff jobs may begin before all inputs are found. By default, false.
+     */
+    public boolean canStreamInputs() {
+        return false;
+    }
+
     /**
      * Is an input-object type compatible with this particular task?
      *
@@ -278,6 +352,66 @@ public abstract class Task<T extends InputFromManager, S> extends AnchorBean<Tas
         return successfullyFinished;
     }
 
+    /**
+     * Claims the input of a job from the work-queue, if one exists.
+     *
+     * @return true if the job should be executed by this process, or false if it was already
+     *     claimed by another process.
+     */
+    private static boolean claimFromWorkQueue(ParametersUnbound<?, ?> parametersUnbound)
+            throws JobExecutionException {
+        ParametersExperiment parametersExperiment = parametersUnbound.getParametersExperiment();
+        if (!parametersExperiment.getWorkQueue().isPresent()) {
+            return true;
+        }
+        String identifier = parametersUnbound.getInput().identifier();
+        try {
+            boolean claimed = parametersExperiment.getWorkQueue().get().claim(identifier);
+            if (!claimed && parametersExperiment.isDetailedLogging()) {
+                parametersExperiment
+                        .getLoggerExperiment()
+                        .logFormatted("Skipping %s as another shard claimed it.", identifier);
+            }
+            return claimed;
+        } catch (IOException e) {
+            throw new JobExecutionException(
+                    String.format("Cannot claim %s from the work-queue.", identifier), e);
+        }
+    }
+
+    /** Releases the claim on the input of a failed job, if a work-queue exists. */
+    private static void releaseToWorkQueue(ParametersUnbound<?, ?> parametersUnbound) {
+        ParametersExperiment parametersExperiment = parametersUnbound.getParametersExperiment();
+        if (parametersExperiment.getWorkQueue().isPresent()) {
+            String identifier = parametersUnbound.getInput().identifier();
+            try {
+                parametersExperiment.getWorkQueue().get().release(identifier);
+            } catch (IOException e) {
+                new ErrorReporterForTask(parametersExperiment.getLoggerExperiment())
+                        .recordError(
+                                Task.class,
+                                String.format("Cannot release %s to the work-queue.", identifier),
+                                e);
+            }
+        }
+    }
+
+    /** Records a successfully completed job in the job-manifest, if one exists. */
+    private static void recordCompleted(ParametersUnbound<?, ?> parametersUnbound) {
+        ParametersExperiment parametersExperiment = parametersUnbound.getParametersExperiment();
+        if (parametersExperiment.getJobManifest().isPresent()) {
+            try {
+                parametersExperiment
+                        .getJobManifest()
+                        .get()
+                        .recordCompleted(parametersUnbound.getInput());
+            } catch (IOException e) {
+                new ErrorReporterForTask(parametersExperiment.getLoggerExperiment())
+                        .recordError(Task.class, e);
+            }
+        }
+    }
+
     private static void processExceptionAfterRecordingError(
             StatefulMessageLogger loggerJob, boolean suppressExceptions, Throwable e)
             throws JobExecutionException {
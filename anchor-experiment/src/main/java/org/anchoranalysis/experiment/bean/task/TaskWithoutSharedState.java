@@ -70,4 +70,16 @@ public abstract class TaskWithoutSharedState<T extends InputFromManager>
         // NOTHING TO DO BY DEFAULT. This method exists so it can be overridden with
         // custom-behaviour.
     }
+
+    @Override
+    public boolean canSkipCompletedJobs() {
+        // As nothing is shared between jobs, each job's outputs are independent
+        return true;
+    }
+
+    @Override
+    public boolean canStreamInputs() {
+        // As no shared-state is created, the inputs are not needed in advance
+        return true;
+    }
 }
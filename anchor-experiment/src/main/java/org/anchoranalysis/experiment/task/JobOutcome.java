@@ -0,0 +1,54 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task;
+
+/**
+ * The outcome of a job, after it is no longer executing.
+ *
+ * @author Owen Feehan
+ */
+public enum JobOutcome {
+
+    /** The job was executed, and completed successfully. */
+    SUCCESS,
+
+    /** The job was executed, and failed. */
+    FAILURE,
+
+    /** The job was not executed by this process, as another process claimed its input. */
+    SKIPPED;
+
+    /**
+     * The outcome of a job that was executed.
+     *
+     * @param successful whether the job completed successfully.
+     * @return {@link #SUCCESS} or {@link #FAILURE} respectively.
+     */
+    public static JobOutcome executed(boolean successful) {
+        return successful ? SUCCESS : FAILURE;
+    }
+}
@@ -26,6 +26,8 @@
 
 package org.anchoranalysis.experiment.task;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import lombok.Getter;
 import lombok.Setter;
@@ -35,6 +37,8 @@ import org.anchoranalysis.experiment.arguments.ExecutionArguments;
 import org.anchoranalysis.experiment.bean.log.LoggingDestination;
 import org.anchoranalysis.experiment.io.InitializationContext;
 import org.anchoranalysis.experiment.log.StatefulMessageLogger;
+import org.anchoranalysis.experiment.task.processor.JobManifest;
+import org.anchoranalysis.experiment.task.processor.LeaseWorkQueue;
 import org.anchoranalysis.io.output.bean.path.prefixer.PathPrefixer;
 import org.anchoranalysis.io.output.outputter.Outputter;
 import org.anchoranalysis.io.output.outputter.OutputterChecked;
@@ -68,6 +72,24 @@ public class ParametersExperiment {
     /** Allows execution-time for particular operations to be recorded. */
     @Getter private ExecutionTimeRecorder executionTimeRecorder;
 
+    /**
+     * If present, successfully completed jobs are recorded in this manifest, so they can be
+     * skipped by a later execution.
+     */
+    @Getter @Setter private Optional<JobManifest> jobManifest = Optional.empty();
+
+    /**
+     * The identifiers of inputs whose jobs were skipped, as they already completed in an earlier
+     * execution.
+     */
+    @Getter @Setter private List<String> skippedJobIdentifiers = new ArrayList<>();
+
+    /**
+     * If present, a job is only executed after claiming its input from this work-queue, which is
+     * shared with other processes executing the same experiment.
+     */
+    @Getter @Setter private Optional<LeaseWorkQueue> workQueue = Optional.empty();
+
     /**
      * Creates with initialization arguments.
      *
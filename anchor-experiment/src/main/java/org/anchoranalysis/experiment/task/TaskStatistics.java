@@ -49,16 +49,22 @@ public class TaskStatistics {
 
     /** Execution time (in milliseconds) for of tasks that failed. */
     private final RunningSum failed;
+
+    /** Number of jobs that were skipped, as another process claimed their inputs. */
+    @Getter private final long numberSkipped;
     // END REQUIRED ARGUMENTS
 
     /**
-     * Number of jobs that have not been completed.
+     * Number of jobs that have not been completed, and were not skipped.
      *
      * @return the number of jobs.
      */
     public long numberNotCompleted() {
         long numberNotCompleted =
-                numberTotalScheduledJobs - numberCompletedSuccess() - numberCompletedFailed();
+                numberTotalScheduledJobs
+                        - numberCompletedSuccess()
+                        - numberCompletedFailed()
+                        - numberSkipped;
         assert numberNotCompleted >= 0;
         return numberNotCompleted;
     }
@@ -95,6 +101,8 @@ public class TaskStatistics {
     /**
      * Did all jobs execute and completely successfully?
      *
+     * <p>This is never true if any job was skipped.
+     *
      * @return true if yes, false if no.
      */
     public boolean allSuccessful() {
@@ -34,6 +34,7 @@ import org.anchoranalysis.core.log.error.ErrorReporter;
 import org.anchoranalysis.experiment.JobExecutionException;
 import org.anchoranalysis.experiment.bean.task.Task;
 import org.anchoranalysis.experiment.task.ErrorReporterForTask;
+import org.anchoranalysis.experiment.task.JobOutcome;
 import org.anchoranalysis.experiment.task.ParametersUnbound;
 import org.anchoranalysis.io.input.InputFromManager;
 
@@ -93,9 +94,9 @@ public class CallableJob<T extends InputFromManager, S>
 
             logger.logStart(jobDescription);
 
-            boolean success = taskDuplicated.executeJob(parametersUnbound);
+            JobOutcome outcome = taskDuplicated.executeJob(parametersUnbound);
 
-            closeJobStateAndLog(success);
+            closeJobStateAndLog(outcome);
 
             return Optional.empty();
 
@@ -116,7 +117,7 @@ public class CallableJob<T extends InputFromManager, S>
                             parametersUnbound.getParametersExperiment().getLoggerExperiment());
             errorReporter.recordError(CallableJob.class, e);
 
-            closeJobStateAndLog(false);
+            closeJobStateAndLog(JobOutcome.FAILURE);
 
             return Optional.of(new JobExecutionException(e));
         } finally {
@@ -124,8 +125,26 @@ public class CallableJob<T extends InputFromManager, S>
         }
     }
 
-    private void closeJobStateAndLog(boolean success) {
-        stateMonitor.markAsCompleted(success);
+    /**
+     * Records the job as having failed, without executing it.
+     *
+     * <p>This occurs when the job cannot be started, e.g. if interrupted while waiting to start.
+     *
+     * @param message a message describing why the job could not be started.
+     * @param cause the cause of the failure.
+     */
+    public void failWithoutExecuting(String message, Throwable cause) {
+        stateMonitor.markAsExecuting();
+        ErrorReporter errorReporter =
+                new ErrorReporterForTask(
+                        parametersUnbound.getParametersExperiment().getLoggerExperiment());
+        errorReporter.recordError(CallableJob.class, message, cause);
+        parametersUnbound.getInput().close(errorReporter);
+        closeJobStateAndLog(JobOutcome.FAILURE);
+    }
+
+    private void closeJobStateAndLog(JobOutcome outcome) {
+        stateMonitor.markAsCompleted(outcome);
         logger.logEnd(jobDescription, stateMonitor);
     }
 }
@@ -32,8 +32,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.anchoranalysis.core.functional.OptionalFactory;
 import org.anchoranalysis.experiment.task.TaskStatistics;
 import org.anchoranalysis.math.arithmetic.RunningSum;
@@ -44,19 +42,49 @@ import org.anchoranalysis.math.arithmetic.RunningSum;
  * <p>It provides statistics and a textual description of the aggregate state of execution across
  * all jobs.
  *
+ * <p>The total number of jobs may be known in advance, or otherwise it grows as jobs are added,
+ * until {@link #allJobsAdded} is called.
+ *
  * @author Owen Feehan
  */
-@RequiredArgsConstructor
 public class ConcurrentJobMonitor implements Iterable<SubmittedJob> {
 
-    // START REQUIRED FIELDS
-    /** The total number of submitted jobs to be executed. */
-    @Getter private final long totalNumberJobs;
-    // END REQUIRED FIELDS
+    /**
+     * The total number of submitted jobs to be executed, or, while {@code totalKnown} is false, the
+     * number of jobs added so far.
+     */
+    private long totalNumberJobs;
+
+    /** Whether {@code totalNumberJobs} is final, or may still increase as jobs are added. */
+    private boolean totalKnown;
 
     /** All submitted tasks. */
     private List<SubmittedJob> list = new LinkedList<>();
 
+    /**
+     * Creates for a known total number of jobs.
+     *
+     * @param totalNumberJobs the total number of submitted jobs to be executed.
+     */
+    public ConcurrentJobMonitor(long totalNumberJobs) {
+        this.totalNumberJobs = totalNumberJobs;
+        this.totalKnown = true;
+    }
+
+    /**
+     * Creates for a total number of jobs that is not yet known, as jobs are added while inputs are
+     * still being found.
+     *
+     * <p>{@link #allJobsAdded} should be called after the last job is added.
+     *
+     * @return a newly created monitor, without any jobs.
+     */
+    public static ConcurrentJobMonitor withUnknownTotal() {
+        ConcurrentJobMonitor monitor = new ConcurrentJobMonitor(0);
+        monitor.totalKnown = false;
+        return monitor;
+    }
+
     /**
      * Adds a job to be considered in the aggregate view.
      *
@@ -64,6 +92,26 @@ public class ConcurrentJobMonitor implements Iterable<SubmittedJob> {
      */
     public synchronized void add(SubmittedJob job) {
         list.add(job);
+        if (!totalKnown) {
+            totalNumberJobs++;
+        }
+    }
+
+    /** Indicates that no further jobs will be added, so the total number of jobs is now known. */
+    public synchronized void allJobsAdded() {
+        totalKnown = true;
+    }
+
+    /**
+     * The total number of submitted jobs to be executed.
+     *
+     * <p>Until {@link #allJobsAdded} is called on a monitor created by {@link #withUnknownTotal},
+     * this is only the number of jobs added so far.
+     *
+     * @return the number of jobs.
+     */
+    public synchronized long getTotalNumberJobs() {
+        return totalNumberJobs;
     }
 
     /**
@@ -77,6 +125,8 @@ public class ConcurrentJobMonitor implements Iterable<SubmittedJob> {
      *   <li>The number of jobs, that have not yet started executing (remaining to be executed).
      * </ul>
      *
+     * <p>If the total number of jobs is not yet known, the total is suffixed with a {@code +}.
+     *
      * <p>The string is shortened using abbreviations to help fit in a line of console outut.
      *
      * @return the string, as per above.
@@ -88,8 +138,12 @@ public class ConcurrentJobMonitor implements Iterable<SubmittedJob> {
         long numberJobsRemaining = totalNumberJobs - numberJobsCompleted - numberJobsExecuting;
 
         return String.format(
-                "%3d compl, %3d exec, %3d rem of %3d",
-                numberJobsCompleted, numberJobsExecuting, numberJobsRemaining, totalNumberJobs);
+                "%3d compl, %3d exec, %3d rem of %3d%s",
+                numberJobsCompleted,
+                numberJobsExecuting,
+                numberJobsRemaining,
+                totalNumberJobs,
+                totalKnown ? "" : "+");
     }
 
     /**
@@ -123,7 +177,7 @@ public class ConcurrentJobMonitor implements Iterable<SubmittedJob> {
     /**
      * The number of jobs that have completed, regardless of failure state.
      *
-     * <p>This includes both jobs that have completed successfully and with failure.
+     * <p>This includes jobs that have completed successfully, with failure, or were skipped.
      *
      * @return the number of jobs.
      */
@@ -168,7 +222,8 @@ public class ConcurrentJobMonitor implements Iterable<SubmittedJob> {
         return new TaskStatistics(
                 getTotalNumberJobs(),
                 runningSum(JobStateMonitor::isCompletedSuccessfully),
-                runningSum(JobStateMonitor::isCompletedFailure));
+                runningSum(JobStateMonitor::isCompletedFailure),
+                numberJobs(JobStateMonitor::isCompletedSkipped));
     }
 
     @Override
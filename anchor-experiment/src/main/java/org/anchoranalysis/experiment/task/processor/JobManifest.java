@@ -0,0 +1,203 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.anchoranalysis.io.input.InputFromManager;
+
+/**
+ * Records which jobs have successfully completed, persisted as a file in the output directory, so
+ * that a later execution of the same experiment can skip them.
+ *
+ * <p>Each completed job is recorded by its input's identifier, a hash of the task configuration,
+ * and the path, size and last-modified time of every file associated with the input. A job is
+ * only considered completed if all of these are unchanged.
+ *
+ * <p>Each record is appended to the file as soon as the job completes, so the manifest remains
+ * valid even if the experiment is abruptly terminated.
+ *
+ * <p>Tasks that aggregate results across jobs may also persist each job's results, in a file at
+ * {@link #resultsPath}, so they can be restored when the job is later skipped.
+ *
+ * @author Owen Feehan
+ */
+public class JobManifest {
+
+    /** The name of the file (in the output directory) that stores the manifest. */
+    public static final String FILENAME = "jobManifest.tsv";
+
+    /** The name of the subdirectory (beside the manifest) that stores results of each job. */
+    public static final String RESULTS_DIRECTORY = "jobResults";
+
+    /** Separates fields in each line of the file. */
+    private static final String FIELD_SEPARATOR = "\t";
+
+    /** Separates the attributes of an associated file. */
+    private static final String ATTRIBUTE_SEPARATOR = "|";
+
+    /** Separates each associated file. */
+    private static final String FILE_SEPARATOR = ";";
+
+    /** The path to the file storing the manifest. */
+    private final Path path;
+
+    /** A hash of the configuration of the task, which must match for a job to be skipped. */
+    private final String configurationHash;
+
+    /** The fingerprint of each completed job (with matching configuration), by identifier. */
+    private final Map<String, String> completed;
+
+    private JobManifest(Path path, String configurationHash, Map<String, String> completed) {
+        this.path = path;
+        this.configurationHash = configurationHash;
+        this.completed = completed;
+    }
+
+    /**
+     * Opens a manifest in a directory, reading any existing records.
+     *
+     * <p>Records created with a different configuration-hash are ignored.
+     *
+     * @param directory the directory in which the manifest is stored, which is created if it does
+     *     not already exist.
+     * @param configurationHash a hash of the configuration of the task.
+     * @return the manifest.
+     * @throws IOException if an existing manifest cannot be read, or the directory cannot be
+     *     created.
+     */
+    public static JobManifest open(Path directory, String configurationHash) throws IOException {
+        Path path = Files.createDirectories(directory).resolve(FILENAME);
+        Map<String, String> completed = new HashMap<>();
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                if (fields.length == 3 && fields[1].equals(configurationHash)) {
+                    completed.put(fields[0], fields[2]);
+                }
+            }
+        }
+        return new JobManifest(path, configurationHash, completed);
+    }
+
+    /**
+     * Whether a job for a particular input has already successfully completed, and remains up to
+     * date.
+     *
+     * @param input the input.
+     * @return true iff the job was recorded as completed, with the same configuration, and no
+     *     associated file has since changed.
+     */
+    public synchronized boolean isCompleted(InputFromManager input) {
+        String recorded = completed.get(input.identifier());
+        if (recorded == null) {
+            return false;
+        }
+        Optional<String> fingerprint = fingerprint(input);
+        return fingerprint.isPresent() && fingerprint.get().equals(recorded);
+    }
+
+    /**
+     * Records that a job for a particular input has successfully completed.
+     *
+     * <p>Inputs that have no associated files are never recorded, as it cannot be determined if
+     * they later change.
+     *
+     * @param input the input.
+     * @throws IOException if the record cannot be written to the manifest.
+     */
+    public synchronized void recordCompleted(InputFromManager input) throws IOException {
+        Optional<String> fingerprint = fingerprint(input);
+        if (fingerprint.isPresent()) {
+            String line =
+                    String.join(
+                            FIELD_SEPARATOR,
+                            input.identifier(),
+                            configurationHash,
+                            fingerprint.get());
+            Files.write(
+                    path,
+                    (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            completed.put(input.identifier(), fingerprint.get());
+        }
+    }
+
+    /**
+     * The path of a file where a task may persist the results of a job, beside the manifest.
+     *
+     * <p>The file-name is derived from the identifier, so the same path is returned for the same
+     * input in later executions.
+     *
+     * @param identifier the identifier of the job's input.
+     * @return the path, whose parent directory exists. The file itself may not exist.
+     * @throws IOException if the parent directory cannot be created.
+     */
+    public Path resultsPath(String identifier) throws IOException {
+        Path directory = Files.createDirectories(path.resolveSibling(RESULTS_DIRECTORY));
+        return directory.resolve(
+                UUID.nameUUIDFromBytes(identifier.getBytes(StandardCharsets.UTF_8)).toString());
+    }
+
+    /**
+     * Describes the path, size and last-modified time of every file associated with an input.
+     *
+     * @return the description, or {@link Optional#empty} if there are no associated files, or they
+     *     cannot be read.
+     */
+    private static Optional<String> fingerprint(InputFromManager input) {
+        List<Path> paths = input.allAssociatedPaths();
+        if (paths.isEmpty()) {
+            return Optional.empty();
+        }
+        StringBuilder builder = new StringBuilder();
+        try {
+            for (Path associated : paths) {
+                if (builder.length() > 0) {
+                    builder.append(FILE_SEPARATOR);
+                }
+                builder.append(associated.toAbsolutePath().normalize());
+                builder.append(ATTRIBUTE_SEPARATOR);
+                builder.append(Files.size(associated));
+                builder.append(ATTRIBUTE_SEPARATOR);
+                builder.append(Files.getLastModifiedTime(associated).toMillis());
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        return Optional.of(builder.toString());
+    }
+}
@@ -121,7 +121,17 @@ public class JobStartStopLogger {
             return;
         }
 
-        logEvent(monitor.isCompletedSuccessfully() ? "end  " : "ERROR", job, timeText(monitor));
+        logEvent(eventWordForEnd(monitor), job, timeText(monitor));
+    }
+
+    private static String eventWordForEnd(JobStateMonitor monitor) {
+        if (monitor.isCompletedSuccessfully()) {
+            return "end  ";
+        } else if (monitor.isCompletedSkipped()) {
+            return "skip ";
+        } else {
+            return "ERROR";
+        }
     }
 
     private void logEvent(String eventWord, JobDescription job, String timeStr) {
@@ -27,6 +27,7 @@
 package org.anchoranalysis.experiment.task.processor;
 
 import org.anchoranalysis.core.exception.OperationFailedRuntimeException;
+import org.anchoranalysis.experiment.task.JobOutcome;
 import org.apache.commons.lang.time.StopWatch;
 
 /**
@@ -39,8 +40,8 @@ import org.apache.commons.lang.time.StopWatch;
  * <p>Next, a call should occur to {@link #markAsExecuting()} to indicate that the job has started
  * executing.
  *
- * <p>Next, a call should occur to {@link #markAsCompleted(boolean)} to indicate that the job has
- * completed.
+ * <p>Next, a call should occur to {@link #markAsCompleted(boolean)} or {@link
+ * #markAsCompleted(JobOutcome)} to indicate that the job has completed.
  *
  * @author Owen Feehan
  */
@@ -50,7 +51,8 @@ public class JobStateMonitor {
         UNSTARTED,
         EXECUTING,
         COMPLETED_SUCCESS,
-        COMPLETED_FAILURE
+        COMPLETED_FAILURE,
+        COMPLETED_SKIPPED
     }
 
     private StopWatch stopWatch = new StopWatch();
@@ -78,10 +80,12 @@ public class JobStateMonitor {
     /**
      * Is a job completed?
      *
+     * <p>This includes a job that was skipped.
+     *
      * @return true if a job is currently completed, false otherwise.
      */
     public boolean isCompleted() {
-        return isCompletedSuccessfully() || isCompletedFailure();
+        return isCompletedSuccessfully() || isCompletedFailure() || isCompletedSkipped();
     }
 
     /**
@@ -102,6 +106,15 @@ public class JobStateMonitor {
         return state == State.COMPLETED_FAILURE;
     }
 
+    /**
+     * Was a job skipped, as another process claimed its input?
+     *
+     * @return true if a job was skipped, false otherwise.
+     */
+    public boolean isCompletedSkipped() {
+        return state == State.COMPLETED_SKIPPED;
+    }
+
     /**
      * Indicates that a job is currently executing.
      *
@@ -130,13 +143,24 @@ public class JobStateMonitor {
      * @param successful whether the job completed successfully or not.
      */
     public void markAsCompleted(boolean successful) {
+        markAsCompleted(JobOutcome.executed(successful));
+    }
+
+    /**
+     * Indicates that a job has stopped executing, and has completed with a particular outcome.
+     *
+     * <p>This method records the end-time of execution, and infers the total duration of execution.
+     *
+     * @param outcome the outcome of the job.
+     */
+    public void markAsCompleted(JobOutcome outcome) {
 
         if (state != State.EXECUTING) {
             throw new OperationFailedRuntimeException(
                     "The job must be executing to call this method.");
         }
 
-        state = successful ? State.COMPLETED_SUCCESS : State.COMPLETED_FAILURE;
+        state = stateFor(outcome);
         stopWatch.stop();
     }
 
@@ -157,4 +181,17 @@ public class JobStateMonitor {
 
         return (int) stopWatch.getTime();
     }
+
+    private static State stateFor(JobOutcome outcome) {
+        switch (outcome) {
+            case SUCCESS:
+                return State.COMPLETED_SUCCESS;
+            case FAILURE:
+                return State.COMPLETED_FAILURE;
+            case SKIPPED:
+                return State.COMPLETED_SKIPPED;
+            default:
+                throw new OperationFailedRuntimeException("Unknown outcome: " + outcome);
+        }
+    }
 }
@@ -0,0 +1,254 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A work-queue shared between several independent processes (shards), possibly on different
+ * machines, in the form of a directory of lease files.
+ *
+ * <p>Before executing a job, a shard claims its input by atomically creating a lease file, named
+ * after a hash of the input's identifier. Only the shard that successfully creates the file
+ * executes the job, so each input is processed by exactly one shard, and jobs are distributed
+ * dynamically to whichever shard is free.
+ *
+ * <p>The directory may be on a shared file-system, so long as it supports atomic creation of
+ * files.
+ *
+ * <p>The lease of a job that fails is released, so that it may be claimed again. The lease of a
+ * job that succeeds is never released. A shard may also reclaim its own leases, so that if a shard
+ * terminates abruptly, its unfinished jobs can be resumed by executing it again with the same
+ * owner.
+ *
+ * <p>Each shard also registers its output directory in the work-queue, and marks when it has
+ * finished. Whichever shard finishes last is made responsible for merging the outputs of all
+ * shards, and calls {@link #releaseMerge} afterwards, so that a later execution with the same
+ * work-queue merges again.
+ *
+ * @author Owen Feehan
+ */
+public class LeaseWorkQueue {
+
+    /** The extension of each lease file. */
+    private static final String EXTENSION = ".lease";
+
+    /** The subdirectory in which each shard records its output directory and state. */
+    private static final String SHARDS_DIRECTORY = "shards";
+
+    /** The extension of a shard's record, while it is executing. */
+    private static final String EXTENSION_EXECUTING = ".executing";
+
+    /** The extension of a shard's record, after it has finished. */
+    private static final String EXTENSION_FINISHED = ".finished";
+
+    /**
+     * A lease created by the shard that merges the outputs, so that only one shard does so at a
+     * time. It is deleted once the merge completes.
+     */
+    private static final String MERGE_LEASE = "merge" + EXTENSION;
+
+    /** The directory in which lease files are created. */
+    private final Path directory;
+
+    /** A unique name for the shard, that is written into each lease it claims. */
+    private final String owner;
+
+    /**
+     * Creates for a particular directory and owner.
+     *
+     * @param directory the directory in which lease files are created, and created itself if it
+     *     does not already exist.
+     * @param owner a unique name for the shard.
+     * @throws IOException if the directory cannot be created.
+     */
+    public LeaseWorkQueue(Path directory, String owner) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.owner = owner;
+    }
+
+    /**
+     * Attempts to claim the job for a particular input.
+     *
+     * @param identifier the unique identifier of the input.
+     * @return true if the job was claimed by this shard (either now, or earlier), and should be
+     *     executed by it, or false if it was already claimed by another shard.
+     * @throws IOException if the lease file cannot be created or read.
+     */
+    public boolean claim(String identifier) throws IOException {
+        Path lease = leaseFor(identifier);
+        try {
+            Files.write(
+                    lease, owner.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE_NEW);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return ownedByThisShard(lease);
+        }
+    }
+
+    /**
+     * Releases the claim on the job for a particular input, so that any shard may claim it again.
+     *
+     * <p>This is typically called after the job fails. Nothing happens if the job is not claimed by
+     * this shard.
+     *
+     * @param identifier the unique identifier of the input.
+     * @throws IOException if the lease file cannot be read or deleted.
+     */
+    public void release(String identifier) throws IOException {
+        Path lease = leaseFor(identifier);
+        if (ownedByThisShard(lease)) {
+            Files.deleteIfExists(lease);
+        }
+    }
+
+    /**
+     * Registers this shard as executing, and the directory into which it writes its outputs.
+     *
+     * @param outputDirectory the output directory of the shard.
+     * @throws IOException if the shard's record cannot be written.
+     */
+    public void registerShard(Path outputDirectory) throws IOException {
+        Path shards = Files.createDirectories(directory.resolve(SHARDS_DIRECTORY));
+        String name = hash(owner);
+        Files.deleteIfExists(shards.resolve(name + EXTENSION_FINISHED));
+        Files.write(
+                shards.resolve(name + EXTENSION_EXECUTING),
+                outputDirectory.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Marks this shard as finished, and determines if it is responsible for merging the outputs of
+     * all shards.
+     *
+     * <p>This occurs if no other registered shard is still executing, and no other shard is
+     * currently merging the outputs.
+     *
+     * @return the output directories of all registered shards, in a deterministic order, if this
+     *     shard should merge them, in which case {@link #releaseMerge} should be called after
+     *     merging. Otherwise {@link Optional#empty}.
+     * @throws IOException if the shard's record cannot be updated, or the records of other shards
+     *     cannot be read.
+     */
+    public Optional<List<Path>> finishShard() throws IOException {
+        Path shards = directory.resolve(SHARDS_DIRECTORY);
+        String name = hash(owner);
+        Files.move(
+                shards.resolve(name + EXTENSION_EXECUTING),
+                shards.resolve(name + EXTENSION_FINISHED),
+                StandardCopyOption.ATOMIC_MOVE);
+
+        if (!recordsWithExtension(shards, EXTENSION_EXECUTING).isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            Files.write(
+                    directory.resolve(MERGE_LEASE),
+                    owner.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE_NEW);
+        } catch (FileAlreadyExistsException e) {
+            return Optional.empty();
+        }
+
+        List<Path> outputDirectories = new ArrayList<>();
+        for (Path record : recordsWithExtension(shards, EXTENSION_FINISHED)) {
+            outputDirectories.add(
+                    Paths.get(new String(Files.readAllBytes(record), StandardCharsets.UTF_8)));
+        }
+        return Optional.of(outputDirectories);
+    }
+
+    /**
+     * Releases the responsibility for merging, after {@link #finishShard} indicated this shard
+     * should merge the outputs, so that the outputs may be merged again by a later execution.
+     *
+     * @throws IOException if the merge lease cannot be deleted.
+     */
+    public void releaseMerge() throws IOException {
+        Files.deleteIfExists(directory.resolve(MERGE_LEASE));
+    }
+
+    /** The path to the lease file for a particular input. */
+    private Path leaseFor(String identifier) throws IOException {
+        return directory.resolve(hash(identifier) + EXTENSION);
+    }
+
+    /** The records of shards with a particular extension, in a deterministic order. */
+    private static List<Path> recordsWithExtension(Path shards, String extension)
+            throws IOException {
+        try (Stream<Path> stream = Files.list(shards)) {
+            return stream.filter(path -> path.toString().endsWith(extension))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /** Whether an existing lease was claimed by this shard. */
+    private boolean ownedByThisShard(Path lease) throws IOException {
+        try {
+            return new String(Files.readAllBytes(lease), StandardCharsets.UTF_8).equals(owner);
+        } catch (NoSuchFileException e) {
+            // The lease was deleted in the meantime
+            return false;
+        }
+    }
+
+    /**
+     * A hash of the identifier, so that it can be safely used as a filename.
+     *
+     * <p>The identifier may contain characters (e.g. a directory separator) that are invalid in a
+     * filename.
+     */
+    private static String hash(String identifier) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder builder = new StringBuilder();
+            for (byte value : digest.digest(identifier.getBytes(StandardCharsets.UTF_8))) {
+                builder.append(String.format("%02x", value));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Cannot hash the identifier of an input", e);
+        }
+    }
+}
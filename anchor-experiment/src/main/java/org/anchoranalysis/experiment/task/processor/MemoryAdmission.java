@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import static org.anchoranalysis.core.system.MemoryUtilities.toMegabytes;
+
+import org.anchoranalysis.core.log.MessageLogger;
+
+/**
+ * Admits jobs to execute only while their combined estimated memory fits within a budget.
+ *
+ * <p>A job whose estimate would exceed the budget waits until sufficient memory is released by
+ * other jobs completing. A job is always admitted if no other job is executing, even if its
+ * estimate alone exceeds the budget, so that no job waits indefinitely.
+ *
+ * @author Owen Feehan
+ */
+public class MemoryAdmission {
+
+    /** The maximum total number of bytes that can be reserved concurrently. */
+    private final long budget;
+
+    /** Where to log when a job is throttled. */
+    private final MessageLogger logger;
+
+    /** The number of bytes currently reserved by executing jobs. */
+    private long reserved = 0;
+
+    /** The number of jobs currently executing. */
+    private int numberAdmitted = 0;
+
+    /** The number of jobs that needed to wait before being admitted. */
+    private int numberThrottled = 0;
+
+    /**
+     * Creates with a particular budget.
+     *
+     * @param budget the maximum total number of bytes that can be reserved concurrently.
+     * @param logger where to log when a job is throttled.
+     */
+    public MemoryAdmission(long budget, MessageLogger logger) {
+        this.budget = budget;
+        this.logger = logger;
+    }
+
+    /**
+     * Executes a job, after waiting until its estimated memory fits within the budget.
+     *
+     * @param description a description of the job, used for logging.
+     * @param estimate the estimated number of bytes the job requires.
+     * @param job the job to execute.
+     * @throws InterruptedException if interrupted while waiting to be admitted.
+     */
+    public void execute(JobDescription description, long estimate, Runnable job)
+            throws InterruptedException {
+        admit(description, estimate);
+        try {
+            job.run();
+        } finally {
+            release(estimate);
+        }
+    }
+
+    /**
+     * The number of jobs that needed to wait before being admitted.
+     *
+     * @return the number of jobs.
+     */
+    public synchronized int numberThrottled() {
+        return numberThrottled;
+    }
+
+    /** Waits until {@code estimate} bytes can be reserved, and then reserves them. */
+    private synchronized void admit(JobDescription description, long estimate)
+            throws InterruptedException {
+        if (!fits(estimate)) {
+            numberThrottled++;
+            logger.logFormatted(
+                    "Delaying job %s, as its estimated memory (%d MB) would exceed the budget of %d MB, of which %d MB is already reserved.",
+                    description.getShortName(),
+                    toMegabytes(estimate),
+                    toMegabytes(budget),
+                    toMegabytes(reserved));
+            while (!fits(estimate)) {
+                wait();
+            }
+        }
+        reserved += estimate;
+        numberAdmitted++;
+    }
+
+    /** Releases {@code estimate} bytes. */
+    private synchronized void release(long estimate) {
+        reserved -= estimate;
+        numberAdmitted--;
+        notifyAll();
+    }
+
+    /** Whether {@code estimate} bytes can currently be reserved. */
+    private boolean fits(long estimate) {
+        return numberAdmitted == 0 || reserved + estimate <= budget;
+    }
+}
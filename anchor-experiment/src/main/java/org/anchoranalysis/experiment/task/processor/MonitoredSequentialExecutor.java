@@ -32,10 +32,10 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import lombok.AllArgsConstructor;
 import lombok.Value;
 import org.anchoranalysis.core.log.MessageLogger;
+import org.anchoranalysis.experiment.task.JobOutcome;
 import org.anchoranalysis.experiment.task.TaskStatistics;
 
 /**
@@ -48,8 +48,8 @@ import org.anchoranalysis.experiment.task.TaskStatistics;
 @AllArgsConstructor
 public class MonitoredSequentialExecutor<T> {
 
-    /** executes a particular input (String) */
-    private Predicate<T> execFunc;
+    /** executes a particular input (String), returning its outcome */
+    private Function<T, JobOutcome> execFunc;
 
     /** extracts a string-description from an input */
     private Function<T, String> dscrFunc;
@@ -129,9 +129,9 @@ public class MonitoredSequentialExecutor<T> {
 
             jobLogger.logStart(job.getJobDescription());
 
-            boolean success = execFunc.test(input);
+            JobOutcome outcome = execFunc.apply(input);
 
-            job.getJobState().markAsCompleted(success);
+            job.getJobState().markAsCompleted(outcome);
 
             jobLogger.logEnd(job.getJobDescription(), job.getJobState());
         }
@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Wraps a job so it can be ordered in a priority-queue, with higher-priority jobs executed first.
+ *
+ * <p>Jobs with identical priority are executed in the order in which they were submitted.
+ *
+ * <p>Note that this class has a natural ordering that is inconsistent with equals.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor
+public class PrioritizedJob implements Runnable, Comparable<PrioritizedJob> {
+
+    /**
+     * The job to execute.
+     *
+     * <p>Any errors should already be recorded by the job itself, as nothing is returned.
+     */
+    private final Runnable job;
+
+    /**
+     * The priority of the job. A higher value means the job is executed earlier.
+     *
+     * <p>Typically, this is an estimate of how long the job takes to execute, so that long-running
+     * jobs start first, and shorter jobs fill the gaps afterwards.
+     */
+    @Getter private final long priority;
+
+    /** The order in which the job was submitted, used to break ties in {@code priority}. */
+    @Getter private final int submissionIndex;
+
+    @Override
+    public void run() {
+        job.run();
+    }
+
+    @Override
+    public int compareTo(PrioritizedJob other) {
+        int comparePriority = Long.compare(other.priority, priority);
+        if (comparePriority != 0) {
+            return comparePriority;
+        } else {
+            return Integer.compare(submissionIndex, other.submissionIndex);
+        }
+    }
+}
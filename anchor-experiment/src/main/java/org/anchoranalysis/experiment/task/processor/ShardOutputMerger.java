@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Merges the output directories of several shards, that each executed a subset of the jobs of the
+ * same experiment, into a single output directory.
+ *
+ * <p>Files are matched by their path relative to each shard's output directory:
+ *
+ * <ul>
+ *   <li>Aggregated outputs, whose file-name (without extension) ends with {@code Aggregated} or
+ *       {@code AggregatedGroup}, are kept separately for each shard, with the shard's (one-based)
+ *       position inserted before the extension e.g. {@code featuresAggregated.shard2.csv}.
+ *   <li>Other CSV files (including the per-input rows of each group) are concatenated, retaining
+ *       only a single header row.
+ *   <li>A {@link JobManifest} is concatenated, so the merged directory records every completed job.
+ *   <li>Any other file is copied from the first shard that contains it.
+ * </ul>
+ *
+ * <p>Each file in the destination is written afresh, replacing any file with the same path from an
+ * earlier merge, so merging again never duplicates rows.
+ *
+ * <p>Aggregated outputs are not recomputed, as this requires the features that aggregate them. A
+ * group whose inputs were executed by several shards therefore has an aggregated result in the
+ * file of each of these shards, describing only that shard's inputs.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ShardOutputMerger {
+
+    /** The extension of files that are concatenated with a single header row. */
+    private static final String EXTENSION_CSV = ".csv";
+
+    /** Suffixes of file-names (without extension) of outputs aggregated across inputs. */
+    private static final String[] SUFFIXES_AGGREGATED = {"Aggregated", "AggregatedGroup"};
+
+    /** Inserted, with the shard's position, before the extension of each aggregated output. */
+    private static final String SHARD_PREFIX = ".shard";
+
+    /**
+     * Merges the output directories of several shards into a destination directory.
+     *
+     * @param shardDirectories the output directory of each shard, in the order in which their
+     *     contents are merged. This order also determines the position of each shard, in the
+     *     file-names of aggregated outputs.
+     * @param destination the directory into which the outputs are merged, created if it does not
+     *     already exist.
+     * @throws IOException if a file cannot be read, written or copied.
+     */
+    public static void merge(List<Path> shardDirectories, Path destination) throws IOException {
+        // The files in the destination that have been written during this merge
+        Set<Path> written = new HashSet<>();
+        for (int index = 0; index < shardDirectories.size(); index++) {
+            Path shardDirectory = shardDirectories.get(index);
+            for (Path source : listFiles(shardDirectory)) {
+                Path target = destination.resolve(shardDirectory.relativize(source).toString());
+                Files.createDirectories(target.getParent());
+                mergeFile(source, target, index + 1, written);
+            }
+        }
+    }
+
+    /** Merges a single file of a shard into the corresponding file in the destination. */
+    private static void mergeFile(Path source, Path target, int shardPosition, Set<Path> written)
+            throws IOException {
+        String filename = source.getFileName().toString();
+        if (isAggregated(filename)) {
+            Files.copy(
+                    source,
+                    target.resolveSibling(insertShard(filename, shardPosition)),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } else if (filename.endsWith(EXTENSION_CSV)) {
+            appendLines(source, target, true, written.add(target));
+        } else if (filename.equals(JobManifest.FILENAME)) {
+            appendLines(source, target, false, written.add(target));
+        } else if (written.add(target)) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Whether a file is an output aggregated across inputs, as determined by its name. */
+    private static boolean isAggregated(String filename) {
+        String withoutExtension = removeExtension(filename);
+        for (String suffix : SUFFIXES_AGGREGATED) {
+            if (withoutExtension.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Inserts the position of a shard into a file-name, before its extension. */
+    private static String insertShard(String filename, int shardPosition) {
+        String withoutExtension = removeExtension(filename);
+        return withoutExtension
+                + SHARD_PREFIX
+                + shardPosition
+                + filename.substring(withoutExtension.length());
+    }
+
+    /** The file-name without any extension. */
+    private static String removeExtension(String filename) {
+        int index = filename.lastIndexOf('.');
+        return index > 0 ? filename.substring(0, index) : filename;
+    }
+
+    /**
+     * Appends the lines of {@code source} to {@code target}.
+     *
+     * @param skipHeader if true, and {@code first} is false, the first line of {@code source} is
+     *     omitted.
+     * @param first if true, {@code target} is written afresh, replacing any existing file.
+     */
+    private static void appendLines(Path source, Path target, boolean skipHeader, boolean first)
+            throws IOException {
+        List<String> lines = Files.readAllLines(source, StandardCharsets.UTF_8);
+        if (first) {
+            Files.write(target, lines, StandardCharsets.UTF_8);
+        } else {
+            if (skipHeader && !lines.isEmpty()) {
+                lines = lines.subList(1, lines.size());
+            }
+            Files.write(target, lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+    }
+
+    /** All regular files in a directory, recursively, in a deterministic order. */
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            return stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+}
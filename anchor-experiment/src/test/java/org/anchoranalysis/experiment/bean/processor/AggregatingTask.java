@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.experiment.bean.processor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.experiment.JobExecutionException;
+import org.anchoranalysis.experiment.bean.task.Task;
+import org.anchoranalysis.experiment.task.InputBound;
+import org.anchoranalysis.experiment.task.InputTypesExpected;
+import org.anchoranalysis.experiment.task.ParametersExperiment;
+import org.anchoranalysis.experiment.task.processor.JobManifest;
+import org.anchoranalysis.inference.concurrency.ConcurrencyPlan;
+import org.anchoranalysis.io.output.outputter.InputOutputContext;
+import org.anchoranalysis.io.output.outputter.Outputter;
+
+/**
+ * A task that aggregates the identifier of each input across jobs, persisting each job's result
+ * beside the job-manifest, so it can be restored when the job is skipped.
+ *
+ * @author Owen Feehan
+ */
+class AggregatingTask extends Task<FileInput, List<String>> {
+
+    /** The aggregated identifiers, as passed to {@link #afterAllJobsAreExecuted}. */
+    @Getter private List<String> aggregated = new ArrayList<>();
+
+    /** The manifest, if incremental execution is enabled. */
+    private Optional<JobManifest> jobManifest = Optional.empty();
+
+    @Override
+    public boolean hasVeryQuickPerInputExecution() {
+        return true;
+    }
+
+    @Override
+    public List<String> beforeAnyJobIsExecuted(
+            Outputter outputter,
+            ConcurrencyPlan concurrencyPlan,
+            List<FileInput> inputs,
+            ParametersExperiment parameters)
+            throws ExperimentExecutionException {
+        jobManifest = parameters.getJobManifest();
+        return Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Override
+    public void restoreSkippedJobs(
+            List<String> sharedState, JobManifest manifest, List<String> identifiers)
+            throws ExperimentExecutionException {
+        try {
+            for (String identifier : identifiers) {
+                sharedState.addAll(
+                        Files.readAllLines(
+                                manifest.resultsPath(identifier), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(e);
+        }
+    }
+
+    @Override
+    public void doJobOnInput(InputBound<FileInput, List<String>> input)
+            throws JobExecutionException {
+        String identifier = input.getInput().identifier();
+        input.getSharedState().add(identifier);
+        if (jobManifest.isPresent()) {
+            try {
+                Files.write(
+                        jobManifest.get().resultsPath(identifier),
+                        identifier.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new JobExecutionException(e);
+            }
+        }
+    }
+
+    @Override
+    public void afterAllJobsAreExecuted(List<String> sharedState, InputOutputContext context)
+            throws ExperimentExecutionException {
+        aggregated = new ArrayList<>(sharedState);
+        Collections.sort(aggregated);
+    }
+
+    @Override
+    public boolean canSkipCompletedJobs() {
+        return true;
+    }
+
+    @Override
+    public InputTypesExpected inputTypesExpected() {
+        return new InputTypesExpected(FileInput.class);
+    }
+}
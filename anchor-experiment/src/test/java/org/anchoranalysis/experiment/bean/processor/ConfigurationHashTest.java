@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.bean.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.anchoranalysis.bean.AnchorBean;
+import org.anchoranalysis.bean.annotation.BeanField;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ConfigurationHash}.
+ *
+ * @author Owen Feehan
+ */
+class ConfigurationHashTest {
+
+    /** A bean with primitive, string, collection and nested-bean fields. */
+    static class ConfiguredBean extends AnchorBean<ConfiguredBean> {
+        @BeanField @Getter @Setter private int number = 3;
+        @BeanField @Getter @Setter private String text = "text";
+        @BeanField @Getter @Setter private List<String> names = Arrays.asList("a", "b");
+        @BeanField @Getter @Setter private NestedBean nested = new NestedBean();
+    }
+
+    /** A bean nested inside {@link ConfiguredBean}. */
+    static class NestedBean extends AnchorBean<NestedBean> {
+        @BeanField @Getter @Setter private double value = 1.5;
+    }
+
+    /** A bean with a field whose {@link Object#toString()} includes an identity hash-code. */
+    static class IdentityBean extends AnchorBean<IdentityBean> {
+        @BeanField @Getter @Setter private Object value = new Object();
+    }
+
+    /** Identically configured (but distinct) beans should have identical hashes. */
+    @Test
+    void testIdenticalConfiguration() throws OperationFailedException {
+        assertEquals(
+                ConfigurationHash.hash(new ConfiguredBean()),
+                ConfigurationHash.hash(new ConfiguredBean()));
+    }
+
+    /** A change in a nested bean should change the hash. */
+    @Test
+    void testNestedChange() throws OperationFailedException {
+        ConfiguredBean changed = new ConfiguredBean();
+        changed.getNested().setValue(2.5);
+        assertNotEquals(
+                ConfigurationHash.hash(new ConfiguredBean()), ConfigurationHash.hash(changed));
+    }
+
+    /** A change in an element of a collection should change the hash. */
+    @Test
+    void testCollectionChange() throws OperationFailedException {
+        ConfiguredBean changed = new ConfiguredBean();
+        changed.setNames(Arrays.asList("a", "c"));
+        assertNotEquals(
+                ConfigurationHash.hash(new ConfiguredBean()), ConfigurationHash.hash(changed));
+    }
+
+    /** A value without a stable textual description should be rejected, rather than hashed. */
+    @Test
+    void testIdentityRejected() {
+        IdentityBean bean = new IdentityBean();
+        assertThrows(OperationFailedException.class, () -> ConfigurationHash.hash(bean));
+    }
+}
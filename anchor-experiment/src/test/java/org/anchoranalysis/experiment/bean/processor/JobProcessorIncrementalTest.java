@@ -0,0 +1,169 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.bean.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.anchoranalysis.experiment.task.NoSharedState;
+import org.anchoranalysis.experiment.task.ParametersExperiment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that {@link JobProcessor} skips jobs that completed during an earlier execution, when
+ * {@code incremental} is true.
+ *
+ * @author Owen Feehan
+ */
+class JobProcessorIncrementalTest {
+
+    private static final List<String> IDENTIFIERS = Arrays.asList("a", "b", "c");
+
+    /** The directory in which the test creates files. */
+    @TempDir Path directory;
+
+    private Path directoryInputs;
+
+    /** The output directory, that is reused by successive executions. */
+    private Path directoryOutputs;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directoryInputs = Files.createDirectories(directory.resolve("inputs"));
+        directoryOutputs = directory.resolve("outputs");
+        for (String identifier : IDENTIFIERS) {
+            Files.write(directoryInputs.resolve(identifier), identifier.getBytes());
+        }
+    }
+
+    /** A second execution into the same output directory should skip all completed jobs. */
+    @Test
+    void testSecondExecutionSkipsCompleted() throws Exception {
+        assertEquals(IDENTIFIERS, executeIncrementally(directoryOutputs, ""));
+        assertEquals(new ArrayList<>(), executeIncrementally(directoryOutputs, ""));
+        assertOutputsExist();
+    }
+
+    /** A job should be executed again, if its input changes. */
+    @Test
+    void testChangedInputIsExecutedAgain() throws Exception {
+        assertEquals(IDENTIFIERS, executeIncrementally(directoryOutputs, ""));
+        Files.write(directoryInputs.resolve("b"), "changed".getBytes(), StandardOpenOption.APPEND);
+        assertEquals(Arrays.asList("b"), executeIncrementally(directoryOutputs, ""));
+        assertOutputsExist();
+    }
+
+    /**
+     * When the manifest is stored outside the output directory, completed jobs should be skipped,
+     * even if each execution writes into a different output directory.
+     */
+    @Test
+    void testManifestDirectory() throws Exception {
+        String manifestDirectory = directory.resolve("manifest").toString();
+        assertEquals(
+                IDENTIFIERS, executeIncrementally(directory.resolve("first"), manifestDirectory));
+        assertEquals(
+                new ArrayList<>(),
+                executeIncrementally(directory.resolve("second"), manifestDirectory));
+    }
+
+    /**
+     * A task that aggregates across jobs should restore the results of skipped jobs, so they are
+     * included in the aggregation.
+     */
+    @Test
+    void testAggregatingTaskRestoresSkipped() throws Exception {
+        assertEquals(IDENTIFIERS, executeAggregating());
+        assertEquals(IDENTIFIERS, executeAggregating());
+
+        Files.write(directoryInputs.resolve("b"), "changed".getBytes(), StandardOpenOption.APPEND);
+        assertEquals(IDENTIFIERS, executeAggregating());
+    }
+
+    /**
+     * Executes a task on all inputs, incrementally.
+     *
+     * @param outputDirectory the directory into which outputs are written.
+     * @param manifestDirectory the directory in which the job-manifest is stored, or empty to use
+     *     the output directory.
+     * @return the identifiers of the inputs whose jobs were executed.
+     */
+    private List<String> executeIncrementally(Path outputDirectory, String manifestDirectory)
+            throws Exception {
+        RecordingTask task = new RecordingTask();
+        SequentialProcessor<FileInput, NoSharedState> processor = new SequentialProcessor<>();
+        processor.setTask(task);
+        processor.setIncremental(true);
+        processor.setManifestDirectory(manifestDirectory);
+
+        ParametersExperiment parameters = ParametersExperimentFixture.create(outputDirectory, true);
+        processor.executeLogStatistics(parameters.getOutputter(), inputs(), parameters);
+        return task.getExecutedIdentifiers();
+    }
+
+    /**
+     * Executes an {@link AggregatingTask} on all inputs, incrementally.
+     *
+     * @return the identifiers aggregated across all jobs, including skipped jobs.
+     */
+    private List<String> executeAggregating() throws Exception {
+        AggregatingTask task = new AggregatingTask();
+        SequentialProcessor<FileInput, List<String>> processor = new SequentialProcessor<>();
+        processor.setTask(task);
+        processor.setIncremental(true);
+
+        ParametersExperiment parameters =
+                ParametersExperimentFixture.create(directoryOutputs, true);
+        processor.executeLogStatistics(parameters.getOutputter(), inputs(), parameters);
+        return task.getAggregated();
+    }
+
+    private List<FileInput> inputs() {
+        List<FileInput> inputs = new ArrayList<>();
+        for (String identifier : IDENTIFIERS) {
+            inputs.add(new FileInput(directoryInputs.resolve(identifier)));
+        }
+        return inputs;
+    }
+
+    /** Asserts the outputs of every job (including those written by earlier executions) exist. */
+    private void assertOutputsExist() {
+        for (String identifier : IDENTIFIERS) {
+            Path output = directoryOutputs.resolve(identifier + ".txt");
+            assertTrue(Files.exists(output), () -> "output exists for " + identifier);
+        }
+    }
+}
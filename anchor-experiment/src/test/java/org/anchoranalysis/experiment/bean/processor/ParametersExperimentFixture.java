@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.bean.processor;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.core.time.ExecutionTimeRecorderIgnore;
+import org.anchoranalysis.experiment.arguments.ExecutionArguments;
+import org.anchoranalysis.experiment.bean.log.StatefulNullMessageLogger;
+import org.anchoranalysis.experiment.bean.log.ToConsole;
+import org.anchoranalysis.experiment.task.ExperimentFeedbackContext;
+import org.anchoranalysis.experiment.task.ParametersExperiment;
+import org.anchoranalysis.io.output.bean.OutputManager;
+import org.anchoranalysis.io.output.bean.rules.Permissive;
+import org.anchoranalysis.io.output.outputter.BindFailedException;
+import org.anchoranalysis.io.output.outputter.OutputWriteContext;
+import org.anchoranalysis.io.output.outputter.OutputterChecked;
+import org.anchoranalysis.io.output.path.prefixer.PathPrefixerContext;
+import org.anchoranalysis.io.output.path.prefixer.PathPrefixerException;
+import org.anchoranalysis.test.io.output.OutputManagerFixture;
+
+/**
+ * Creates {@link ParametersExperiment} that write all outputs into a particular directory.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ParametersExperimentFixture {
+
+    /**
+     * Creates parameters, where all outputs are enabled, and no messages are logged.
+     *
+     * @param outputDirectory the directory into which outputs are written.
+     * @param reuseExistingDirectory if true, an existing output directory is reused, leaving its
+     *     contents intact. If false, it is deleted.
+     * @return newly created parameters.
+     * @throws BindFailedException if the outputter cannot be bound to {@code outputDirectory}.
+     */
+    public static ParametersExperiment create(Path outputDirectory, boolean reuseExistingDirectory)
+            throws BindFailedException {
+        OutputManager outputManager =
+                OutputManagerFixture.createOutputManager(
+                        Optional.of(outputDirectory), Optional.empty());
+        try {
+            OutputterChecked outputter =
+                    outputManager.createExperimentOutputter(
+                            Optional.empty(),
+                            new Permissive().create(Optional.empty()),
+                            Optional.empty(),
+                            new OutputWriteContext(outputManager.getOutputWriteSettings()),
+                            new PathPrefixerContext(),
+                            Optional.empty(),
+                            Optional.empty(),
+                            reuseExistingDirectory);
+            ParametersExperiment parameters =
+                    new ParametersExperiment(
+                            new ExecutionArguments(),
+                            "experiment",
+                            outputter,
+                            outputManager.getPrefixer(),
+                            new ExperimentFeedbackContext(
+                                    new StatefulNullMessageLogger(),
+                                    false,
+                                    ExecutionTimeRecorderIgnore.instance()));
+            parameters.setLoggerTaskCreator(new ToConsole());
+            return parameters;
+        } catch (PathPrefixerException e) {
+            throw new BindFailedException(e);
+        }
+    }
+}
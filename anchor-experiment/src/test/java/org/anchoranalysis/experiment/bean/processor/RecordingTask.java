@@ -0,0 +1,72 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.bean.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import org.anchoranalysis.experiment.JobExecutionException;
+import org.anchoranalysis.experiment.bean.task.TaskWithoutSharedState;
+import org.anchoranalysis.experiment.task.InputBound;
+import org.anchoranalysis.experiment.task.InputTypesExpected;
+import org.anchoranalysis.experiment.task.NoSharedState;
+import org.anchoranalysis.io.generator.text.StringGenerator;
+
+/**
+ * A task that records the identifier of each input it executes, and writes a text-file output
+ * named after the identifier.
+ *
+ * @author Owen Feehan
+ */
+class RecordingTask extends TaskWithoutSharedState<FileInput> {
+
+    /** The identifiers of the inputs that were executed, in the order of execution. */
+    @Getter
+    private final List<String> executedIdentifiers =
+            Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public boolean hasVeryQuickPerInputExecution() {
+        return true;
+    }
+
+    @Override
+    public InputTypesExpected inputTypesExpected() {
+        return new InputTypesExpected(FileInput.class);
+    }
+
+    @Override
+    public void doJobOnInput(InputBound<FileInput, NoSharedState> input)
+            throws JobExecutionException {
+        String identifier = input.getInput().identifier();
+        executedIdentifiers.add(identifier);
+        input.getOutputter()
+                .writerSelective()
+                .write(identifier, StringGenerator::new, () -> identifier);
+    }
+}
@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.anchoranalysis.io.input.InputFromManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link JobManifest}.
+ *
+ * @author Owen Feehan
+ */
+class JobManifestTest {
+
+    private static final String HASH = "hash";
+
+    /** The directory in which the test creates files. */
+    @TempDir Path directory;
+
+    /** The file associated with {@code input}. */
+    private Path file;
+
+    /** An input associated with {@code file}. */
+    private InputFromManager input;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = Files.write(directory.resolve("input.txt"), "content".getBytes());
+        input = inputWithPaths(Arrays.asList(file));
+    }
+
+    /** A recorded job should be completed, also after the manifest is reopened. */
+    @Test
+    void testRecordAndReopen() throws IOException {
+        JobManifest manifest = openManifest(HASH);
+        assertFalse(manifest.isCompleted(input));
+        manifest.recordCompleted(input);
+        assertTrue(manifest.isCompleted(input));
+        assertTrue(openManifest(HASH).isCompleted(input));
+    }
+
+    /** A job recorded with a different configuration should not be completed. */
+    @Test
+    void testDifferentConfiguration() throws IOException {
+        openManifest(HASH).recordCompleted(input);
+        assertFalse(openManifest("otherHash").isCompleted(input));
+    }
+
+    /** A job should no longer be completed, after its associated file changes. */
+    @Test
+    void testChangedFile() throws IOException {
+        openManifest(HASH).recordCompleted(input);
+        Files.write(file, "more".getBytes(), StandardOpenOption.APPEND);
+        assertFalse(openManifest(HASH).isCompleted(input));
+    }
+
+    /** An input without any associated files is never recorded. */
+    @Test
+    void testNoAssociatedFiles() throws IOException {
+        InputFromManager inputWithoutFiles = inputWithPaths(Arrays.asList());
+        JobManifest manifest = openManifest(HASH);
+        manifest.recordCompleted(inputWithoutFiles);
+        assertFalse(manifest.isCompleted(inputWithoutFiles));
+        assertFalse(Files.exists(directory.resolve("manifest").resolve(JobManifest.FILENAME)));
+    }
+
+    private JobManifest openManifest(String configurationHash) throws IOException {
+        return JobManifest.open(directory.resolve("manifest"), configurationHash);
+    }
+
+    private static InputFromManager inputWithPaths(List<Path> paths) {
+        return new InputFromManager() {
+
+            @Override
+            public String identifier() {
+                return "input";
+            }
+
+            @Override
+            public Optional<Path> pathForBinding() {
+                return Optional.empty();
+            }
+
+            @Override
+            public List<Path> allAssociatedPaths() {
+                return paths;
+            }
+        };
+    }
+}
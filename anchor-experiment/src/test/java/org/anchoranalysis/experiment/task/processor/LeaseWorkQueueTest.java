@@ -0,0 +1,163 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link LeaseWorkQueue}.
+ *
+ * @author Owen Feehan
+ */
+class LeaseWorkQueueTest {
+
+    private static final String IDENTIFIER = "some/input";
+
+    /** The directory containing the lease files. */
+    @TempDir Path directory;
+
+    /** An input may only be claimed by the first shard, but reclaimed by the same shard. */
+    @Test
+    void testClaimAndReclaim() throws IOException {
+        assertTrue(createQueue("a").claim(IDENTIFIER));
+        assertFalse(createQueue("b").claim(IDENTIFIER));
+        assertTrue(createQueue("a").claim(IDENTIFIER));
+    }
+
+    /** A released input can be claimed by another shard, but only the owner may release it. */
+    @Test
+    void testRelease() throws IOException {
+        LeaseWorkQueue first = createQueue("a");
+        LeaseWorkQueue second = createQueue("b");
+        assertTrue(first.claim(IDENTIFIER));
+
+        second.release(IDENTIFIER);
+        assertFalse(second.claim(IDENTIFIER));
+
+        first.release(IDENTIFIER);
+        assertTrue(second.claim(IDENTIFIER));
+        assertFalse(first.claim(IDENTIFIER));
+    }
+
+    /** When many shards simultaneously claim the same input, exactly one succeeds. */
+    @Test
+    void testRace() throws IOException, InterruptedException, ExecutionException {
+        int numberShards = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> claims = new ArrayList<>();
+        for (int i = 0; i < numberShards; i++) {
+            LeaseWorkQueue queue = createQueue("shard" + i);
+            claims.add(
+                    () -> {
+                        start.await();
+                        return queue.claim(IDENTIFIER);
+                    });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberShards);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> claim : claims) {
+                futures.add(executor.submit(claim));
+            }
+            start.countDown();
+
+            int numberClaimed = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get().booleanValue()) {
+                    numberClaimed++;
+                }
+            }
+            assertEquals(1, numberClaimed);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Only the last shard to finish merges, and it receives the output directories of all. */
+    @Test
+    void testFinishShard() throws IOException {
+        LeaseWorkQueue first = createQueue("a");
+        LeaseWorkQueue second = createQueue("b");
+        Path outputFirst = directory.resolve("outputA");
+        Path outputSecond = directory.resolve("outputB");
+        first.registerShard(outputFirst);
+        second.registerShard(outputSecond);
+
+        assertEquals(Optional.empty(), first.finishShard());
+
+        Optional<List<Path>> merge = second.finishShard();
+        assertTrue(merge.isPresent());
+        assertEquals(2, merge.get().size());
+        assertTrue(merge.get().containsAll(Arrays.asList(outputFirst, outputSecond)));
+
+        // While the merge is underway, no other shard merges
+        first.registerShard(outputFirst);
+        assertEquals(Optional.empty(), first.finishShard());
+    }
+
+    /** When the same work-queue is executed again, the outputs are merged again. */
+    @Test
+    void testRerun() throws IOException {
+        Path outputFirst = directory.resolve("outputA");
+        Path outputSecond = directory.resolve("outputB");
+        for (int run = 0; run < 2; run++) {
+            LeaseWorkQueue first = createQueue("a");
+            LeaseWorkQueue second = createQueue("b");
+            first.registerShard(outputFirst);
+            second.registerShard(outputSecond);
+
+            assertEquals(Optional.empty(), first.finishShard());
+
+            Optional<List<Path>> merge = second.finishShard();
+            assertTrue(merge.isPresent(), "merges on run " + run);
+            assertEquals(2, merge.get().size());
+            second.releaseMerge();
+        }
+    }
+
+    private LeaseWorkQueue createQueue(String owner) throws IOException {
+        return new LeaseWorkQueue(directory.resolve("queue"), owner);
+    }
+}
@@ -0,0 +1,158 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.core.log.NullMessageLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link MemoryAdmission}.
+ *
+ * @author Owen Feehan
+ */
+class MemoryAdmissionTest {
+
+    private static final long BUDGET = 100;
+
+    private static final JobDescription DESCRIPTION = new JobDescription("job", 1);
+
+    /** How long to wait (in seconds) for an event that is expected to occur. */
+    private static final int TIMEOUT = 10;
+
+    private MemoryAdmission admission;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        admission = new MemoryAdmission(BUDGET, new NullMessageLogger());
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** Jobs that fit together within the budget execute concurrently. */
+    @Test
+    void testAdmitWithinBudget() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Future<?> first = submit(40, () -> awaitOtherJob(bothStarted));
+        Future<?> second = submit(40, () -> awaitOtherJob(bothStarted));
+        first.get(TIMEOUT, TimeUnit.SECONDS);
+        second.get(TIMEOUT, TimeUnit.SECONDS);
+        assertEquals(0, admission.numberThrottled());
+    }
+
+    /** A job that would exceed the budget waits until another job releases its memory. */
+    @Test
+    void testWaitUntilReleased() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch firstMayFinish = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        Future<?> first =
+                submit(
+                        60,
+                        () -> {
+                            firstStarted.countDown();
+                            await(firstMayFinish);
+                        });
+        assertTrue(firstStarted.await(TIMEOUT, TimeUnit.SECONDS));
+
+        Future<?> second = submit(60, secondStarted::countDown);
+        assertFalse(secondStarted.await(200, TimeUnit.MILLISECONDS));
+
+        firstMayFinish.countDown();
+        assertTrue(secondStarted.await(TIMEOUT, TimeUnit.SECONDS));
+        first.get(TIMEOUT, TimeUnit.SECONDS);
+        second.get(TIMEOUT, TimeUnit.SECONDS);
+        assertEquals(1, admission.numberThrottled());
+    }
+
+    /** A job whose estimate alone exceeds the budget is admitted, when no other job executes. */
+    @Test
+    void testOversizedJob() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(1);
+        admission.execute(DESCRIPTION, BUDGET * 5, executed::countDown);
+        assertEquals(0, executed.getCount());
+        assertEquals(0, admission.numberThrottled());
+    }
+
+    /** The memory of a job is released, even if the job throws an exception. */
+    @Test
+    void testReleaseAfterException() throws Exception {
+        Runnable failing =
+                () -> {
+                    throw new IllegalStateException();
+                };
+        assertThrows(
+                IllegalStateException.class,
+                () -> admission.execute(DESCRIPTION, BUDGET, failing));
+
+        // Would wait indefinitely, if the memory of the failed job was still reserved
+        submit(BUDGET, () -> {}).get(TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    private Future<?> submit(long estimate, Runnable job) {
+        return executor.submit(
+                () -> {
+                    admission.execute(DESCRIPTION, estimate, job);
+                    return null;
+                });
+    }
+
+    /** Counts down {@code latch}, and waits until another job has also done so. */
+    private static void awaitOtherJob(CountDownLatch latch) {
+        latch.countDown();
+        await(latch);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for another job.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * anchor-experiment
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.experiment.task.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link ShardOutputMerger}.
+ *
+ * @author Owen Feehan
+ */
+class ShardOutputMergerTest {
+
+    private static final String CSV = "features/features.csv";
+
+    private static final String OTHER = "log.txt";
+
+    private static final String GROUP_FIRST = "grouped/first/featuresGroup.csv";
+
+    private static final String GROUP_SECOND = "grouped/second/featuresGroup.csv";
+
+    private static final String AGGREGATED = "grouped/featuresAggregated.csv";
+
+    private static final String AGGREGATED_GROUP = "grouped/first/featuresAggregatedGroup.xml";
+
+    /** The directory in which the test creates files. */
+    @TempDir Path directory;
+
+    /** CSV files are concatenated with a single header, and other files copied from the first. */
+    @Test
+    void testMerge() throws IOException {
+        Path first = directory.resolve("first");
+        Path second = directory.resolve("second");
+        write(first, CSV, "name,value", "a,1", "b,2");
+        write(second, CSV, "name,value", "c,3");
+        write(first, OTHER, "first");
+        write(second, OTHER, "second");
+
+        Path destination = directory.resolve("merged");
+        ShardOutputMerger.merge(Arrays.asList(first, second), destination);
+
+        assertEquals(Arrays.asList("name,value", "a,1", "b,2", "c,3"), read(destination, CSV));
+        assertEquals(Arrays.asList("first"), read(destination, OTHER));
+    }
+
+    /**
+     * A group whose inputs were executed by two shards should have its per-input rows concatenated,
+     * but its aggregated outputs kept separately for each shard.
+     */
+    @Test
+    void testMergeGroupSplitAcrossShards() throws IOException {
+        Path first = directory.resolve("first");
+        Path second = directory.resolve("second");
+        write(first, GROUP_FIRST, "name,value", "a,1", "b,3");
+        write(first, AGGREGATED, "group,value", "first,2");
+        write(first, AGGREGATED_GROUP, "<mean>2</mean>");
+        write(second, GROUP_FIRST, "name,value", "c,5");
+        write(second, GROUP_SECOND, "name,value", "d,7");
+        write(second, AGGREGATED, "group,value", "first,5", "second,7");
+        write(second, AGGREGATED_GROUP, "<mean>5</mean>");
+
+        Path destination = directory.resolve("merged");
+        ShardOutputMerger.merge(Arrays.asList(first, second), destination);
+
+        assertEquals(
+                Arrays.asList("name,value", "a,1", "b,3", "c,5"), read(destination, GROUP_FIRST));
+        assertEquals(Arrays.asList("name,value", "d,7"), read(destination, GROUP_SECOND));
+
+        assertFalse(Files.exists(destination.resolve(AGGREGATED)));
+        assertEquals(
+                Arrays.asList("group,value", "first,2"),
+                read(destination, "grouped/featuresAggregated.shard1.csv"));
+        assertEquals(
+                Arrays.asList("group,value", "first,5", "second,7"),
+                read(destination, "grouped/featuresAggregated.shard2.csv"));
+
+        assertFalse(Files.exists(destination.resolve(AGGREGATED_GROUP)));
+        assertEquals(
+                Arrays.asList("<mean>2</mean>"),
+                read(destination, "grouped/first/featuresAggregatedGroup.shard1.xml"));
+        assertEquals(
+                Arrays.asList("<mean>5</mean>"),
+                read(destination, "grouped/first/featuresAggregatedGroup.shard2.xml"));
+    }
+
+    /** Merging again into the same destination replaces, rather than duplicates, its contents. */
+    @Test
+    void testMergeTwice() throws IOException {
+        Path first = directory.resolve("first");
+        Path second = directory.resolve("second");
+        write(first, CSV, "name,value", "a,1");
+        write(second, CSV, "name,value", "b,2");
+        write(first, JobManifest.FILENAME, "jobA");
+        write(second, JobManifest.FILENAME, "jobB");
+        write(first, OTHER, "first");
+
+        Path destination = directory.resolve("merged");
+        ShardOutputMerger.merge(Arrays.asList(first, second), destination);
+
+        write(first, OTHER, "changed");
+        ShardOutputMerger.merge(Arrays.asList(first, second), destination);
+
+        assertEquals(Arrays.asList("name,value", "a,1", "b,2"), read(destination, CSV));
+        assertEquals(Arrays.asList("jobA", "jobB"), read(destination, JobManifest.FILENAME));
+        assertEquals(Arrays.asList("changed"), read(destination, OTHER));
+    }
+
+    /** Job-manifests are concatenated, retaining every line. */
+    @Test
+    void testMergeManifest() throws IOException {
+        Path first = directory.resolve("first");
+        Path second = directory.resolve("second");
+        write(first, JobManifest.FILENAME, "jobA");
+        write(second, JobManifest.FILENAME, "jobB");
+
+        Path destination = directory.resolve("merged");
+        ShardOutputMerger.merge(Arrays.asList(first, second), destination);
+
+        assertEquals(Arrays.asList("jobA", "jobB"), read(destination, JobManifest.FILENAME));
+    }
+
+    private static void write(Path directory, String relativePath, String... lines)
+            throws IOException {
+        Path path = directory.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> read(Path directory, String relativePath) throws IOException {
+        return Files.readAllLines(directory.resolve(relativePath), StandardCharsets.UTF_8);
+    }
+}
@@ -43,7 +43,7 @@ import org.anchoranalysis.feature.io.name.MultiName;
 public class RowLabels {
 
     /** Unique identifier for the row taking all elements together (together a primary key). */
-    private final Optional<String[]> identifier;
+    @Getter private final Optional<String[]> identifier;
 
     /** An identifier for a higher-level group which the row belongs to (foreign key) */
     @Getter private final Optional<MultiName> group;
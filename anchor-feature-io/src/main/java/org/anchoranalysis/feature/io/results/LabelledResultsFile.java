@@ -0,0 +1,253 @@
+/*-
+ * #%L
+ * anchor-feature-io
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.feature.io.results;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.feature.io.csv.metadata.RowLabels;
+import org.anchoranalysis.feature.io.name.MultiName;
+import org.anchoranalysis.feature.io.name.MultiNameFactory;
+import org.anchoranalysis.feature.results.ResultsVector;
+
+/**
+ * Writes {@link LabelledResultsVector}s to a file, and reads them again.
+ *
+ * <p>This allows results to be persisted, and restored in a later execution without being
+ * calculated again e.g. when a job that already completed is skipped, but its results are still
+ * needed for a {@link org.anchoranalysis.feature.io.results.group.GroupedResults}.
+ *
+ * <p>Each {@link LabelledResultsVector} is a line of tab-separated fields:
+ *
+ * <ol>
+ *   <li>the number of elements in the identifier, or -1 if there is no identifier.
+ *   <li>each element of the identifier.
+ *   <li>the first and second part of the group, each empty if absent.
+ *   <li>each result, or the message of the exception, for an errored result.
+ * </ol>
+ *
+ * <p>Strings are prefixed with {@code =} (to distinguish an empty string from an absent one), and
+ * error messages with {@code !}. Tabs, newlines and backslashes are escaped with a backslash.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class LabelledResultsFile {
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String PREFIX_STRING = "=";
+
+    private static final String PREFIX_ERROR = "!";
+
+    /**
+     * Writes results to a file, replacing any existing file.
+     *
+     * @param results the results to write.
+     * @param path the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Collection<LabelledResultsVector> results, Path path)
+            throws IOException {
+        List<String> lines = new ArrayList<>(results.size());
+        for (LabelledResultsVector vector : results) {
+            lines.add(describe(vector));
+        }
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads results from a file, that was previously written with {@link #write}.
+     *
+     * <p>Errored results are restored as errors, with an exception containing only the original
+     * message.
+     *
+     * @param path the path of the file.
+     * @return the results, in the same order as they were written.
+     * @throws IOException if the file cannot be read, or is not in the expected format.
+     */
+    public static List<LabelledResultsVector> read(Path path) throws IOException {
+        List<LabelledResultsVector> out = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) {
+                out.add(parse(line, path));
+            }
+        }
+        return out;
+    }
+
+    /** Describes a {@link LabelledResultsVector} as a single line. */
+    private static String describe(LabelledResultsVector vector) {
+        List<String> fields = new ArrayList<>();
+
+        RowLabels labels = vector.getLabels();
+        if (labels.getIdentifier().isPresent()) {
+            String[] identifier = labels.getIdentifier().get();
+            fields.add(String.valueOf(identifier.length));
+            for (String element : identifier) {
+                fields.add(PREFIX_STRING + escape(element));
+            }
+        } else {
+            fields.add("-1");
+        }
+
+        Optional<MultiName> group = labels.getGroup();
+        fields.add(describeOptional(group.flatMap(MultiName::firstPart)));
+        fields.add(describeOptional(group.map(MultiName::secondPart)));
+
+        ResultsVector results = vector.getResults();
+        for (int index = 0; index < results.size(); index++) {
+            if (results.isError(index)) {
+                String message = String.valueOf(results.getError(index).getMessage());
+                fields.add(PREFIX_ERROR + escape(message));
+            } else {
+                fields.add(Double.toString(results.get(index)));
+            }
+        }
+        return String.join(FIELD_SEPARATOR, fields);
+    }
+
+    /** Derives a {@link LabelledResultsVector} from a line created by {@link #describe}. */
+    private static LabelledResultsVector parse(String line, Path path) throws IOException {
+        String[] fields = line.split(FIELD_SEPARATOR, -1);
+        try {
+            int position = 0;
+
+            int numberIdentifiers = Integer.parseInt(fields[position++]);
+            Optional<String[]> identifier = Optional.empty();
+            if (numberIdentifiers >= 0) {
+                String[] elements = new String[numberIdentifiers];
+                for (int i = 0; i < numberIdentifiers; i++) {
+                    elements[i] = parseString(fields[position++]);
+                }
+                identifier = Optional.of(elements);
+            }
+
+            Optional<String> groupFirst = parseOptional(fields[position++]);
+            Optional<String> groupSecond = parseOptional(fields[position++]);
+            Optional<MultiName> group =
+                    groupSecond.map(second -> MultiNameFactory.create(groupFirst, second));
+
+            ResultsVector results = new ResultsVector(fields.length - position);
+            for (int index = 0; position < fields.length; index++) {
+                String field = fields[position++];
+                if (field.startsWith(PREFIX_ERROR)) {
+                    results.setError(
+                            index,
+                            new OperationFailedException(
+                                    unescape(field.substring(PREFIX_ERROR.length()))));
+                } else {
+                    results.set(index, Double.parseDouble(field));
+                }
+            }
+            return new LabelledResultsVector(new RowLabels(identifier, group), results);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException(
+                    String.format("An unexpected line exists in %s: %s", path, line), e);
+        }
+    }
+
+    /** Describes an optional string, as an empty field if absent. */
+    private static String describeOptional(Optional<String> value) {
+        return value.map(string -> PREFIX_STRING + escape(string)).orElse("");
+    }
+
+    /** Parses a field created by {@link #describeOptional}. */
+    private static Optional<String> parseOptional(String field) {
+        if (field.isEmpty()) {
+            return Optional.empty();
+        } else {
+            return Optional.of(parseString(field));
+        }
+    }
+
+    /** Parses a field that contains a prefixed string. */
+    private static String parseString(String field) {
+        if (!field.startsWith(PREFIX_STRING)) {
+            throw new IllegalArgumentException("A string field is missing its prefix: " + field);
+        }
+        return unescape(field.substring(PREFIX_STRING.length()));
+    }
+
+    /** Escapes backslashes, tabs and newlines, so a string can be placed in a field. */
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (char character : value.toCharArray()) {
+            switch (character) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                default:
+                    builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    /** Reverses {@link #escape}. */
+    private static String unescape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    default:
+                        builder.append(next);
+                }
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+}
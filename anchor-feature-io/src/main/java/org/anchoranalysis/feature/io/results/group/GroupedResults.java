@@ -25,6 +25,8 @@
  */
 package org.anchoranalysis.feature.io.results.group;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
 import org.anchoranalysis.feature.input.FeatureInputResults;
 import org.anchoranalysis.feature.io.csv.metadata.FeatureCSVMetadataForOutput;
@@ -33,6 +35,7 @@ import org.anchoranalysis.feature.io.csv.results.LabelledResultsCSVWriter;
 import org.anchoranalysis.feature.io.csv.results.LabelledResultsCSVWriterFactory;
 import org.anchoranalysis.feature.io.results.FeatureOutputMetadata;
 import org.anchoranalysis.feature.io.results.LabelledResultsCollector;
+import org.anchoranalysis.feature.io.results.LabelledResultsFile;
 import org.anchoranalysis.feature.io.results.LabelledResultsVector;
 import org.anchoranalysis.feature.store.NamedFeatureStore;
 import org.anchoranalysis.io.output.error.OutputWriteFailedException;
@@ -69,6 +72,21 @@ public class GroupedResults {
         map.addResultsFor(results);
     }
 
+    /**
+     * Adds results that were persisted to a file, but doesn't write yet.
+     *
+     * <p>This restores results written by an earlier execution e.g. for a job that is skipped, as
+     * it already completed.
+     *
+     * @param path the path to a file written by {@link LabelledResultsFile#write}.
+     * @throws IOException if the file cannot be read.
+     */
+    public void addResultsFrom(Path path) throws IOException {
+        for (LabelledResultsVector results : LabelledResultsFile.read(path)) {
+            addResultsFor(results);
+        }
+    }
+
     /**
      * Writes outputs for groups that have been previously added with {@link #addResultsFor}.
      *
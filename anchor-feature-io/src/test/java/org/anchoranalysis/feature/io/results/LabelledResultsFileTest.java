@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * anchor-feature-io
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.feature.io.results;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.feature.io.csv.metadata.RowLabels;
+import org.anchoranalysis.feature.io.name.MultiNameFactory;
+import org.anchoranalysis.feature.results.ResultsVector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link LabelledResultsFile}.
+ *
+ * @author Owen Feehan
+ */
+class LabelledResultsFileTest {
+
+    @TempDir Path directory;
+
+    /** Writes and reads rows with differing labels, values and errors. */
+    @Test
+    void testWriteRead() throws IOException {
+        ResultsVector withError = createResults(1.5, Double.NaN, -3.0);
+        withError.setError(1, new OperationFailedException("a\tmultiline\nmessage"));
+
+        List<LabelledResultsVector> written =
+                Arrays.asList(
+                        new LabelledResultsVector(
+                                new RowLabels(
+                                        Optional.of(new String[] {"image", "tab\there", ""}),
+                                        Optional.of(MultiNameFactory.create(Optional.of("g"), "x"))),
+                                createResults(0.25, Double.NaN, 7.0)),
+                        new LabelledResultsVector(
+                                Optional.of(MultiNameFactory.create(Optional.empty(), "back\\")),
+                                withError),
+                        new LabelledResultsVector(createResults()));
+
+        Path path = directory.resolve("results");
+        LabelledResultsFile.write(written, path);
+        List<LabelledResultsVector> read = LabelledResultsFile.read(path);
+
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertIdentical(written.get(i), read.get(i));
+        }
+    }
+
+    private static void assertIdentical(
+            LabelledResultsVector expected, LabelledResultsVector actual) {
+        RowLabels expectedLabels = expected.getLabels();
+        RowLabels actualLabels = actual.getLabels();
+        assertEquals(
+                expectedLabels.getIdentifier().isPresent(),
+                actualLabels.getIdentifier().isPresent());
+        if (expectedLabels.getIdentifier().isPresent()) {
+            assertArrayEquals(
+                    expectedLabels.getIdentifier().get(), actualLabels.getIdentifier().get());
+        }
+        assertEquals(expectedLabels.getGroup(), actualLabels.getGroup());
+
+        ResultsVector expectedResults = expected.getResults();
+        ResultsVector actualResults = actual.getResults();
+        assertEquals(expectedResults.size(), actualResults.size());
+        for (int index = 0; index < expectedResults.size(); index++) {
+            if (expectedResults.isError(index)) {
+                assertTrue(actualResults.isError(index));
+                assertEquals(
+                        expectedResults.getError(index).getMessage(),
+                        actualResults.getError(index).getMessage());
+            } else {
+                assertFalse(actualResults.isError(index));
+                assertEquals(expectedResults.get(index), actualResults.get(index));
+            }
+        }
+    }
+
+    private static ResultsVector createResults(double... values) {
+        ResultsVector results = new ResultsVector(values.length);
+        for (int index = 0; index < values.length; index++) {
+            results.set(index, values[index]);
+        }
+        return results;
+    }
+}
@@ -26,7 +26,10 @@
 
 package org.anchoranalysis.feature.session;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.anchoranalysis.core.exception.InitializeException;
@@ -177,6 +180,44 @@ public class FeatureSession {
         return session;
     }
 
+    /**
+     * Starts a feature-session for a list of features, which calculates batches of inputs in
+     * parallel.
+     *
+     * <p>A separate session is started for each of {@code parallelism} threads, each with its own
+     * deep-copy of {@code features}, and its own caches. The shared-features are not copied.
+     *
+     * <p>See {@link ParallelSession} for how batches are split.
+     *
+     * @param <T> type of parameters for all features.
+     * @param features a list of features accepting uniform type.
+     * @param initialization the particular initialization.
+     * @param sharedFeatures the particular shared-features to use for initialization.
+     * @param logger a logger.
+     * @param parallelism the maximum number of threads a batch is split across.
+     * @param executor executes the calculation on each thread.
+     * @return a calculator that will call calculate all the features in the list for each
+     *     parameter, splitting any batch of inputs across threads.
+     * @throws InitializeException if any session cannot be successfully initialized.
+     */
+    public static <T extends FeatureInput> FeatureCalculatorMulti<T> withParallel(
+            FeatureList<T> features,
+            FeatureInitialization initialization,
+            SharedFeatures sharedFeatures,
+            Logger logger,
+            int parallelism,
+            ExecutorService executor)
+            throws InitializeException {
+        List<SequentialSession<T>> sessions = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            FeatureList<T> featuresForSession = i == 0 ? features : features.duplicateBean();
+            SequentialSession<T> session = new SequentialSession<>(featuresForSession);
+            startSession(session, initialization, sharedFeatures, logger);
+            sessions.add(session);
+        }
+        return new ParallelSession<>(sessions, executor);
+    }
+
     /**
      * Starts a feature-session for a single feature - and performs a calculation.
      *
@@ -0,0 +1,183 @@
+/*-
+ * #%L
+ * anchor-feature-session
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.feature.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.anchoranalysis.core.log.error.ErrorReporter;
+import org.anchoranalysis.core.log.error.ErrorReporterBuffered;
+import org.anchoranalysis.feature.bean.list.FeatureList;
+import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
+import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
+import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsBlock;
+import org.anchoranalysis.feature.results.ResultsVector;
+
+/**
+ * Calculates a batch of inputs in parallel, by splitting the batch into contiguous chunks, each
+ * calculated by a different calculator on a separate thread.
+ *
+ * <p>Each calculator should have its own features and caches, so that nothing is shared between
+ * threads.
+ *
+ * <p>Errors for each chunk are recorded into a separate {@link ErrorReporter}, and afterwards
+ * transferred in input-order to the {@link ErrorReporter} passed to {@link #calculateBatch}, on the
+ * calling thread.
+ *
+ * <p>Any single-input calculation is performed by the first calculator, on the calling thread.
+ *
+ * <p>All calls are serialized, as a calculator can only be used by one thread at a time.
+ *
+ * @author Owen Feehan
+ * @param <T> feature input-type
+ */
+public class ParallelSession<T extends FeatureInput> implements FeatureCalculatorMulti<T> {
+
+    /** The minimum number of inputs in a chunk, so small batches are split into fewer chunks. */
+    private static final int MINIMUM_INPUTS_PER_CHUNK = 64;
+
+    /** The calculators, one for each chunk. */
+    private final List<FeatureCalculatorMulti<T>> calculators;
+
+    /** Executes the chunks. */
+    private final ExecutorService executor;
+
+    /**
+     * Creates with particular calculators.
+     *
+     * @param calculators the calculators, which should already be started, each independent of the
+     *     others. At most one chunk is created for each calculator. There must be at least one.
+     * @param executor executes the chunks.
+     */
+    public ParallelSession(
+            List<? extends FeatureCalculatorMulti<T>> calculators, ExecutorService executor) {
+        if (calculators.isEmpty()) {
+            throw new IllegalArgumentException("At least one calculator is required.");
+        }
+        this.calculators = new ArrayList<>(calculators);
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized ResultsVector calculate(T input) throws NamedFeatureCalculateException {
+        return first().calculate(input);
+    }
+
+    @Override
+    public synchronized ResultsVector calculate(T input, FeatureList<T> featuresSubset)
+            throws NamedFeatureCalculateException {
+        return first().calculate(input, featuresSubset);
+    }
+
+    @Override
+    public synchronized ResultsVector calculateSuppressErrors(
+            T input, ErrorReporter errorReporter) {
+        return first().calculateSuppressErrors(input, errorReporter);
+    }
+
+    @Override
+    public synchronized ResultsBlock calculateBatch(
+            List<T> inputs, ErrorReporter errorReporter, boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+
+        int numberChunks = Math.min(calculators.size(), inputs.size() / MINIMUM_INPUTS_PER_CHUNK);
+        if (numberChunks <= 1) {
+            return first().calculateBatch(inputs, errorReporter, suppressErrors);
+        }
+
+        List<ErrorReporterBuffered> chunkReporters = new ArrayList<>(numberChunks);
+        List<Callable<ResultsBlock>> chunks = new ArrayList<>(numberChunks);
+        for (int chunk = 0; chunk < numberChunks; chunk++) {
+            List<T> chunkInputs =
+                    inputs.subList(
+                            startIndex(chunk, numberChunks, inputs.size()),
+                            startIndex(chunk + 1, numberChunks, inputs.size()));
+            FeatureCalculatorMulti<T> calculator = calculators.get(chunk);
+            ErrorReporterBuffered chunkReporter = new ErrorReporterBuffered();
+            chunkReporters.add(chunkReporter);
+            chunks.add(() -> calculator.calculateBatch(chunkInputs, chunkReporter, suppressErrors));
+        }
+
+        return mergeInOrder(chunks, chunkReporters, errorReporter, inputs.size());
+    }
+
+    @Override
+    public int sizeFeatures() {
+        return first().sizeFeatures();
+    }
+
+    /**
+     * Executes each chunk, and combines their results and errors, preserving order.
+     *
+     * <p>Errors are only transferred after all chunks have completed.
+     */
+    private ResultsBlock mergeInOrder(
+            List<Callable<ResultsBlock>> chunks,
+            List<ErrorReporterBuffered> chunkReporters,
+            ErrorReporter errorReporter,
+            int numberInputs)
+            throws NamedFeatureCalculateException {
+        try {
+            List<Future<ResultsBlock>> futures = executor.invokeAll(chunks);
+            for (ErrorReporterBuffered chunkReporter : chunkReporters) {
+                chunkReporter.transferTo(errorReporter);
+            }
+
+            ResultsBlock out = new ResultsBlock(sizeFeatures(), numberInputs);
+            int offset = 0;
+            for (Future<ResultsBlock> future : futures) {
+                ResultsBlock chunk = future.get();
+                out.copyFrom(offset, chunk);
+                offset += chunk.sizeInputs();
+            }
+            return out;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NamedFeatureCalculateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NamedFeatureCalculateException) {
+                throw (NamedFeatureCalculateException) e.getCause();
+            } else {
+                throw new NamedFeatureCalculateException(e);
+            }
+        }
+    }
+
+    /** The calculator used for single inputs, and for batches too small to split. */
+    private FeatureCalculatorMulti<T> first() {
+        return calculators.get(0);
+    }
+
+    /** The index of the first input in a chunk, so that chunks are of near-equal size. */
+    private static int startIndex(int chunk, int numberChunks, int numberInputs) {
+        return (int) (((long) chunk * numberInputs) / numberChunks);
+    }
+}
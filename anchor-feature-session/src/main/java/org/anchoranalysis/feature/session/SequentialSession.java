@@ -26,6 +26,9 @@
 
 package org.anchoranalysis.feature.session;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import org.anchoranalysis.bean.exception.BeanMisconfiguredException;
 import org.anchoranalysis.core.exception.InitializeException;
 import org.anchoranalysis.core.exception.OperationFailedException;
@@ -39,6 +42,7 @@ import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
 import org.anchoranalysis.feature.initialization.FeatureInitialization;
 import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsBlock;
 import org.anchoranalysis.feature.results.ResultsVector;
 import org.anchoranalysis.feature.session.replace.BoundReplaceStrategy;
 import org.anchoranalysis.feature.session.replace.ReplaceStrategy;
@@ -63,6 +67,14 @@ public class SequentialSession<T extends FeatureInput> implements FeatureCalcula
     private static final String ERROR_NOT_STARTED =
             "Session has not been started yet. Call start().";
 
+    /**
+     * The maximum number of inputs that are calculated together in {@link #calculateBatch}.
+     *
+     * <p>Each of these inputs retains its own {@link FeatureCalculationInput}, and therefore its
+     * own caches, until all features have been calculated.
+     */
+    private static final int MAX_INPUTS_PER_PASS = 128;
+
     private FeatureList<T> listFeatures;
 
     private boolean isStarted = false;
@@ -167,11 +179,138 @@ public class SequentialSession<T extends FeatureInput> implements FeatureCalcula
         return results;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each feature is calculated for successive inputs, before moving to the next feature. The
+     * inputs are processed in passes of up to {@value #MAX_INPUTS_PER_PASS}, with each input in a
+     * pass retaining its own caches until the pass is complete.
+     *
+     * <p>The strategies associated with each position in a pass are reused across passes, but not
+     * across calls, so no input (nor its caches) is retained after this method returns.
+     */
+    @Override
+    public ResultsBlock calculateBatch(
+            List<T> inputs, ErrorReporter errorReporter, boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+
+        ResultsBlock results = new ResultsBlock(listFeatures.size(), inputs.size());
+
+        if (!isStarted) {
+            if (!suppressErrors) {
+                throw new NamedFeatureCalculateException(ERROR_NOT_STARTED);
+            }
+            errorReporter.recordError(SequentialSession.class, ERROR_NOT_STARTED);
+            results.setErrorAll(new OperationFailedException(ERROR_NOT_STARTED));
+            return results;
+        }
+
+        // Strategies for each position in a pass, which are discarded after all passes
+        List<ReplaceStrategy<T>> strategies = new ArrayList<>();
+
+        for (int start = 0; start < inputs.size(); start += MAX_INPUTS_PER_PASS) {
+            int end = Math.min(start + MAX_INPUTS_PER_PASS, inputs.size());
+            calculatePass(
+                    inputs.subList(start, end),
+                    start,
+                    strategies,
+                    results,
+                    errorReporter,
+                    suppressErrors);
+        }
+        return results;
+    }
+
     @Override
     public int sizeFeatures() {
         return listFeatures.size();
     }
 
+    /**
+     * Calculates each feature in turn for all {@code inputs}, assigning results to {@code results}
+     * starting at {@code offset}.
+     */
+    private void calculatePass(
+            List<T> inputs,
+            int offset,
+            List<ReplaceStrategy<T>> strategies,
+            ResultsBlock results,
+            ErrorReporter errorReporter,
+            boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+
+        List<Optional<FeatureCalculationInput<T>>> sessionInputs =
+                createSessionInputs(
+                        inputs, offset, strategies, results, errorReporter, suppressErrors);
+
+        for (int i = 0; i < listFeatures.size(); i++) {
+            Feature<T> feature = listFeatures.get(i);
+            ResultsVector column = results.column(i);
+
+            for (int j = 0; j < sessionInputs.size(); j++) {
+                Optional<FeatureCalculationInput<T>> sessionInput = sessionInputs.get(j);
+                if (!sessionInput.isPresent()) {
+                    // Already recorded as errored for all features
+                    continue;
+                }
+
+                try {
+                    column.set(offset + j, sessionInput.get().calculate(feature));
+                } catch (Exception e) {
+                    if (!suppressErrors) {
+                        throw new NamedFeatureCalculateException(
+                                feature.getFriendlyName(), e.getMessage());
+                    }
+                    if (reportErrors) {
+                        errorReporter.recordError(SequentialSession.class, e);
+                    }
+                    column.setError(offset + j, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a distinct {@link FeatureCalculationInput} for each input in a pass.
+     *
+     * <p>If one cannot be created, and errors are suppressed, all features for that input are
+     * recorded as errored, and {@link Optional#empty} is placed in the list.
+     */
+    private List<Optional<FeatureCalculationInput<T>>> createSessionInputs(
+            List<T> inputs,
+            int offset,
+            List<ReplaceStrategy<T>> strategies,
+            ResultsBlock results,
+            ErrorReporter errorReporter,
+            boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+        List<Optional<FeatureCalculationInput<T>>> out = new ArrayList<>(inputs.size());
+        for (int j = 0; j < inputs.size(); j++) {
+            try {
+                out.add(Optional.of(strategyAt(strategies, j).createOrReuse(inputs.get(j))));
+            } catch (Exception e) {
+                if (!suppressErrors) {
+                    throw new NamedFeatureCalculateException(e);
+                }
+                if (reportErrors) {
+                    errorReporter.recordError(SequentialSession.class, e);
+                }
+                results.setErrorRow(offset + j, e);
+                out.add(Optional.empty());
+            }
+        }
+        return out;
+    }
+
+    /** The strategy to use for a particular position in a pass, creating it if necessary. */
+    private ReplaceStrategy<T> strategyAt(List<ReplaceStrategy<T>> strategies, int index)
+            throws OperationFailedException {
+        while (strategies.size() <= index) {
+            strategies.add(replacePolicyFactory.createAdditional());
+        }
+        return strategies.get(index);
+    }
+
     /** Calculate the results for {@code input} without throwing an exception for an error. */
     private void calculateCommonSuppressErrors(
             ResultsVector results, T input, ErrorReporter errorReporter) {
@@ -185,9 +324,7 @@ public class SequentialSession<T extends FeatureInput> implements FeatureCalcula
             if (reportErrors) {
                 errorReporter.recordError(SequentialSession.class, e);
             }
-            for (int i = 0; i < listFeatures.size(); i++) {
-                results.setError(i, e);
-            }
+            results.setErrorAll(e);
             return;
         }
 
@@ -26,7 +26,13 @@
 
 package org.anchoranalysis.feature.session.calculator;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import org.anchoranalysis.core.cache.CacheLimits;
+import org.anchoranalysis.core.cache.CacheStatistics;
 import org.anchoranalysis.core.cache.LRUCache;
 import org.anchoranalysis.core.index.GetOperationFailedException;
 import org.anchoranalysis.core.log.error.ErrorReporter;
@@ -34,15 +40,19 @@ import org.anchoranalysis.feature.bean.list.FeatureList;
 import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
 import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsBlock;
 import org.anchoranalysis.feature.results.ResultsVector;
 
 /**
  * A {@link FeatureCalculatorMulti} but calculations are cached to avoid repetition if equal {@link
  * FeatureInput} are passed.
  *
+ * <p>Counts of hits, misses and evictions for the cache are available via {@link #statistics()}.
+ *
  * @author Owen Feehan
+ * @param <T> feature-input type
  */
-class CachedMulti<T extends FeatureInput> implements FeatureCalculatorMulti<T> {
+public class CachedMulti<T extends FeatureInput> implements FeatureCalculatorMulti<T> {
 
     private final FeatureCalculatorMulti<T> source;
     private final LRUCache<T, ResultsVector> cacheResults;
@@ -60,8 +70,18 @@ class CachedMulti<T extends FeatureInput> implements FeatureCalculatorMulti<T> {
      * @param cacheSize size of cache to use.
      */
     public CachedMulti(FeatureCalculatorMulti<T> source, int cacheSize) {
+        this(source, CacheLimits.numberEntries(cacheSize));
+    }
+
+    /**
+     * Creates a feature-calculator with a new cache, with particular limits.
+     *
+     * @param source the underlying feature-calculator to use for calculating unknown results.
+     * @param limits limits on the size of the cache, and for how long entries are retained.
+     */
+    public CachedMulti(FeatureCalculatorMulti<T> source, CacheLimits<ResultsVector> limits) {
         this.source = source;
-        this.cacheResults = new LRUCache<>(cacheSize, this::calculateInsideCache);
+        this.cacheResults = new LRUCache<>(limits, this::calculateInsideCache);
     }
 
     @Override
@@ -85,6 +105,46 @@ class CachedMulti<T extends FeatureInput> implements FeatureCalculatorMulti<T> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Any inputs that are not already cached, are calculated together in a single batch by the
+     * underlying calculator, and then added to the cache.
+     */
+    @Override
+    public ResultsBlock calculateBatch(
+            List<T> inputs, ErrorReporter errorReporter, boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+        ResultsBlock out = new ResultsBlock(source.sizeFeatures(), inputs.size());
+
+        // The positions in out, for each input that is not already cached
+        Map<T, List<Integer>> missing = new LinkedHashMap<>();
+        for (int index = 0; index < inputs.size(); index++) {
+            T input = inputs.get(index);
+            Optional<ResultsVector> cached = cacheResults.getIfPresent(input);
+            if (cached.isPresent()) {
+                out.setRow(index, cached.get());
+            } else {
+                missing.computeIfAbsent(input, key -> new ArrayList<>()).add(index);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<T> missingInputs = new ArrayList<>(missing.keySet());
+            ResultsBlock calculated =
+                    source.calculateBatch(missingInputs, errorReporter, suppressErrors);
+            for (int i = 0; i < missingInputs.size(); i++) {
+                T input = missingInputs.get(i);
+                ResultsVector results = calculated.row(i);
+                cacheResults.put(input, results);
+                for (int index : missing.get(input)) {
+                    out.setRow(index, results);
+                }
+            }
+        }
+        return out;
+    }
+
     @Override
     public ResultsVector calculate(T input, FeatureList<T> featuresSubset)
             throws NamedFeatureCalculateException {
@@ -118,6 +178,15 @@ class CachedMulti<T extends FeatureInput> implements FeatureCalculatorMulti<T> {
         return cacheResults.sizeCurrentLoad();
     }
 
+    /**
+     * Counts of hits, misses and evictions for the cache.
+     *
+     * @return a newly created snapshot of the counts.
+     */
+    public CacheStatistics statistics() {
+        return cacheResults.statistics();
+    }
+
     /** Return a vector with all {@link Double#NaN}s. */
     private ResultsVector createNaNVector(GetOperationFailedException e) {
         ResultsVector results = new ResultsVector(source.sizeFeatures());
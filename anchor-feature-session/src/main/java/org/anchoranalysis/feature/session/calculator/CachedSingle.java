@@ -26,19 +26,25 @@
 
 package org.anchoranalysis.feature.session.calculator;
 
+import org.anchoranalysis.core.cache.CacheLimits;
+import org.anchoranalysis.core.cache.CacheStatistics;
 import org.anchoranalysis.core.log.error.ErrorReporter;
 import org.anchoranalysis.feature.calculate.FeatureCalculationException;
 import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorSingle;
 import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsVector;
 
 /**
  * A {@link FeatureCalculatorSingle} but calculations are cached to avoid repetition if equal {@link
  * FeatureInput} are passed.
  *
+ * <p>Counts of hits, misses and evictions for the cache are available via {@link #statistics()}.
+ *
  * @author Owen Feehan
+ * @param <T> feature-input type
  */
-class CachedSingle<T extends FeatureInput> implements FeatureCalculatorSingle<T> {
+public class CachedSingle<T extends FeatureInput> implements FeatureCalculatorSingle<T> {
 
     private final CachedMulti<T> delegate;
 
@@ -49,7 +55,17 @@ class CachedSingle<T extends FeatureInput> implements FeatureCalculatorSingle<T>
      * @param cacheSize size of cache.
      */
     public CachedSingle(FeatureCalculatorSingle<T> source, int cacheSize) {
-        delegate = new CachedMulti<>(new MultiFromSingle<>(source), cacheSize);
+        this(source, CacheLimits.numberEntries(cacheSize));
+    }
+
+    /**
+     * Creates a feature-calculator with a new cache, with particular limits.
+     *
+     * @param source the underlying feature-calculator to use for calculating unknown results.
+     * @param limits limits on the size of the cache, and for how long entries are retained.
+     */
+    public CachedSingle(FeatureCalculatorSingle<T> source, CacheLimits<ResultsVector> limits) {
+        delegate = new CachedMulti<>(new MultiFromSingle<>(source), limits);
     }
 
     @Override
@@ -65,4 +81,13 @@ class CachedSingle<T extends FeatureInput> implements FeatureCalculatorSingle<T>
     public double calculateSuppressErrors(T input, ErrorReporter errorReporter) {
         return delegate.calculateSuppressErrors(input, errorReporter).get(0);
     }
+
+    /**
+     * Counts of hits, misses and evictions for the cache.
+     *
+     * @return a newly created snapshot of the counts.
+     */
+    public CacheStatistics statistics() {
+        return delegate.statistics();
+    }
 }
@@ -27,9 +27,11 @@ package org.anchoranalysis.feature.session.calculator;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.anchoranalysis.core.cache.CacheLimits;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorSingle;
 import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsVector;
 
 /**
  * Adds a cache to a {@link FeatureCalculatorSingle} or {@link FeatureCalculatorMulti}.
@@ -37,6 +39,9 @@ import org.anchoranalysis.feature.input.FeatureInput;
  * <p>This caches the results created by the calculators. It is not an internal cache used within
  * the feature-calculation itself.
  *
+ * <p>To access statistics about the cache, create a {@link CachedSingle} or {@link CachedMulti}
+ * directly instead.
+ *
  * @author Owen Feehan
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -44,6 +49,9 @@ public class FeatureCalculatorCache {
 
     private static final int DEFAULT_CACHE_SIZE = 1000;
 
+    /** Approximate number of bytes used by a {@link ResultsVector}, excluding its elements. */
+    private static final int RESULTS_VECTOR_OVERHEAD_BYTES = 48;
+
     /**
      * Creates a cached version of a {@link FeatureCalculatorSingle} with a default cache-size.
      *
@@ -93,4 +101,46 @@ public class FeatureCalculatorCache {
             FeatureCalculatorMulti<T> calculator, int cacheSize) {
         return new CachedMulti<>(calculator, cacheSize);
     }
+
+    /**
+     * Creates a cached version of a {@link FeatureCalculatorSingle} with particular limits.
+     *
+     * @param <T> feature-input type
+     * @param calculator the calculator to cache.
+     * @param limits limits on the size of the cache, and for how long entries are retained.
+     * @return a calculator that caches {@link FeatureCalculatorSingle}.
+     */
+    public static <T extends FeatureInput> FeatureCalculatorSingle<T> cache(
+            FeatureCalculatorSingle<T> calculator, CacheLimits<ResultsVector> limits) {
+        return new CachedSingle<>(calculator, limits);
+    }
+
+    /**
+     * Creates a cached version of a {@link FeatureCalculatorMulti} with particular limits.
+     *
+     * @param <T> feature-input type
+     * @param calculator the calculator to cache.
+     * @param limits limits on the size of the cache, and for how long entries are retained.
+     * @return a calculator that caches {@link FeatureCalculatorMulti}.
+     */
+    public static <T extends FeatureInput> FeatureCalculatorMulti<T> cache(
+            FeatureCalculatorMulti<T> calculator, CacheLimits<ResultsVector> limits) {
+        return new CachedMulti<>(calculator, limits);
+    }
+
+    /**
+     * Limits a cache of results to an approximate total memory usage.
+     *
+     * <p>The memory used by each {@link ResultsVector} is estimated from the number of results it
+     * contains.
+     *
+     * @param maximumBytes the maximum total number of bytes (approximately) that cached results may
+     *     occupy.
+     * @return newly created limits.
+     */
+    public static CacheLimits<ResultsVector> limitMemory(long maximumBytes) {
+        return CacheLimits.weight(
+                maximumBytes,
+                results -> RESULTS_VECTOR_OVERHEAD_BYTES + results.size() * Double.BYTES);
+    }
 }
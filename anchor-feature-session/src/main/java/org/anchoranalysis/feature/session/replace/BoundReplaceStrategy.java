@@ -30,6 +30,7 @@ import java.util.Optional;
 import java.util.function.Function;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.log.Logger;
 import org.anchoranalysis.feature.bean.list.FeatureList;
 import org.anchoranalysis.feature.calculate.cache.CacheCreator;
@@ -60,6 +61,9 @@ public class BoundReplaceStrategy<T extends FeatureInput, S extends ReplaceStrat
     /** The strategy that has been bound (if it exists). */
     @Getter private Optional<S> strategy = Optional.empty();
 
+    /** The cache-creator used to create {@code strategy} (if it exists). */
+    private Optional<CacheCreator> cacheCreator = Optional.empty();
+
     /**
      * Creates a {@link ReplaceStrategy} for a particular {@link CacheCreator}, or reuses any
      * previously-created {@link ReplaceStrategy} if it exists.
@@ -76,10 +80,30 @@ public class BoundReplaceStrategy<T extends FeatureInput, S extends ReplaceStrat
             SharedFeatures sharedFeatures,
             Logger logger) {
         if (!strategy.isPresent()) {
-            CacheCreator cacheCreator =
-                    new HorizontalCacheCreator(features, sharedFeatures, initialization, logger);
-            strategy = Optional.of(createStrategy.apply(cacheCreator));
+            cacheCreator =
+                    Optional.of(
+                            new HorizontalCacheCreator(
+                                    features, sharedFeatures, initialization, logger));
+            strategy = Optional.of(createStrategy.apply(cacheCreator.get()));
         }
         return strategy.get();
     }
+
+    /**
+     * Creates an additional {@link ReplaceStrategy}, independent of the bound strategy, but using
+     * the same {@link CacheCreator}.
+     *
+     * <p>This allows several inputs to be associated with a distinct {@link
+     * org.anchoranalysis.feature.calculate.FeatureCalculationInput} at the same time.
+     *
+     * @return a newly created {@link ReplaceStrategy}.
+     * @throws OperationFailedException if {@link #createOrReuse} has not yet been called.
+     */
+    public S createAdditional() throws OperationFailedException {
+        if (!cacheCreator.isPresent()) {
+            throw new OperationFailedException(
+                    "A strategy must first be bound, before creating additional strategies.");
+        }
+        return createStrategy.apply(cacheCreator.get());
+    }
 }
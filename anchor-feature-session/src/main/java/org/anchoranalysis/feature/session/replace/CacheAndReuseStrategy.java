@@ -27,6 +27,7 @@
 package org.anchoranalysis.feature.session.replace;
 
 import lombok.Getter;
+import org.anchoranalysis.core.cache.CacheLimits;
 import org.anchoranalysis.core.cache.LRUCache;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.index.GetOperationFailedException;
@@ -56,8 +57,19 @@ public class CacheAndReuseStrategy<T extends FeatureInput> implements ReplaceStr
      * @param cacheCreator the cache-creator.
      */
     public CacheAndReuseStrategy(CacheCreator cacheCreator) {
+        this(cacheCreator, CacheLimits.numberEntries(CACHE_SIZE));
+    }
+
+    /**
+     * Create with a particular {@link CacheCreator} and limits on the cache.
+     *
+     * @param cacheCreator the cache-creator.
+     * @param limits limits on the size of the cache, and for how long entries are retained.
+     */
+    public CacheAndReuseStrategy(
+            CacheCreator cacheCreator, CacheLimits<FeatureCalculationInput<T>> limits) {
         ReplaceStrategy<T> delegate = new AlwaysNew<>(cacheCreator);
-        cache = new LRUCache<>(CACHE_SIZE, delegate::createOrReuse);
+        cache = new LRUCache<>(limits, delegate::createOrReuse);
     }
 
     @Override
@@ -26,12 +26,25 @@
 
 package org.anchoranalysis.feature.session;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.anchoranalysis.core.exception.InitializeException;
+import org.anchoranalysis.core.log.error.ErrorReporter;
 import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.initialization.FeatureInitialization;
 import org.anchoranalysis.feature.input.FeatureInput;
 import org.anchoranalysis.feature.input.FeatureInputNull;
+import org.anchoranalysis.feature.results.ResultsBlock;
 import org.anchoranalysis.feature.results.ResultsVector;
+import org.anchoranalysis.feature.session.replace.AlwaysNew;
+import org.anchoranalysis.feature.session.replace.BoundReplaceStrategy;
+import org.anchoranalysis.feature.session.replace.ReplaceStrategy;
 import org.anchoranalysis.feature.shared.SharedFeatures;
 import org.anchoranalysis.test.LoggerFixture;
 import org.anchoranalysis.test.feature.ConstantsInListFixture;
@@ -39,16 +52,17 @@ import org.junit.jupiter.api.Test;
 
 class FeatureSessionTest {
 
+    /** Enough inputs to need several passes in {@link SequentialSession#calculateBatch}. */
+    private static final int NUMBER_BATCH_INPUTS = 300;
+
+    /** Indices of inputs that fail, in the first and a later pass. */
+    private static final List<Integer> FAILING_INDICES = Arrays.asList(5, 200);
+
     @Test
     void testCalculateSimpleListOfFeatures()
             throws InitializeException, NamedFeatureCalculateException {
 
-        SequentialSession<FeatureInput> session =
-                new SequentialSession<>(ConstantsInListFixture.create());
-        session.start(
-                new FeatureInitialization(),
-                new SharedFeatures(),
-                LoggerFixture.suppressedLogger());
+        SequentialSession<FeatureInput> session = createStartedSession();
 
         ResultsVector results1 = session.calculate(FeatureInputNull.instance());
         ConstantsInListFixture.checkResultsVector(results1);
@@ -56,4 +70,96 @@ class FeatureSessionTest {
         ResultsVector results2 = session.calculate(FeatureInputNull.instance());
         ConstantsInListFixture.checkResultsVector(results2);
     }
+
+    @Test
+    void testCalculateBatch() throws InitializeException, NamedFeatureCalculateException {
+
+        SequentialSession<FeatureInput> session = createStartedSession();
+
+        List<FeatureInput> inputs =
+                Collections.nCopies(NUMBER_BATCH_INPUTS, FeatureInputNull.instance());
+        ErrorReporter errorReporter = LoggerFixture.suppressedLogger().errorReporter();
+        ResultsBlock results = session.calculateBatch(inputs, errorReporter, false);
+
+        assertEquals(NUMBER_BATCH_INPUTS, results.sizeInputs());
+        assertEquals(session.sizeFeatures(), results.sizeFeatures());
+        for (int index = 0; index < NUMBER_BATCH_INPUTS; index++) {
+            ConstantsInListFixture.checkResultsVector(results.row(index));
+        }
+    }
+
+    /**
+     * When errors are suppressed, an input whose calculation cannot be prepared is recorded as
+     * errored for all features, without affecting other inputs.
+     */
+    @Test
+    void testCalculateBatchSuppressErrors()
+            throws InitializeException, NamedFeatureCalculateException {
+
+        FeatureInput failing = new FeatureInput() {};
+        SequentialSession<FeatureInput> session = createStartedSession(failing);
+
+        List<FeatureInput> inputs =
+                new ArrayList<>(
+                        Collections.nCopies(NUMBER_BATCH_INPUTS, FeatureInputNull.instance()));
+        for (int index : FAILING_INDICES) {
+            inputs.set(index, failing);
+        }
+
+        ErrorReporter errorReporter = LoggerFixture.suppressedLogger().errorReporter();
+        ResultsBlock results = session.calculateBatch(inputs, errorReporter, true);
+
+        for (int index = 0; index < NUMBER_BATCH_INPUTS; index++) {
+            ResultsVector row = results.row(index);
+            if (FAILING_INDICES.contains(index)) {
+                for (int feature = 0; feature < session.sizeFeatures(); feature++) {
+                    assertTrue(row.isError(feature));
+                }
+            } else {
+                ConstantsInListFixture.checkResultsVector(row);
+            }
+        }
+
+        // The same input is recorded identically, when calculated individually
+        ResultsVector individually = session.calculateSuppressErrors(failing, errorReporter);
+        assertTrue(individually.isError(0));
+
+        assertThrows(
+                NamedFeatureCalculateException.class,
+                () -> session.calculateBatch(inputs, errorReporter, false));
+    }
+
+    private static SequentialSession<FeatureInput> createStartedSession()
+            throws InitializeException {
+        return start(new SequentialSession<>(ConstantsInListFixture.create()));
+    }
+
+    /** Creates a session, where preparing the calculation for {@code failing} throws. */
+    private static SequentialSession<FeatureInput> createStartedSession(FeatureInput failing)
+            throws InitializeException {
+        BoundReplaceStrategy<FeatureInput, ReplaceStrategy<FeatureInput>> strategy =
+                new BoundReplaceStrategy<>(
+                        cacheCreator -> failFor(failing, new AlwaysNew<>(cacheCreator)));
+        return start(new SequentialSession<>(ConstantsInListFixture.create(), strategy));
+    }
+
+    /** A strategy that throws an unchecked exception for {@code failing}, otherwise delegates. */
+    private static ReplaceStrategy<FeatureInput> failFor(
+            FeatureInput failing, ReplaceStrategy<FeatureInput> delegate) {
+        return input -> {
+            if (input == failing) {
+                throw new IllegalStateException("Cannot prepare calculation for input.");
+            }
+            return delegate.createOrReuse(input);
+        };
+    }
+
+    private static SequentialSession<FeatureInput> start(SequentialSession<FeatureInput> session)
+            throws InitializeException {
+        session.start(
+                new FeatureInitialization(),
+                new SharedFeatures(),
+                LoggerFixture.suppressedLogger());
+        return session;
+    }
 }
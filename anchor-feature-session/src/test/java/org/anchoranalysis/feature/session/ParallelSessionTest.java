@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * anchor-feature-session
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.feature.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.anchoranalysis.core.exception.InitializeException;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.feature.bean.list.FeatureList;
+import org.anchoranalysis.feature.bean.list.FeatureListFactory;
+import org.anchoranalysis.feature.bean.operator.Constant;
+import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
+import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
+import org.anchoranalysis.feature.initialization.FeatureInitialization;
+import org.anchoranalysis.feature.results.ResultsBlock;
+import org.anchoranalysis.feature.shared.SharedFeatures;
+import org.anchoranalysis.test.LoggerFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ParallelSession} produces identical results to a {@link SequentialSession}.
+ *
+ * @author Owen Feehan
+ */
+class ParallelSessionTest {
+
+    private static final int PARALLELISM = 4;
+
+    private static final Logger LOGGER = LoggerFixture.suppressedLogger();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(PARALLELISM);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** A batch large enough to be split across every thread, of unequal size. */
+    @Test
+    void testLargeBatch() throws InitializeException, NamedFeatureCalculateException {
+        assertSameAsSequential(1001);
+    }
+
+    /** A batch too small to be split, so calculated on the calling thread. */
+    @Test
+    void testSmallBatch() throws InitializeException, NamedFeatureCalculateException {
+        assertSameAsSequential(10);
+    }
+
+    private void assertSameAsSequential(int numberInputs)
+            throws InitializeException, NamedFeatureCalculateException {
+        List<IndexInput> inputs = createInputs(numberInputs);
+
+        ResultsBlock expected =
+                FeatureSession.with(createFeatures(), LOGGER)
+                        .calculateBatch(inputs, LOGGER.errorReporter(), false);
+
+        FeatureCalculatorMulti<IndexInput> parallel =
+                FeatureSession.withParallel(
+                        createFeatures(),
+                        new FeatureInitialization(),
+                        new SharedFeatures(),
+                        LOGGER,
+                        PARALLELISM,
+                        executor);
+        ResultsBlock actual = parallel.calculateBatch(inputs, LOGGER.errorReporter(), false);
+
+        assertEquals(numberInputs, actual.sizeInputs());
+        for (int index = 0; index < numberInputs; index++) {
+            assertEquals(expected.row(index), actual.row(index), "row " + index);
+        }
+    }
+
+    private static FeatureList<IndexInput> createFeatures() {
+        return FeatureListFactory.from(
+                new IndexFeature(1.0), new IndexFeature(2.5), new Constant<>(3.0));
+    }
+
+    private static List<IndexInput> createInputs(int numberInputs) {
+        List<IndexInput> inputs = new ArrayList<>(numberInputs);
+        for (int index = 0; index < numberInputs; index++) {
+            inputs.add(new IndexInput(index));
+        }
+        return inputs;
+    }
+}
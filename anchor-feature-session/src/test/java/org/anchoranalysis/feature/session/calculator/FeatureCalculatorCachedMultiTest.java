@@ -28,6 +28,7 @@ package org.anchoranalysis.feature.session.calculator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.anchoranalysis.core.cache.CacheStatistics;
 import org.anchoranalysis.feature.calculate.FeatureCalculationException;
 import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.results.ResultsVector;
@@ -80,6 +81,26 @@ class FeatureCalculatorCachedMultiTest {
         assertCurrentLoad(2);
     }
 
+    /**
+     * Checks that repeated inputs are counted as hits, and that checking for an input is not
+     * counted at all.
+     *
+     * @throws NamedFeatureCalculateException
+     */
+    @Test
+    void testStatistics() throws NamedFeatureCalculateException {
+        cached.calculate(INPUT_1);
+        cached.calculate(INPUT_2);
+        cached.calculate(INPUT_1_REPEATED);
+
+        assertInputExists(INPUT_1);
+        assertInputMissing(new MockFeatureInput("3"));
+
+        CacheStatistics statistics = cached.statistics();
+        assertEquals(1, statistics.getHitCount(), "hits");
+        assertEquals(2, statistics.getMissCount(), "misses");
+    }
+
     private void assertCurrentLoad(int expectedLoad) {
         assertEquals(expectedLoad, cached.sizeCurrentLoad());
     }
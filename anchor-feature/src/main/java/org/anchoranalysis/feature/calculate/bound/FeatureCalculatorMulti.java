@@ -26,12 +26,14 @@
 
 package org.anchoranalysis.feature.calculate.bound;
 
+import java.util.List;
 import org.anchoranalysis.core.log.error.ErrorReporter;
 import org.anchoranalysis.feature.bean.Feature;
 import org.anchoranalysis.feature.bean.list.FeatureList;
 import org.anchoranalysis.feature.calculate.FeatureCalculator;
 import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsBlock;
 import org.anchoranalysis.feature.results.ResultsVector;
 
 /**
@@ -95,6 +97,33 @@ public interface FeatureCalculatorMulti<T extends FeatureInput> {
         }
     }
 
+    /**
+     * Calculates the results for each of several {@code inputs}, either calling {@link #calculate}
+     * or {@link #calculateSuppressErrors} depending on a flag.
+     *
+     * <p>By default, each input is calculated in turn, but implementations may override this to
+     * calculate the batch more efficiently, e.g. by calculating each feature across all inputs,
+     * before moving to the next feature.
+     *
+     * @param inputs the inputs to calculate.
+     * @param errorReporter where errors are recorded.
+     * @param suppressErrors if true, errors are recorded via the {@code errorReporter}. if false,
+     *     they are thrown as exceptions.
+     * @return the results of the calculation, with a row for each input (in the same order as
+     *     {@code inputs}) and a column for each feature.
+     * @throws NamedFeatureCalculateException if {@code suppressErrors==false} and an error occurs
+     *     during calculation.
+     */
+    default ResultsBlock calculateBatch(
+            List<T> inputs, ErrorReporter errorReporter, boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+        ResultsBlock out = new ResultsBlock(sizeFeatures(), inputs.size());
+        for (int index = 0; index < inputs.size(); index++) {
+            out.setRow(index, calculate(inputs.get(index), errorReporter, suppressErrors));
+        }
+        return out;
+    }
+
     /**
      * The number of features that is calculated on each call to {@link #calculate}, and therefore
      * the size of the returned {@link ResultsVector}.
@@ -26,12 +26,14 @@
 
 package org.anchoranalysis.feature.calculate.bound;
 
+import java.util.List;
 import java.util.function.Consumer;
 import lombok.AllArgsConstructor;
 import org.anchoranalysis.core.log.error.ErrorReporter;
 import org.anchoranalysis.feature.bean.list.FeatureList;
 import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.results.ResultsBlock;
 import org.anchoranalysis.feature.results.ResultsVector;
 
 /**
@@ -67,6 +69,14 @@ public class FeatureCalculatorMultiChangeInput<T extends FeatureInput>
         return calculator.calculateSuppressErrors(input, errorReporter);
     }
 
+    @Override
+    public ResultsBlock calculateBatch(
+            List<T> inputs, ErrorReporter errorReporter, boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+        inputs.forEach(change);
+        return calculator.calculateBatch(inputs, errorReporter, suppressErrors);
+    }
+
     @Override
     public int sizeFeatures() {
         return calculator.sizeFeatures();
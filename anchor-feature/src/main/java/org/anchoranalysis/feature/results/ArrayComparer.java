@@ -28,22 +28,18 @@ package org.anchoranalysis.feature.results;
 
 class ArrayComparer {
 
-    public boolean compareArrays(Object[] objects1, Object[] objects2) {
-        if (objects1 == null) {
-            return (objects2.length == 0);
+    public boolean compareArrays(ResultsVector results, Object[] objects) {
+        if (objects == null) {
+            return (results.size() == 0);
         }
 
-        if (objects2 == null) {
-            return (objects1.length == 0);
-        }
-
-        if (objects1.length != objects2.length) {
+        if (results.size() != objects.length) {
             return false;
         }
 
-        for (int i = 0; i < objects1.length; i++) {
+        for (int i = 0; i < objects.length; i++) {
 
-            if (!compareItem(objects1[i], objects2[i])) {
+            if (!compareItem(results.getBoxed(i), objects[i])) {
                 return false;
             }
         }
@@ -0,0 +1,177 @@
+/*-
+ * #%L
+ * anchor-feature
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.feature.results;
+
+/**
+ * The results of calculating several features for several inputs, stored column-major.
+ *
+ * <p>Each column is a {@link ResultsVector} with the results of a single feature for every input,
+ * so that the results for a given feature are contiguous in memory.
+ *
+ * <p>A row (the results of every feature for a single input) can be extracted as a {@link
+ * ResultsVector}, but this involves copying.
+ *
+ * @author Owen Feehan
+ */
+public class ResultsBlock {
+
+    /** The results for each feature, each indexed by input. */
+    private final ResultsVector[] columns;
+
+    /** The number of inputs. */
+    private final int numberInputs;
+
+    /**
+     * Creates with a particular number of features and inputs, with all results initially zero.
+     *
+     * @param numberFeatures the number of features (columns).
+     * @param numberInputs the number of inputs (rows).
+     */
+    public ResultsBlock(int numberFeatures, int numberInputs) {
+        this.numberInputs = numberInputs;
+        this.columns = new ResultsVector[numberFeatures];
+        for (int feature = 0; feature < numberFeatures; feature++) {
+            columns[feature] = new ResultsVector(numberInputs);
+        }
+    }
+
+    /**
+     * The results of a particular feature for every input.
+     *
+     * <p>This is the underlying storage, so any change to the returned vector also changes this
+     * block.
+     *
+     * @param featureIndex the index of the feature (zero-indexed).
+     * @return a vector with a result for each input, in the same order as the inputs.
+     */
+    public ResultsVector column(int featureIndex) {
+        return columns[featureIndex];
+    }
+
+    /**
+     * The results of every feature for a particular input.
+     *
+     * @param inputIndex the index of the input (zero-indexed).
+     * @return a newly created vector with a result for each feature, copied from the block.
+     */
+    public ResultsVector row(int inputIndex) {
+        ResultsVector row = new ResultsVector(columns.length);
+        for (int feature = 0; feature < columns.length; feature++) {
+            ResultsVector column = columns[feature];
+            if (column.isError(inputIndex)) {
+                row.setError(feature, column.getError(inputIndex));
+            } else {
+                row.set(feature, column.get(inputIndex));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Assigns the results of every feature for a particular input.
+     *
+     * @param inputIndex the index of the input (zero-indexed).
+     * @param results a result for each feature, in the same order as the columns.
+     */
+    public void setRow(int inputIndex, ResultsVector results) {
+        for (int feature = 0; feature < columns.length; feature++) {
+            if (results.isError(feature)) {
+                columns[feature].setError(inputIndex, results.getError(feature));
+            } else {
+                columns[feature].set(inputIndex, results.get(feature));
+            }
+        }
+    }
+
+    /**
+     * Sets an error state for every feature of a particular input.
+     *
+     * @param inputIndex the index of the input (zero-indexed).
+     * @param exception the error state.
+     */
+    public void setErrorRow(int inputIndex, Exception exception) {
+        for (ResultsVector column : columns) {
+            column.setError(inputIndex, exception);
+        }
+    }
+
+    /**
+     * Sets an error state for every feature of every input.
+     *
+     * @param exception the error state.
+     */
+    public void setErrorAll(Exception exception) {
+        for (ResultsVector column : columns) {
+            column.setErrorAll(exception);
+        }
+    }
+
+    /**
+     * Copies all results from another block, which must have the same number of features.
+     *
+     * @param inputIndex the index of the input (zero-indexed) in this block, to copy the first
+     *     input of {@code source} into.
+     * @param source the block to copy from.
+     */
+    public void copyFrom(int inputIndex, ResultsBlock source) {
+        for (int feature = 0; feature < columns.length; feature++) {
+            columns[feature].copyFrom(inputIndex, source.numberInputs, source.columns[feature], 0);
+        }
+    }
+
+    /**
+     * Converts to a row-major representation, with one {@link ResultsVector} for each input.
+     *
+     * @return a newly created list, with an element for each input, in the same order as the
+     *     inputs.
+     */
+    public ResultsVectorList toRows() {
+        ResultsVectorList out = new ResultsVectorList(numberInputs);
+        for (int input = 0; input < numberInputs; input++) {
+            out.add(row(input));
+        }
+        return out;
+    }
+
+    /**
+     * The number of features (columns).
+     *
+     * @return the number of features.
+     */
+    public int sizeFeatures() {
+        return columns.length;
+    }
+
+    /**
+     * The number of inputs (rows).
+     *
+     * @return the number of inputs.
+     */
+    public int sizeInputs() {
+        return numberInputs;
+    }
+}
@@ -26,6 +26,7 @@
 
 package org.anchoranalysis.feature.results;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Optional;
 import org.anchoranalysis.core.value.TypedValue;
@@ -35,19 +36,30 @@ import org.apache.commons.lang.builder.HashCodeBuilder;
  * A vector of results of applying a feature-calculations to many entities.
  *
  * <p>Each position in the vector describes the result for a single entity. The result is either a
- * {@link Double} or an {@link Exception}.
+ * {@code double} or an {@link Exception}.
  *
  * <p>An {@link Exception} indicates that the feature-calculation ended in failure, producing the
  * exception.
  *
+ * <p>Results are stored in a primitive {@code double[]} array, without boxing. Exceptions are
+ * stored separately in an array that is only allocated when the first error occurs, and errored
+ * positions hold {@link Double#NaN} in the primitive array.
+ *
  * @author Owen Feehan
  */
 public class ResultsVector {
 
     private static final ArrayComparer DEFAULT_COMPARER = new ArrayComparer();
 
-    /** Each object is either a {@link Double} or an {@link Exception}. */
-    private Object[] vector;
+    /** The result for each position, or {@link Double#NaN} if the position is errored. */
+    private double[] vector;
+
+    /**
+     * The error (if any) for each position, or null if no position has ever been errored.
+     *
+     * <p>An element is non-null, only if the corresponding position is errored.
+     */
+    private Exception[] errors;
 
     /**
      * Creates with a particular size.
@@ -55,7 +67,7 @@ public class ResultsVector {
      * @param size the number of results the vector can store.
      */
     public ResultsVector(int size) {
-        vector = new Object[size];
+        vector = new double[size];
     }
 
     /**
@@ -79,6 +91,9 @@ public class ResultsVector {
      */
     public void set(int index, double value) {
         vector[index] = value;
+        if (errors != null) {
+            errors[index] = null;
+        }
     }
 
     /**
@@ -88,10 +103,7 @@ public class ResultsVector {
      * @param resultsToAssign the values to assign in {@code startIndex} and subsequent positions.
      */
     public void set(int startIndex, ResultsVector resultsToAssign) {
-        for (int index = 0; index < resultsToAssign.size(); index++) {
-            Object value = resultsToAssign.vector[index];
-            vector[startIndex + index] = value;
-        }
+        copyFrom(startIndex, resultsToAssign.size(), resultsToAssign, 0);
     }
 
     /**
@@ -101,7 +113,9 @@ public class ResultsVector {
      * @param exception the error state.
      */
     public void setError(int index, Exception exception) {
-        vector[index] = exception;
+        vector[index] = Double.NaN;
+        allocateErrorsIfNecessary();
+        errors[index] = exception;
     }
 
     /**
@@ -110,9 +124,19 @@ public class ResultsVector {
      * @param exception the error state.
      */
     public void setErrorAll(Exception exception) {
-        for (int index = 0; index < vector.length; index++) {
-            setError(index, exception);
-        }
+        Arrays.fill(vector, Double.NaN);
+        allocateErrorsIfNecessary();
+        Arrays.fill(errors, exception);
+    }
+
+    /**
+     * Is a particular position errored?
+     *
+     * @param index the position (zero-indexed).
+     * @return true if the position is errored, false if it holds a result.
+     */
+    public boolean isError(int index) {
+        return errors != null && errors[index] != null;
     }
 
     /**
@@ -121,10 +145,10 @@ public class ResultsVector {
      * <p>This should <b>only</b> be called at positions which for sure are errored.
      *
      * @param index the position (zero-indexed).
-     * @return the exception for the error.
+     * @return the exception for the error, or null if the position is not errored.
      */
     public Exception getError(int index) {
-        return (Exception) vector[index];
+        return errorOrNull(index);
     }
 
     /**
@@ -134,14 +158,10 @@ public class ResultsVector {
      * @return the result-value if unerrored, or {@link Optional#empty} if the position is errored.
      */
     public Optional<Double> getResult(int index) {
-
-        Object obj = vector[index];
-
-        if (obj instanceof Exception) {
+        if (isError(index)) {
             return Optional.empty();
         }
-
-        return Optional.of((Double) obj);
+        return Optional.of(vector[index]);
     }
 
     /**
@@ -152,16 +172,8 @@ public class ResultsVector {
      *     exception occurred during calculation.
      */
     public double get(int index) {
-
-        Object obj = vector[index];
-
-        if (obj instanceof Exception) {
-            return Double.NaN;
-        }
-
-        assert obj instanceof Double;
-
-        return (Double) obj;
+        // Errored positions already hold NaN
+        return vector[index];
     }
 
     /**
@@ -174,11 +186,13 @@ public class ResultsVector {
      */
     public void copyFrom(int index, int length, ResultsVector source, int sourceIndex) {
 
-        for (int i = 0; i < length; i++) {
-            int indexIn = sourceIndex + i;
-            int indexOut = index + i;
+        System.arraycopy(source.vector, sourceIndex, vector, index, length);
 
-            vector[indexOut] = source.vector[indexIn];
+        if (source.errors != null) {
+            allocateErrorsIfNecessary();
+            System.arraycopy(source.errors, sourceIndex, errors, index, length);
+        } else if (errors != null) {
+            Arrays.fill(errors, index, index + length, null);
         }
     }
 
@@ -217,7 +231,7 @@ public class ResultsVector {
      * @return true, if the results in this object are exactly the same as {@code values}.
      */
     public boolean equals(Object... values) {
-        return DEFAULT_COMPARER.compareArrays(vector, values);
+        return DEFAULT_COMPARER.compareArrays(this, values);
     }
 
     /**
@@ -229,7 +243,7 @@ public class ResultsVector {
      *     tolerance.
      */
     public boolean equalsPrecision(double eps, Object... values) {
-        return new ArrayComparerPrecision(eps).compareArrays(vector, values);
+        return new ArrayComparerPrecision(eps).compareArrays(this, values);
     }
 
     @Override
@@ -244,12 +258,25 @@ public class ResultsVector {
 
         ResultsVector other = (ResultsVector) obj;
 
-        return DEFAULT_COMPARER.compareArrays(vector, other.vector);
+        if (!Arrays.equals(vector, other.vector)) {
+            return false;
+        }
+
+        for (int index = 0; index < vector.length; index++) {
+            if (!errorsEqual(errorOrNull(index), other.errorOrNull(index))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder().append(vector).toHashCode();
+        HashCodeBuilder builder = new HashCodeBuilder().append(vector);
+        for (int index = 0; index < vector.length; index++) {
+            builder.append(errorOrNull(index));
+        }
+        return builder.toHashCode();
     }
 
     // Exceptions are shown as NA
@@ -265,9 +292,48 @@ public class ResultsVector {
         return builder.toString();
     }
 
+    /**
+     * The result at a particular position, either a boxed {@link Double} or an {@link Exception}.
+     *
+     * <p>This boxes, and is intended only for comparisons, not for routine access.
+     *
+     * @param index the position (zero-indexed).
+     * @return the result or exception at the position.
+     */
+    Object getBoxed(int index) {
+        if (isError(index)) {
+            return errors[index];
+        } else {
+            return vector[index];
+        }
+    }
+
     /** A textual description of what is contained in the vector at a particular position. */
     private String getString(int index) {
-        Object obj = vector[index];
-        return obj.toString();
+        if (isError(index)) {
+            return errors[index].toString();
+        } else {
+            return Double.toString(vector[index]);
+        }
+    }
+
+    /** The exception at a particular position, or null if it is not errored. */
+    private Exception errorOrNull(int index) {
+        return errors != null ? errors[index] : null;
+    }
+
+    /** Allocates the array of errors, if not already allocated. */
+    private void allocateErrorsIfNecessary() {
+        if (errors == null) {
+            errors = new Exception[vector.length];
+        }
+    }
+
+    private static boolean errorsEqual(Exception first, Exception second) {
+        if (first == null) {
+            return second == null;
+        } else {
+            return first.equals(second);
+        }
     }
 }
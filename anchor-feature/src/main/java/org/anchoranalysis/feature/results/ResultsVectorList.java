@@ -42,6 +42,15 @@ public class ResultsVectorList implements Iterable<ResultsVector> {
 
     private List<ResultsVector> list = new ArrayList<>();
 
+    /**
+     * Creates with an initial capacity.
+     *
+     * @param initialCapacity how many items the list can contain before needing to grow.
+     */
+    public ResultsVectorList(int initialCapacity) {
+        list = new ArrayList<>(initialCapacity);
+    }
+
     /**
      * Creates with the list containing a single item.
      *
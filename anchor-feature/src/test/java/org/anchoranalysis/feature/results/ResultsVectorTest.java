@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * anchor-feature
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.feature.results;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ResultsVector}.
+ *
+ * @author Owen Feehan
+ */
+class ResultsVectorTest {
+
+    private static final Exception ERROR = new Exception("first error");
+
+    private static final Exception ERROR_OTHER = new Exception("second error");
+
+    /** A vector without any errors never reports an error at any position. */
+    @Test
+    void testValuesOnly() {
+        ResultsVector results = createSequence(3);
+        for (int index = 0; index < 3; index++) {
+            assertFalse(results.isError(index));
+            assertNull(results.getError(index));
+            assertEquals(Optional.of((double) index), results.getResult(index));
+            assertEquals(index, results.get(index));
+        }
+        assertTrue(results.equals(0.0, 1.0, 2.0));
+        assertEquals(3.0, results.total());
+    }
+
+    /** Errors can be set at individual positions, and later be replaced by values. */
+    @Test
+    void testSetError() {
+        ResultsVector results = createSequence(3);
+        results.setError(1, ERROR);
+
+        assertFalse(results.isError(0));
+        assertTrue(results.isError(1));
+        assertSame(ERROR, results.getError(1));
+        assertEquals(Optional.empty(), results.getResult(1));
+        assertTrue(Double.isNaN(results.get(1)));
+        assertTrue(Double.isNaN(results.total()));
+        assertTrue(results.equals(0.0, ERROR, 2.0));
+
+        results.set(1, 5.0);
+        assertFalse(results.isError(1));
+        assertNull(results.getError(1));
+        assertTrue(results.equals(0.0, 5.0, 2.0));
+    }
+
+    /** All positions become errored, and can individually be set to values afterwards. */
+    @Test
+    void testSetErrorAll() {
+        ResultsVector results = createSequence(3);
+        results.setErrorAll(ERROR);
+        for (int index = 0; index < 3; index++) {
+            assertTrue(results.isError(index));
+            assertSame(ERROR, results.getError(index));
+        }
+
+        results.set(2, 7.0);
+        assertTrue(results.equals(ERROR, ERROR, 7.0));
+    }
+
+    /** Copies a mixture of values and errors into a vector, and values over existing errors. */
+    @Test
+    void testCopyFrom() {
+        ResultsVector source = createSequence(4);
+        source.setError(2, ERROR);
+
+        ResultsVector destination = new ResultsVector(5);
+        destination.set(0, 10.0);
+        destination.copyFrom(1, 3, source, 1);
+        assertTrue(destination.equals(10.0, 1.0, ERROR, 3.0, 0.0));
+
+        // Copying from a vector without errors, clears any errors in the copied region only
+        destination.setError(4, ERROR_OTHER);
+        destination.set(1, createSequence(3));
+        assertTrue(destination.equals(10.0, 0.0, 1.0, 2.0, ERROR_OTHER));
+    }
+
+    /** Vectors are equal with identical values and errors, irrespective of how they were built. */
+    @Test
+    void testEqualsAndHashCode() {
+        ResultsVector first = createSequence(3);
+        first.setError(1, ERROR);
+
+        ResultsVector second = createSequence(3);
+        second.setErrorAll(ERROR);
+        second.set(0, 0.0);
+        second.set(2, 2.0);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        // A vector that has held an error, but no longer does, equals one that never did
+        ResultsVector cleared = createSequence(3);
+        cleared.setError(1, ERROR);
+        cleared.set(1, 1.0);
+        assertEquals(createSequence(3), cleared);
+        assertEquals(createSequence(3).hashCode(), cleared.hashCode());
+
+        ResultsVector differentError = createSequence(3);
+        differentError.setError(1, ERROR_OTHER);
+        assertNotEquals(first, differentError);
+
+        ResultsVector differentValue = createSequence(3);
+        differentValue.set(1, 8.0);
+        assertNotEquals(createSequence(3), differentValue);
+        assertNotEquals(first, differentValue);
+    }
+
+    /** Creates a {@link ResultsVector} where each value is identical to its index (zero-indexed). */
+    private static ResultsVector createSequence(int size) {
+        ResultsVector results = new ResultsVector(size);
+        for (int index = 0; index < size; index++) {
+            results.set(index, index);
+        }
+        return results;
+    }
+}
@@ -152,9 +152,15 @@ public class HistogramFromObjectsFactory {
         return total;
     }
 
+    /**
+     * Creates a histogram of the voxels in a single object.
+     *
+     * <p>As an object typically contains few distinct intensity values, relative to the range of a
+     * high bit-depth data-type, the histogram is stored sparsely when this range is large.
+     */
     private static Histogram createWithMask(Voxels<?> inputBuffer, ObjectMask object) {
 
-        Histogram histogram = new Histogram((int) inputBuffer.dataType().maxValue());
+        Histogram histogram = Histogram.createSparse((int) inputBuffer.dataType().maxValue());
 
         Extent extent = inputBuffer.extent();
 
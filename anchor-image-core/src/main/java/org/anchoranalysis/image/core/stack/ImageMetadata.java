@@ -84,4 +84,18 @@ public class ImageMetadata {
      * most important.
      */
     @Getter private Optional<ImagePyramidMetadata> pyramid;
+
+    /**
+     * An estimate of the memory required to hold all voxels in the image, across all channels and
+     * frames, but for a single series only.
+     *
+     * @return the estimated number of bytes.
+     */
+    public long estimateMemoryBytes() {
+        long bytesPerVoxel = Math.max((bitDepthPerChannel + 7) / 8, 1);
+        return dimensions.calculateVolume()
+                * Math.max(numberChannels, 1)
+                * Math.max(numberFrames, 1)
+                * bytesPerVoxel;
+    }
 }
@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * anchor-image-feature
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.feature.calculator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import org.anchoranalysis.core.exception.InitializeException;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.core.log.error.ErrorReporter;
+import org.anchoranalysis.feature.bean.list.FeatureList;
+import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
+import org.anchoranalysis.feature.energy.EnergyStack;
+import org.anchoranalysis.feature.input.FeatureInput;
+import org.anchoranalysis.feature.name.FeatureNameList;
+import org.anchoranalysis.feature.results.ResultsBlock;
+import org.anchoranalysis.feature.results.ResultsVector;
+import org.anchoranalysis.feature.session.ParallelSession;
+import org.anchoranalysis.image.bean.nonbean.init.ImageInitialization;
+
+/**
+ * Calculates a batch of inputs in parallel, by splitting the batch into contiguous chunks, each
+ * calculated on a separate thread.
+ *
+ * <p>Each thread uses its own calculator, created via {@link
+ * FeatureTableCalculator#duplicateForNewThread} and then started with the same initialization as
+ * the delegate, so that features and caches are never shared between threads. These duplicates are
+ * created when {@link #start} is called.
+ *
+ * <p>See {@link ParallelSession} for how batches are split, and how errors are reported.
+ *
+ * @author Owen Feehan
+ * @param <T> feature input-type
+ */
+public class ParallelTableCalculator<T extends FeatureInput> implements FeatureTableCalculator<T> {
+
+    private static final String ERROR_NOT_STARTED =
+            "The calculator has not been started yet. Call start().";
+
+    /** The calculator that is used for the first chunk, and from which others are duplicated. */
+    private final FeatureTableCalculator<T> delegate;
+
+    /** The maximum number of chunks a batch is split into. */
+    private final int parallelism;
+
+    /** Executes the chunks. */
+    private final ExecutorService executor;
+
+    /** Splits batches across the delegate and its duplicates, once started. */
+    private volatile Optional<ParallelSession<T>> session = Optional.empty();
+
+    /**
+     * Creates to split batches into a particular number of chunks, executed on a particular {@link
+     * ExecutorService}.
+     *
+     * @param delegate the calculator to duplicate for each thread.
+     * @param parallelism the maximum number of chunks a batch is split into.
+     * @param executor executes the chunks.
+     */
+    public ParallelTableCalculator(
+            FeatureTableCalculator<T> delegate, int parallelism, ExecutorService executor) {
+        this.delegate = delegate;
+        this.parallelism = parallelism;
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void start(
+            ImageInitialization initialization, Optional<EnergyStack> energyStack, Logger logger)
+            throws InitializeException {
+        List<FeatureTableCalculator<T>> calculators = new ArrayList<>(parallelism);
+        calculators.add(delegate);
+        for (int i = 1; i < parallelism; i++) {
+            calculators.add(delegate.duplicateForNewThread());
+        }
+
+        for (FeatureTableCalculator<T> calculator : calculators) {
+            calculator.start(initialization, energyStack, logger);
+        }
+        session = Optional.of(new ParallelSession<>(calculators, executor));
+    }
+
+    @Override
+    public ResultsVector calculate(T input) throws NamedFeatureCalculateException {
+        return startedSession().calculate(input);
+    }
+
+    @Override
+    public ResultsVector calculate(T input, FeatureList<T> featuresSubset)
+            throws NamedFeatureCalculateException {
+        return startedSession().calculate(input, featuresSubset);
+    }
+
+    @Override
+    public ResultsVector calculateSuppressErrors(T input, ErrorReporter errorReporter) {
+        // If not started, the delegate reports this as an error
+        return session.isPresent()
+                ? session.get().calculateSuppressErrors(input, errorReporter)
+                : delegate.calculateSuppressErrors(input, errorReporter);
+    }
+
+    @Override
+    public ResultsBlock calculateBatch(
+            List<T> inputs, ErrorReporter errorReporter, boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+        return startedSession().calculateBatch(inputs, errorReporter, suppressErrors);
+    }
+
+    @Override
+    public FeatureTableCalculator<T> duplicateForNewThread() {
+        return new ParallelTableCalculator<>(
+                delegate.duplicateForNewThread(), parallelism, executor);
+    }
+
+    @Override
+    public int sizeFeatures() {
+        return delegate.sizeFeatures();
+    }
+
+    @Override
+    public FeatureNameList createFeatureNames() {
+        return delegate.createFeatureNames();
+    }
+
+    /** The session, if {@link #start} has been called, otherwise an exception is thrown. */
+    private ParallelSession<T> startedSession() throws NamedFeatureCalculateException {
+        return session.orElseThrow(() -> new NamedFeatureCalculateException(ERROR_NOT_STARTED));
+    }
+}
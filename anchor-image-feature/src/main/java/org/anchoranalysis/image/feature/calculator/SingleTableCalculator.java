@@ -26,6 +26,7 @@
 
 package org.anchoranalysis.image.feature.calculator;
 
+import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.anchoranalysis.core.exception.InitializeException;
@@ -36,6 +37,7 @@ import org.anchoranalysis.feature.calculate.NamedFeatureCalculateException;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
 import org.anchoranalysis.feature.energy.EnergyStack;
 import org.anchoranalysis.feature.name.FeatureNameList;
+import org.anchoranalysis.feature.results.ResultsBlock;
 import org.anchoranalysis.feature.results.ResultsVector;
 import org.anchoranalysis.feature.session.FeatureSession;
 import org.anchoranalysis.feature.store.NamedFeatureStore;
@@ -89,6 +91,15 @@ public class SingleTableCalculator implements FeatureTableCalculator<FeatureInpu
         return calculator.calculateSuppressErrors(input, errorReporter);
     }
 
+    @Override
+    public ResultsBlock calculateBatch(
+            List<FeatureInputSingleObject> inputs,
+            ErrorReporter errorReporter,
+            boolean suppressErrors)
+            throws NamedFeatureCalculateException {
+        return calculator.calculateBatch(inputs, errorReporter, suppressErrors);
+    }
+
     @Override
     public int sizeFeatures() {
         return namedFeatureStore.size();
@@ -26,14 +26,20 @@
 package org.anchoranalysis.image.inference.bean.reduce;
 
 import lombok.AllArgsConstructor;
-import lombok.Value;
+import lombok.Getter;
+import lombok.ToString;
 import org.anchoranalysis.image.inference.segment.LabelledWithConfidence;
 import org.anchoranalysis.image.voxel.object.ObjectMask;
 
-/** An object that can be reduced. */
+/**
+ * An object that can be reduced.
+ *
+ * <p>Equality is by identity, so two newly-added objects with identical values are nevertheless
+ * distinct, as vertices in a graph or elements in a queue.
+ */
 @AllArgsConstructor
-@Value
-public class ObjectForReduction implements Comparable<ObjectForReduction> {
+@ToString
+public final class ObjectForReduction implements Comparable<ObjectForReduction> {
 
     /**
      * A special index value to indicate that an object has been newly-added.
@@ -44,13 +50,13 @@ public class ObjectForReduction implements Comparable<ObjectForReduction> {
     public static final int NEWLY_ADDED = -1;
 
     /** The underlying labelled {@link ObjectMask} for input to a reduction algorithm. */
-    private LabelledWithConfidence<ObjectMask> labelled;
+    @Getter private final LabelledWithConfidence<ObjectMask> labelled;
 
     /**
      * The index of the element in the original list for reduction, or {@link NEWLY_ADDED} if newly
      * added.
      */
-    private int index;
+    @Getter private final int index;
 
     /**
      * Creates with a {@link ObjectMask} that is considered newly-added.
@@ -26,9 +26,9 @@
 package org.anchoranalysis.image.inference.bean.reduce;
 
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Stream;
+import org.anchoranalysis.core.collection.IndexedPriorityQueue;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.exception.friendly.AnchorImpossibleSituationException;
 import org.anchoranalysis.core.graph.GraphWithoutPayload;
@@ -37,7 +37,7 @@ import org.anchoranalysis.image.voxel.object.IntersectingObjects;
 import org.anchoranalysis.image.voxel.object.ObjectMask;
 
 /**
- * Combines a {@link PriorityQueue} (ordering by highest confidence) and a graph-structure
+ * Combines a {@link IndexedPriorityQueue} (ordering by highest confidence) and a graph-structure
  * indicating which objects overlap with each other.
  *
  * <p>Any operation that changes one structure, will also update the other structure.
@@ -47,7 +47,7 @@ import org.anchoranalysis.image.voxel.object.ObjectMask;
 public class ReduceObjectsGraph {
 
     /** The priority queue that always gives priority to the highest-confidence object. */
-    private final PriorityQueue<ObjectForReduction> queue;
+    private final IndexedPriorityQueue<ObjectForReduction> queue;
 
     /** The graph with objects as vertices, and with an edge between any objects that intersect. */
     private final GraphWithoutPayload<ObjectForReduction> graph;
@@ -63,7 +63,7 @@ public class ReduceObjectsGraph {
         /** Tracks which objects overlap with other objects, updated as merges/deletions occur. */
         graph = new IntersectingObjects<>(vertices, ObjectForReduction::getElement).asGraph();
 
-        queue = new PriorityQueue<>(vertices);
+        queue = IndexedPriorityQueue.naturalOrder(vertices);
     }
 
     /**
@@ -139,7 +139,6 @@ public class ReduceObjectsGraph {
      * @throws OperationFailedException if the vertex doesn't exist in the graph.
      */
     public void removeVertex(ObjectForReduction vertex) throws OperationFailedException {
-        // This involves a linear search
         queue.remove(vertex);
 
         graph.removeVertex(vertex);
@@ -161,7 +160,6 @@ public class ReduceObjectsGraph {
             ObjectForReduction element1, ObjectForReduction element2, ObjectForReduction merged) {
         graph.mergeVertices(element1, element2, merged);
 
-        // This involves two linear searches
         queue.remove(element1);
         queue.remove(element2);
         queue.add(merged);
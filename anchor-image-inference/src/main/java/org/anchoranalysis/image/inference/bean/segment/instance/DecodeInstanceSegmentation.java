@@ -26,6 +26,7 @@
 package org.anchoranalysis.image.inference.bean.segment.instance;
 
 import java.util.List;
+import java.util.Optional;
 import org.anchoranalysis.bean.AnchorBean;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.image.inference.ImageInferenceContext;
@@ -57,6 +58,30 @@ public abstract class DecodeInstanceSegmentation<T>
     public abstract List<LabelledWithConfidence<MultiScaleObject>> decode(
             List<T> inferenceOutput, ImageInferenceContext context) throws OperationFailedException;
 
+    /**
+     * Copies whatever is needed from the output tensors, so that decoding can occur later, after
+     * the model (and its output tensors) have been released.
+     *
+     * <p>This is called while the model is still checked out from its pool. Any returned {@link
+     * DeferredDecode} is called, on the same thread, only after the model has been returned to the
+     * pool, so other jobs can use the model while decoding occurs. It must therefore not refer to
+     * {@code inferenceOutput}, whose tensors may no longer be valid.
+     *
+     * <p>By default, no copy occurs, and an empty {@link Optional} is returned, in which case
+     * {@link #decode} is called immediately, while the model is still checked out.
+     *
+     * @param inferenceOutput the tensors that are the result of the inference.
+     * @param context the context in which the inference is occurring.
+     * @return an operation that performs the equivalent of {@link #decode} on the copied data, if
+     *     deferred decoding is supported.
+     * @throws OperationFailedException if the tensors cannot be successfully copied.
+     */
+    public Optional<DeferredDecode> copyForDeferredDecode(
+            List<T> inferenceOutput, ImageInferenceContext context)
+            throws OperationFailedException {
+        return Optional.empty();
+    }
+
     /**
      * Ordered names of the tensors we are interested in processing, as outputted from inference.
      *
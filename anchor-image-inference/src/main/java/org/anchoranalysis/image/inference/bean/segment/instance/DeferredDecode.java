@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * anchor-image-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.inference.bean.segment.instance;
+
+import java.util.List;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.image.inference.segment.LabelledWithConfidence;
+import org.anchoranalysis.image.inference.segment.MultiScaleObject;
+
+/**
+ * Decodes inference output into segmented-objects, from data that was copied from the output
+ * tensors, so that it can occur after the model has been released.
+ *
+ * @see DecodeInstanceSegmentation#copyForDeferredDecode
+ * @author Owen Feehan
+ */
+@FunctionalInterface
+public interface DeferredDecode {
+
+    /**
+     * Decodes into {@link MultiScaleObject}s with confidence and labels.
+     *
+     * @return a newly created list of objects, with associated confidence, and labels.
+     * @throws OperationFailedException if it cannot be decoded successfully.
+     */
+    List<LabelledWithConfidence<MultiScaleObject>> decode() throws OperationFailedException;
+}
@@ -26,6 +26,8 @@
 package org.anchoranalysis.image.inference.bean.segment.instance;
 
 import java.util.List;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.image.inference.ImageInferenceContext;
@@ -54,6 +56,13 @@ class InferenceHelper<T, S extends ImageInferenceModel<T>> {
     /**
      * Performs inference, and decodes the outputted tensors into segmented-objects.
      *
+     * <p>If {@code decode} supports deferred decoding, the model is returned to the pool before
+     * decoding occurs, so that other jobs may perform inference with the model while this job
+     * decodes.
+     *
+     * <p>Decoding always occurs on the calling thread, after this job's inference has completed.
+     * No separate executor is used, as the calling thread would otherwise only wait for its result.
+     *
      * @param inputTensor the tensor on which inferencei s performed.
      * @param modelPool the models used for CNN inference
      * @param context the context of the inference
@@ -64,46 +73,83 @@ class InferenceHelper<T, S extends ImageInferenceModel<T>> {
     public List<LabelledWithConfidence<MultiScaleObject>> queueInference(
             T inputTensor, ConcurrentModelPool<S> modelPool, ImageInferenceContext context)
             throws Throwable {
-        return modelPool.executeOrWait(model -> performInference(model, inputTensor, context));
+        DecodeAfterRelease remaining =
+                modelPool.executeOrWait(model -> performInference(model, inputTensor, context));
+
+        // The model has now been returned to the pool, and decoding occurs on this thread
+        return remaining.decode();
     }
 
-    /** Performs inference on an {@code image} using {@code model}. */
-    private List<LabelledWithConfidence<MultiScaleObject>> performInference(
+    /**
+     * Performs inference on an {@code image} using {@code model}, copying the outputs if
+     * possible, or otherwise decoding them immediately.
+     */
+    private DecodeAfterRelease performInference(
             ConcurrentModel<S> model, T inputTensor, ImageInferenceContext context)
             throws ConcurrentModelException {
+        InferenceExecutionTimeRecorder recorder =
+                new InferenceExecutionTimeRecorder(
+                        context.getExecutionTimeRecorder(), model.isGpu());
         try {
-            InferenceExecutionTimeRecorder recorder =
-                    new InferenceExecutionTimeRecorder(
-                            context.getExecutionTimeRecorder(), model.isGpu());
-
             recorder.recordStartInference();
 
-            try {
-                return model.getModel()
-                        .performInference(
-                                inputTensor,
-                                inputName,
-                                decode.expectedOutputs(),
-                                outputs -> decodeOutputs(outputs, recorder, context));
-            } finally {
-                recorder.flush();
-            }
+            DeferredDecode deferred =
+                    model.getModel()
+                            .performInference(
+                                    inputTensor,
+                                    inputName,
+                                    decode.expectedOutputs(),
+                                    outputs -> copyOrDecode(outputs, recorder, context));
+            return new DecodeAfterRelease(deferred, recorder);
 
         } catch (Exception e) {
+            recorder.recordEndPost();
+            recorder.flush();
             throw new ConcurrentModelException(e);
         }
     }
 
-    private List<LabelledWithConfidence<MultiScaleObject>> decodeOutputs(
+    /**
+     * Copies the outputs for later decoding, if supported, or otherwise decodes them immediately.
+     */
+    private DeferredDecode copyOrDecode(
             List<T> outputsToDecode,
             InferenceExecutionTimeRecorder recorder,
             ImageInferenceContext context)
             throws OperationFailedException {
-        try {
-            recorder.recordStartPost();
-            return decode.decode(outputsToDecode, context);
-        } finally {
-            recorder.recordEndPost();
+        recorder.recordStartPost();
+        Optional<DeferredDecode> deferred = decode.copyForDeferredDecode(outputsToDecode, context);
+        if (deferred.isPresent()) {
+            return deferred.get();
+        } else {
+            List<LabelledWithConfidence<MultiScaleObject>> decoded =
+                    decode.decode(outputsToDecode, context);
+            return () -> decoded;
+        }
+    }
+
+    /**
+     * Decoding that remains to be performed by the calling thread, after the model has been
+     * released.
+     */
+    @AllArgsConstructor
+    private static class DecodeAfterRelease {
+
+        /** Performs the decoding. */
+        private final DeferredDecode deferred;
+
+        /** Records the execution time of inference and post-processing. */
+        private final InferenceExecutionTimeRecorder recorder;
+
+        /** Performs the decoding, and records the execution time. */
+        public List<LabelledWithConfidence<MultiScaleObject>> decode()
+                throws OperationFailedException {
+            try {
+                return deferred.decode();
+            } finally {
+                recorder.recordEndPost();
+                recorder.flush();
+            }
         }
     }
 }
@@ -27,17 +27,26 @@ package org.anchoranalysis.image.inference.bean.segment.instance;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.Getter;
 import lombok.Setter;
+import org.anchoranalysis.bean.BeanInstanceMap;
 import org.anchoranalysis.bean.annotation.AllowEmpty;
 import org.anchoranalysis.bean.annotation.BeanField;
 import org.anchoranalysis.bean.annotation.DefaultInstance;
 import org.anchoranalysis.bean.annotation.OptionalBean;
+import org.anchoranalysis.bean.exception.BeanMisconfiguredException;
 import org.anchoranalysis.bean.primitive.DoubleList;
 import org.anchoranalysis.core.exception.InitializeException;
 import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.core.functional.FunctionalList;
 import org.anchoranalysis.core.time.ExecutionTimeRecorder;
 import org.anchoranalysis.image.bean.displayer.StackDisplayer;
 import org.anchoranalysis.image.bean.interpolator.Interpolator;
@@ -47,13 +56,18 @@ import org.anchoranalysis.image.core.channel.Channel;
 import org.anchoranalysis.image.core.stack.Stack;
 import org.anchoranalysis.image.inference.ImageInferenceContext;
 import org.anchoranalysis.image.inference.ImageInferenceModel;
+import org.anchoranalysis.image.inference.bean.reduce.RemoveOverlappingObjects;
+import org.anchoranalysis.image.inference.bean.segment.reduce.ReduceElements;
 import org.anchoranalysis.image.inference.segment.DualScale;
 import org.anchoranalysis.image.inference.segment.LabelledWithConfidence;
 import org.anchoranalysis.image.inference.segment.MultiScaleObject;
 import org.anchoranalysis.image.inference.segment.SegmentedBackground;
 import org.anchoranalysis.image.inference.segment.SegmentedObjects;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
 import org.anchoranalysis.image.voxel.resizer.VoxelsResizerExecutionTime;
 import org.anchoranalysis.inference.concurrency.ConcurrentModelPool;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.Extent;
 import org.anchoranalysis.spatial.scale.ScaleFactor;
 import org.apache.commons.collections.IteratorUtils;
 
@@ -61,6 +75,12 @@ import org.apache.commons.collections.IteratorUtils;
  * A {@link SegmentStackIntoObjectsScaleDecode} that scales the input image, before performing
  * inference, and then decodes the output.
  *
+ * <p>Optionally, a large input image can be divided into overlapping tiles, which are each scaled
+ * and segmented separately (and concurrently). The objects from all tiles are then combined, and
+ * duplicates along the seams between tiles are removed with {@code reduceAcrossTiles}. In this
+ * case, the <i>model-scale</i> of the resulting {@link SegmentedObjects} is identical to the
+ * input-scale, as each tile may be scaled differently.
+ *
  * @author Owen Feehan
  * @param <T> tensor-type inputted and outputted to model
  * @param <S> model-type
@@ -70,6 +90,21 @@ public abstract class SegmentStackIntoObjectsScaleDecode<T, S extends ImageInfer
 
     private static final String FALLBACK_INPUT_NAME = "no_name_defined";
 
+    /**
+     * Segments tiles, shared by all instances and jobs, so that no more threads than processors
+     * perform tile segmentation, however many jobs run concurrently.
+     *
+     * <p>The threads are daemons, so they never prevent the JVM from exiting.
+     */
+    private static final ExecutorService TILE_EXECUTOR =
+            Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "segment-tile");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
     // START BEAN PROPERTIES
     /**
      * Any scaling to be applied to the input-image before being input to the model for inference.
@@ -101,64 +136,195 @@ public abstract class SegmentStackIntoObjectsScaleDecode<T, S extends ImageInfer
 
     /** How to convert an image to be displayed to the user. */
     @BeanField @Getter @Setter @DefaultInstance private StackDisplayer displayer;
+
+    /**
+     * When positive, an input image larger than this size (in X or Y) is divided into square tiles
+     * of this size (in voxels at input-scale), which are segmented separately.
+     *
+     * <p>When zero, the entire image is always segmented at once.
+     */
+    @BeanField @Getter @Setter private int tileSize = 0;
+
+    /**
+     * The minimal number of voxels (at input-scale) by which neighboring tiles overlap.
+     *
+     * <p>This should be at least as large as the objects that are expected, so that each object is
+     * entirely contained in at least one tile. It must be smaller than {@code tileSize}.
+     */
+    @BeanField @Getter @Setter private int tileOverlap = 64;
+
+    /** Removes duplicate objects along the seams between tiles, when tiling occurs. */
+    @BeanField @Getter @Setter
+    private ReduceElements<ObjectMask> reduceAcrossTiles = new RemoveOverlappingObjects();
     // END BEAN PROPERTIES
 
+    @Override
+    public void checkMisconfigured(BeanInstanceMap defaultInstances)
+            throws BeanMisconfiguredException {
+        super.checkMisconfigured(defaultInstances);
+        if (tileSize > 0 && (tileOverlap < 0 || tileOverlap >= tileSize)) {
+            throw new BeanMisconfiguredException(
+                    String.format(
+                            "tileOverlap (%d) must be non-negative and smaller than tileSize (%d).",
+                            tileOverlap, tileSize));
+        }
+    }
+
     @Override
     public SegmentedObjects segment(
             Stack stack,
             ConcurrentModelPool<S> modelPool,
             ExecutionTimeRecorder executionTimeRecorder)
             throws SegmentationFailedException {
+        if (tileSize > 0 && isLargerThanTile(stack.extent())) {
+            return segmentTiled(stack, modelPool, executionTimeRecorder);
+        }
 
         try {
             ScaleFactor scaleFactor =
                     scaleInput.calculate(Optional.of(stack.dimensions()), Optional.empty());
 
-            DualScale<Stack> stacksDual =
-                    executionTimeRecorder.recordExecutionTime(
-                            "Scaling stack to model-size",
-                            () ->
-                                    StackScaler.scaleToModelSize(
-                                            stack,
-                                            scaleFactor,
-                                            interpolator.voxelsResizer(),
-                                            executionTimeRecorder));
-
-            T input =
-                    executionTimeRecorder.recordExecutionTime(
-                            "Deriving input for segmentation",
-                            () -> deriveInputSubtractMeans(stacksDual.atModelScale()));
-
-            return segmentInput(
-                    input,
-                    new SegmentedBackground(stacksDual, displayer),
-                    scaleFactor,
-                    modelPool,
-                    executionTimeRecorder);
+            DualScale<Stack> stacksDual = scaleStack(stack, scaleFactor, executionTimeRecorder);
+
+            List<LabelledWithConfidence<MultiScaleObject>> objects =
+                    segmentScaled(stacksDual, scaleFactor, modelPool, executionTimeRecorder);
+
+            return new SegmentedObjects(
+                    objects, new SegmentedBackground(stacksDual, displayer), executionTimeRecorder);
         } catch (OperationFailedException e) {
             throw new SegmentationFailedException(e);
         }
     }
 
-    private SegmentedObjects segmentInput(
+    /**
+     * Divides {@code stack} into tiles, segments each tile concurrently, and combines the results.
+     *
+     * <p>The tiles are segmented on {@link #TILE_EXECUTOR}, rather than the common fork-join pool,
+     * as each tile mostly waits on inference. As this executor is shared, concurrent jobs compete
+     * for its threads, rather than each creating their own.
+     */
+    private SegmentedObjects segmentTiled(
+            Stack stack,
+            ConcurrentModelPool<S> modelPool,
+            ExecutionTimeRecorder executionTimeRecorder)
+            throws SegmentationFailedException {
+
+        List<Callable<List<LabelledWithConfidence<MultiScaleObject>>>> tasks =
+                FunctionalList.mapToList(
+                        StackTiler.divide(stack.extent(), tileSize, tileOverlap),
+                        box -> () -> segmentTile(stack, box, modelPool, executionTimeRecorder));
+
+        List<Future<List<LabelledWithConfidence<MultiScaleObject>>>> futures = new ArrayList<>();
+        List<LabelledWithConfidence<MultiScaleObject>> objects = new ArrayList<>();
+        try {
+            for (Callable<List<LabelledWithConfidence<MultiScaleObject>>> task : tasks) {
+                futures.add(TILE_EXECUTOR.submit(task));
+            }
+            for (Future<List<LabelledWithConfidence<MultiScaleObject>>> future : futures) {
+                objects.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SegmentationFailedException(e);
+        } catch (ExecutionException e) {
+            throw new SegmentationFailedException(e.getCause());
+        } finally {
+            // Any tiles not yet completed (after a failure) are abandoned
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        SegmentedObjects combined =
+                new SegmentedObjects(
+                        objects,
+                        new SegmentedBackground(new DualScale<>(stack, stack), displayer),
+                        executionTimeRecorder);
+        try {
+            return executionTimeRecorder.recordExecutionTime(
+                    "Reducing objects across tiles",
+                    () -> combined.reduce(reduceAcrossTiles, false, executionTimeRecorder));
+        } catch (OperationFailedException e) {
+            throw new SegmentationFailedException(e);
+        }
+    }
+
+    /**
+     * Segments a single tile, with the resulting objects placed in the coordinates of the entire
+     * stack.
+     */
+    private List<LabelledWithConfidence<MultiScaleObject>> segmentTile(
+            Stack stack,
+            BoundingBox box,
+            ConcurrentModelPool<S> modelPool,
+            ExecutionTimeRecorder executionTimeRecorder)
+            throws SegmentationFailedException {
+        try {
+            Stack tile = StackTiler.extract(stack, box);
+
+            ScaleFactor scaleFactor =
+                    scaleInput.calculate(Optional.of(tile.dimensions()), Optional.empty());
+
+            List<LabelledWithConfidence<MultiScaleObject>> objects =
+                    segmentScaled(
+                            scaleStack(tile, scaleFactor, executionTimeRecorder),
+                            scaleFactor,
+                            modelPool,
+                            executionTimeRecorder);
+
+            return FunctionalList.mapToList(
+                    objects,
+                    object ->
+                            object.map(
+                                    element -> StackTiler.placeInStack(element, box.cornerMin())));
+        } catch (OperationFailedException e) {
+            throw new SegmentationFailedException(e);
+        }
+    }
+
+    /** Scales a stack to model-size, recording the execution-time. */
+    private DualScale<Stack> scaleStack(
+            Stack stack, ScaleFactor scaleFactor, ExecutionTimeRecorder executionTimeRecorder)
+            throws SegmentationFailedException {
+        return executionTimeRecorder.recordExecutionTime(
+                "Scaling stack to model-size",
+                () ->
+                        StackScaler.scaleToModelSize(
+                                stack,
+                                scaleFactor,
+                                interpolator.voxelsResizer(),
+                                executionTimeRecorder));
+    }
+
+    /** Derives an input-tensor from a scaled stack, and then performs inference. */
+    private List<LabelledWithConfidence<MultiScaleObject>> segmentScaled(
+            DualScale<Stack> stacksDual,
+            ScaleFactor scaleFactor,
+            ConcurrentModelPool<S> modelPool,
+            ExecutionTimeRecorder executionTimeRecorder)
+            throws OperationFailedException, SegmentationFailedException {
+        T input =
+                executionTimeRecorder.recordExecutionTime(
+                        "Deriving input for segmentation",
+                        () -> deriveInputSubtractMeans(stacksDual.atModelScale()));
+
+        return segmentInput(input, stacksDual, scaleFactor, modelPool, executionTimeRecorder);
+    }
+
+    private List<LabelledWithConfidence<MultiScaleObject>> segmentInput(
             T input,
-            SegmentedBackground background,
+            DualScale<Stack> background,
             ScaleFactor scaleFactor,
             ConcurrentModelPool<S> modelPool,
             ExecutionTimeRecorder executionTimeRecorder)
             throws SegmentationFailedException {
         try {
             ImageInferenceContext context =
-                    createContext(background.getBackground(), scaleFactor, executionTimeRecorder);
+                    createContext(background, scaleFactor, executionTimeRecorder);
 
             String inputName = inputName().orElse(FALLBACK_INPUT_NAME);
 
             InferenceHelper<T, S> helper = new InferenceHelper<>(decode, inputName);
 
-            List<LabelledWithConfidence<MultiScaleObject>> objects =
-                    helper.queueInference(input, modelPool, context);
-
-            return new SegmentedObjects(objects, background, executionTimeRecorder);
+            return helper.queueInference(input, modelPool, context);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new SegmentationFailedException(e);
@@ -240,6 +406,11 @@ public abstract class SegmentStackIntoObjectsScaleDecode<T, S extends ImageInfer
                 getInitialization().sharedObjects().getContext().getLogger());
     }
 
+    /** Whether {@code extent} is larger than a single tile in the X or Y dimensions. */
+    private boolean isLargerThanTile(Extent extent) {
+        return extent.x() > tileSize || extent.y() > tileSize;
+    }
+
     /**
      * Derive an input-tensor for the model, including performing any necessary mean-subtraction
      * from the {@link Channel}s.
@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * anchor-image-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.inference.bean.segment.instance;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.core.cache.CachedSupplier;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.core.exception.friendly.AnchorImpossibleSituationException;
+import org.anchoranalysis.image.core.channel.Channel;
+import org.anchoranalysis.image.core.stack.Stack;
+import org.anchoranalysis.image.inference.segment.MultiScaleObject;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.Extent;
+import org.anchoranalysis.spatial.point.Point3i;
+import org.anchoranalysis.spatial.point.ReadableTuple3i;
+
+/**
+ * Divides a {@link Stack} into overlapping tiles, so that each tile can be segmented separately.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class StackTiler {
+
+    /**
+     * Divides an {@link Extent} into overlapping tiles in the XY plane.
+     *
+     * <p>Every tile has size {@code tileSize} in both X and Y, except when the extent is itself
+     * smaller in that dimension. Tiles at the end of each row or column are shifted backwards
+     * (increasing their overlap), rather than being truncated.
+     *
+     * @param extent the extent to divide.
+     * @param tileSize the size of a tile, in both X and Y dimensions.
+     * @param overlap the minimal number of voxels that neighboring tiles overlap by.
+     * @return bounding-boxes for each tile, which collectively cover {@code extent}.
+     */
+    public static List<BoundingBox> divide(Extent extent, int tileSize, int overlap) {
+        List<Integer> startsX = tileStarts(extent.x(), tileSize, overlap);
+        List<Integer> startsY = tileStarts(extent.y(), tileSize, overlap);
+
+        Extent tileExtent =
+                new Extent(
+                        Math.min(tileSize, extent.x()), Math.min(tileSize, extent.y()), extent.z());
+
+        List<BoundingBox> out = new ArrayList<>(startsX.size() * startsY.size());
+        for (int y : startsY) {
+            for (int x : startsX) {
+                out.add(BoundingBox.createReuse(new Point3i(x, y, 0), tileExtent));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Extracts a region of a {@link Stack}, duplicating the voxels.
+     *
+     * @param stack the stack to extract from.
+     * @param box the region to extract, which must lie inside {@code stack}.
+     * @return a newly created {@link Stack}, with the size of {@code box}.
+     * @throws OperationFailedException if the region cannot be extracted.
+     */
+    public static Stack extract(Stack stack, BoundingBox box) throws OperationFailedException {
+        return stack.mapChannel(
+                channel ->
+                        new Channel(
+                                channel.voxels().any().extract().region(box, false),
+                                channel.resolution()));
+    }
+
+    /**
+     * Shifts an object segmented in a tile, so that it is placed in the entire stack.
+     *
+     * <p>The shifted object is used for both scales, and is only calculated once.
+     *
+     * @param object the object, as segmented in the tile.
+     * @param tileCorner the minimal corner of the tile, in the entire stack.
+     * @return a newly created object, lazily shifted by {@code tileCorner}.
+     */
+    public static MultiScaleObject placeInStack(
+            MultiScaleObject object, ReadableTuple3i tileCorner) {
+        CachedSupplier<ObjectMask, AnchorImpossibleSituationException> shifted =
+                CachedSupplier.cache(() -> object.getInputScale().shiftBy(tileCorner));
+        return new MultiScaleObject(shifted::get, shifted::get);
+    }
+
+    /** The start positions of each tile along a single dimension. */
+    private static List<Integer> tileStarts(int length, int tileSize, int overlap) {
+        List<Integer> starts = new ArrayList<>();
+        if (length <= tileSize) {
+            starts.add(0);
+            return starts;
+        }
+
+        int step = Math.max(tileSize - overlap, 1);
+        int start = 0;
+        while (start + tileSize < length) {
+            starts.add(start);
+            start += step;
+        }
+        starts.add(length - tileSize);
+        return starts;
+    }
+}
@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * anchor-plugin-image
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.inference.bean.reduce;
+package org.anchoranalysis.image.inference.bean.reduce;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.anchoranalysis.image.inference.segment.LabelledWithConfidence;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.spatial.box.BoundingBoxFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ReduceObjectsGraph}.
+ *
+ * @author Owen Feehan
+ */
+class ReduceObjectsGraphTest {
+
+    /** Merged objects with identical values remain distinct, in both the queue and graph. */
+    @Test
+    void testMergeIdenticalValues() {
+        ReduceObjectsGraph graph =
+                new ReduceObjectsGraph(
+                        Arrays.asList(
+                                object(10, 0.9),
+                                object(12, 0.8),
+                                object(50, 0.7),
+                                object(52, 0.6)));
+
+        ObjectForReduction first = graph.peek();
+        ObjectForReduction second = graph.adjacentVerticesOutgoing(first).get(0);
+
+        // Both merged objects are newly-added, and have identical values, with lowest confidence
+        LabelledWithConfidence<ObjectMask> labelledMerged = object(30, 0.5);
+        ObjectForReduction merged1 = new ObjectForReduction(labelledMerged);
+        ObjectForReduction merged2 = new ObjectForReduction(labelledMerged);
+        assertNotEquals(merged1, merged2);
+
+        graph.mergeVertices(first, second, merged1);
+
+        ObjectForReduction third = graph.peek();
+        ObjectForReduction fourth = graph.adjacentVerticesOutgoing(third).get(0);
+        graph.mergeVertices(third, fourth, merged2);
+
+        ObjectForReduction polled1 = graph.poll();
+        ObjectForReduction polled2 = graph.poll();
+        assertNotSame(polled1, polled2);
+        assertEquals(ObjectForReduction.NEWLY_ADDED, polled1.getIndex());
+        assertEquals(ObjectForReduction.NEWLY_ADDED, polled2.getIndex());
+        assertTrue(graph.isEmpty());
+    }
+
+    /** A square object in two-dimensions, with a label and confidence. */
+    private static LabelledWithConfidence<ObjectMask> object(int coordinate, double confidence) {
+        ObjectMask object = new ObjectMask(BoundingBoxFactory.at(coordinate, coordinate, 5, 5));
+        object.assignOn().toAll();
+        return new LabelledWithConfidence<>(object, confidence, "arbitraryLabel");
+    }
+}
@@ -27,6 +27,7 @@ package org.anchoranalysis.image.inference.bean.reduce;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.anchoranalysis.core.time.ExecutionTimeRecorderIgnore;
@@ -46,6 +47,12 @@ class RemoveOverlappingObjectsTest {
 
     private static final Extent EXTENT = new Extent(100, 100, 100);
 
+    /** The number of cells in each of the X and Y dimensions, for many dense detections. */
+    private static final int NUMBER_CELLS = 30;
+
+    /** The number of overlapping detections in each cell, for many dense detections. */
+    private static final int DETECTIONS_PER_CELL = 5;
+
     @Test
     void testWithoutInvert() {
         doTest(false);
@@ -56,6 +63,20 @@ class RemoveOverlappingObjectsTest {
         doTest(true);
     }
 
+    /**
+     * Many detections, densely overlapping in separate cells, should reduce to one per cell.
+     *
+     * <p>This exercises removal from the middle of a large priority queue.
+     */
+    @Test
+    void testManyDenseDetections() {
+        RemoveOverlappingObjects remove = new RemoveOverlappingObjects();
+        Extent extent = new Extent(NUMBER_CELLS * 20, NUMBER_CELLS * 20, 1);
+        ReductionOutcome<LabelledWithConfidence<ObjectMask>> outcome =
+                remove.reduce(denseObjects(), extent, ExecutionTimeRecorderIgnore.instance());
+        assertEquals(NUMBER_CELLS * NUMBER_CELLS, outcome.sizeAfter());
+    }
+
     private void doTest(boolean invert) {
         RemoveOverlappingObjects remove = new RemoveOverlappingObjects();
         ReductionOutcome<LabelledWithConfidence<ObjectMask>> outcome =
@@ -78,6 +99,26 @@ class RemoveOverlappingObjectsTest {
         return Arrays.asList(OBJECT1, OBJECT2, OBJECT3, OBJECT4);
     }
 
+    /**
+     * Squares in a grid of cells, with several detections in each cell, shifted slightly from each
+     * other, and with decreasing confidence.
+     */
+    private static List<LabelledWithConfidence<ObjectMask>> denseObjects() {
+        List<LabelledWithConfidence<ObjectMask>> out = new ArrayList<>();
+        for (int y = 0; y < NUMBER_CELLS; y++) {
+            for (int x = 0; x < NUMBER_CELLS; x++) {
+                for (int i = 0; i < DETECTIONS_PER_CELL; i++) {
+                    ObjectMask object =
+                            new ObjectMask(BoundingBoxFactory.at((x * 20) + i, y * 20, 10, 10));
+                    object.assignOn().toAll();
+                    double confidence = 0.9 - (i * 0.1);
+                    out.add(new LabelledWithConfidence<>(object, confidence, "arbitraryLabel"));
+                }
+            }
+        }
+        return out;
+    }
+
     /**
      * Creates an {@link ObjectMask} in three-dimensions, corresponding to a box.
      *
@@ -0,0 +1,220 @@
+/*-
+ * #%L
+ * anchor-image-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.inference.bean.segment.instance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.core.functional.checked.CheckedFunction;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.core.log.NullMessageLogger;
+import org.anchoranalysis.core.time.ExecutionTimeRecorderIgnore;
+import org.anchoranalysis.image.core.dimensions.Dimensions;
+import org.anchoranalysis.image.inference.ImageInferenceContext;
+import org.anchoranalysis.image.inference.ImageInferenceModel;
+import org.anchoranalysis.image.inference.segment.DualScale;
+import org.anchoranalysis.image.inference.segment.LabelledWithConfidence;
+import org.anchoranalysis.image.inference.segment.MultiScaleObject;
+import org.anchoranalysis.image.voxel.resizer.VoxelsResizerNone;
+import org.anchoranalysis.inference.concurrency.ConcurrencyPlan;
+import org.anchoranalysis.inference.concurrency.ConcurrentModel;
+import org.anchoranalysis.inference.concurrency.ConcurrentModelPool;
+import org.anchoranalysis.inference.concurrency.CreateModelFailedException;
+import org.anchoranalysis.spatial.scale.ScaleFactor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link InferenceHelper}.
+ *
+ * @author Owen Feehan
+ */
+class InferenceHelperTest {
+
+    /** A model whose output is simply its input. */
+    private static class FakeModel implements ImageInferenceModel<float[]> {
+
+        @Override
+        public <S> S performInference(
+                float[] input,
+                String inputName,
+                List<String> outputIdentifiers,
+                CheckedFunction<List<float[]>, S, OperationFailedException> convertOutput)
+                throws OperationFailedException {
+            return convertOutput.apply(Arrays.asList(input));
+        }
+
+        @Override
+        public void close() {
+            // NOTHING TO DO
+        }
+    }
+
+    /**
+     * A decoder that records whether the model was available in the pool, each time it decodes.
+     */
+    private static class FakeDecoder extends DecodeInstanceSegmentation<float[]> {
+
+        /** Whether decoding is deferred until the model is released. */
+        private final boolean deferred;
+
+        /** Whether a model is currently available in the pool. */
+        private final BooleanSupplier modelAvailable;
+
+        /** For each call to decode, whether a model was available in the pool. */
+        private final List<Boolean> availableWhenDecoding = new ArrayList<>();
+
+        public FakeDecoder(boolean deferred, BooleanSupplier modelAvailable) {
+            this.deferred = deferred;
+            this.modelAvailable = modelAvailable;
+        }
+
+        @Override
+        public List<LabelledWithConfidence<MultiScaleObject>> decode(
+                List<float[]> inferenceOutput, ImageInferenceContext context) {
+            availableWhenDecoding.add(modelAvailable.getAsBoolean());
+            return new ArrayList<>();
+        }
+
+        @Override
+        public Optional<DeferredDecode> copyForDeferredDecode(
+                List<float[]> inferenceOutput, ImageInferenceContext context) {
+            if (deferred) {
+                List<float[]> copied = new ArrayList<>();
+                for (float[] tensor : inferenceOutput) {
+                    copied.add(tensor.clone());
+                }
+                return Optional.of(() -> decode(copied, context));
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public List<String> expectedOutputs() {
+            return Arrays.asList("output");
+        }
+    }
+
+    /** How long to wait, in milliseconds, for a model to become available in the pool. */
+    private static final int WAIT_FOR_MODEL = 500;
+
+    private static final Logger LOGGER = new Logger(new NullMessageLogger());
+
+    /** A pool containing a single model. */
+    private ConcurrentModelPool<FakeModel> pool;
+
+    /** Checks out a model from another thread. */
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() throws CreateModelFailedException {
+        pool =
+                new ConcurrentModelPool<>(
+                        ConcurrencyPlan.singleCPUProcessor(0),
+                        useGPU -> Optional.of(new ConcurrentModel<>(new FakeModel(), false)),
+                        LOGGER);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** A deferred decode occurs only after the model has been returned to the pool. */
+    @Test
+    void testDeferredDecodeAfterRelease() throws Throwable {
+        FakeDecoder decoder = new FakeDecoder(true, this::isModelAvailable);
+        performInference(decoder);
+        assertEquals(Arrays.asList(true), decoder.availableWhenDecoding);
+    }
+
+    /** Without deferral, decoding occurs while the model is still checked out. */
+    @Test
+    void testImmediateDecodeWhileCheckedOut() throws Throwable {
+        FakeDecoder decoder = new FakeDecoder(false, this::isModelAvailable);
+        performInference(decoder);
+        assertEquals(Arrays.asList(false), decoder.availableWhenDecoding);
+        assertTrue(isModelAvailable());
+    }
+
+    private void performInference(FakeDecoder decoder) throws Throwable {
+        InferenceHelper<float[], FakeModel> helper = new InferenceHelper<>(decoder, "input");
+        helper.queueInference(new float[] {1.0f, 2.0f}, pool, createContext());
+    }
+
+    /**
+     * Whether a model can be checked out from the pool, by another thread, within a short time.
+     */
+    private boolean isModelAvailable() {
+        Future<Boolean> future =
+                executor.submit(
+                        () -> {
+                            try {
+                                return pool.executeOrWait(model -> true);
+                            } catch (Throwable e) { // NOSONAR
+                                return false;
+                            }
+                        });
+        try {
+            return future.get(WAIT_FOR_MODEL, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private static ImageInferenceContext createContext() {
+        Dimensions dimensions = new Dimensions(2, 1, 1);
+        return new ImageInferenceContext(
+                new DualScale<>(dimensions, dimensions),
+                new ScaleFactor(1.0),
+                Optional.empty(),
+                new VoxelsResizerNone(),
+                ExecutionTimeRecorderIgnore.instance(),
+                LOGGER);
+    }
+}
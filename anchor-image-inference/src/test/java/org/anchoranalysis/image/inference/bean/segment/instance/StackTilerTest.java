@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * anchor-image-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.inference.bean.segment.instance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.anchoranalysis.core.time.ExecutionTimeRecorderIgnore;
+import org.anchoranalysis.image.inference.bean.reduce.RemoveOverlappingObjects;
+import org.anchoranalysis.image.inference.segment.LabelledWithConfidence;
+import org.anchoranalysis.image.inference.segment.MultiScaleObject;
+import org.anchoranalysis.image.inference.segment.ReductionOutcome;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.BoundingBoxFactory;
+import org.anchoranalysis.spatial.box.Extent;
+import org.anchoranalysis.spatial.point.Point3i;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link StackTiler}.
+ *
+ * @author Owen Feehan
+ */
+class StackTilerTest {
+
+    private static final Extent EXTENT = new Extent(1000, 600, 3);
+
+    private static final int TILE_SIZE = 512;
+
+    private static final int OVERLAP = 64;
+
+    /** The tiles start at the expected positions, shifting the last tile in each row backwards. */
+    @Test
+    void testDivideStarts() {
+        List<BoundingBox> tiles = StackTiler.divide(EXTENT, TILE_SIZE, OVERLAP);
+
+        List<Point3i> expected =
+                Arrays.asList(
+                        new Point3i(0, 0, 0),
+                        new Point3i(448, 0, 0),
+                        new Point3i(488, 0, 0),
+                        new Point3i(0, 88, 0),
+                        new Point3i(448, 88, 0),
+                        new Point3i(488, 88, 0));
+        List<Point3i> starts = new ArrayList<>();
+        for (BoundingBox tile : tiles) {
+            assertEquals(new Extent(TILE_SIZE, TILE_SIZE, EXTENT.z()), tile.extent());
+            starts.add(new Point3i(tile.cornerMin()));
+        }
+        assertEquals(expected, starts);
+    }
+
+    /** Every voxel is covered by a tile, and every tile lies inside the extent. */
+    @Test
+    void testDivideCovers() {
+        Extent extent = new Extent(1234, 777, 1);
+        List<BoundingBox> tiles = StackTiler.divide(extent, 300, 50);
+
+        BoundingBox entire = new BoundingBox(extent);
+        for (BoundingBox tile : tiles) {
+            assertTrue(entire.contains().box(tile));
+        }
+
+        for (int y = 0; y < extent.y(); y++) {
+            for (int x = 0; x < extent.x(); x++) {
+                assertTrue(isCovered(tiles, new Point3i(x, y, 0)));
+            }
+        }
+    }
+
+    /** An extent smaller than a tile forms a single tile, of the same size as the extent. */
+    @Test
+    void testDivideSmallerThanTile() {
+        Extent extent = new Extent(100, 700, 1);
+        List<BoundingBox> tiles = StackTiler.divide(extent, TILE_SIZE, OVERLAP);
+
+        assertEquals(2, tiles.size());
+        for (BoundingBox tile : tiles) {
+            assertEquals(0, tile.cornerMin().x());
+            assertEquals(100, tile.extent().x());
+        }
+    }
+
+    /**
+     * An object on a seam is segmented in several tiles, but only a single object remains after
+     * reduction, at its original position.
+     */
+    @Test
+    void testSeamReducedToSingleObject() {
+        BoundingBox box = BoundingBoxFactory.at(470, 100, 20, 20);
+        ObjectMask object = new ObjectMask(box);
+        object.assignOn().toAll();
+
+        Extent extent = new Extent(EXTENT.x(), EXTENT.y(), 1);
+        List<LabelledWithConfidence<ObjectMask>> segmented = new ArrayList<>();
+        for (BoundingBox tile : StackTiler.divide(extent, TILE_SIZE, OVERLAP)) {
+            if (tile.contains().box(box)) {
+                ObjectMask inTile = object.shiftBackBy(tile.cornerMin());
+                MultiScaleObject placed =
+                        StackTiler.placeInStack(
+                                new MultiScaleObject(() -> inTile, () -> inTile),
+                                tile.cornerMin());
+                segmented.add(
+                        new LabelledWithConfidence<>(placed.getInputScale(), 0.9, "label"));
+            }
+        }
+        assertEquals(4, segmented.size());
+
+        ReductionOutcome<LabelledWithConfidence<ObjectMask>> outcome =
+                new RemoveOverlappingObjects()
+                        .reduce(segmented, extent, ExecutionTimeRecorderIgnore.instance());
+        List<LabelledWithConfidence<ObjectMask>> reduced = outcome.listAfter(segmented);
+        assertEquals(1, reduced.size());
+        assertTrue(object.equalsDeep(reduced.get(0).getElement()));
+    }
+
+    private static boolean isCovered(List<BoundingBox> tiles, Point3i point) {
+        for (BoundingBox tile : tiles) {
+            if (tile.contains().point(point)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
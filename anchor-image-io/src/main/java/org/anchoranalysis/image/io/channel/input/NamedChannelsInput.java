@@ -26,6 +26,7 @@
 
 package org.anchoranalysis.image.io.channel.input;
 
+import java.util.OptionalLong;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.identifier.provider.store.NamedProviderStore;
 import org.anchoranalysis.core.identifier.provider.store.StoreSupplier;
@@ -137,6 +138,15 @@ public abstract class NamedChannelsInput implements ProvidesStackInput {
         return 1;
     }
 
+    @Override
+    public OptionalLong estimateMemoryBytes(Logger logger) {
+        try {
+            return OptionalLong.of(metadata(0, logger).estimateMemoryBytes());
+        } catch (ImageIOException e) {
+            return OptionalLong.empty();
+        }
+    }
+
     /** All channels for a particular series, exposed as a {@link TimeSeries}. */
     private TimeSeries channelsAsTimeSequence(int seriesIndex, Logger logger)
             throws OperationFailedException {
@@ -50,4 +50,23 @@ public class HDF5PathHelper {
 
     /** Attribute for z dimension of the extent. */
     public static final String EXTENT_Z = "z";
+
+    /** Attribute for the size of the bounding-box in the x dimension, when run-length encoded. */
+    public static final String SIZE_X = "sizeX";
+
+    /** Attribute for the size of the bounding-box in the y dimension, when run-length encoded. */
+    public static final String SIZE_Y = "sizeY";
+
+    /** Attribute for the size of the bounding-box in the z dimension, when run-length encoded. */
+    public static final String SIZE_Z = "sizeZ";
+
+    /**
+     * Attribute describing how the voxels of an object-mask are encoded.
+     *
+     * <p>When absent, the voxels are stored as a 3D array of bytes.
+     */
+    public static final String ENCODING = "encoding";
+
+    /** Value of {@link #ENCODING} when the voxels are stored as runs in each row. */
+    public static final String ENCODING_RUN_LENGTH = "runLength";
 }
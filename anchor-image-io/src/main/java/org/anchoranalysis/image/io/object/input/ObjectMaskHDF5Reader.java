@@ -36,6 +36,7 @@ import org.anchoranalysis.image.voxel.Voxels;
 import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
 import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
 import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.image.voxel.object.RunLengthObjectMask;
 import org.anchoranalysis.spatial.box.BoundingBox;
 import org.anchoranalysis.spatial.box.Extent;
 import org.anchoranalysis.spatial.point.Point3i;
@@ -57,6 +58,10 @@ class ObjectMaskHDF5Reader {
      */
     public static ObjectMask readObject(IHDF5Reader reader, String datasetPath) {
 
+        if (isRunLength(reader, datasetPath)) {
+            return readRunLength(reader, datasetPath);
+        }
+
         Voxels<UnsignedByteBuffer> voxels = createVoxels(reader.uint8().readMDArray(datasetPath));
 
         BoundingBox box =
@@ -65,6 +70,30 @@ class ObjectMaskHDF5Reader {
         return new ObjectMask(box, voxels);
     }
 
+    /**
+     * Whether the object-mask was written as runs in each row.
+     *
+     * <p>Files written before this encoding existed lack the attribute, and are read as a 3D array.
+     */
+    private static boolean isRunLength(IHDF5Reader reader, String datasetPath) {
+        return reader.object().hasAttribute(datasetPath, HDF5PathHelper.ENCODING)
+                && reader.string()
+                        .getAttr(datasetPath, HDF5PathHelper.ENCODING)
+                        .equals(HDF5PathHelper.ENCODING_RUN_LENGTH);
+    }
+
+    /** Reads an object-mask that was written as runs in each row. */
+    private static ObjectMask readRunLength(IHDF5Reader reader, String datasetPath) {
+        IHDF5IntReader intReader = reader.uint32();
+        Extent extent =
+                new Extent(
+                        extractIntAttr(intReader, datasetPath, HDF5PathHelper.SIZE_X),
+                        extractIntAttr(intReader, datasetPath, HDF5PathHelper.SIZE_Y),
+                        extractIntAttr(intReader, datasetPath, HDF5PathHelper.SIZE_Z));
+        BoundingBox box = BoundingBox.createReuse(cornerPoint(intReader, datasetPath), extent);
+        return new RunLengthObjectMask(box, intReader.readArray(datasetPath)).decode();
+    }
+
     /**
      * This approach is a bit efficient as we end up making two memory allocations.
      *
@@ -51,11 +51,28 @@ public class HDF5ObjectsGenerator extends OneStageGenerator<ObjectCollection> {
     // START REQUIRED ARGUMENTS
     /** Whether to use compression when writing the object-masks in HDF5. */
     private final boolean compressed;
+
+    /**
+     * Whether to write the object-masks as runs in each row, rather than as a 3D array of bytes.
+     *
+     * <p>This typically uses much less storage, as it grows with the surface of an object, rather
+     * than the volume of its bounding-box.
+     */
+    private final boolean runLength;
     // END REQUIRED ARGUMENTS
 
-    /** Creates with compression activated. */
+    /** Creates with compression and run-length encoding activated. */
     public HDF5ObjectsGenerator() {
-        this.compressed = true;
+        this(true);
+    }
+
+    /**
+     * Creates with run-length encoding activated.
+     *
+     * @param compressed whether to use compression when writing the object-masks in HDF5.
+     */
+    public HDF5ObjectsGenerator(boolean compressed) {
+        this(compressed, true);
     }
 
     @Override
@@ -68,7 +85,7 @@ public class HDF5ObjectsGenerator extends OneStageGenerator<ObjectCollection> {
 
                 ObjectMaskHDF5Writer writerHDF5 =
                         new ObjectMaskHDF5Writer(
-                                element.get(i), pathForObject(i), writer, compressed);
+                                element.get(i), pathForObject(i), writer, compressed, runLength);
                 writerHDF5.writeObject();
             }
 
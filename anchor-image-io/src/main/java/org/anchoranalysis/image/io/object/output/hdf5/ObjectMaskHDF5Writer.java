@@ -36,12 +36,17 @@ import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
 import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
 import org.anchoranalysis.image.voxel.iterator.IterateVoxelsAll;
 import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.image.voxel.object.RunLengthObjectMask;
+import org.anchoranalysis.spatial.box.Extent;
 import org.anchoranalysis.spatial.point.ReadableTuple3i;
 
 /**
  * Writes an object-mask to a path within a HDF5 file
  *
- * <p>The object-mask is written as a 3D array of 255 and 0 bytes
+ * <p>The object-mask is written either as a 3D array of 255 and 0 bytes, or as a 1D array of runs
+ * in each row, as described in {@link RunLengthObjectMask}. In the latter case, the size of the
+ * bounding-box is added as attributes: sizeX, sizeY, sizeZ and an attribute {@code
+ * encoding=runLength} is added.
  *
  * <p>The corner-position of the bounding box is added as attributes: x, y, z
  *
@@ -62,6 +67,9 @@ class ObjectMaskHDF5Writer {
     /** Whether to use compression or not */
     private final boolean compression;
 
+    /** Whether to encode the voxels as runs in each row, rather than as a 3D array. */
+    private final boolean runLength;
+
     private HDF5IntStorageFeatures compressionLevel() {
         if (compression) {
             return HDF5IntStorageFeatures.INT_DEFLATE_UNSIGNED;
@@ -73,11 +81,29 @@ class ObjectMaskHDF5Writer {
     /** Writes the {@link ObjectMask} to the HDF5 file. */
     public void writeObject() {
 
-        writer.uint8().writeMDArray(pathHDF5, byteArray(object.binaryVoxels()), compressionLevel());
+        if (runLength) {
+            writeRunLength();
+        } else {
+            writer.uint8()
+                    .writeMDArray(pathHDF5, byteArray(object.binaryVoxels()), compressionLevel());
+        }
 
         addCorner();
     }
 
+    /** Writes the runs in each row, and the attributes needed to decode them. */
+    private void writeRunLength() {
+        RunLengthObjectMask encoded = new RunLengthObjectMask(object);
+        writer.uint32().writeArray(pathHDF5, encoded.encoded(), compressionLevel());
+        writer.string()
+                .setAttr(pathHDF5, HDF5PathHelper.ENCODING, HDF5PathHelper.ENCODING_RUN_LENGTH);
+
+        Extent extent = object.extent();
+        addIntAttribute(HDF5PathHelper.SIZE_X, extent.x());
+        addIntAttribute(HDF5PathHelper.SIZE_Y, extent.y());
+        addIntAttribute(HDF5PathHelper.SIZE_Z, extent.z());
+    }
+
     /** Adds attributes for the minimum-corner of the bounding-box of the {@link ObjectMask}. */
     private void addCorner() {
         addIntAttribute(HDF5PathHelper.EXTENT_X, ReadableTuple3i::x);
@@ -87,8 +113,12 @@ class ObjectMaskHDF5Writer {
 
     /** Adds an attribute of type int, as extracted from a {@link ReadableTuple3i}. */
     private void addIntAttribute(String name, ToIntFunction<ReadableTuple3i> extractValue) {
-        Integer value = extractValue.applyAsInt(object.boundingBox().cornerMin());
-        writer.uint32().setAttr(pathHDF5, name, value.intValue());
+        addIntAttribute(name, extractValue.applyAsInt(object.boundingBox().cornerMin()));
+    }
+
+    /** Adds an attribute of type int. */
+    private void addIntAttribute(String name, int value) {
+        writer.uint32().setAttr(pathHDF5, name, value);
     }
 
     /**
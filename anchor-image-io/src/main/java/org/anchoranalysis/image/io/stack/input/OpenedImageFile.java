@@ -26,9 +26,12 @@
 
 package org.anchoranalysis.image.io.stack.input;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.image.core.channel.Channel;
 import org.anchoranalysis.image.core.dimensions.Dimensions;
 import org.anchoranalysis.image.core.stack.ImageMetadata;
 import org.anchoranalysis.image.core.stack.ImagePyramidMetadata;
@@ -36,6 +39,7 @@ import org.anchoranalysis.image.core.stack.Stack;
 import org.anchoranalysis.image.io.ImageIOException;
 import org.anchoranalysis.image.io.stack.time.TimeSeries;
 import org.anchoranalysis.image.voxel.datatype.VoxelDataType;
+import org.anchoranalysis.spatial.box.BoundingBox;
 
 /**
  * An image file that has been opened for reading containing one or more series of image-{@link
@@ -90,6 +94,49 @@ public interface OpenedImageFile extends AutoCloseable {
      */
     TimeSeries open(int seriesIndex, Logger logger) throws ImageIOException;
 
+    /**
+     * Opens only a region of a series, when we don't have a specific-type.
+     *
+     * <p>The default implementation opens the entire series, and then extracts the region.
+     * Implementations are encouraged to override this, and avoid reading voxels outside the
+     * region.
+     *
+     * @param seriesIndex the index of the series of the open, zero-indexed.
+     * @param box the region to open, in the coordinates of the images that would be returned by
+     *     {@link #open(int, Logger)}. It should be entirely contained within the image.
+     * @param logger the logger.
+     * @return a time-sequence of images, each of which has the same size as {@code box}.
+     * @throws ImageIOException if an error occurs reading the image during this operation, or if
+     *     {@code box} is not contained within the image.
+     */
+    default TimeSeries open(int seriesIndex, BoundingBox box, Logger logger)
+            throws ImageIOException {
+        TimeSeries series = open(seriesIndex, logger);
+
+        List<Stack> regions = new ArrayList<>(series.size());
+        try {
+            for (Stack stack : series) {
+                if (!stack.extent().contains(box)) {
+                    throw new ImageIOException(
+                            String.format(
+                                    "The region %s is not contained within the image of size %s",
+                                    box, stack.extent()));
+                }
+                regions.add(
+                        stack.mapChannel(
+                                channel ->
+                                        new Channel(
+                                                channel.voxels().any().extract().region(box, false),
+                                                channel.resolution())));
+            }
+        } catch (OperationFailedException e) {
+            throw new ImageIOException(
+                    String.format("Failed to extract region %s from series %d", box, seriesIndex),
+                    e);
+        }
+        return new TimeSeries(regions.stream());
+    }
+
     /**
      * The number of series (distinct sets of images) in the image-file.
      *
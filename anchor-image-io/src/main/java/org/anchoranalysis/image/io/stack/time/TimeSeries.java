@@ -26,23 +26,43 @@
 
 package org.anchoranalysis.image.io.stack.time;
 
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.anchoranalysis.core.cache.LRUCache;
+import org.anchoranalysis.core.exception.friendly.AnchorFriendlyRuntimeException;
+import org.anchoranalysis.core.functional.checked.CheckedFunction;
+import org.anchoranalysis.core.index.GetOperationFailedException;
 import org.anchoranalysis.image.core.channel.Channel; // NOSONAR
 import org.anchoranalysis.image.core.stack.Stack;
+import org.anchoranalysis.image.io.ImageIOException;
 import org.anchoranalysis.image.voxel.datatype.VoxelDataType;
 
 /**
  * An ordered collection of {@link Stack}s, each representing a frame in a time-series.
  *
+ * <p>Frames are usually all held in memory, but may alternatively be read lazily, only when first
+ * accessed, retaining a limited number of frames in memory. See {@link #lazy}.
+ *
  * @author Owen Feehan
  */
 public class TimeSeries implements Iterable<Stack> {
 
-    private final List<Stack> list;
+    /** The number of frames in the time-series. */
+    private final int size;
+
+    /** Gets the frame at a particular index. */
+    private final IntFunction<Stack> frames;
+
+    /**
+     * If known in advance, the voxel data-type of all channels in all frames, so it can be queried
+     * without reading frames.
+     */
+    private final Optional<VoxelDataType> channelDataType;
 
     /**
      * Creates a {@link TimeSeries} containing a single frame only.
@@ -50,7 +70,7 @@ public class TimeSeries implements Iterable<Stack> {
      * @param frame the single frame.
      */
     public TimeSeries(Stack frame) {
-        this.list = Arrays.asList(frame);
+        this(1, index -> frame);
     }
 
     /**
@@ -59,7 +79,70 @@ public class TimeSeries implements Iterable<Stack> {
      * @param frames the frames.
      */
     public TimeSeries(Stream<Stack> frames) {
-        this.list = frames.collect(Collectors.toList());
+        this(frames.collect(Collectors.toList()));
+    }
+
+    private TimeSeries(List<Stack> list) {
+        this(list.size(), list::get);
+    }
+
+    private TimeSeries(int size, IntFunction<Stack> frames) {
+        this(size, frames, Optional.empty());
+    }
+
+    private TimeSeries(
+            int size, IntFunction<Stack> frames, Optional<VoxelDataType> channelDataType) {
+        this.size = size;
+        this.frames = frames;
+        this.channelDataType = channelDataType;
+    }
+
+    /**
+     * Creates a {@link TimeSeries} whose frames are only read when first accessed.
+     *
+     * <p>At most {@code maxFramesRetained} frames are retained in memory, with the least recently
+     * used frame discarded when this is exceeded. A discarded frame is read again if accessed
+     * again.
+     *
+     * <p>If reading a frame fails, an {@link AnchorFriendlyRuntimeException} is thrown when it is
+     * accessed.
+     *
+     * @param numberFrames the number of frames in the time-series.
+     * @param maxFramesRetained the maximum number of frames to retain in memory.
+     * @param channelDataType the voxel data-type of all channels in all frames.
+     * @param readFrame reads a frame, given its index (beginning at 0).
+     * @return a newly created time-series that reads frames lazily.
+     */
+    public static TimeSeries lazy(
+            int numberFrames,
+            int maxFramesRetained,
+            VoxelDataType channelDataType,
+            CheckedFunction<Integer, Stack, ImageIOException> readFrame) {
+        LRUCache<Integer, Stack> cache = new LRUCache<>(maxFramesRetained, readFrame);
+        return new TimeSeries(
+                numberFrames,
+                index -> {
+                    try {
+                        return cache.get(index);
+                    } catch (GetOperationFailedException e) {
+                        throw new AnchorFriendlyRuntimeException(
+                                String.format("Cannot read frame %d of a time-series", index), e);
+                    }
+                },
+                Optional.of(channelDataType));
+    }
+
+    /**
+     * Creates a {@link TimeSeries} with the same frames, but all held in memory.
+     *
+     * <p>Any frames that are not yet read, are read immediately. This should be called before the
+     * source of a lazily-read time-series is closed, if the frames are to be accessed afterwards.
+     *
+     * @return a newly created time-series, whose frames are all held in memory, reusing any frames
+     *     that are already in memory.
+     */
+    public TimeSeries retainAllFrames() {
+        return new TimeSeries(stream());
     }
 
     /**
@@ -70,7 +153,11 @@ public class TimeSeries implements Iterable<Stack> {
      * @throws IndexOutOfBoundsException if no frame exists at {@code index}.
      */
     public Stack getFrame(int index) {
-        return list.get(index);
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d is out of bounds for %d frames", index, size));
+        }
+        return frames.apply(index);
     }
 
     /**
@@ -79,7 +166,7 @@ public class TimeSeries implements Iterable<Stack> {
      * @return true if no frames exist in the series. false if at least one frame exists.
      */
     public boolean isEmpty() {
-        return list.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -88,22 +175,32 @@ public class TimeSeries implements Iterable<Stack> {
      * @return the number of frames.
      */
     public int size() {
-        return list.size();
+        return size;
     }
 
     /**
      * Whether all {@link Channel}s in all frames in the times-series have a particular voxel-data
      * type?
      *
+     * <p>For a lazily-read time-series, this is determined without reading any frames.
+     *
      * @param voxelDataType the voxel data-type to match.
      * @return true iff all frames have this data-type.
      */
     public boolean allChannelsHaveType(VoxelDataType voxelDataType) {
-        return list.stream().allMatch(stack -> stack.allChannelsHaveType(voxelDataType));
+        if (channelDataType.isPresent()) {
+            return channelDataType.get().equals(voxelDataType);
+        }
+        return stream().allMatch(stack -> stack.allChannelsHaveType(voxelDataType));
     }
 
     @Override
     public Iterator<Stack> iterator() {
-        return list.iterator();
+        return stream().iterator();
+    }
+
+    /** A stream of all frames in order, which are only read (if lazy) as the stream is consumed. */
+    private Stream<Stack> stream() {
+        return IntStream.range(0, size).mapToObj(frames);
     }
 }
@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * anchor-image-io
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.io.object.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import org.anchoranalysis.core.serialize.DeserializationFailedException;
+import org.anchoranalysis.image.io.object.output.hdf5.HDF5ObjectsGenerator;
+import org.anchoranalysis.image.voxel.object.ObjectCollection;
+import org.anchoranalysis.image.voxel.object.ObjectCollectionFactory;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.io.output.bean.OutputWriteSettings;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.Extent;
+import org.anchoranalysis.spatial.point.Point3i;
+import org.anchoranalysis.test.LoggerFixture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Writes objects to a HDF5 file with {@link HDF5ObjectsGenerator}, and reads them again with
+ * {@link ReadObjectsFromHDF5}.
+ *
+ * <p>Both layouts are checked: a 3D array of bytes (the layout of files written before run-length
+ * encoding existed, which lack an {@code encoding} attribute) and runs in each row.
+ *
+ * @author Owen Feehan
+ */
+class ReadObjectsFromHDF5Test {
+
+    @TempDir Path directory;
+
+    /** The layout of a 3D array of bytes, without any {@code encoding} attribute. */
+    @Test
+    void testArrayLayout() throws DeserializationFailedException {
+        assertRoundTrip(false, false);
+        assertRoundTrip(true, false);
+    }
+
+    /** The layout of runs in each row, with an {@code encoding} attribute. */
+    @Test
+    void testRunLengthLayout() throws DeserializationFailedException {
+        assertRoundTrip(false, true);
+        assertRoundTrip(true, true);
+    }
+
+    /** An empty collection is read, irrespective of layout. */
+    @Test
+    void testEmpty() throws DeserializationFailedException {
+        ObjectCollection read =
+                writeAndRead(ObjectCollectionFactory.empty(), true, true, "empty.h5");
+        assertTrue(read.isEmpty());
+    }
+
+    /** Writes and reads objects, and checks they are identical to those written. */
+    private void assertRoundTrip(boolean compressed, boolean runLength)
+            throws DeserializationFailedException {
+        ObjectCollection objects =
+                ObjectCollectionFactory.of(
+                        createStriped(new Point3i(0, 0, 0), new Extent(7, 5, 1)),
+                        createStriped(new Point3i(12, 4, 2), new Extent(9, 6, 3)),
+                        createFilled(new Point3i(3, 20, 1), new Extent(4, 4, 2)));
+
+        String filename = String.format("objects_%b_%b.h5", compressed, runLength);
+        ObjectCollection read = writeAndRead(objects, compressed, runLength, filename);
+
+        assertEquals(objects.size(), read.size());
+        for (int i = 0; i < objects.size(); i++) {
+            assertTrue(
+                    objects.get(i).equalsDeep(read.get(i)),
+                    String.format(
+                            "object %d differs with compressed=%b and runLength=%b",
+                            i, compressed, runLength));
+        }
+    }
+
+    private ObjectCollection writeAndRead(
+            ObjectCollection objects, boolean compressed, boolean runLength, String filename)
+            throws DeserializationFailedException {
+        Path path = directory.resolve(filename);
+        new HDF5ObjectsGenerator(compressed, runLength)
+                .writeToFile(objects, new OutputWriteSettings(), path);
+        return new ReadObjectsFromHDF5()
+                .deserialize(path, LoggerFixture.suppressedOperationContext());
+    }
+
+    /**
+     * An object where voxels are <i>on</i> in alternating diagonal stripes, so each row contains
+     * several runs, and some rows begin with <i>off</i> voxels.
+     */
+    private static ObjectMask createStriped(Point3i corner, Extent extent) {
+        ObjectMask object = new ObjectMask(BoundingBox.createReuse(corner, extent));
+        for (int z = 0; z < extent.z(); z++) {
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if ((x + y + z) % 3 != 0) {
+                        object.assignOn()
+                                .toVoxel(corner.x() + x, corner.y() + y, corner.z() + z);
+                    }
+                }
+            }
+        }
+        return object;
+    }
+
+    /** An object where all voxels are <i>on</i>. */
+    private static ObjectMask createFilled(Point3i corner, Extent extent) {
+        ObjectMask object = new ObjectMask(BoundingBox.createReuse(corner, extent));
+        object.assignOn().toAll();
+        return object;
+    }
+}
@@ -27,32 +27,31 @@
 package org.anchoranalysis.image.voxel.binary.connected;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import lombok.AllArgsConstructor;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.exception.friendly.AnchorImpossibleSituationException;
 import org.anchoranalysis.image.voxel.Voxels;
 import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesByte;
 import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
 import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedIntBuffer;
-import org.anchoranalysis.image.voxel.extracter.VoxelsExtracter;
 import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
 import org.anchoranalysis.image.voxel.iterator.IterateVoxelsAll;
 import org.anchoranalysis.image.voxel.object.ObjectCollection;
 import org.anchoranalysis.image.voxel.object.ObjectMask;
 import org.anchoranalysis.spatial.box.Extent;
 import org.anchoranalysis.spatial.point.Point3i;
-import org.jgrapht.alg.util.UnionFind;
+import org.anchoranalysis.spatial.point.ReadableTuple3i;
 
 @AllArgsConstructor
 class ConnectedComponentUnionFind {
 
+    /** The initial capacity of the union-find, which grows as needed. */
+    static final int INITIAL_CAPACITY_UNION_FIND = 1024;
+
     /**
      * A minimum number of voxels necessary in the connected-component, otherwise it omitted from
      * the output.
@@ -62,6 +61,44 @@ class ConnectedComponentUnionFind {
     /** whether to use a smaller or bigger neighbor (in 3D, 6-conn neighbors are used as small) */
     private final boolean bigNeighborhood;
 
+    /**
+     * Whether to label slabs of z-slices in parallel, and populate z-slices of objects in parallel,
+     * using the common {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * <p>When slabs are labelled in parallel, the objects are identical, but are ordered by their
+     * first voxel (in raster order), rather than by the root of their set in the union-find.
+     */
+    private final boolean parallel;
+
+    /** The number of slabs of z-slices to label in parallel, when {@code parallel} is true. */
+    private final int numberSlabs;
+
+    /**
+     * Creates to derive connected-components sequentially.
+     *
+     * @param minNumberVoxels a minimum number of voxels necessary in the connected-component,
+     *     otherwise it omitted from the output.
+     * @param bigNeighborhood whether to use a smaller or bigger neighbor.
+     */
+    public ConnectedComponentUnionFind(int minNumberVoxels, boolean bigNeighborhood) {
+        this(minNumberVoxels, bigNeighborhood, false);
+    }
+
+    /**
+     * Creates to derive connected-components, optionally in parallel.
+     *
+     * <p>When {@code parallel}, there is a slab for each available processor.
+     *
+     * @param minNumberVoxels a minimum number of voxels necessary in the connected-component,
+     *     otherwise it omitted from the output.
+     * @param bigNeighborhood whether to use a smaller or bigger neighbor.
+     * @param parallel whether to process in parallel.
+     */
+    public ConnectedComponentUnionFind(
+            int minNumberVoxels, boolean bigNeighborhood, boolean parallel) {
+        this(minNumberVoxels, bigNeighborhood, parallel, Runtime.getRuntime().availableProcessors());
+    }
+
     /**
      * Converts binary-voxels (byte) into connected components.
      *
@@ -105,10 +142,25 @@ class ConnectedComponentUnionFind {
             int minimumNumberVoxels,
             BufferReadWrite<T> bufferReaderWriter) {
 
-        UnionFind<Integer> unionIndex = new UnionFind<>(new HashSet<>());
         Voxels<UnsignedIntBuffer> indexBuffer =
                 VoxelsFactory.getUnsignedInt().createInitialized(visited.extent());
 
+        if (parallel && numberSlabs > 1 && visited.extent().z() > 1) {
+            PopulateIndexInSlabs<T> populate =
+                    new PopulateIndexInSlabs<>(
+                            visited, indexBuffer, bufferReaderWriter, bigNeighborhood);
+            UnionFindInt unionIndex = populate.populate(numberSlabs);
+            processIndexBuffer(
+                    populate.getMaxLabel(),
+                    unionIndex,
+                    indexBuffer,
+                    consumer,
+                    minimumNumberVoxels,
+                    true);
+            return;
+        }
+
+        UnionFindInt unionIndex = new UnionFindInt(INITIAL_CAPACITY_UNION_FIND);
         int maxBigIDAdded =
                 populateIndexFromBinary(
                         visited,
@@ -118,11 +170,12 @@ class ConnectedComponentUnionFind {
                                 createMergeWithNeighbors(indexBuffer, unionIndex),
                                 bufferReaderWriter));
 
-        processIndexBuffer(maxBigIDAdded, unionIndex, indexBuffer, consumer, minimumNumberVoxels);
+        processIndexBuffer(
+                maxBigIDAdded, unionIndex, indexBuffer, consumer, minimumNumberVoxels, false);
     }
 
     private MergeWithNeighbors createMergeWithNeighbors(
-            Voxels<UnsignedIntBuffer> indexBuffer, UnionFind<Integer> unionIndex) {
+            Voxels<UnsignedIntBuffer> indexBuffer, UnionFindInt unionIndex) {
         return new MergeWithNeighbors(
                 indexBuffer, unionIndex, indexBuffer.extent().z() > 1, bigNeighborhood);
     }
@@ -133,25 +186,58 @@ class ConnectedComponentUnionFind {
         return process.getCount() - 1;
     }
 
-    // Assumes unionFind begins at 1
-    private static Set<Integer> setFromUnionFind(int maxValue, UnionFind<Integer> unionIndex) {
-        TreeSet<Integer> set = new TreeSet<>();
+    /**
+     * Maps each big ID to a contiguous sequence of small IDs starting at 1, so that all big IDs in
+     * the same set have the same small ID.
+     *
+     * <p>Small IDs are assigned in ascending order of the root of each set. Assumes the union-find
+     * begins at 1.
+     *
+     * @param maxValue the maximum big ID.
+     * @param unionIndex the union-find describing which big IDs belong together.
+     * @param smallIDs an array with {@code maxValue + 1} elements, into which the small ID of each
+     *     big ID is written.
+     * @return the number of distinct small IDs.
+     */
+    private static int assignContiguousIdentifiers(
+            int maxValue, UnionFindInt unionIndex, int[] smallIDs) {
+        int[] smallIDForRoot = new int[maxValue + 1];
+        for (int i = 1; i <= maxValue; i++) {
+            smallIDs[i] = unionIndex.find(i);
+            smallIDForRoot[smallIDs[i]] = -1;
+        }
+
+        int count = 0;
+        for (int i = 1; i <= maxValue; i++) {
+            if (smallIDForRoot[i] == -1) {
+                smallIDForRoot[i] = ++count;
+            }
+        }
+
         for (int i = 1; i <= maxValue; i++) {
-            set.add(unionIndex.find(i));
+            smallIDs[i] = smallIDForRoot[smallIDs[i]];
         }
-        return set;
+        return count;
     }
 
-    // Maps the set of integers to a sequence of integers starting at 1
-    private static Map<Integer, Integer> mapValuesToContiguousSet(Set<Integer> setIDs) {
-        // We create a map between big ID and small ID
-        Map<Integer, Integer> mapIDOrdered = new TreeMap<>();
-        int count = 1;
-        for (Integer id : setIDs) {
-            mapIDOrdered.put(id, count);
-            count++;
+    /**
+     * Like {@link #assignContiguousIdentifiers} but small IDs are assigned in ascending order of
+     * the smallest big ID in each set.
+     *
+     * <p>When big IDs increase in raster order, this orders by the first voxel of each set.
+     */
+    private static int assignContiguousIdentifiersInOrderOfSmallest(
+            int maxValue, UnionFindInt unionIndex, int[] smallIDs) {
+        int[] smallIDForRoot = new int[maxValue + 1];
+        int count = 0;
+        for (int i = 1; i <= maxValue; i++) {
+            int root = unionIndex.find(i);
+            if (smallIDForRoot[root] == 0) {
+                smallIDForRoot[root] = ++count;
+            }
+            smallIDs[i] = smallIDForRoot[root];
         }
-        return mapIDOrdered;
+        return count;
     }
 
     private static PointRangeWithCount[] createBBoxArray(int size) {
@@ -163,10 +249,7 @@ class ConnectedComponentUnionFind {
     }
 
     private static void addPointsAndAssignNewIdentifiers(
-            Voxels<UnsignedIntBuffer> indexBuffer,
-            UnionFind<Integer> unionIndex,
-            Map<Integer, Integer> mapIDOrdered,
-            PointRangeWithCount[] boxArr) {
+            Voxels<UnsignedIntBuffer> indexBuffer, int[] smallIDs, PointRangeWithCount[] boxArr) {
 
         Point3i point = new Point3i();
         Extent extent = indexBuffer.extent();
@@ -182,7 +265,7 @@ class ConnectedComponentUnionFind {
                     int idBig = bufferIndex.getRaw(offset);
                     if (idBig != 0) {
 
-                        Integer idSmall = mapIDOrdered.get(unionIndex.find(idBig));
+                        int idSmall = smallIDs[idBig];
 
                         PointRangeWithCount box = boxArr[idSmall - 1];
                         box.add(point);
@@ -195,46 +278,99 @@ class ConnectedComponentUnionFind {
         }
     }
 
-    private static void extractMasksInto(
-            PointRangeWithCount[] boxArr,
-            Map<Integer, Integer> mapIDOrdered,
-            Voxels<UnsignedIntBuffer> indexBuffer,
-            int minNumberVoxels,
-            Consumer<ObjectMask> consume) {
-
-        VoxelsExtracter<UnsignedIntBuffer> extracter = indexBuffer.extract();
-
-        for (int smallID : mapIDOrdered.values()) {
-
-            PointRangeWithCount boxWithCnt = boxArr[smallID - 1];
-
+    /**
+     * Creates an empty {@link ObjectMask} for each component with sufficient voxels.
+     *
+     * @return an array with an element for each small ID (offset by -1), which is null when the
+     *     component has too few voxels.
+     */
+    private static ObjectMask[] createEmptyObjects(
+            PointRangeWithCount[] boxArr, int minNumberVoxels) {
+        ObjectMask[] objects = new ObjectMask[boxArr.length];
+        for (int i = 0; i < boxArr.length; i++) {
+            PointRangeWithCount boxWithCnt = boxArr[i];
             if (boxWithCnt.getCount() >= minNumberVoxels) {
                 try {
-                    consume.accept(
-                            extracter
-                                    .voxelsEqualTo(smallID)
-                                    .deriveObject(boxWithCnt.deriveBoundingBox()));
+                    objects[i] = new ObjectMask(boxWithCnt.deriveBoundingBox());
                 } catch (OperationFailedException e) {
                     throw new AnchorImpossibleSituationException();
                 }
             }
         }
+        return objects;
+    }
+
+    /**
+     * Assigns <i>on</i> voxels in each object, in a single pass over the index buffer.
+     *
+     * <p>If {@code parallel}, different z-slices are processed in parallel, as each writes to
+     * separate slices of the objects.
+     */
+    private void populateObjects(Voxels<UnsignedIntBuffer> indexBuffer, ObjectMask[] objects) {
+        Extent extent = indexBuffer.extent();
+        byte valueOn = BinaryValuesByte.getDefault().getOn();
+        IntStream slices = IntStream.range(0, extent.z());
+        if (parallel) {
+            slices = slices.parallel();
+        }
+        slices.forEach(
+                z -> populateObjectsSlice(indexBuffer.sliceBuffer(z), z, extent, objects, valueOn));
+    }
+
+    private static void populateObjectsSlice(
+            UnsignedIntBuffer bufferIndex,
+            int z,
+            Extent extent,
+            ObjectMask[] objects,
+            byte valueOn) {
+        int offset = 0;
+        for (int y = 0; y < extent.y(); y++) {
+            for (int x = 0; x < extent.x(); x++) {
+                int idSmall = bufferIndex.getRaw(offset++);
+                if (idSmall != 0) {
+                    ObjectMask object = objects[idSmall - 1];
+                    if (object != null) {
+                        ReadableTuple3i corner = object.boundingBox().cornerMin();
+                        int offsetObject = object.extent().offset(x - corner.x(), y - corner.y());
+                        object.sliceBufferGlobal(z).putRaw(offsetObject, valueOn);
+                    }
+                }
+            }
+        }
     }
 
-    private static void processIndexBuffer(
+    /**
+     * Derives objects from the labels in the index buffer.
+     *
+     * @param orderBySmallest if true, objects are ordered by the smallest big ID in their set,
+     *     otherwise by the root of their set.
+     */
+    private void processIndexBuffer(
             int maxBigIDAdded,
-            UnionFind<Integer> unionIndex,
+            UnionFindInt unionIndex,
             Voxels<UnsignedIntBuffer> indexBuffer,
             Consumer<ObjectMask> consumer,
-            int minNumberVoxels) {
-        Set<Integer> primaryIDs = setFromUnionFind(maxBigIDAdded, unionIndex);
+            int minNumberVoxels,
+            boolean orderBySmallest) {
+        int[] smallIDs = new int[maxBigIDAdded + 1];
+        int numberComponents =
+                orderBySmallest
+                        ? assignContiguousIdentifiersInOrderOfSmallest(
+                                maxBigIDAdded, unionIndex, smallIDs)
+                        : assignContiguousIdentifiers(maxBigIDAdded, unionIndex, smallIDs);
+
+        PointRangeWithCount[] boxArr = createBBoxArray(numberComponents);
 
-        Map<Integer, Integer> mapIDOrdered = mapValuesToContiguousSet(primaryIDs);
+        addPointsAndAssignNewIdentifiers(indexBuffer, smallIDs, boxArr);
 
-        PointRangeWithCount[] boxArr = createBBoxArray(mapIDOrdered.size());
+        ObjectMask[] objects = createEmptyObjects(boxArr, minNumberVoxels);
 
-        addPointsAndAssignNewIdentifiers(indexBuffer, unionIndex, mapIDOrdered, boxArr);
+        populateObjects(indexBuffer, objects);
 
-        extractMasksInto(boxArr, mapIDOrdered, indexBuffer, minNumberVoxels, consumer);
+        for (ObjectMask object : objects) {
+            if (object != null) {
+                consumer.accept(object);
+            }
+        }
     }
 }
@@ -36,7 +36,6 @@ import org.anchoranalysis.image.voxel.iterator.neighbor.ProcessVoxelNeighborFact
 import org.anchoranalysis.image.voxel.neighborhood.Neighborhood;
 import org.anchoranalysis.image.voxel.neighborhood.NeighborhoodFactory;
 import org.anchoranalysis.spatial.point.Point3i;
-import org.jgrapht.alg.util.UnionFind;
 
 final class MergeWithNeighbors {
 
@@ -45,10 +44,10 @@ final class MergeWithNeighbors {
 
         private int minLabel;
 
-        private final UnionFind<Integer> unionIndex;
+        private final UnionFindInt unionIndex;
 
         public PointEvaluator(
-                SlidingBuffer<UnsignedIntBuffer> slidingIndex, UnionFind<Integer> unionIndex) {
+                SlidingBuffer<UnsignedIntBuffer> slidingIndex, UnionFindInt unionIndex) {
             super(slidingIndex);
             this.unionIndex = unionIndex;
         }
@@ -95,7 +94,7 @@ final class MergeWithNeighbors {
     private final ProcessVoxelNeighbor<Integer> process;
     private final Neighborhood neighborhood;
     private final SlidingBuffer<UnsignedIntBuffer> slidingIndex;
-    private final UnionFind<Integer> unionIndex;
+    private final UnionFindInt unionIndex;
 
     /**
      * Creates for voxels containing indices.
@@ -110,7 +109,7 @@ final class MergeWithNeighbors {
      */
     public MergeWithNeighbors(
             Voxels<UnsignedIntBuffer> voxels,
-            UnionFind<Integer> unionIndex,
+            UnionFindInt unionIndex,
             boolean do3D,
             boolean bigNeighborhood) {
         this.do3D = do3D;
@@ -141,7 +140,7 @@ final class MergeWithNeighbors {
         slidingIndex.shift();
     }
 
-    public void addElement(Integer element) {
+    public void addElement(int element) {
         unionIndex.addElement(element);
     }
 }
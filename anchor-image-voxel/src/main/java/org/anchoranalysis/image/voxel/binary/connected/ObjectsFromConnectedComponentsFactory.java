@@ -80,7 +80,25 @@ public class ObjectsFromConnectedComponentsFactory {
      *     connected-component, otherwise the connected-component is omitted.
      */
     public ObjectsFromConnectedComponentsFactory(boolean bigNeighborhood, int minNumberVoxels) {
-        unionFind = new ConnectedComponentUnionFind(minNumberVoxels, bigNeighborhood);
+        this(bigNeighborhood, minNumberVoxels, false);
+    }
+
+    /**
+     * Creates to use a specified type of neighborhood, minimum number of voxels, and optionally to
+     * process in parallel.
+     *
+     * @param bigNeighborhood if true, use 8-Connectivity instead of 4 in 2D, and 26-connectivity
+     *     instead of 6 in 3D, as per {@link NeighborhoodFactory}.
+     * @param minNumberVoxels the minimum number of voxels that must exist for an independent
+     *     connected-component, otherwise the connected-component is omitted.
+     * @param parallel if true, slabs of z-slices are labelled in parallel, using the common {@link
+     *     java.util.concurrent.ForkJoinPool}. This should be avoided when already executing in
+     *     parallel. The same objects are derived, but when there is more than one z-slice, they
+     *     are ordered by their first voxel (in raster order).
+     */
+    public ObjectsFromConnectedComponentsFactory(
+            boolean bigNeighborhood, int minNumberVoxels, boolean parallel) {
+        unionFind = new ConnectedComponentUnionFind(minNumberVoxels, bigNeighborhood, parallel);
     }
 
     /**
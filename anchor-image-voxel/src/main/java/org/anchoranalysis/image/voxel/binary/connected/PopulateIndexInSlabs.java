@@ -0,0 +1,308 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.binary.connected;
+
+import java.util.stream.IntStream;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesByte;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesInt;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedIntBuffer;
+import org.anchoranalysis.spatial.box.Extent;
+
+/**
+ * Labels the <i>on</i> voxels in an index buffer, dividing the z-slices into slabs that are
+ * labelled in parallel.
+ *
+ * <p>Each slab is labelled independently with its own {@link UnionFindInt}, considering only
+ * neighbors inside the slab. Labels are then offset to be unique across slabs, and a merge pass
+ * joins labels that neighbor each other across the border between successive slabs.
+ *
+ * <p>Within a slab, labels increase in raster order, and every label of a slab is greater than the
+ * labels of preceding slabs. So the smallest label of any connected-component is that of its first
+ * voxel, in raster order, irrespective of the number of slabs.
+ *
+ * @param <T> buffer-type of the binary-voxels.
+ * @author Owen Feehan
+ */
+final class PopulateIndexInSlabs<T> {
+
+    /** A range of z-slices, labelled independently of other slabs. */
+    private static class Slab {
+
+        /** The first z-slice in the slab (inclusive). */
+        private final int zStart;
+
+        /** The final z-slice in the slab (exclusive). */
+        private final int zEnd;
+
+        /** Which labels belong together, considering only voxels in the slab. */
+        private final UnionFindInt unionFind =
+                new UnionFindInt(ConnectedComponentUnionFind.INITIAL_CAPACITY_UNION_FIND);
+
+        /** The number of labels assigned in the slab. */
+        private int count = 0;
+
+        /** Added to each label of the slab, to make it unique across slabs. */
+        private int offset = 0;
+
+        public Slab(int zStart, int zEnd) {
+            this.zStart = zStart;
+            this.zEnd = zEnd;
+        }
+    }
+
+    private final BinaryVoxels<T> visited;
+    private final Voxels<UnsignedIntBuffer> indexBuffer;
+    private final BufferReadWrite<T> bufferReaderWriter;
+    private final boolean bigNeighborhood;
+    private final Extent extent;
+    private final BinaryValuesInt binaryValues;
+    private final BinaryValuesByte binaryValuesByte;
+
+    /** The maximum label assigned, after {@link #populate} is called. */
+    private int maxLabel;
+
+    /**
+     * Creates to label particular binary-voxels.
+     *
+     * @param visited the binary-voxels to label, which must have more than a single z-slice.
+     * @param indexBuffer the voxels into which labels are written, initially all zero.
+     * @param bufferReaderWriter reads the voxel-buffer.
+     * @param bigNeighborhood if true, uses a big neighborhood, otherwise a small neighborhood, as
+     *     defined in {@link org.anchoranalysis.image.voxel.neighborhood.NeighborhoodFactory}.
+     */
+    public PopulateIndexInSlabs(
+            BinaryVoxels<T> visited,
+            Voxels<UnsignedIntBuffer> indexBuffer,
+            BufferReadWrite<T> bufferReaderWriter,
+            boolean bigNeighborhood) {
+        this.visited = visited;
+        this.indexBuffer = indexBuffer;
+        this.bufferReaderWriter = bufferReaderWriter;
+        this.bigNeighborhood = bigNeighborhood;
+        this.extent = indexBuffer.extent();
+        this.binaryValues = visited.binaryValues();
+        this.binaryValuesByte = binaryValues.asByte();
+    }
+
+    /**
+     * Labels all <i>on</i> voxels into the index buffer.
+     *
+     * @param numberSlabs the number of slabs to label in parallel, which is capped at the number of
+     *     z-slices.
+     * @return a union-find describing which labels (from 1 to {@link #getMaxLabel} inclusive)
+     *     belong to the same connected-component.
+     */
+    public UnionFindInt populate(int numberSlabs) {
+        Slab[] slabs = createSlabs(Math.min(numberSlabs, extent.z()));
+
+        IntStream.range(0, slabs.length).parallel().forEach(index -> labelSlab(slabs[index]));
+
+        maxLabel = 0;
+        for (Slab slab : slabs) {
+            slab.offset = maxLabel;
+            maxLabel += slab.count;
+        }
+
+        IntStream.range(1, slabs.length).parallel().forEach(index -> offsetLabels(slabs[index]));
+
+        UnionFindInt unionFind = new UnionFindInt(maxLabel + 1);
+        for (int label = 1; label <= maxLabel; label++) {
+            unionFind.addElement(label);
+        }
+        for (Slab slab : slabs) {
+            for (int label = 1; label <= slab.count; label++) {
+                int root = slab.unionFind.find(label);
+                if (root != label) {
+                    unionFind.union(root + slab.offset, label + slab.offset);
+                }
+            }
+        }
+
+        for (int index = 1; index < slabs.length; index++) {
+            mergeAcrossBorder(slabs[index].zStart, unionFind);
+        }
+        return unionFind;
+    }
+
+    /**
+     * The maximum label assigned by {@link #populate}.
+     *
+     * @return the maximum label, or zero if no voxel is <i>on</i>.
+     */
+    public int getMaxLabel() {
+        return maxLabel;
+    }
+
+    /** Divides the z-slices into contiguous slabs of similar size. */
+    private Slab[] createSlabs(int numberSlabs) {
+        Slab[] slabs = new Slab[numberSlabs];
+        for (int index = 0; index < numberSlabs; index++) {
+            slabs[index] =
+                    new Slab(
+                            index * extent.z() / numberSlabs,
+                            (index + 1) * extent.z() / numberSlabs);
+        }
+        return slabs;
+    }
+
+    /** Labels the voxels of a slab, in raster order, merging with preceding neighbors. */
+    private void labelSlab(Slab slab) {
+        for (int z = slab.zStart; z < slab.zEnd; z++) {
+            T buffer = visited.voxels().sliceBuffer(z);
+            UnsignedIntBuffer bufferIndex = indexBuffer.sliceBuffer(z);
+            UnsignedIntBuffer bufferPrevious =
+                    z > slab.zStart ? indexBuffer.sliceBuffer(z - 1) : null;
+
+            int offset = 0;
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if (bufferReaderWriter.isBufferOn(
+                            buffer, offset, binaryValues, binaryValuesByte)) {
+                        int label = mergeSameSlice(slab.unionFind, bufferIndex, x, y, offset);
+                        if (bufferPrevious != null) {
+                            label =
+                                    mergePreviousSlice(
+                                            slab.unionFind, label, bufferPrevious, x, y, offset);
+                        }
+                        if (label == 0) {
+                            label = ++slab.count;
+                            slab.unionFind.addElement(label);
+                        }
+                        bufferIndex.putRaw(offset, label);
+                    }
+                    offset++;
+                }
+            }
+        }
+    }
+
+    /** Adds the offset of a slab to each of its labels. */
+    private void offsetLabels(Slab slab) {
+        for (int z = slab.zStart; z < slab.zEnd; z++) {
+            UnsignedIntBuffer bufferIndex = indexBuffer.sliceBuffer(z);
+            for (int offset = 0; offset < extent.areaXY(); offset++) {
+                int label = bufferIndex.getRaw(offset);
+                if (label != 0) {
+                    bufferIndex.putRaw(offset, label + slab.offset);
+                }
+            }
+        }
+    }
+
+    /** Merges labels on the first z-slice of a slab, with neighbors on the preceding z-slice. */
+    private void mergeAcrossBorder(int z, UnionFindInt unionFind) {
+        UnsignedIntBuffer bufferIndex = indexBuffer.sliceBuffer(z);
+        UnsignedIntBuffer bufferPrevious = indexBuffer.sliceBuffer(z - 1);
+        int offset = 0;
+        for (int y = 0; y < extent.y(); y++) {
+            for (int x = 0; x < extent.x(); x++) {
+                int label = bufferIndex.getRaw(offset);
+                if (label != 0) {
+                    mergePreviousSlice(unionFind, label, bufferPrevious, x, y, offset);
+                }
+                offset++;
+            }
+        }
+    }
+
+    /**
+     * Merges with the neighbors on the same z-slice that precede a voxel in raster order.
+     *
+     * @return the minimum label of these neighbors, or zero if none are labelled.
+     */
+    private int mergeSameSlice(
+            UnionFindInt unionFind, UnsignedIntBuffer bufferIndex, int x, int y, int offset) {
+        int label = 0;
+        if (x > 0) {
+            label = merge(unionFind, label, bufferIndex.getRaw(offset - 1));
+        }
+        if (y > 0) {
+            int offsetAbove = offset - extent.x();
+            label = merge(unionFind, label, bufferIndex.getRaw(offsetAbove));
+            if (bigNeighborhood) {
+                if (x > 0) {
+                    label = merge(unionFind, label, bufferIndex.getRaw(offsetAbove - 1));
+                }
+                if (x < extent.x() - 1) {
+                    label = merge(unionFind, label, bufferIndex.getRaw(offsetAbove + 1));
+                }
+            }
+        }
+        return label;
+    }
+
+    /**
+     * Merges {@code label} with the neighbors of a voxel on the preceding z-slice.
+     *
+     * @return the minimum of {@code label} and the labels of these neighbors, treating zero as
+     *     absent.
+     */
+    private int mergePreviousSlice(
+            UnionFindInt unionFind,
+            int label,
+            UnsignedIntBuffer bufferPrevious,
+            int x,
+            int y,
+            int offset) {
+        if (!bigNeighborhood) {
+            return merge(unionFind, label, bufferPrevious.getRaw(offset));
+        }
+        for (int yShift = -1; yShift <= 1; yShift++) {
+            int yNeighbor = y + yShift;
+            if (yNeighbor < 0 || yNeighbor >= extent.y()) {
+                continue;
+            }
+            for (int xShift = -1; xShift <= 1; xShift++) {
+                int xNeighbor = x + xShift;
+                if (xNeighbor >= 0 && xNeighbor < extent.x()) {
+                    int neighbor = bufferPrevious.getRaw(offset + yShift * extent.x() + xShift);
+                    label = merge(unionFind, label, neighbor);
+                }
+            }
+        }
+        return label;
+    }
+
+    /**
+     * Merges two labels, either of which may be zero (absent).
+     *
+     * @return the minimum of the two labels, treating zero as absent.
+     */
+    private static int merge(UnionFindInt unionFind, int label, int neighbor) {
+        if (neighbor == 0) {
+            return label;
+        }
+        if (label == 0) {
+            return neighbor;
+        }
+        if (label != neighbor) {
+            unionFind.union(label, neighbor);
+        }
+        return Math.min(label, neighbor);
+    }
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.binary.connected;
+
+import java.util.Arrays;
+
+/**
+ * A <a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">union-find</a> data
+ * structure for non-negative {@code int} elements, stored in primitive arrays.
+ *
+ * <p>It uses path compression (by halving) and union by rank.
+ *
+ * <p>Elements must be added with {@link #addElement} before use, and the arrays grow as needed.
+ *
+ * @author Owen Feehan
+ */
+class UnionFindInt {
+
+    /** The parent of each element, or the element itself if it is a root. */
+    private int[] parent;
+
+    /** An upper-bound on the height of the tree beneath each root. */
+    private byte[] rank;
+
+    /**
+     * Creates with an initial capacity.
+     *
+     * @param initialCapacity the number of elements that can be stored, before the arrays must
+     *     grow.
+     */
+    public UnionFindInt(int initialCapacity) {
+        this.parent = new int[Math.max(initialCapacity, 1)];
+        this.rank = new byte[parent.length];
+    }
+
+    /**
+     * Adds an element, initially in a set of its own.
+     *
+     * @param element the element to add.
+     */
+    public void addElement(int element) {
+        if (element >= parent.length) {
+            int capacity = Math.max(element + 1, parent.length * 2);
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+        }
+        parent[element] = element;
+        rank[element] = 0;
+    }
+
+    /**
+     * Finds the representative (root) of the set containing an element.
+     *
+     * @param element the element, which must have been previously added.
+     * @return the root of the set.
+     */
+    public int find(int element) {
+        int current = element;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merges the sets containing two elements.
+     *
+     * @param element1 the first element, which must have been previously added.
+     * @param element2 the second element, which must have been previously added.
+     */
+    public void union(int element1, int element2) {
+        int root1 = find(element1);
+        int root2 = find(element2);
+        if (root1 == root2) {
+            return;
+        }
+
+        if (rank[root1] < rank[root2]) {
+            parent[root1] = root2;
+        } else if (rank[root1] > rank[root2]) {
+            parent[root2] = root1;
+        } else {
+            parent[root2] = root1;
+            rank[root1]++;
+        }
+    }
+}
@@ -26,6 +26,7 @@
 
 package org.anchoranalysis.image.voxel.kernel;
 
+import java.util.Optional;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.anchoranalysis.core.exception.OperationFailedException;
@@ -40,6 +41,9 @@ import org.anchoranalysis.image.voxel.factory.VoxelsFactoryTypeBound;
 import org.anchoranalysis.image.voxel.iterator.neighbor.kernel.IterateKernelHelper;
 import org.anchoranalysis.image.voxel.iterator.process.ProcessKernelPointCursor;
 import org.anchoranalysis.image.voxel.kernel.count.CountKernel;
+import org.anchoranalysis.image.voxel.kernel.morphological.DilationKernel;
+import org.anchoranalysis.image.voxel.kernel.morphological.ErosionKernel;
+import org.anchoranalysis.image.voxel.kernel.outline.OutlineKernel;
 import org.anchoranalysis.math.arithmetic.Counter;
 import org.anchoranalysis.spatial.box.BoundingBox;
 
@@ -58,6 +62,8 @@ public class ApplyKernel {
      * Apply the kernel to {@code BinaryVoxels<UnsignedByteBuffer>} using the same binary-values as
      * {@code voxels} to calculate a value for each voxel.
      *
+     * <p>All voxels are processed sequentially on the current thread.
+     *
      * @param kernel the kernel to apply.
      * @param voxels the voxels to apply the kernel on.
      * @param parameters parameters influencing how the kernel is applied.
@@ -68,11 +74,44 @@ public class ApplyKernel {
             BinaryKernel kernel,
             BinaryVoxels<UnsignedByteBuffer> voxels,
             KernelApplicationParameters parameters) {
+        return apply(kernel, voxels, parameters, false);
+    }
+
+    /**
+     * Like {@link #apply(BinaryKernel, BinaryVoxels, KernelApplicationParameters)} but with the
+     * option of processing voxels in parallel.
+     *
+     * <p>Parallel processing only occurs for a {@link DilationKernel}, {@link ErosionKernel} or
+     * {@link OutlineKernel}, which are also applied with a specialized routine, splitting the work
+     * by z-slice (or by blocks of rows, for a single slice). Other kernels hold state about the
+     * current slice, and are always applied sequentially.
+     *
+     * <p>The outputs are identical, irrespective of whether {@code parallel} is true or false.
+     *
+     * @param kernel the kernel to apply.
+     * @param voxels the voxels to apply the kernel on.
+     * @param parameters parameters influencing how the kernel is applied.
+     * @param parallel whether to process voxels in parallel, if supported for {@code kernel}.
+     * @return a newly created {@code BinaryVoxels<UnsignedByteBuffer>} that is the result of
+     *     applying the kernel, and using the same binary-values as {@code voxels}.
+     */
+    public static BinaryVoxels<UnsignedByteBuffer> apply(
+            BinaryKernel kernel,
+            BinaryVoxels<UnsignedByteBuffer> voxels,
+            KernelApplicationParameters parameters,
+            boolean parallel) {
 
         Voxels<UnsignedByteBuffer> out = FACTORY.createInitialized(voxels.extent());
 
         BinaryValuesByte outBinaryValues = voxels.binaryValues().asByte();
 
+        Optional<ApplyMorphologicalKernel> specialized =
+                ApplyMorphologicalKernel.create(kernel, parameters);
+        if (specialized.isPresent()) {
+            specialized.get().apply(voxels.voxels(), outBinaryValues, out, parallel);
+            return BinaryVoxelsFactory.reuseByte(out, outBinaryValues.asInt());
+        }
+
         IterateKernelHelper.overAll(
                 kernel,
                 voxels,
@@ -0,0 +1,270 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.kernel;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesByte;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.kernel.morphological.BinaryKernelMorphological;
+import org.anchoranalysis.image.voxel.kernel.morphological.DilationKernel;
+import org.anchoranalysis.image.voxel.kernel.morphological.ErosionKernel;
+import org.anchoranalysis.image.voxel.kernel.outline.OutlineKernel;
+import org.anchoranalysis.spatial.box.Extent;
+
+/**
+ * Applies a {@link DilationKernel}, {@link ErosionKernel} or {@link OutlineKernel} directly on
+ * the voxel arrays, without a {@link KernelPointCursor} or virtual calls for each voxel.
+ *
+ * <p>It produces identical outputs to {@link BinaryKernelMorphological#calculateAt} for these
+ * kernels, and holds no mutable state, so rows and slices may be processed in parallel.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class ApplyMorphologicalKernel {
+
+    /** The minimum number of rows processed by a single task, when processing in parallel. */
+    private static final int MIN_ROWS_PER_TASK = 64;
+
+    /** Whether to also consider diagonal neighbors in the XY plane. */
+    private final boolean bigNeighborhood;
+
+    /** Whether to also consider neighbors in the Z dimension. */
+    private final boolean useZ;
+
+    /** The first-check passes when the voxel is <i>on</i> (if true) or <i>off</i> (if false). */
+    private final boolean firstCheckOn;
+
+    /** The outcome when the first-check fails. */
+    private final boolean failedFirstCheckOutcome;
+
+    /** A neighbor qualifies when it is <i>on</i> (if true) or <i>off</i> (if false). */
+    private final boolean neighborQualifiesOn;
+
+    /** Whether a neighbor lying outside the scene qualifies. */
+    private final boolean outsideQualifies;
+
+    /** The outcome when at least one neighbor qualifies. The complement occurs otherwise. */
+    private final boolean qualifiedOutcome;
+
+    /**
+     * Creates for a particular kernel, if it is one of the supported kernels.
+     *
+     * <p>Only these exact classes are supported, not any sub-classes.
+     *
+     * @param kernel the kernel.
+     * @param parameters parameters influencing how the kernel is applied.
+     * @return the newly created instance, or {@link Optional#empty} if {@code kernel} is not
+     *     supported.
+     */
+    public static Optional<ApplyMorphologicalKernel> create(
+            BinaryKernel kernel, KernelApplicationParameters parameters) {
+        Class<?> kernelClass = kernel.getClass();
+        if (kernelClass == DilationKernel.class) {
+            return Optional.of(
+                    new ApplyMorphologicalKernel(
+                            ((BinaryKernelMorphological) kernel).isBigNeighborhood(),
+                            parameters.isUseZ(),
+                            false,
+                            true,
+                            true,
+                            parameters.isOutsideOn(),
+                            true));
+        } else if (kernelClass == ErosionKernel.class) {
+            return Optional.of(
+                    new ApplyMorphologicalKernel(
+                            ((BinaryKernelMorphological) kernel).isBigNeighborhood(),
+                            parameters.isUseZ(),
+                            true,
+                            false,
+                            false,
+                            parameters.isOutsideOn(),
+                            false));
+        } else if (kernelClass == OutlineKernel.class) {
+            return Optional.of(
+                    new ApplyMorphologicalKernel(
+                            ((BinaryKernelMorphological) kernel).isBigNeighborhood(),
+                            parameters.isUseZ(),
+                            true,
+                            false,
+                            false,
+                            parameters.isOutsideOffUnignored(),
+                            true));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Applies the kernel to every voxel, writing the outcome into {@code out}.
+     *
+     * @param voxels the voxels to apply the kernel to.
+     * @param binaryValues the binary-values used to interpret {@code voxels} and to write to {@code
+     *     out}.
+     * @param out where the outcome is written, with identical extent to {@code voxels}.
+     * @param parallel if true, slices (or blocks of rows in a single slice) are processed in
+     *     parallel. If false, all voxels are processed sequentially on the current thread.
+     */
+    public void apply(
+            Voxels<UnsignedByteBuffer> voxels,
+            BinaryValuesByte binaryValues,
+            Voxels<UnsignedByteBuffer> out,
+            boolean parallel) {
+        Extent extent = voxels.extent();
+        if (parallel && extent.z() > 1) {
+            IntStream.range(0, extent.z())
+                    .parallel()
+                    .forEach(z -> applyRows(voxels, binaryValues, out, z, 0, extent.y()));
+        } else if (parallel) {
+            int numberTasks =
+                    Math.max(
+                            1,
+                            Math.min(
+                                    Runtime.getRuntime().availableProcessors(),
+                                    extent.y() / MIN_ROWS_PER_TASK));
+            IntStream.range(0, numberTasks)
+                    .parallel()
+                    .forEach(
+                            task ->
+                                    applyRows(
+                                            voxels,
+                                            binaryValues,
+                                            out,
+                                            0,
+                                            rowBoundary(task, numberTasks, extent.y()),
+                                            rowBoundary(task + 1, numberTasks, extent.y())));
+        } else {
+            for (int z = 0; z < extent.z(); z++) {
+                applyRows(voxels, binaryValues, out, z, 0, extent.y());
+            }
+        }
+    }
+
+    /** Applies the kernel to rows from {@code yStart} (inclusive) to {@code yEnd} (exclusive). */
+    private void applyRows(
+            Voxels<UnsignedByteBuffer> voxels,
+            BinaryValuesByte binaryValues,
+            Voxels<UnsignedByteBuffer> out,
+            int z,
+            int yStart,
+            int yEnd) {
+        Extent extent = voxels.extent();
+        int sizeX = extent.x();
+        int sizeY = extent.y();
+
+        byte[] current = voxels.sliceBuffer(z).array();
+        byte[] previous = sliceOrNull(voxels, z - 1);
+        byte[] next = sliceOrNull(voxels, z + 1);
+
+        UnsignedByteBuffer outBuffer = out.sliceBuffer(z);
+
+        byte on = binaryValues.getOn();
+        byte valueQualified = qualifiedOutcome ? on : binaryValues.getOff();
+        byte valueUnqualified = qualifiedOutcome ? binaryValues.getOff() : on;
+        byte valueFailedFirstCheck = failedFirstCheckOutcome ? on : binaryValues.getOff();
+
+        for (int y = yStart; y < yEnd; y++) {
+            int index = y * sizeX;
+            for (int x = 0; x < sizeX; x++) {
+                byte value;
+                if ((current[index] == on) != firstCheckOn) {
+                    value = valueFailedFirstCheck;
+                } else if (anyNeighborQualifies(
+                        current, previous, next, on, index, x, y, sizeX, sizeY)) {
+                    value = valueQualified;
+                } else {
+                    value = valueUnqualified;
+                }
+                outBuffer.putRaw(index, value);
+                index++;
+            }
+        }
+    }
+
+    /** Whether any neighbor of the voxel at {@code index} qualifies. */
+    private boolean anyNeighborQualifies(
+            byte[] current,
+            byte[] previous,
+            byte[] next,
+            byte on,
+            int index,
+            int x,
+            int y,
+            int sizeX,
+            int sizeY) {
+        boolean nonNegativeX = x > 0;
+        boolean lessThanMaxX = x < sizeX - 1;
+        boolean nonNegativeY = y > 0;
+        boolean lessThanMaxY = y < sizeY - 1;
+
+        if (qualifies(nonNegativeX, current, index - 1, on)
+                || qualifies(lessThanMaxX, current, index + 1, on)
+                || qualifies(nonNegativeY, current, index - sizeX, on)
+                || qualifies(lessThanMaxY, current, index + sizeX, on)) {
+            return true;
+        }
+
+        if (useZ
+                && (qualifies(previous != null, previous, index, on)
+                        || qualifies(next != null, next, index, on))) {
+            return true;
+        }
+
+        return bigNeighborhood
+                && (qualifies(nonNegativeX && nonNegativeY, current, index - sizeX - 1, on)
+                        || qualifies(nonNegativeX && lessThanMaxY, current, index + sizeX - 1, on)
+                        || qualifies(lessThanMaxX && lessThanMaxY, current, index + sizeX + 1, on)
+                        || qualifies(lessThanMaxX && nonNegativeY, current, index - sizeX + 1, on));
+    }
+
+    /** Whether a single neighbor qualifies, which is only read from {@code slice} if inside. */
+    private boolean qualifies(boolean inside, byte[] slice, int index, byte on) {
+        if (inside) {
+            return (slice[index] == on) == neighborQualifiesOn;
+        } else {
+            return outsideQualifies;
+        }
+    }
+
+    /** The array for a slice, or null if it lies outside the scene, or is not needed. */
+    private byte[] sliceOrNull(Voxels<UnsignedByteBuffer> voxels, int z) {
+        if (useZ && z >= 0 && z < voxels.extent().z()) {
+            return voxels.sliceBuffer(z).array();
+        } else {
+            return null;
+        }
+    }
+
+    /** The first row of a particular task, when dividing rows evenly among tasks. */
+    private static int rowBoundary(int task, int numberTasks, int sizeY) {
+        return (int) (((long) task * sizeY) / numberTasks);
+    }
+}
@@ -27,6 +27,7 @@
 package org.anchoranalysis.image.voxel.kernel.morphological;
 
 import java.util.function.Supplier;
+import lombok.Getter;
 import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
 import org.anchoranalysis.image.voxel.iterator.neighbor.kernel.WalkPredicate;
 import org.anchoranalysis.image.voxel.kernel.BinaryKernel;
@@ -45,7 +46,7 @@ public abstract class BinaryKernelMorphological extends BinaryKernel {
      * If true, a big neighborhood is used 2D-plane (8-connected instead of 4-connected), but not in
      * Z-direction (remains always 2-connected).
      */
-    private final boolean bigNeighborhood;
+    @Getter private final boolean bigNeighborhood;
 
     /**
      * The outcome that should occur for the kernel <b>if no neighbor fulfills the condition</b>
@@ -28,6 +28,8 @@ package org.anchoranalysis.image.voxel.kernel.morphological;
 import java.util.Optional;
 import java.util.function.Predicate;
 import lombok.Getter;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.kernel.ApplyKernel;
 import org.anchoranalysis.image.voxel.kernel.BinaryKernel;
 import org.anchoranalysis.image.voxel.kernel.ConditionalKernel;
 import org.anchoranalysis.image.voxel.kernel.KernelApplicationParameters;
@@ -49,13 +51,13 @@ public class DilationContext {
      * If true, a big neighborhood is used 2D-plane (8-connected instead of 4-connected), but not in
      * Z-direction (remains always 2-connected).
      */
-    private final boolean bigNeighborhood;
+    @Getter private final boolean bigNeighborhood;
 
     /**
      * If defined, a condition which must be satisfied on a <i>voxel</i>, before any voxel can be
      * dilated.
      */
-    private final Optional<Predicate<Point3i>> precondition;
+    @Getter private final Optional<Predicate<Point3i>> precondition;
 
     /**
      * If defined, a condition which must be satisfied <i>after</i> an iteration occurs, otherwise
@@ -63,6 +65,12 @@ public class DilationContext {
      */
     @Getter private final Optional<AcceptIterationPredicate> postcondition;
 
+    /**
+     * If true, the kernel is applied to voxels in parallel, when supported. See {@link
+     * ApplyKernel#apply(BinaryKernel, BinaryVoxels, KernelApplicationParameters, boolean)}.
+     */
+    @Getter private final boolean parallel;
+
     /**
      * Create <i>without</i> a post-condition.
      *
@@ -101,10 +109,35 @@ public class DilationContext {
             boolean bigNeighborhood,
             Optional<Predicate<Point3i>> precondition,
             Optional<AcceptIterationPredicate> postcondition) {
+        this(outsideKernelPolicy, useZ, bigNeighborhood, precondition, postcondition, false);
+    }
+
+    /**
+     * Create <i>with</i> a post-condition, and control over parallel processing.
+     *
+     * @param outsideKernelPolicy how to handle voxels whose neighbors are outside the scene.
+     * @param useZ if true, the dilation also occurs in the Z-dimension, otherwise in the
+     *     XY-dimensions only.
+     * @param bigNeighborhood if true, a big neighborhood is used 2D-plane (8-connected instead of
+     *     4-connected), but not in Z-direction (remains always 2-connected).
+     * @param precondition if defined, a condition which must be satisfied on a <i>voxel</i>, before
+     *     any voxel can be dilated.
+     * @param postcondition if defined, a condition which must be satisfied <i>after</i> an
+     *     iteration occurs, otherwise no more iterations occur.
+     * @param parallel if true, the kernel is applied to voxels in parallel, when supported.
+     */
+    public DilationContext(
+            OutsideKernelPolicy outsideKernelPolicy,
+            boolean useZ,
+            boolean bigNeighborhood,
+            Optional<Predicate<Point3i>> precondition,
+            Optional<AcceptIterationPredicate> postcondition,
+            boolean parallel) {
         this.kernelApplication = new KernelApplicationParameters(outsideKernelPolicy, useZ);
         this.bigNeighborhood = bigNeighborhood;
         this.precondition = precondition;
         this.postcondition = postcondition;
+        this.parallel = parallel;
     }
 
     /**
@@ -28,9 +28,11 @@ package org.anchoranalysis.image.voxel.object;
 
 import com.google.common.base.Functions;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -197,16 +199,29 @@ public class IntersectingObjects<T> {
      * Constructs a graph where each vertex is an element and an edge exists between any elements
      * that intersect.
      *
+     * <p>As every object is tested for intersection against its neighbors, each object is first
+     * converted to a {@link PackedObjectMask}, so that voxels are compared many at a time.
+     *
      * @return a newly created graph, reusing the existing elements as vertices.
      */
     public GraphWithoutPayload<T> asGraph() {
         GraphWithoutPayload<T> graph = new GraphWithoutPayload<>(true);
 
-        for (T element : tree.asSet()) {
+        Set<T> elements = tree.asSet();
+
+        Map<T, PackedObjectMask> packed = new HashMap<>();
+        for (T element : elements) {
+            packed.put(element, extractObject.apply(element).pack());
+        }
+
+        for (T element : elements) {
             graph.addVertex(element);
 
+            PackedObjectMask object = packed.get(element);
             Iterator<T> intersecting =
-                    intersectsWithStream(extractObject.apply(element)).iterator();
+                    tree.intersectsWithStream(object.boundingBox())
+                            .filter(other -> object.hasIntersectingVoxels(packed.get(other)))
+                            .iterator();
             while (intersecting.hasNext()) {
                 // We avoid creating an edge if it already exists, or between an element and itself.
                 T other = intersecting.next();
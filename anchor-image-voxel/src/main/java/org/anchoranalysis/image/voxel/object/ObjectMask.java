@@ -368,6 +368,17 @@ public class ObjectMask {
         return CountVoxelsIntersectingObjects.hasIntersectingVoxels(this, other);
     }
 
+    /**
+     * Creates a compact representation of the object-mask, with a single bit per voxel.
+     *
+     * <p>This is an <i>immutable</i> operation.
+     *
+     * @return a newly created {@link PackedObjectMask} with identical <i>on</i> voxels.
+     */
+    public PackedObjectMask pack() {
+        return new PackedObjectMask(this);
+    }
+
     /**
      * Produces a scaled-version of an object-mask.
      *
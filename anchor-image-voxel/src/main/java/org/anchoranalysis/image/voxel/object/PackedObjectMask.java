@@ -0,0 +1,160 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.object;
+
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.anchoranalysis.image.voxel.binary.PackedBinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesInt;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.point.Point3i;
+
+/**
+ * Like {@link ObjectMask} but stores the voxels compactly with a single bit per voxel.
+ *
+ * <p>This is suitable for retaining large numbers of objects in memory, and for quickly
+ * calculating intersections and unions between them. It can be converted to and from {@link
+ * ObjectMask} when other operations are needed.
+ *
+ * <p>It is immutable, as the voxels are never modified after creation.
+ *
+ * @author Owen Feehan
+ */
+@Accessors(fluent = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PackedObjectMask {
+
+    /** The bounding-box of the object, in absolute coordinates. */
+    @Getter private final BoundingBox boundingBox;
+
+    /** Which voxels in the bounding-box are <i>on</i>. */
+    private final PackedBinaryVoxels voxels;
+
+    /**
+     * Creates from an existing {@link ObjectMask}.
+     *
+     * @param object the object to pack, which is not modified.
+     */
+    public PackedObjectMask(ObjectMask object) {
+        this(object.boundingBox(), PackedBinaryVoxels.pack(object.binaryVoxels()));
+    }
+
+    /**
+     * Creates an {@link ObjectMask}, with one byte per voxel, with the default binary-values.
+     *
+     * @return a newly created object-mask with identical <i>on</i> voxels.
+     */
+    public ObjectMask unpack() {
+        return new ObjectMask(boundingBox, voxels.unpack(BinaryValuesInt.getDefault()));
+    }
+
+    /**
+     * The number of <i>on</i> voxels on the object.
+     *
+     * @return the number of voxels that are <i>on</i>.
+     */
+    public int numberVoxelsOn() {
+        return voxels.countOn();
+    }
+
+    /**
+     * Counts the number of intersecting-voxels between two objects.
+     *
+     * @param other the other object to consider.
+     * @return number of <i>on</i>-voxels the two objects have in common.
+     */
+    public int countIntersectingVoxels(PackedObjectMask other) {
+        if (!boundingBox.intersection().existsWith(other.boundingBox)) {
+            return 0;
+        }
+        return voxels.countIntersecting(other.voxels, shiftTo(other));
+    }
+
+    /**
+     * Determines whether there are any intersecting voxels between two objects.
+     *
+     * <p>The algorithm exits as soon as intersecting voxels are encountered.
+     *
+     * @param other the other object to consider.
+     * @return true if at least one voxel exists that is <i>on</i> in both objects.
+     */
+    public boolean hasIntersectingVoxels(PackedObjectMask other) {
+        if (!boundingBox.intersection().existsWith(other.boundingBox)) {
+            return false;
+        }
+        return voxels.hasIntersecting(other.voxels, shiftTo(other));
+    }
+
+    /**
+     * Creates an object with the voxels that are <i>on</i> in either object.
+     *
+     * @param other the other object to consider.
+     * @return a newly created object, whose bounding-box minimally encloses both objects.
+     */
+    public PackedObjectMask union(PackedObjectMask other) {
+        BoundingBox box = boundingBox.union().with(other.boundingBox);
+        PackedBinaryVoxels merged = new PackedBinaryVoxels(box.extent());
+        merged.unionWith(voxels, cornerRelativeTo(box));
+        merged.unionWith(other.voxels, other.cornerRelativeTo(box));
+        return new PackedObjectMask(box, merged);
+    }
+
+    /**
+     * Creates an object with the voxels that are <i>on</i> in both objects.
+     *
+     * @param other the other object to consider.
+     * @return a newly created object, with a bounding-box of the intersection of the two
+     *     bounding-boxes, or {@link Optional#empty} if the bounding-boxes do not intersect.
+     */
+    public Optional<PackedObjectMask> intersect(PackedObjectMask other) {
+        return boundingBox
+                .intersection()
+                .with(other.boundingBox)
+                .map(box -> intersectInside(other, box));
+    }
+
+    /** Intersects the voxels of both objects, only inside {@code box}. */
+    private PackedObjectMask intersectInside(PackedObjectMask other, BoundingBox box) {
+        PackedBinaryVoxels intersection = new PackedBinaryVoxels(box.extent());
+        intersection.unionWith(voxels, cornerRelativeTo(box));
+        intersection.intersectWith(other.voxels, other.cornerRelativeTo(box));
+        return new PackedObjectMask(box, intersection);
+    }
+
+    /** The position of {@code other}'s corner, relative to this object's corner. */
+    private Point3i shiftTo(PackedObjectMask other) {
+        return other.cornerRelativeTo(boundingBox);
+    }
+
+    /** The position of this object's corner, relative to the corner of {@code box}. */
+    private Point3i cornerRelativeTo(BoundingBox box) {
+        return Point3i.immutableSubtract(boundingBox.cornerMin(), box.cornerMin());
+    }
+}
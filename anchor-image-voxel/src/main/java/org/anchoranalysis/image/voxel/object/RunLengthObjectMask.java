@@ -0,0 +1,210 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.object;
+
+import java.util.Arrays;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesByte;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.Extent;
+
+/**
+ * Like {@link ObjectMask} but stores the voxels as runs of consecutive <i>on</i> voxels in each
+ * row.
+ *
+ * <p>The storage required grows with the number of runs (i.e. roughly with the surface of an
+ * object) rather than with the volume of the bounding-box.
+ *
+ * <p>The runs are encoded as a single array of {@code int}s, visiting each row in turn (all rows
+ * in the first z-slice, then all rows in the second z-slice etc.). For each row, the number of
+ * runs is stored, followed by the starting X-coordinate and the length of each run.
+ *
+ * <p>It is immutable.
+ *
+ * @author Owen Feehan
+ */
+@Accessors(fluent = true)
+@AllArgsConstructor
+public final class RunLengthObjectMask {
+
+    /** The bounding-box of the object, in absolute coordinates. */
+    @Getter private final BoundingBox boundingBox;
+
+    /**
+     * The encoded runs, as described in the class comment.
+     *
+     * <p>This array should not be modified.
+     */
+    @Getter private final int[] encoded;
+
+    /**
+     * Creates by encoding an existing {@link ObjectMask}.
+     *
+     * @param object the object to encode, which is not modified.
+     */
+    public RunLengthObjectMask(ObjectMask object) {
+        this(object.boundingBox(), encode(object));
+    }
+
+    /**
+     * Creates an {@link ObjectMask}, with one byte per voxel, with the default binary-values.
+     *
+     * @return a newly created object-mask with identical <i>on</i> voxels.
+     * @throws IllegalArgumentException if the encoded runs are inconsistent with the
+     *     bounding-box.
+     */
+    public ObjectMask decode() {
+        Extent extent = boundingBox.extent();
+        Voxels<UnsignedByteBuffer> voxels =
+                VoxelsFactory.getUnsignedByte().createInitialized(extent);
+        byte on = BinaryValuesByte.getDefault().getOn();
+
+        int index = 0;
+        for (int z = 0; z < extent.z(); z++) {
+            byte[] slice = voxels.sliceBuffer(z).array();
+            for (int y = 0; y < extent.y(); y++) {
+                int rowStart = extent.offset(0, y);
+                int numberRuns = readEncoded(index++);
+                for (int i = 0; i < numberRuns; i++) {
+                    int start = readEncoded(index++);
+                    int length = readEncoded(index++);
+                    if (start < 0 || length < 0 || start + length > extent.x()) {
+                        throw new IllegalArgumentException(
+                                String.format(
+                                        "A run (start=%d, length=%d) lies outside the row.",
+                                        start, length));
+                    }
+                    Arrays.fill(slice, rowStart + start, rowStart + start + length, on);
+                }
+            }
+        }
+        if (index != encoded.length) {
+            throw new IllegalArgumentException(
+                    "The encoded runs are longer than expected for the bounding-box.");
+        }
+        return new ObjectMask(boundingBox, voxels);
+    }
+
+    /**
+     * The number of <i>on</i> voxels on the object.
+     *
+     * @return the number of voxels that are <i>on</i>.
+     */
+    public int numberVoxelsOn() {
+        Extent extent = boundingBox.extent();
+        int rows = extent.y() * extent.z();
+        int count = 0;
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            int numberRuns = encoded[index++];
+            for (int i = 0; i < numberRuns; i++) {
+                count += encoded[index + 1];
+                index += 2;
+            }
+        }
+        return count;
+    }
+
+    /** Reads an element from the encoded runs, checking it exists. */
+    private int readEncoded(int index) {
+        if (index >= encoded.length) {
+            throw new IllegalArgumentException(
+                    "The encoded runs are shorter than expected for the bounding-box.");
+        }
+        return encoded[index];
+    }
+
+    /** Encodes the runs in each row of an object. */
+    private static int[] encode(ObjectMask object) {
+        Extent extent = object.extent();
+        byte on = object.binaryValuesByte().getOn();
+
+        RunsBuilder builder = new RunsBuilder(extent.y() * extent.z());
+        for (int z = 0; z < extent.z(); z++) {
+            UnsignedByteBuffer buffer = object.sliceBufferLocal(z);
+            for (int y = 0; y < extent.y(); y++) {
+                int countIndex = builder.reserveCount();
+                int rowStart = extent.offset(0, y);
+                int x = 0;
+                while (x < extent.x()) {
+                    if (buffer.getRaw(rowStart + x) == on) {
+                        int start = x;
+                        while (x < extent.x() && buffer.getRaw(rowStart + x) == on) {
+                            x++;
+                        }
+                        builder.addRun(countIndex, start, x - start);
+                    } else {
+                        x++;
+                    }
+                }
+            }
+        }
+        return builder.toArray();
+    }
+
+    /** Builds the encoded array, growing it as needed. */
+    private static class RunsBuilder {
+
+        private int[] array;
+        private int size = 0;
+
+        public RunsBuilder(int numberRows) {
+            // Sufficient space for each row to contain a single run
+            this.array = new int[numberRows * 3];
+        }
+
+        /** Adds a zero count of runs for a new row, returning its index. */
+        public int reserveCount() {
+            ensureCapacity(1);
+            array[size] = 0;
+            return size++;
+        }
+
+        /** Adds a run to the row whose count is stored at {@code countIndex}. */
+        public void addRun(int countIndex, int start, int length) {
+            ensureCapacity(2);
+            array[size++] = start;
+            array[size++] = length;
+            array[countIndex]++;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(array, size);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > array.length) {
+                array = Arrays.copyOf(array, Math.max(array.length * 2, size + additional));
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.object.morphological;
+
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.core.exception.CreateException;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxelsFactory;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesByte;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
+import org.anchoranalysis.image.voxel.kernel.KernelApplicationParameters;
+import org.anchoranalysis.image.voxel.kernel.morphological.DilationContext;
+import org.anchoranalysis.image.voxel.object.morphological.predicate.AcceptIterationPredicate;
+import org.anchoranalysis.spatial.box.Extent;
+
+/**
+ * Performs morphological dilation by calculating a distance transform once and thresholding it,
+ * rather than applying a kernel once per iteration.
+ *
+ * <p>The distance of each voxel is the minimal number of iterations of {@link
+ * MorphologicalDilation} that would be needed to switch it <i>on</i>. It is calculated with a
+ * two-pass <a href="https://en.wikipedia.org/wiki/Distance_transform">chamfer distance
+ * transform</a>, with unit weights for each neighbor in the same neighborhood as the {@link
+ * org.anchoranalysis.image.voxel.kernel.morphological.DilationKernel}: 4-connected (or 8-connected
+ * with a big neighborhood) in the XY plane, and 2-connected in the Z-direction. The result is
+ * therefore identical to repeatedly applying the kernel.
+ *
+ * <p>Voxels outside the scene are treated as <i>on</i> only when {@link
+ * KernelApplicationParameters#isOutsideOn()}, as for the kernel.
+ *
+ * <p>Distances greater than {@code iterations + 1} never affect the result, so they are capped at
+ * this value, and each distance is stored in a single (unsigned) byte. This limits the number of
+ * iterations to {@link #MAX_ITERATIONS}, and the memory needed to approximately one byte per voxel.
+ *
+ * <p>A precondition on voxels is not supported, as it blocks the propagation of distances.
+ *
+ * <p>The transform is always calculated on the calling thread, and {@link
+ * DilationContext#isParallel()} is ignored.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class DistanceTransformDilation {
+
+    /**
+     * The maximum number of iterations that can be emulated, so that a capped distance of {@code
+     * iterations + 1} still fits in an unsigned byte.
+     */
+    public static final int MAX_ITERATIONS = 254;
+
+    /**
+     * Performs a morphological dilation operation.
+     *
+     * @param voxels input-voxels, which are not modified.
+     * @param iterations the number of iterations of dilation to emulate.
+     * @param context additional parameters for influencing how dilation occurs. It must not
+     *     contain a precondition.
+     * @return a new buffer containing the results of the dilation, using the same binary-values as
+     *     {@code voxels}.
+     * @throws CreateException if {@code context} contains a precondition, if {@code iterations}
+     *     exceeds {@link #MAX_ITERATIONS}, or if the postcondition cannot be successfully checked.
+     */
+    public static BinaryVoxels<UnsignedByteBuffer> dilate(
+            BinaryVoxels<UnsignedByteBuffer> voxels, int iterations, DilationContext context)
+            throws CreateException {
+        if (context.getPrecondition().isPresent()) {
+            throw new CreateException(
+                    "A precondition is not supported when dilating with a distance transform");
+        }
+        if (iterations > MAX_ITERATIONS) {
+            throw new CreateException(
+                    String.format(
+                            "At most %d iterations are supported when dilating with a distance transform, but %d were requested",
+                            MAX_ITERATIONS, iterations));
+        }
+
+        KernelApplicationParameters parameters = context.getKernelApplication();
+        byte[][] distances =
+                calculateDistances(
+                        voxels,
+                        iterations + 1,
+                        parameters.isUseZ(),
+                        context.isBigNeighborhood(),
+                        parameters.isOutsideOn());
+
+        Optional<AcceptIterationPredicate> postcondition = context.getPostcondition();
+        if (!postcondition.isPresent()) {
+            return threshold(distances, voxels, iterations);
+        }
+
+        // Emulates each iteration, so the postcondition can be checked, but without any kernel.
+        BinaryVoxels<UnsignedByteBuffer> accepted = voxels;
+        try {
+            for (int i = 1; i <= iterations; i++) {
+                BinaryVoxels<UnsignedByteBuffer> next = threshold(distances, voxels, i);
+                if (!postcondition.get().accept(next)) {
+                    break;
+                }
+                accepted = next;
+            }
+        } catch (OperationFailedException e) {
+            throw new CreateException(e);
+        }
+        return accepted;
+    }
+
+    /**
+     * Calculates the distance of every voxel to the nearest <i>on</i> voxel, capped at {@code
+     * maxDistance}.
+     *
+     * <p>The distances are stored as unsigned bytes in a padded array, with one additional voxel
+     * on either side in X and Y (and Z, if {@code useZ}), which represents the space outside the
+     * scene.
+     */
+    private static byte[][] calculateDistances(
+            BinaryVoxels<UnsignedByteBuffer> voxels,
+            int maxDistance,
+            boolean useZ,
+            boolean bigNeighborhood,
+            boolean outsideOn) {
+        Extent extent = voxels.extent();
+        PaddedShape shape = new PaddedShape(extent, useZ);
+        byte on = voxels.binaryValues().asByte().getOn();
+
+        byte unreached = (byte) maxDistance;
+        byte outsideDistance = outsideOn ? 0 : unreached;
+
+        byte[][] distances = new byte[shape.sizeZ][];
+        for (int z = 0; z < shape.sizeZ; z++) {
+            byte[] slice = new byte[shape.areaXY];
+            Arrays.fill(slice, outsideDistance);
+            int zScene = z - shape.padZ;
+            if (zScene >= 0 && zScene < extent.z()) {
+                byte[] scene = voxels.voxels().sliceBuffer(zScene).array();
+                copyInitialDistances(scene, on, unreached, slice, shape);
+            }
+            distances[z] = slice;
+        }
+
+        forwardPass(distances, shape, useZ, bigNeighborhood);
+        backwardPass(distances, shape, useZ, bigNeighborhood);
+        return distances;
+    }
+
+    /** Assigns zero to <i>on</i> voxels and {@code unreached} to the others in a scene slice. */
+    private static void copyInitialDistances(
+            byte[] scene, byte on, byte unreached, byte[] distances, PaddedShape shape) {
+        int indexScene = 0;
+        for (int y = 1; y <= shape.sceneY; y++) {
+            int index = shape.index(1, y);
+            for (int x = 1; x <= shape.sceneX; x++) {
+                distances[index++] = scene[indexScene++] == on ? 0 : unreached;
+            }
+        }
+    }
+
+    /** Propagates distances from neighbors that precede each voxel in raster order. */
+    private static void forwardPass(
+            byte[][] distances, PaddedShape shape, boolean useZ, boolean bigNeighborhood) {
+        int sizeX = shape.sizeX;
+        for (int z = shape.padZ; z < shape.sizeZ - shape.padZ; z++) {
+            byte[] slice = distances[z];
+            byte[] previous = useZ ? distances[z - 1] : null;
+            for (int y = 1; y <= shape.sceneY; y++) {
+                int index = shape.index(1, y);
+                for (int x = 1; x <= shape.sceneX; x++) {
+                    int min = slice[index] & 0xFF;
+                    min = minPlusOne(min, slice[index - 1]);
+                    min = minPlusOne(min, slice[index - sizeX]);
+                    if (bigNeighborhood) {
+                        min = minPlusOne(min, slice[index - sizeX - 1]);
+                        min = minPlusOne(min, slice[index - sizeX + 1]);
+                    }
+                    if (previous != null) {
+                        min = minPlusOne(min, previous[index]);
+                    }
+                    slice[index++] = (byte) min;
+                }
+            }
+        }
+    }
+
+    /** Propagates distances from neighbors that follow each voxel in raster order. */
+    private static void backwardPass(
+            byte[][] distances, PaddedShape shape, boolean useZ, boolean bigNeighborhood) {
+        int sizeX = shape.sizeX;
+        for (int z = shape.sizeZ - shape.padZ - 1; z >= shape.padZ; z--) {
+            byte[] slice = distances[z];
+            byte[] next = useZ ? distances[z + 1] : null;
+            for (int y = shape.sceneY; y >= 1; y--) {
+                int index = shape.index(shape.sceneX, y);
+                for (int x = shape.sceneX; x >= 1; x--) {
+                    int min = slice[index] & 0xFF;
+                    min = minPlusOne(min, slice[index + 1]);
+                    min = minPlusOne(min, slice[index + sizeX]);
+                    if (bigNeighborhood) {
+                        min = minPlusOne(min, slice[index + sizeX + 1]);
+                        min = minPlusOne(min, slice[index + sizeX - 1]);
+                    }
+                    if (next != null) {
+                        min = minPlusOne(min, next[index]);
+                    }
+                    slice[index--] = (byte) min;
+                }
+            }
+        }
+    }
+
+    /**
+     * The minimum of {@code existing} and one more than {@code neighbor}.
+     *
+     * <p>As {@code existing} never exceeds the capped distance, neither does the result.
+     */
+    private static int minPlusOne(int existing, byte neighbor) {
+        int neighborDistance = neighbor & 0xFF;
+        return neighborDistance < existing - 1 ? neighborDistance + 1 : existing;
+    }
+
+    /** Creates voxels that are <i>on</i> where the distance is at most {@code maxDistance}. */
+    private static BinaryVoxels<UnsignedByteBuffer> threshold(
+            byte[][] distances, BinaryVoxels<UnsignedByteBuffer> voxels, int maxDistance) {
+        Extent extent = voxels.extent();
+        PaddedShape shape = new PaddedShape(extent, distances.length > extent.z());
+
+        BinaryValuesByte binaryValues = voxels.binaryValues().asByte();
+        byte on = binaryValues.getOn();
+        byte off = binaryValues.getOff();
+
+        Voxels<UnsignedByteBuffer> out = VoxelsFactory.getUnsignedByte().createInitialized(extent);
+        for (int z = 0; z < extent.z(); z++) {
+            byte[] slice = distances[z + shape.padZ];
+            UnsignedByteBuffer buffer = out.sliceBuffer(z);
+            int indexScene = 0;
+            for (int y = 1; y <= shape.sceneY; y++) {
+                int index = shape.index(1, y);
+                for (int x = 1; x <= shape.sceneX; x++) {
+                    buffer.putRaw(indexScene++, (slice[index++] & 0xFF) <= maxDistance ? on : off);
+                }
+            }
+        }
+        return BinaryVoxelsFactory.reuseByte(out, voxels.binaryValues());
+    }
+
+    /** The size of the padded distances array, and how it relates to the scene. */
+    private static class PaddedShape {
+
+        private final int sceneX;
+        private final int sceneY;
+        private final int sizeX;
+        private final int sizeZ;
+        private final int padZ;
+        private final int areaXY;
+
+        public PaddedShape(Extent extent, boolean padInZ) {
+            this.sceneX = extent.x();
+            this.sceneY = extent.y();
+            this.sizeX = sceneX + 2;
+            this.padZ = padInZ ? 1 : 0;
+            this.sizeZ = extent.z() + (2 * padZ);
+            this.areaXY = sizeX * (sceneY + 2);
+        }
+
+        /** The index in a padded slice, for padded coordinates. */
+        public int index(int x, int y) {
+            return (y * sizeX) + x;
+        }
+    }
+}
@@ -98,6 +98,12 @@ public class MorphologicalDilation {
     /**
      * Performs a morphological dilation operation.
      *
+     * <p>When more than one (and at most {@link DistanceTransformDilation#MAX_ITERATIONS})
+     * iterations occur, and no precondition exists, the dilation is performed via a distance
+     * transform (see {@link DistanceTransformDilation}), which produces an identical result, with a
+     * cost that does not grow with the number of iterations. This always occurs on the calling
+     * thread, irrespective of {@link DilationContext#isParallel()}.
+     *
      * @param voxels input-voxels.
      * @param iterations number of dilations.
      * @param context additional parameters for influencing how dilation occurs.
@@ -108,12 +114,19 @@ public class MorphologicalDilation {
             BinaryVoxels<UnsignedByteBuffer> voxels, int iterations, DilationContext context)
             throws CreateException {
 
+        if (iterations > 1
+                && iterations <= DistanceTransformDilation.MAX_ITERATIONS
+                && !context.getPrecondition().isPresent()) {
+            return DistanceTransformDilation.dilate(voxels, iterations, context);
+        }
+
         BinaryKernel kernel = context.createKernel();
         Optional<AcceptIterationPredicate> postcondition = context.getPostcondition();
 
         for (int i = 0; i < iterations; i++) {
             BinaryVoxels<UnsignedByteBuffer> next =
-                    ApplyKernel.apply(kernel, voxels, context.getKernelApplication());
+                    ApplyKernel.apply(
+                            kernel, voxels, context.getKernelApplication(), context.isParallel());
 
             try {
                 if (postcondition.isPresent() && !postcondition.get().accept(next)) {
@@ -55,7 +55,7 @@ public class MorphologicalErosion {
      * @param useZ whether to use the Z dimension or not during the erosion.
      * @return a newly created {@code BinaryVoxels<UnsignedByteBuffer>} showing {@code voxels} after
      *     the erosion operation was applied.
-     * @throws CreateException
+     * @throws CreateException if the object cannot be successfully eroded.
      */
     public static ObjectMask erode(ObjectMask object, int iterations, boolean useZ)
             throws CreateException {
@@ -72,7 +72,7 @@ public class MorphologicalErosion {
      *     voxels}.
      * @return a newly created {@code BinaryVoxels<UnsignedByteBuffer>} showing {@code voxels} after
      *     the erosion operation was applied.
-     * @throws CreateException
+     * @throws CreateException if the postcondition cannot be successfully checked.
      */
     public static ObjectMask erode(
             ObjectMask object,
@@ -89,7 +89,8 @@ public class MorphologicalErosion {
                         iterations,
                         useZ,
                         Optional.empty(),
-                        postcondition);
+                        postcondition,
+                        false);
         return objectOut.replaceVoxels(eroded.voxels());
     }
 
@@ -103,7 +104,7 @@ public class MorphologicalErosion {
      *     any voxel can be dilated.
      * @return a newly created {@code BinaryVoxels<UnsignedByteBuffer>} showing {@code voxels} after
      *     the erosion operation was applied.
-     * @throws CreateException
+     * @throws CreateException if the voxels cannot be successfully eroded.
      */
     public static BinaryVoxels<UnsignedByteBuffer> erode(
             BinaryVoxels<UnsignedByteBuffer> voxels,
@@ -111,7 +112,32 @@ public class MorphologicalErosion {
             boolean useZ,
             Optional<Predicate<Point3i>> precondition)
             throws CreateException {
-        return erodeInternal(voxels, iterations, useZ, precondition, Optional.empty());
+        return erode(voxels, iterations, useZ, precondition, false);
+    }
+
+    /**
+     * Performs a morphological erosion on a {@code BinaryVoxels<UnsignedByteBuffer> voxels}, with
+     * control over parallel processing.
+     *
+     * @param voxels the voxels to perform the erosion on.
+     * @param iterations how many iterations of erosion to perform.
+     * @param useZ whether to use the Z dimension or not during the erosion.
+     * @param precondition if defined, a condition which must be satisfied on a <i>voxel</i>, before
+     *     any voxel can be dilated.
+     * @param parallel if true, voxels are processed in parallel, when supported. The outcome is
+     *     identical either way.
+     * @return a newly created {@code BinaryVoxels<UnsignedByteBuffer>} showing {@code voxels} after
+     *     the erosion operation was applied.
+     * @throws CreateException if the voxels cannot be successfully eroded.
+     */
+    public static BinaryVoxels<UnsignedByteBuffer> erode(
+            BinaryVoxels<UnsignedByteBuffer> voxels,
+            int iterations,
+            boolean useZ,
+            Optional<Predicate<Point3i>> precondition,
+            boolean parallel)
+            throws CreateException {
+        return erodeInternal(voxels, iterations, useZ, precondition, Optional.empty(), parallel);
     }
 
     private static BinaryVoxels<UnsignedByteBuffer> erodeInternal(
@@ -119,12 +145,18 @@ public class MorphologicalErosion {
             int iterations,
             boolean useZ,
             Optional<Predicate<Point3i>> precondition,
-            Optional<AcceptIterationPredicate> postcondition)
+            Optional<AcceptIterationPredicate> postcondition,
+            boolean parallel)
             throws CreateException {
 
         DilationContext context =
                 new DilationContext(
-                        OutsideKernelPolicy.AS_ON, useZ, false, precondition, postcondition);
+                        OutsideKernelPolicy.AS_ON,
+                        useZ,
+                        false,
+                        precondition,
+                        postcondition,
+                        parallel);
 
         voxels.invert();
         BinaryVoxels<UnsignedByteBuffer> dilated =
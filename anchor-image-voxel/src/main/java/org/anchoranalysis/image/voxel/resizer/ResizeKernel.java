@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.resizer;
+
+/**
+ * A one-dimensional kernel used by {@link VoxelsResizerSeparable}, applied separately along the X
+ * and Y axes.
+ *
+ * @author Owen Feehan
+ */
+public enum ResizeKernel {
+
+    /** <a href="https://en.wikipedia.org/wiki/Linear_interpolation">Linear interpolation</a>. */
+    LINEAR(1.0) {
+        @Override
+        public double weight(double distance) {
+            double absolute = Math.abs(distance);
+            return absolute < 1.0 ? 1.0 - absolute : 0.0;
+        }
+    },
+
+    /**
+     * <a href="https://en.wikipedia.org/wiki/Lanczos_resampling">Lanczos resampling</a> with three
+     * lobes.
+     */
+    LANCZOS(3.0) {
+        @Override
+        public double weight(double distance) {
+            double absolute = Math.abs(distance);
+            if (absolute < 1e-8) {
+                return 1.0;
+            } else if (absolute >= 3.0) {
+                return 0.0;
+            } else {
+                double piDistance = Math.PI * distance;
+                return 3.0 * Math.sin(piDistance) * Math.sin(piDistance / 3.0)
+                        / (piDistance * piDistance);
+            }
+        }
+    };
+
+    /** The maximum distance from the center at which the kernel has a non-zero weight. */
+    private final double support;
+
+    private ResizeKernel(double support) {
+        this.support = support;
+    }
+
+    /**
+     * The weight of a sample at a particular distance from the interpolated position.
+     *
+     * @param distance the distance, in units of samples.
+     * @return the (non-normalized) weight.
+     */
+    public abstract double weight(double distance);
+
+    /**
+     * The maximum distance from the center at which the kernel has a non-zero weight.
+     *
+     * @return the distance, in units of samples.
+     */
+    public double support() {
+        return support;
+    }
+}
@@ -28,6 +28,7 @@ package org.anchoranalysis.image.voxel.resizer;
 
 import com.google.common.base.Preconditions;
 import java.nio.FloatBuffer;
+import java.util.stream.IntStream;
 import org.anchoranalysis.image.voxel.VoxelsUntyped;
 import org.anchoranalysis.image.voxel.buffer.VoxelBuffer;
 import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
@@ -59,22 +60,21 @@ public abstract class VoxelsResizer {
 
         Preconditions.checkArgument(extentSource.z() == extentTarget.z());
 
-        TransferViaSpecificType<?> transfer = ResizeHelper.createTransfer(source, destination);
-
-        for (int z = 0; z < extentSource.z(); z++) {
-
-            transfer.assignSlice(z);
-            if (extentSource.x() == extentTarget.x() && extentSource.y() == extentTarget.y()) {
-                transfer.transferCopyTo(z);
-            } else {
-                if (extentSource.x() != 1 && extentSource.y() != 1) {
-                    // We only bother to interpolate when we have more than a single pixel in both
-                    // directions
-                    // And in this case, some of the interpolation algorithms would crash.
-                    transfer.transferTo(z, this);
-                } else {
-                    transfer.transferTo(z, VoxelsResizerFactory.getInstance().noInterpolation());
-                }
+        if (resizeSlicesInParallel() && extentSource.z() > 1) {
+            // Each slice uses its own transfer, as a transfer retains the current slice.
+            IntStream.range(0, extentSource.z())
+                    .parallel()
+                    .forEach(
+                            z ->
+                                    resizeSlice(
+                                            ResizeHelper.createTransfer(source, destination),
+                                            z,
+                                            extentSource,
+                                            extentTarget));
+        } else {
+            TransferViaSpecificType<?> transfer = ResizeHelper.createTransfer(source, destination);
+            for (int z = 0; z < extentSource.z(); z++) {
+                resizeSlice(transfer, z, extentSource, extentTarget);
             }
         }
         Preconditions.checkArgument(destination.slice(0).capacity() == extentTarget.areaXY());
@@ -89,6 +89,17 @@ public abstract class VoxelsResizer {
      */
     public abstract boolean canValueRangeChange();
 
+    /**
+     * Whether different z-slices may be resized concurrently.
+     *
+     * <p>This is only permitted, when the {@code resize*} methods are thread-safe.
+     *
+     * @return true if slices may be resized in parallel, false if they are resized sequentially.
+     */
+    protected boolean resizeSlicesInParallel() {
+        return false;
+    }
+
     /**
      * Interpolates from {@code voxelsSource} to {@code voxelsDestination} for unsigned 8-bit
      * buffers.
@@ -141,4 +152,22 @@ public abstract class VoxelsResizer {
             VoxelBuffer<FloatBuffer> voxelsDestination,
             Extent extentSource,
             Extent extentDestination);
+
+    /** Copies or interpolates a single z-slice from source to destination. */
+    private void resizeSlice(
+            TransferViaSpecificType<?> transfer, int z, Extent extentSource, Extent extentTarget) {
+        transfer.assignSlice(z);
+        if (extentSource.x() == extentTarget.x() && extentSource.y() == extentTarget.y()) {
+            transfer.transferCopyTo(z);
+        } else {
+            if (extentSource.x() != 1 && extentSource.y() != 1) {
+                // We only bother to interpolate when we have more than a single pixel in both
+                // directions
+                // And in this case, some of the interpolation algorithms would crash.
+                transfer.transferTo(z, this);
+            } else {
+                transfer.transferTo(z, VoxelsResizerFactory.getInstance().noInterpolation());
+            }
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.resizer;
+
+import java.nio.FloatBuffer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import org.anchoranalysis.image.voxel.buffer.VoxelBuffer;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedBufferAsInt;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedShortBuffer;
+import org.anchoranalysis.spatial.box.Extent;
+
+/**
+ * Resizes by applying a one-dimensional kernel separately along the X and then the Y axis.
+ *
+ * <p>The weights for every column and row are calculated once per slice, rather than for each
+ * voxel, and the kernel is stretched when reducing in size, to avoid aliasing.
+ *
+ * <p>Each voxel is treated as covering a unit area, sampled at its center, so that the outer edges
+ * of the source and destination align. This differs slightly from the mapping in the
+ * ImgLib2-based {@link Linear} and {@link Lanczos}. Voxels just outside the boundary are treated
+ * like the closest voxel inside the boundary.
+ *
+ * <p>Optionally, resizing occurs in parallel, using the common {@link
+ * java.util.concurrent.ForkJoinPool}. Several slices are resized in parallel, whereas the rows of a
+ * single (large) slice are resized in parallel. Parallelism is never nested at both levels, which
+ * would otherwise oversubscribe the common pool.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor
+public class VoxelsResizerSeparable extends VoxelsResizer {
+
+    /** The minimum number of destination voxels in a slice, to process its rows in parallel. */
+    private static final int MIN_AREA_PARALLEL_ROWS = 256 * 256;
+
+    private static final int MAX_UNSIGNED_BYTE = 255;
+
+    private static final int MAX_UNSIGNED_SHORT = 65535;
+
+    /** The kernel applied along each axis. */
+    private final ResizeKernel kernel;
+
+    /** When true, slices, or the rows of a single slice, are resized in parallel. */
+    private final boolean parallel;
+
+    /**
+     * Creates to resize in parallel.
+     *
+     * @param kernel the kernel applied along each axis.
+     */
+    public VoxelsResizerSeparable(ResizeKernel kernel) {
+        this(kernel, true);
+    }
+
+    @Override
+    public boolean canValueRangeChange() {
+        return true;
+    }
+
+    @Override
+    protected boolean resizeSlicesInParallel() {
+        return parallel;
+    }
+
+    @Override
+    protected VoxelBuffer<UnsignedByteBuffer> resizeByte(
+            VoxelBuffer<UnsignedByteBuffer> voxelsSource,
+            VoxelBuffer<UnsignedByteBuffer> voxelsDestination,
+            Extent extentSource,
+            Extent extentDestination) {
+        float[] source = toFloat(voxelsSource.buffer(), extentSource);
+        float[] resized = resize(source, extentSource, extentDestination);
+        writeClamped(resized, voxelsDestination.buffer(), MAX_UNSIGNED_BYTE);
+        return voxelsDestination;
+    }
+
+    @Override
+    protected VoxelBuffer<UnsignedShortBuffer> resizeShort(
+            VoxelBuffer<UnsignedShortBuffer> voxelsSource,
+            VoxelBuffer<UnsignedShortBuffer> voxelsDestination,
+            Extent extentSource,
+            Extent extentDestination) {
+        float[] source = toFloat(voxelsSource.buffer(), extentSource);
+        float[] resized = resize(source, extentSource, extentDestination);
+        writeClamped(resized, voxelsDestination.buffer(), MAX_UNSIGNED_SHORT);
+        return voxelsDestination;
+    }
+
+    @Override
+    protected VoxelBuffer<FloatBuffer> resizeFloat(
+            VoxelBuffer<FloatBuffer> voxelsSource,
+            VoxelBuffer<FloatBuffer> voxelsDestination,
+            Extent extentSource,
+            Extent extentDestination) {
+        FloatBuffer source = voxelsSource.buffer();
+        float[] values = new float[extentSource.areaXY()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = source.get(i);
+        }
+
+        float[] resized = resize(values, extentSource, extentDestination);
+
+        FloatBuffer destination = voxelsDestination.buffer();
+        for (int i = 0; i < resized.length; i++) {
+            destination.put(i, resized[i]);
+        }
+        return voxelsDestination;
+    }
+
+    /** Resizes a slice, first along the X axis, and then along the Y axis. */
+    private float[] resize(float[] source, Extent extentSource, Extent extentDestination) {
+        int widthSource = extentSource.x();
+        int width = extentDestination.x();
+        int heightSource = extentSource.y();
+        int height = extentDestination.y();
+
+        WeightTable weightsX = new WeightTable(widthSource, width, kernel);
+        WeightTable weightsY = new WeightTable(heightSource, height, kernel);
+
+        // Rows are only resized in parallel when slices are not, to avoid nesting parallelism.
+        boolean parallelRows =
+                parallel
+                        && extentDestination.z() == 1
+                        && extentDestination.areaXY() >= MIN_AREA_PARALLEL_ROWS;
+
+        // Resize each row in the X dimension, retaining the source height.
+        float[] intermediate = new float[width * heightSource];
+        forEachRow(
+                heightSource,
+                parallelRows,
+                y -> {
+                    int offsetSource = y * widthSource;
+                    int offsetIntermediate = y * width;
+                    for (int x = 0; x < width; x++) {
+                        int first = offsetSource + weightsX.first(x);
+                        float sum = 0.0f;
+                        for (int tap = 0; tap < weightsX.count(x); tap++) {
+                            sum += weightsX.weight(x, tap) * source[first + tap];
+                        }
+                        intermediate[offsetIntermediate + x] = sum;
+                    }
+                });
+
+        // Resize each column in the Y dimension, visiting whole rows for memory locality.
+        float[] destination = new float[width * height];
+        forEachRow(
+                height,
+                parallelRows,
+                y -> {
+                    int offsetDestination = y * width;
+                    int first = weightsY.first(y);
+                    for (int tap = 0; tap < weightsY.count(y); tap++) {
+                        float weight = weightsY.weight(y, tap);
+                        int offsetIntermediate = (first + tap) * width;
+                        for (int x = 0; x < width; x++) {
+                            destination[offsetDestination + x] +=
+                                    weight * intermediate[offsetIntermediate + x];
+                        }
+                    }
+                });
+        return destination;
+    }
+
+    /** Calls {@code consumer} for each row index, sequentially or in parallel. */
+    private static void forEachRow(int numberRows, boolean parallel, IntConsumer consumer) {
+        IntStream rows = IntStream.range(0, numberRows);
+        if (parallel) {
+            rows = rows.parallel();
+        }
+        rows.forEach(consumer);
+    }
+
+    /** Copies the unsigned values from a slice into a float array. */
+    private static float[] toFloat(UnsignedBufferAsInt buffer, Extent extent) {
+        float[] values = new float[extent.areaXY()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getUnsigned(i);
+        }
+        return values;
+    }
+
+    /** Writes values into an unsigned buffer, rounding and clamping to the permitted range. */
+    private static void writeClamped(float[] values, UnsignedBufferAsInt buffer, int maxValue) {
+        for (int i = 0; i < values.length; i++) {
+            int rounded = Math.round(values[i]);
+            buffer.putUnsigned(i, Math.min(Math.max(rounded, 0), maxValue));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.resizer;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed weights to resize along a single axis, for each position in the destination.
+ *
+ * <p>Each destination position is interpolated from a contiguous range of source positions. Any
+ * samples that would lie outside the source are replaced by the nearest sample at the boundary.
+ *
+ * <p>When reducing in size, the kernel is stretched by the reduction factor, so that every source
+ * sample contributes to the destination.
+ *
+ * @author Owen Feehan
+ */
+class WeightTable {
+
+    /** The first source position that contributes to each destination position. */
+    private final int[] first;
+
+    /** How many source positions contribute to each destination position. */
+    private final int[] count;
+
+    /** The normalized weights, with {@code stride} elements reserved for each destination. */
+    private final float[] weights;
+
+    /** The maximum number of source positions that can contribute to a destination position. */
+    private final int stride;
+
+    /**
+     * Calculates the weights.
+     *
+     * @param sizeSource the number of samples in the source, along the axis.
+     * @param sizeDestination the number of samples in the destination, along the axis.
+     * @param kernel the kernel to interpolate with.
+     */
+    public WeightTable(int sizeSource, int sizeDestination, ResizeKernel kernel) {
+        double scale = (double) sizeSource / sizeDestination;
+        double kernelScale = Math.max(scale, 1.0);
+        double support = kernel.support() * kernelScale;
+
+        this.stride = (int) Math.ceil(2 * support) + 2;
+        this.first = new int[sizeDestination];
+        this.count = new int[sizeDestination];
+        this.weights = new float[sizeDestination * stride];
+
+        double[] unnormalized = new double[stride];
+        for (int i = 0; i < sizeDestination; i++) {
+            // The center of the destination sample, in the coordinates of the source.
+            double center = (i + 0.5) * scale;
+
+            int min = (int) Math.floor(center - support);
+            int max = (int) Math.ceil(center + support);
+            int low = Math.max(min, 0);
+            int high = Math.min(max, sizeSource);
+
+            Arrays.fill(unnormalized, 0.0);
+            double total = 0.0;
+            for (int j = min; j < max; j++) {
+                double weight = kernel.weight((j + 0.5 - center) / kernelScale);
+                int clamped = Math.min(Math.max(j, 0), sizeSource - 1);
+                unnormalized[clamped - low] += weight;
+                total += weight;
+            }
+
+            first[i] = low;
+            count[i] = high - low;
+            int offset = i * stride;
+            for (int k = 0; k < count[i]; k++) {
+                weights[offset + k] = (float) (total != 0.0 ? unnormalized[k] / total : 0.0);
+            }
+        }
+    }
+
+    /**
+     * The first source position that contributes to a destination position.
+     *
+     * @param index the destination position.
+     * @return the source position.
+     */
+    public int first(int index) {
+        return first[index];
+    }
+
+    /**
+     * How many source positions contribute to a destination position.
+     *
+     * @param index the destination position.
+     * @return the number of consecutive source positions, beginning at {@link #first}.
+     */
+    public int count(int index) {
+        return count[index];
+    }
+
+    /**
+     * The weight of a particular contributing source position.
+     *
+     * @param index the destination position.
+     * @param tap which contributing source position, beginning at zero for {@link #first}.
+     * @return the normalized weight.
+     */
+    public float weight(int index, int tap) {
+        return weights[(index * stride) + tap];
+    }
+}
@@ -0,0 +1,203 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.binary.connected;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxelsFactory;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedIntBuffer;
+import org.anchoranalysis.image.voxel.datatype.UnsignedIntVoxelType;
+import org.anchoranalysis.image.voxel.object.ObjectCollection;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.spatial.box.Extent;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares {@link ConnectedComponentUnionFind} against {@link ConnectedComponentsReference}, the
+ * former means of deriving connected-components, on random masks.
+ *
+ * @author Owen Feehan
+ */
+class ConnectedComponentUnionFindCompareTest {
+
+    private static final Extent EXTENT_2D = new Extent(60, 50, 1);
+
+    private static final Extent EXTENT_3D = new Extent(25, 20, 11);
+
+    /** Probabilities of a voxel being <i>on</i>, giving many small or a few large objects. */
+    private static final double[] PROBABILITIES = {0.2, 0.45, 0.7};
+
+    /** The number of slabs when labelling in parallel, which does not divide the z-slices. */
+    private static final int NUMBER_SLABS = 3;
+
+    @Test
+    void testSequential2D() throws OperationFailedException {
+        assertSequentialAsReference(EXTENT_2D);
+    }
+
+    @Test
+    void testSequential3D() throws OperationFailedException {
+        assertSequentialAsReference(EXTENT_3D);
+    }
+
+    /** With a single z-slice, slabs are not used, so the order is unchanged. */
+    @Test
+    void testParallel2D() throws OperationFailedException {
+        for (boolean bigNeighborhood : new boolean[] {false, true}) {
+            for (double probability : PROBABILITIES) {
+                List<ObjectMask> expected =
+                        deriveReference(EXTENT_2D, probability, bigNeighborhood);
+                assertIdentical(expected, deriveParallel(EXTENT_2D, probability, bigNeighborhood));
+            }
+        }
+    }
+
+    /** When labelled in slabs, the same objects are derived, ordered by their first voxel. */
+    @Test
+    void testParallel3D() throws OperationFailedException {
+        for (boolean bigNeighborhood : new boolean[] {false, true}) {
+            for (double probability : PROBABILITIES) {
+                List<ObjectMask> expected =
+                        new ArrayList<>(deriveReference(EXTENT_3D, probability, bigNeighborhood));
+                expected.sort(Comparator.comparingInt(object -> firstVoxel(object, EXTENT_3D)));
+                assertIdentical(expected, deriveParallel(EXTENT_3D, probability, bigNeighborhood));
+            }
+        }
+    }
+
+    /** When labelled in slabs, voxels of type <i>unsigned int</i> give the same objects. */
+    @Test
+    void testParallel3DInt() {
+        for (boolean bigNeighborhood : new boolean[] {false, true}) {
+            ConnectedComponentUnionFind connected =
+                    new ConnectedComponentUnionFind(1, bigNeighborhood, true, NUMBER_SLABS);
+            ObjectCollection expected =
+                    connected.deriveConnectedByte(createRandom(EXTENT_3D, 0.45));
+            ObjectCollection actual =
+                    connected.deriveConnectedInt(createRandomInt(EXTENT_3D, 0.45));
+            assertIdentical(expected.asList(), actual);
+        }
+    }
+
+    private static void assertSequentialAsReference(Extent extent)
+            throws OperationFailedException {
+        for (boolean bigNeighborhood : new boolean[] {false, true}) {
+            for (double probability : PROBABILITIES) {
+                ConnectedComponentUnionFind connected =
+                        new ConnectedComponentUnionFind(1, bigNeighborhood);
+                assertIdentical(
+                        deriveReference(extent, probability, bigNeighborhood),
+                        connected.deriveConnectedByte(createRandom(extent, probability)));
+            }
+        }
+    }
+
+    private static List<ObjectMask> deriveReference(
+            Extent extent, double probability, boolean bigNeighborhood)
+            throws OperationFailedException {
+        return ConnectedComponentsReference.derive(
+                createRandom(extent, probability), bigNeighborhood);
+    }
+
+    private static ObjectCollection deriveParallel(
+            Extent extent, double probability, boolean bigNeighborhood) {
+        ConnectedComponentUnionFind connected =
+                new ConnectedComponentUnionFind(1, bigNeighborhood, true, NUMBER_SLABS);
+        return connected.deriveConnectedByte(createRandom(extent, probability));
+    }
+
+    /** Asserts the objects are identical, and in the same order. */
+    private static void assertIdentical(List<ObjectMask> expected, ObjectCollection actual) {
+        assertEquals(expected.size(), actual.size(), "number of objects");
+        for (int index = 0; index < expected.size(); index++) {
+            int indexFinal = index;
+            assertTrue(
+                    expected.get(index).equalsDeep(actual.get(index)),
+                    () -> "object at index " + indexFinal);
+        }
+    }
+
+    /** The index of the first voxel of an object, in raster order, in the scene. */
+    private static int firstVoxel(ObjectMask object, Extent scene) {
+        Extent extent = object.extent();
+        byte on = object.binaryValuesByte().getOn();
+        for (int z = 0; z < extent.z(); z++) {
+            UnsignedByteBuffer buffer = object.sliceBufferLocal(z);
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if (buffer.getRaw(extent.offset(x, y)) == on) {
+                        return scene.offset(
+                                x + object.boundingBox().cornerMin().x(),
+                                y + object.boundingBox().cornerMin().y(),
+                                z + object.boundingBox().cornerMin().z());
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("The object has no voxels");
+    }
+
+    /** Creates voxels where each voxel is randomly <i>on</i>, with a fixed seed. */
+    private static BinaryVoxels<UnsignedByteBuffer> createRandom(
+            Extent extent, double probability) {
+        BinaryVoxels<UnsignedByteBuffer> voxels = BinaryVoxelsFactory.createEmptyOff(extent);
+        assignRandom(voxels, probability);
+        return voxels;
+    }
+
+    /** Like {@link #createRandom} but with voxels of type <i>unsigned int</i>. */
+    @SuppressWarnings("unchecked")
+    private static BinaryVoxels<UnsignedIntBuffer> createRandomInt(
+            Extent extent, double probability) {
+        BinaryVoxels<UnsignedIntBuffer> voxels =
+                (BinaryVoxels<UnsignedIntBuffer>)
+                        BinaryVoxelsFactory.createEmptyOff(extent, UnsignedIntVoxelType.INSTANCE);
+        assignRandom(voxels, probability);
+        return voxels;
+    }
+
+    private static void assignRandom(BinaryVoxels<?> voxels, double probability) {
+        Random random = new Random(Double.hashCode(probability) + voxels.extent().z());
+        Extent extent = voxels.extent();
+        for (int z = 0; z < extent.z(); z++) {
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if (random.nextDouble() < probability) {
+                        voxels.assignOn().toVoxel(x, y, z);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.binary.connected;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.core.exception.OperationFailedException;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedIntBuffer;
+import org.anchoranalysis.image.voxel.extracter.VoxelsExtracter;
+import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
+import org.anchoranalysis.image.voxel.iterator.IterateVoxelsAll;
+import org.anchoranalysis.image.voxel.object.ObjectMask;
+import org.anchoranalysis.spatial.box.Extent;
+import org.anchoranalysis.spatial.point.Point3i;
+
+/**
+ * Derives connected-components as was formerly done, to compare against {@link
+ * ConnectedComponentUnionFind}.
+ *
+ * <p>JGraphT's union-find is used, identifiers are mapped via sorted sets and maps, and each object
+ * is extracted with a separate scan of the index buffer.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ConnectedComponentsReference {
+
+    /**
+     * Derives the connected-components.
+     *
+     * @param voxels the voxels to search for connected-components, which are consumed.
+     * @param bigNeighborhood whether to use a big neighborhood.
+     * @return the connected-components, in the order they were formerly derived.
+     * @throws OperationFailedException if a bounding-box cannot be derived.
+     */
+    public static List<ObjectMask> derive(
+            BinaryVoxels<UnsignedByteBuffer> voxels, boolean bigNeighborhood)
+            throws OperationFailedException {
+        UnionFindInt unionIndex = new UnionFindJGraphT();
+        Voxels<UnsignedIntBuffer> indexBuffer =
+                VoxelsFactory.getUnsignedInt().createInitialized(voxels.extent());
+
+        PopulateIndexProcessor<UnsignedByteBuffer> process =
+                new PopulateIndexProcessor<>(
+                        voxels,
+                        indexBuffer,
+                        new MergeWithNeighbors(
+                                indexBuffer,
+                                unionIndex,
+                                indexBuffer.extent().z() > 1,
+                                bigNeighborhood),
+                        new ReadWriteByte());
+        IterateVoxelsAll.withBuffer(voxels.voxels(), process);
+        int maxBigID = process.getCount() - 1;
+
+        TreeSet<Integer> roots = new TreeSet<>();
+        for (int i = 1; i <= maxBigID; i++) {
+            roots.add(unionIndex.find(i));
+        }
+
+        Map<Integer, Integer> mapIDOrdered = new TreeMap<>();
+        for (Integer root : roots) {
+            mapIDOrdered.put(root, mapIDOrdered.size() + 1);
+        }
+
+        PointRangeWithCount[] boxes = new PointRangeWithCount[mapIDOrdered.size()];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = new PointRangeWithCount();
+        }
+        relabel(indexBuffer, unionIndex, mapIDOrdered, boxes);
+
+        List<ObjectMask> objects = new ArrayList<>();
+        VoxelsExtracter<UnsignedIntBuffer> extracter = indexBuffer.extract();
+        for (int smallID : mapIDOrdered.values()) {
+            objects.add(
+                    extracter
+                            .voxelsEqualTo(smallID)
+                            .deriveObject(boxes[smallID - 1].deriveBoundingBox()));
+        }
+        return objects;
+    }
+
+    /** Replaces each big ID with its small ID, and adds each point to the box of its small ID. */
+    private static void relabel(
+            Voxels<UnsignedIntBuffer> indexBuffer,
+            UnionFindInt unionIndex,
+            Map<Integer, Integer> mapIDOrdered,
+            PointRangeWithCount[] boxes) {
+        Point3i point = new Point3i();
+        Extent extent = indexBuffer.extent();
+        for (point.setZ(0); point.z() < extent.z(); point.incrementZ()) {
+            UnsignedIntBuffer bufferIndex = indexBuffer.sliceBuffer(point.z());
+            int offset = 0;
+            for (point.setY(0); point.y() < extent.y(); point.incrementY()) {
+                for (point.setX(0); point.x() < extent.x(); point.incrementX()) {
+                    int idBig = bufferIndex.getRaw(offset);
+                    if (idBig != 0) {
+                        int idSmall = mapIDOrdered.get(unionIndex.find(idBig));
+                        boxes[idSmall - 1].add(point);
+                        bufferIndex.putRaw(offset, idSmall);
+                    }
+                    offset++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.binary.connected;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link UnionFindInt}.
+ *
+ * @author Owen Feehan
+ */
+class UnionFindIntTest {
+
+    /** Each element is initially its own root. */
+    @Test
+    void testInitiallyDisjoint() {
+        UnionFindInt unionFind = create(5);
+        for (int element = 1; element <= 5; element++) {
+            assertEquals(element, unionFind.find(element));
+        }
+    }
+
+    /** Merging is transitive, and leaves other sets unchanged. */
+    @Test
+    void testUnionTransitive() {
+        UnionFindInt unionFind = create(6);
+        unionFind.union(1, 2);
+        unionFind.union(3, 2);
+        unionFind.union(5, 6);
+        assertEquals(unionFind.find(1), unionFind.find(3));
+        assertEquals(unionFind.find(5), unionFind.find(6));
+        assertNotEquals(unionFind.find(1), unionFind.find(5));
+        assertEquals(4, unionFind.find(4));
+    }
+
+    /**
+     * With equal ranks, the root of the first element becomes the root. Otherwise the root with
+     * greater rank does.
+     */
+    @Test
+    void testUnionByRank() {
+        UnionFindInt unionFind = create(4);
+        unionFind.union(2, 1);
+        assertEquals(2, unionFind.find(1));
+
+        // The set rooted at 2 has a greater rank than the singleton 3
+        unionFind.union(3, 1);
+        assertEquals(2, unionFind.find(3));
+
+        unionFind.union(4, 3);
+        assertEquals(2, unionFind.find(4));
+    }
+
+    /** Paths are halved when finding, without changing the root. */
+    @Test
+    void testPathHalving() {
+        UnionFindInt unionFind = create(8);
+        // Builds a tree of rank 3, so that element 8 is three steps from the root
+        unionFind.union(1, 2);
+        unionFind.union(3, 4);
+        unionFind.union(5, 6);
+        unionFind.union(7, 8);
+        unionFind.union(3, 1);
+        unionFind.union(7, 5);
+        unionFind.union(7, 3);
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int element = 1; element <= 8; element++) {
+                assertEquals(7, unionFind.find(element));
+            }
+        }
+    }
+
+    /** Elements may be added beyond the initial capacity. */
+    @Test
+    void testGrow() {
+        UnionFindInt unionFind = new UnionFindInt(2);
+        for (int element = 1; element <= 100; element++) {
+            unionFind.addElement(element);
+        }
+        unionFind.union(1, 100);
+        assertEquals(1, unionFind.find(100));
+        assertEquals(50, unionFind.find(50));
+    }
+
+    /**
+     * The roots are identical to those of JGraphT's union-find, for the same sequence of unions,
+     * so that connected-components are ordered as before.
+     */
+    @Test
+    void testSameRootsAsJGraphT() {
+        Random random = new Random(7);
+        int numberElements = 500;
+        UnionFindInt unionFind = create(numberElements);
+        UnionFindInt reference = new UnionFindJGraphT();
+        for (int element = 1; element <= numberElements; element++) {
+            reference.addElement(element);
+        }
+        for (int union = 0; union < 400; union++) {
+            int element1 = 1 + random.nextInt(numberElements);
+            int element2 = 1 + random.nextInt(numberElements);
+            unionFind.union(element1, element2);
+            reference.union(element1, element2);
+        }
+        for (int element = 1; element <= numberElements; element++) {
+            assertEquals(reference.find(element), unionFind.find(element));
+        }
+    }
+
+    /** Creates with elements from 1 to {@code maxElement} inclusive. */
+    private static UnionFindInt create(int maxElement) {
+        UnionFindInt unionFind = new UnionFindInt(maxElement + 1);
+        for (int element = 1; element <= maxElement; element++) {
+            unionFind.addElement(element);
+        }
+        return unionFind;
+    }
+}
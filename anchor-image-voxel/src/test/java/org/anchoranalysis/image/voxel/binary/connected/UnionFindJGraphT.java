@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.binary.connected;
+
+import java.util.HashSet;
+import org.jgrapht.alg.util.UnionFind;
+
+/**
+ * A {@link UnionFindInt} that delegates to the union-find of JGraphT, as was formerly used to
+ * derive connected-components.
+ *
+ * @author Owen Feehan
+ */
+class UnionFindJGraphT extends UnionFindInt {
+
+    private final UnionFind<Integer> delegate = new UnionFind<>(new HashSet<>());
+
+    /** Creates without any elements. */
+    public UnionFindJGraphT() {
+        super(1);
+    }
+
+    @Override
+    public void addElement(int element) {
+        delegate.addElement(element);
+    }
+
+    @Override
+    public int find(int element) {
+        return delegate.find(element);
+    }
+
+    @Override
+    public void union(int element1, int element2) {
+        delegate.union(element1, element2);
+    }
+}
@@ -0,0 +1,188 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.kernel;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxelsFactory;
+import org.anchoranalysis.image.voxel.binary.values.BinaryValuesByte;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
+import org.anchoranalysis.image.voxel.iterator.neighbor.kernel.IterateKernelHelper;
+import org.anchoranalysis.image.voxel.iterator.process.ProcessKernelPointCursor;
+import org.anchoranalysis.image.voxel.kernel.morphological.DilationKernel;
+import org.anchoranalysis.image.voxel.kernel.morphological.ErosionKernel;
+import org.anchoranalysis.image.voxel.kernel.outline.OutlineKernel;
+import org.anchoranalysis.spatial.box.Extent;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link ApplyMorphologicalKernel} produces identical outcomes to the generic
+ * application of a kernel via {@link IterateKernelHelper}, whether executed in parallel or
+ * sequentially.
+ *
+ * @author Owen Feehan
+ */
+class ApplyMorphologicalKernelTest {
+
+    /** A single slice, with enough rows to be split into several blocks when parallel. */
+    private static final Extent EXTENT_2D = new Extent(150, 300, 1);
+
+    /** Several slices, which are processed in parallel. */
+    private static final Extent EXTENT_3D = new Extent(40, 30, 9);
+
+    /** The probability of any voxel being <i>on</i>. */
+    private static final double PROBABILITY_ON = 0.5;
+
+    @Test
+    void test2D() {
+        testAllKernels(EXTENT_2D, false);
+    }
+
+    @Test
+    void test3D() {
+        testAllKernels(EXTENT_3D, true);
+    }
+
+    /** A 3D scene, with the kernel applied only in the XY plane. */
+    @Test
+    void test3DWithoutZ() {
+        testAllKernels(EXTENT_3D, false);
+    }
+
+    /** Compares with every supported kernel, and every treatment of the outside. */
+    private static void testAllKernels(Extent extent, boolean useZ) {
+        BinaryVoxels<UnsignedByteBuffer> voxels = createRandom(extent, new Random(extent.x()));
+        BinaryKernel[] kernels = {
+            new DilationKernel(false),
+            new DilationKernel(true),
+            new ErosionKernel(),
+            new OutlineKernel()
+        };
+        for (BinaryKernel kernel : kernels) {
+            for (OutsideKernelPolicy policy : OutsideKernelPolicy.values()) {
+                assertIdentical(voxels, kernel, new KernelApplicationParameters(policy, useZ));
+            }
+        }
+    }
+
+    /**
+     * Asserts identical results from the generic path, and from the specialized path when applied
+     * in parallel and sequentially.
+     */
+    private static void assertIdentical(
+            BinaryVoxels<UnsignedByteBuffer> voxels,
+            BinaryKernel kernel,
+            KernelApplicationParameters parameters) {
+        assertTrue(
+                ApplyMorphologicalKernel.create(kernel, parameters).isPresent(),
+                "The kernel should be supported");
+
+        Voxels<UnsignedByteBuffer> generic = applyGeneric(kernel, voxels, parameters);
+        assertIdentical(
+                generic,
+                ApplyKernel.apply(kernel, voxels, parameters, false),
+                "Sequential",
+                kernel,
+                parameters);
+        assertIdentical(
+                generic,
+                ApplyKernel.apply(kernel, voxels, parameters, true),
+                "Parallel",
+                kernel,
+                parameters);
+    }
+
+    /** Asserts that the voxels of {@code actual} are identical to {@code expected}. */
+    private static void assertIdentical(
+            Voxels<UnsignedByteBuffer> expected,
+            BinaryVoxels<UnsignedByteBuffer> actual,
+            String description,
+            BinaryKernel kernel,
+            KernelApplicationParameters parameters) {
+        assertTrue(
+                expected.equalsDeep(actual.voxels()),
+                () ->
+                        String.format(
+                                "%s differs from generic for %s with outside=%s and useZ=%s",
+                                description,
+                                kernel.getClass().getSimpleName(),
+                                parameters.getOutsideKernelPolicy(),
+                                parameters.isUseZ()));
+    }
+
+    /** Applies a kernel voxel by voxel, as occurs for kernels without a specialized routine. */
+    private static Voxels<UnsignedByteBuffer> applyGeneric(
+            BinaryKernel kernel,
+            BinaryVoxels<UnsignedByteBuffer> voxels,
+            KernelApplicationParameters parameters) {
+        Voxels<UnsignedByteBuffer> out =
+                VoxelsFactory.getUnsignedByte().createInitialized(voxels.extent());
+        BinaryValuesByte binaryValues = voxels.binaryValues().asByte();
+        IterateKernelHelper.overAll(
+                kernel,
+                voxels,
+                parameters,
+                new ProcessKernelPointCursor() {
+
+                    private UnsignedByteBuffer outBuffer;
+
+                    @Override
+                    public void notifyChangeSlice(int z) {
+                        outBuffer = out.sliceBuffer(z);
+                    }
+
+                    @Override
+                    public void process(KernelPointCursor point) {
+                        outBuffer.putRaw(
+                                point.getIndex(),
+                                kernel.calculateAt(point)
+                                        ? binaryValues.getOn()
+                                        : binaryValues.getOff());
+                    }
+                });
+        return out;
+    }
+
+    /** Creates voxels where each voxel is randomly <i>on</i> or <i>off</i>. */
+    private static BinaryVoxels<UnsignedByteBuffer> createRandom(Extent extent, Random random) {
+        BinaryVoxels<UnsignedByteBuffer> voxels = BinaryVoxelsFactory.createEmptyOff(extent);
+        for (int z = 0; z < extent.z(); z++) {
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if (random.nextDouble() < PROBABILITY_ON) {
+                        voxels.assignOn().toVoxel(x, y, z);
+                    }
+                }
+            }
+        }
+        return voxels;
+    }
+}
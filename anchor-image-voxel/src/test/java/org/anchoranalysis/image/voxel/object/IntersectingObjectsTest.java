@@ -28,14 +28,20 @@ package org.anchoranalysis.image.voxel.object;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.base.Functions;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.graph.GraphWithoutPayload;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
 import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.BoundingBoxFactory;
 import org.anchoranalysis.spatial.box.Extent;
 import org.anchoranalysis.spatial.point.Point3d;
 import org.anchoranalysis.spatial.point.Point3i;
@@ -66,6 +72,12 @@ class IntersectingObjectsTest {
     /** The third object (that intersects with two others). */
     private static final ObjectMask THIRD = OBJECTS.get(2);
 
+    /** The number of objects created for {@link #asGraphRandom}. */
+    private static final int NUMBER_RANDOM_OBJECTS = 60;
+
+    /** Seed for the random number generator in {@link #asGraphRandom}. */
+    private static final long SEED_RANDOM = 42;
+
     /** An extent that contains all objects. */
     private static final Extent CONTAINING_EXTENT = new Extent(100, 100, 100);
 
@@ -142,11 +154,69 @@ class IntersectingObjectsTest {
         assertEquals(2, graph.numberEdges());
     }
 
+    /**
+     * Builds a graph of many randomly-placed objects with holes, whose bounding-boxes often
+     * intersect when their voxels do not.
+     */
+    @Test
+    void asGraphRandom() {
+        Random random = new Random(SEED_RANDOM);
+        List<ObjectMask> objects = new ArrayList<>();
+        for (int i = 0; i < NUMBER_RANDOM_OBJECTS; i++) {
+            objects.add(randomObject(random));
+        }
+
+        GraphWithoutPayload<ObjectMask> graph =
+                new IntersectingObjects<>(objects, Functions.identity()).asGraph();
+
+        int numberIntersecting = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            for (int j = i + 1; j < objects.size(); j++) {
+                ObjectMask first = objects.get(i);
+                ObjectMask second = objects.get(j);
+                boolean intersects = first.hasIntersectingVoxels(second);
+                assertEquals(
+                        intersects,
+                        graph.containsEdge(first, second) || graph.containsEdge(second, first));
+                if (intersects) {
+                    numberIntersecting++;
+                }
+            }
+        }
+        assertEquals(numberIntersecting, graph.numberEdges());
+        assertTrue(numberIntersecting > 0);
+    }
+
     /** Asserts a particular number of objects in the r-tree. */
     private void assertSize(int expectedSize) {
         assertEquals(expectedSize, tree.size());
     }
 
+    /** An object at a random location with a random size, with only some voxels <i>on</i>. */
+    private static ObjectMask randomObject(Random random) {
+        ObjectMask object =
+                new ObjectMask(
+                        BoundingBoxFactory.at(
+                                random.nextInt(80),
+                                random.nextInt(80),
+                                random.nextInt(3),
+                                1 + random.nextInt(90),
+                                1 + random.nextInt(20),
+                                1 + random.nextInt(3)));
+        BinaryVoxels<UnsignedByteBuffer> voxels = object.binaryVoxels();
+        Extent extent = voxels.extent();
+        for (int z = 0; z < extent.z(); z++) {
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if (random.nextInt(20) == 0) {
+                        voxels.setOn(x, y, z);
+                    }
+                }
+            }
+        }
+        return object;
+    }
+
     /** The center point of an object. */
     private static Point3i centerOf(ObjectMask object) {
         Point3d center = object.centerOfGravity();
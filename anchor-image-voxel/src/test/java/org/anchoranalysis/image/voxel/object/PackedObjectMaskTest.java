@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.spatial.box.Extent;
+import org.anchoranalysis.spatial.point.Point3i;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PackedObjectMask}.
+ *
+ * @author Owen Feehan
+ */
+class PackedObjectMaskTest {
+
+    /** Creates objects with corners removed, so not every voxel in the bounding-box is on. */
+    private static final ObjectMaskFixture FIXTURE = new ObjectMaskFixture(true, true);
+
+    /** An object at the origin. */
+    private static final ObjectMask FIRST = FIXTURE.filledMaskAtOrigin();
+
+    /** An object that partially overlaps {@code FIRST}. */
+    private static final ObjectMask SECOND = FIXTURE.filledMask(new Point3i(30, 20, 5));
+
+    /** An object that does not overlap {@code FIRST}. */
+    private static final ObjectMask THIRD = FIXTURE.filledMask(new Point3i(100, 0, 0));
+
+    /** Creates objects whose rows span several 64-bit words. */
+    private static final ObjectMaskFixture FIXTURE_WIDE =
+            new ObjectMaskFixture(true, new Extent(150, 20, 3));
+
+    /** A wide object, whose corner is not aligned with a word. */
+    private static final ObjectMask WIDE_FIRST =
+            withHoles(FIXTURE_WIDE.filledMask(new Point3i(13, 0, 0)));
+
+    /**
+     * A wide object that partially overlaps {@code WIDE_FIRST}, shifted in X by an amount that is
+     * not a multiple of the word size.
+     */
+    private static final ObjectMask WIDE_SECOND =
+            withHoles(FIXTURE_WIDE.filledMask(new Point3i(50, 7, 1)));
+
+    /** An extent large enough to contain all the wide objects. */
+    private static final Extent EXTENT_CONTAINING_WIDE = new Extent(300, 50, 10);
+
+    /** Packing and then unpacking should produce an identical object. */
+    @Test
+    void packUnpack() {
+        assertTrue(FIRST.pack().unpack().equalsDeep(FIRST));
+        assertEquals(FIRST.numberVoxelsOn(), FIRST.pack().numberVoxelsOn());
+    }
+
+    /** Counting intersecting voxels should agree with {@link ObjectMask}. */
+    @Test
+    void countIntersecting() {
+        assertIntersectingAgrees(FIRST, SECOND);
+        assertIntersectingAgrees(SECOND, FIRST);
+        assertIntersectingAgrees(FIRST, THIRD);
+        assertTrue(FIRST.pack().hasIntersectingVoxels(SECOND.pack()));
+        assertFalse(FIRST.pack().hasIntersectingVoxels(THIRD.pack()));
+    }
+
+    /** The union and intersection should contain the expected number of voxels. */
+    @Test
+    void unionIntersect() {
+        PackedObjectMask first = FIRST.pack();
+        PackedObjectMask second = SECOND.pack();
+        int intersecting = FIRST.countIntersectingVoxels(SECOND);
+        assertEquals(
+                FIRST.numberVoxelsOn() + SECOND.numberVoxelsOn() - intersecting,
+                first.union(second).numberVoxelsOn());
+        assertEquals(intersecting, first.intersect(second).get().numberVoxelsOn());
+        assertFalse(first.intersect(THIRD.pack()).isPresent());
+    }
+
+    /** Like {@link #packUnpack} but with rows spanning several words. */
+    @Test
+    void packUnpackWide() {
+        assertTrue(WIDE_FIRST.pack().unpack().equalsDeep(WIDE_FIRST));
+        assertTrue(WIDE_SECOND.pack().unpack().equalsDeep(WIDE_SECOND));
+    }
+
+    /** Like {@link #countIntersecting} but with words that must be realigned across boundaries. */
+    @Test
+    void countIntersectingWide() {
+        assertIntersectingAgrees(WIDE_FIRST, WIDE_SECOND);
+        assertIntersectingAgrees(WIDE_SECOND, WIDE_FIRST);
+        assertTrue(WIDE_FIRST.pack().hasIntersectingVoxels(WIDE_SECOND.pack()));
+    }
+
+    /** Like {@link #unionIntersect} but with words that must be realigned across boundaries. */
+    @Test
+    void unionIntersectWide() {
+        PackedObjectMask first = WIDE_FIRST.pack();
+        PackedObjectMask second = WIDE_SECOND.pack();
+        int intersecting = WIDE_FIRST.countIntersectingVoxels(WIDE_SECOND);
+        assertEquals(
+                WIDE_FIRST.numberVoxelsOn() + WIDE_SECOND.numberVoxelsOn() - intersecting,
+                first.union(second).numberVoxelsOn());
+
+        ObjectMask expected = WIDE_FIRST.intersect(WIDE_SECOND, EXTENT_CONTAINING_WIDE).get();
+        assertTrue(first.intersect(second).get().unpack().equalsDeep(expected));
+        assertTrue(second.intersect(first).get().unpack().equalsDeep(expected));
+    }
+
+    private static void assertIntersectingAgrees(ObjectMask object1, ObjectMask object2) {
+        assertEquals(
+                object1.countIntersectingVoxels(object2),
+                object1.pack().countIntersectingVoxels(object2.pack()));
+    }
+
+    /**
+     * Switches off a regular pattern of voxels, so that each row differs from the next, and any
+     * misalignment of bits changes the outcome.
+     */
+    private static ObjectMask withHoles(ObjectMask object) {
+        BinaryVoxels<UnsignedByteBuffer> voxels = object.binaryVoxels();
+        Extent extent = voxels.extent();
+        for (int z = 0; z < extent.z(); z++) {
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if ((x * 3 + y + z) % 7 == 0) {
+                        voxels.setOff(x, y, z);
+                    }
+                }
+            }
+        }
+        return object;
+    }
+}
@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2021 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.image.voxel.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link RunLengthObjectMask}.
+ *
+ * @author Owen Feehan
+ */
+class RunLengthObjectMaskTest {
+
+    /** Encoding and then decoding should produce an identical object. */
+    @Test
+    void encodeDecode() {
+        assertEncodeDecode(new ObjectMaskFixture(true, true).filledMask(10, 20, 3));
+        assertEncodeDecode(new ObjectMaskFixture(false, false).filledMaskAtOrigin());
+    }
+
+    /** Encoding a filled rectangle requires only a single run for each row. */
+    @Test
+    void singleRunPerRow() {
+        ObjectMaskFixture fixture = new ObjectMaskFixture(false, true);
+        RunLengthObjectMask encoded = new RunLengthObjectMask(fixture.filledMaskAtOrigin());
+        assertEquals(fixture.extent().y() * fixture.extent().z() * 3, encoded.encoded().length);
+    }
+
+    private static void assertEncodeDecode(ObjectMask object) {
+        RunLengthObjectMask encoded = new RunLengthObjectMask(object);
+        assertEquals(object.numberVoxelsOn(), encoded.numberVoxelsOn());
+        assertTrue(encoded.decode().equalsDeep(object));
+    }
+}
@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.object.morphological;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.Random;
+import org.anchoranalysis.core.exception.CreateException;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxels;
+import org.anchoranalysis.image.voxel.binary.BinaryVoxelsFactory;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.kernel.OutsideKernelPolicy;
+import org.anchoranalysis.image.voxel.kernel.morphological.DilationContext;
+import org.anchoranalysis.spatial.box.Extent;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link DistanceTransformDilation} is identical to repeatedly applying a dilation
+ * kernel.
+ *
+ * @author Owen Feehan
+ */
+class DistanceTransformDilationTest {
+
+    private static final Extent EXTENT_2D = new Extent(23, 17, 1);
+
+    private static final Extent EXTENT_3D = new Extent(15, 13, 7);
+
+    /** The maximum number of iterations that are compared. */
+    private static final int MAX_ITERATIONS = 5;
+
+    /** The probability of any voxel being <i>on</i> before dilation. */
+    private static final double PROBABILITY_ON = 0.03;
+
+    @Test
+    void test2D() throws CreateException {
+        testAllContexts(EXTENT_2D, false);
+    }
+
+    @Test
+    void test3D() throws CreateException {
+        testAllContexts(EXTENT_3D, true);
+    }
+
+    /** A 3D scene, dilated only in the XY plane. */
+    @Test
+    void test3DWithoutZ() throws CreateException {
+        testAllContexts(EXTENT_3D, false);
+    }
+
+    /**
+     * The maximum number of iterations, with distances that exceed it, which are capped.
+     *
+     * <p>A single voxel in a line is dilated, so that it grows by exactly one voxel each
+     * iteration.
+     */
+    @Test
+    void testMaxIterations() throws CreateException {
+        int iterations = DistanceTransformDilation.MAX_ITERATIONS;
+        BinaryVoxels<UnsignedByteBuffer> voxels =
+                BinaryVoxelsFactory.createEmptyOff(new Extent(iterations + 50, 1, 1));
+        voxels.assignOn().toVoxel(0, 0, 0);
+
+        DilationContext context =
+                new DilationContext(OutsideKernelPolicy.AS_OFF, false, false, Optional.empty());
+        BinaryVoxels<UnsignedByteBuffer> dilated =
+                DistanceTransformDilation.dilate(voxels, iterations, context);
+        assertEquals(iterations + 1, dilated.countOn());
+
+        assertThrows(
+                CreateException.class,
+                () -> DistanceTransformDilation.dilate(voxels, iterations + 1, context));
+    }
+
+    /** Compares with every combination of neighborhood, and treatment of the outside. */
+    private static void testAllContexts(Extent extent, boolean useZ) throws CreateException {
+        BinaryVoxels<UnsignedByteBuffer> voxels = createRandom(extent, new Random(extent.x()));
+        for (boolean bigNeighborhood : new boolean[] {false, true}) {
+            for (OutsideKernelPolicy policy : OutsideKernelPolicy.values()) {
+                DilationContext context =
+                        new DilationContext(policy, useZ, bigNeighborhood, Optional.empty());
+                assertIdentical(voxels, context);
+            }
+        }
+    }
+
+    /** Asserts identical results to the kernel, for every number of iterations. */
+    private static void assertIdentical(
+            BinaryVoxels<UnsignedByteBuffer> voxels, DilationContext context)
+            throws CreateException {
+        BinaryVoxels<UnsignedByteBuffer> iterated = voxels;
+        for (int iterations = 1; iterations <= MAX_ITERATIONS; iterations++) {
+            // A single iteration always applies the kernel
+            iterated = MorphologicalDilation.dilate(iterated, 1, context);
+
+            BinaryVoxels<UnsignedByteBuffer> transformed =
+                    DistanceTransformDilation.dilate(voxels, iterations, context);
+            assertTrue(
+                    iterated.voxels().equalsDeep(transformed.voxels()),
+                    String.format(
+                            "Differs after %d iterations with bigNeighborhood=%b, outside=%s",
+                            iterations,
+                            context.isBigNeighborhood(),
+                            context.getKernelApplication().getOutsideKernelPolicy()));
+        }
+    }
+
+    /** Creates voxels where each voxel is randomly <i>on</i> or <i>off</i>. */
+    private static BinaryVoxels<UnsignedByteBuffer> createRandom(Extent extent, Random random) {
+        BinaryVoxels<UnsignedByteBuffer> voxels = BinaryVoxelsFactory.createEmptyOff(extent);
+        for (int z = 0; z < extent.z(); z++) {
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    if (random.nextDouble() < PROBABILITY_ON) {
+                        voxels.assignOn().toVoxel(x, y, z);
+                    }
+                }
+            }
+        }
+        return voxels;
+    }
+}
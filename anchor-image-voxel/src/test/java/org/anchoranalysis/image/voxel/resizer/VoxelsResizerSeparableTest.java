@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * anchor-image-voxel
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.image.voxel.resizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import org.anchoranalysis.image.voxel.Voxels;
+import org.anchoranalysis.image.voxel.buffer.primitive.UnsignedByteBuffer;
+import org.anchoranalysis.image.voxel.factory.VoxelsFactory;
+import org.anchoranalysis.spatial.box.Extent;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link VoxelsResizerSeparable} and its {@link WeightTable}.
+ *
+ * @author Owen Feehan
+ */
+class VoxelsResizerSeparableTest {
+
+    private static final int CONSTANT = 100;
+
+    /** Voxels this distance from the boundary may differ, due to how the boundary is treated. */
+    private static final int BORDER = 4;
+
+    /**
+     * Interpolating at the source positions, without any change in size, reproduces the source
+     * positions exactly.
+     */
+    @Test
+    void testWeightsIdentity() {
+        for (ResizeKernel kernel : ResizeKernel.values()) {
+            WeightTable table = new WeightTable(20, 20, kernel);
+            for (int index = 0; index < 20; index++) {
+                assertEquals(index, interpolatedPosition(table, index), 1e-5);
+            }
+        }
+    }
+
+    /** The weights for each destination position sum to one, when enlarging or reducing. */
+    @Test
+    void testWeightsNormalized() {
+        for (ResizeKernel kernel : ResizeKernel.values()) {
+            assertNormalized(new WeightTable(17, 53, kernel), 53);
+            assertNormalized(new WeightTable(53, 17, kernel), 17);
+        }
+    }
+
+    /** A constant image remains constant, when enlarged or reduced, with either kernel. */
+    @Test
+    void testConstant() {
+        Voxels<UnsignedByteBuffer> voxels = create(new Extent(40, 30, 2), (x, y) -> CONSTANT);
+        for (ResizeKernel kernel : ResizeKernel.values()) {
+            VoxelsResizer resizer = new VoxelsResizerSeparable(kernel);
+            assertAll(voxels.extract().resizedXY(97, 71, resizer), value -> value == CONSTANT);
+            assertAll(voxels.extract().resizedXY(13, 9, resizer), value -> value == CONSTANT);
+        }
+    }
+
+    /** Linear interpolation of a gradient is similar to the ImgLib2-based {@link Linear}. */
+    @Test
+    void testLinearSimilarToImgLib2() {
+        Voxels<UnsignedByteBuffer> voxels = create(new Extent(64, 64, 1), (x, y) -> x + (2 * y));
+
+        Voxels<UnsignedByteBuffer> separable =
+                voxels.extract()
+                        .resizedXY(128, 128, new VoxelsResizerSeparable(ResizeKernel.LINEAR));
+        Voxels<UnsignedByteBuffer> imgLib2 = voxels.extract().resizedXY(128, 128, new Linear());
+
+        for (int y = BORDER; y < 128 - BORDER; y++) {
+            for (int x = BORDER; x < 128 - BORDER; x++) {
+                int difference = separable.extract().voxel(x, y) - imgLib2.extract().voxel(x, y);
+                assertTrue(Math.abs(difference) <= 2, () -> "Difference of " + difference);
+            }
+        }
+    }
+
+    /**
+     * The ringing of a Lanczos kernel, next to a sharp edge, is clamped to the range of the
+     * voxel-type, rather than wrapping around.
+     */
+    @Test
+    void testLanczosClamped() {
+        Voxels<UnsignedByteBuffer> voxels =
+                create(new Extent(32, 32, 1), (x, y) -> x < 16 ? 0 : 255);
+
+        Voxels<UnsignedByteBuffer> resized =
+                voxels.extract()
+                        .resizedXY(96, 96, new VoxelsResizerSeparable(ResizeKernel.LANCZOS));
+
+        for (int y = 0; y < 96; y++) {
+            for (int x = 0; x < 96; x++) {
+                int value = resized.extract().voxel(x, y);
+                // The edge is between 47 and 48, with ringing extending several voxels either side
+                if (x <= 46) {
+                    assertTrue(value <= 10);
+                } else if (x >= 49) {
+                    assertTrue(value >= 240);
+                }
+            }
+        }
+    }
+
+    /** Resizing in parallel gives identical results to resizing sequentially. */
+    @Test
+    void testParallelIdenticalToSequential() {
+        for (int numberSlices : new int[] {1, 3}) {
+            Voxels<UnsignedByteBuffer> voxels =
+                    create(new Extent(200, 150, numberSlices), (x, y) -> (x * y) % 256);
+            for (ResizeKernel kernel : ResizeKernel.values()) {
+                Voxels<UnsignedByteBuffer> parallel =
+                        voxels.extract().resizedXY(300, 260, new VoxelsResizerSeparable(kernel));
+                Voxels<UnsignedByteBuffer> sequential =
+                        voxels.extract()
+                                .resizedXY(300, 260, new VoxelsResizerSeparable(kernel, false));
+                assertTrue(parallel.equalsDeep(sequential));
+            }
+        }
+    }
+
+    /** The source position that is interpolated for a destination position. */
+    private static double interpolatedPosition(WeightTable table, int index) {
+        double position = 0.0;
+        for (int tap = 0; tap < table.count(index); tap++) {
+            position += table.weight(index, tap) * (table.first(index) + tap);
+        }
+        return position;
+    }
+
+    private static void assertNormalized(WeightTable table, int sizeDestination) {
+        for (int index = 0; index < sizeDestination; index++) {
+            double sum = 0.0;
+            for (int tap = 0; tap < table.count(index); tap++) {
+                sum += table.weight(index, tap);
+            }
+            assertEquals(1.0, sum, 1e-5);
+        }
+    }
+
+    private static void assertAll(
+            Voxels<UnsignedByteBuffer> voxels, IntPredicate predicate) {
+        Extent extent = voxels.extent();
+        for (int z = 0; z < extent.z(); z++) {
+            UnsignedByteBuffer buffer = voxels.sliceBuffer(z);
+            for (int index = 0; index < extent.areaXY(); index++) {
+                assertTrue(predicate.test(buffer.getUnsigned(index)));
+            }
+        }
+    }
+
+    /** Creates voxels, with identical slices, whose values are calculated from X and Y. */
+    private static Voxels<UnsignedByteBuffer> create(Extent extent, IntBinaryOperator value) {
+        Voxels<UnsignedByteBuffer> voxels =
+                VoxelsFactory.getUnsignedByte().createInitialized(extent);
+        for (int z = 0; z < extent.z(); z++) {
+            UnsignedByteBuffer buffer = voxels.sliceBuffer(z);
+            for (int y = 0; y < extent.y(); y++) {
+                for (int x = 0; x < extent.x(); x++) {
+                    buffer.putUnsigned(extent.offset(x, y), value.applyAsInt(x, y));
+                }
+            }
+        }
+        return voxels;
+    }
+}
@@ -0,0 +1,52 @@
+/*-
+ * #%L
+ * anchor-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.inference.concurrency;
+
+import java.util.List;
+import org.anchoranalysis.inference.InferenceModel;
+
+/**
+ * Performs inference on a batch of inputs together, with a single call to a model.
+ *
+ * @author Owen Feehan
+ * @param <T> model-type
+ * @param <I> input-type, for a single element in the batch.
+ * @param <O> output-type, for a single element in the batch.
+ */
+@FunctionalInterface
+public interface BatchFunction<T extends InferenceModel, I, O> {
+
+    /**
+     * Performs inference on all inputs in a batch.
+     *
+     * @param model the model to perform inference with.
+     * @param inputs the inputs in the batch, in order.
+     * @return the outputs, one for each element in {@code inputs}, in identical order.
+     * @throws ConcurrentModelException if inference cannot successfully complete.
+     */
+    List<O> apply(ConcurrentModel<T> model, List<I> inputs) throws ConcurrentModelException;
+}
@@ -0,0 +1,211 @@
+/*-
+ * #%L
+ * anchor-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.inference.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.anchoranalysis.inference.InferenceModel;
+
+/**
+ * Collects inference requests from concurrent callers into batches, and executes each batch with
+ * a single call on a model from a {@link ConcurrentModelPool}.
+ *
+ * <p>A batch is executed when it contains {@code maxBatchSize} requests, or when {@code maxWait}
+ * has elapsed since its first request arrived, whichever occurs first.
+ *
+ * <p>No additional threads are created. The first caller to contribute to a batch waits to collect
+ * the other requests, executes the batch, and then distributes each output to the respective
+ * caller. The other callers simply wait for their output.
+ *
+ * <p>It is typically created via {@link ConcurrentModelPool#batcher}.
+ *
+ * @author Owen Feehan
+ * @param <T> model-type
+ * @param <I> input-type, for a single request.
+ * @param <O> output-type, for a single request.
+ */
+public class ConcurrentModelBatcher<T extends InferenceModel, I, O> {
+
+    /** A single request, awaiting its output. */
+    private static class Request<I, O> {
+        private final I input;
+        private final CompletableFuture<O> output = new CompletableFuture<>();
+
+        public Request(I input) {
+            this.input = input;
+        }
+    }
+
+    /** The models to execute each batch with. */
+    private final ConcurrentModelPool<T> pool;
+
+    /** Performs inference on a batch. */
+    private final BatchFunction<T, I, O> batchFunction;
+
+    /** The maximum number of requests in a batch. */
+    private final int maxBatchSize;
+
+    /** The maximum time to wait for a batch to fill, in nanoseconds. */
+    private final long maxWaitNanos;
+
+    /** Guards {@code pending}. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when {@code pending} reaches its maximum size. */
+    private final Condition batchFull = lock.newCondition();
+
+    /** Signalled when {@code pending} has been taken for execution, and is empty again. */
+    private final Condition batchTaken = lock.newCondition();
+
+    /** Requests in the batch that is currently being collected. */
+    private List<Request<I, O>> pending = new ArrayList<>();
+
+    /**
+     * Creates for a particular pool and batch-function.
+     *
+     * @param pool the models to execute each batch with.
+     * @param batchFunction performs inference on a batch.
+     * @param maxBatchSize the maximum number of requests in a batch.
+     * @param maxWait the maximum time to wait for a batch to fill, after its first request has
+     *     arrived.
+     * @param unit the time-unit of {@code maxWait}.
+     */
+    public ConcurrentModelBatcher(
+            ConcurrentModelPool<T> pool,
+            BatchFunction<T, I, O> batchFunction,
+            int maxBatchSize,
+            long maxWait,
+            TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be at least 1");
+        }
+        this.pool = pool;
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Adds an input to a batch, and waits until the output for this input is available.
+     *
+     * @param input the input.
+     * @return the output corresponding to {@code input}.
+     * @throws Throwable if thrown while executing the batch containing {@code input}, as per
+     *     {@link ConcurrentModelPool#executeOrWait}.
+     */
+    public O executeOrWait(I input) throws Throwable { // NOSONAR
+        Request<I, O> request = new Request<>(input);
+
+        List<Request<I, O>> batchToExecute = addToPending(request);
+        if (batchToExecute != null) {
+            execute(batchToExecute);
+        }
+
+        try {
+            return request.output.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Adds a request to the pending batch.
+     *
+     * @return the batch to execute, if {@code request} was the first in its batch, otherwise
+     *     null.
+     */
+    private List<Request<I, O>> addToPending(Request<I, O> request) throws InterruptedException {
+        lock.lock();
+        try {
+            // Wait for any full batch to be taken by its first caller
+            while (pending.size() >= maxBatchSize) {
+                batchTaken.await();
+            }
+
+            pending.add(request);
+
+            if (pending.size() == 1) {
+                waitToFill();
+
+                List<Request<I, O>> batch = pending;
+                pending = new ArrayList<>();
+                batchTaken.signalAll();
+                return batch;
+            } else {
+                if (pending.size() == maxBatchSize) {
+                    batchFull.signal();
+                }
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Waits until the pending batch is full, or the maximum waiting time has elapsed. */
+    private void waitToFill() {
+        long remaining = maxWaitNanos;
+        try {
+            while (pending.size() < maxBatchSize && remaining > 0) {
+                remaining = batchFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            // Execute the batch as it currently is, without waiting further
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Executes a batch, and completes the output of each request. */
+    private void execute(List<Request<I, O>> batch) {
+        List<I> inputs = new ArrayList<>(batch.size());
+        for (Request<I, O> request : batch) {
+            inputs.add(request.input);
+        }
+
+        try {
+            List<O> outputs = pool.executeOrWait(model -> batchFunction.apply(model, inputs));
+            if (outputs.size() != batch.size()) {
+                throw new IllegalStateException(
+                        String.format(
+                                "A batch of %d inputs produced %d outputs",
+                                batch.size(), outputs.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).output.complete(outputs.get(i));
+            }
+        } catch (Throwable e) { // NOSONAR
+            for (Request<I, O> request : batch) {
+                request.output.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ package org.anchoranalysis.inference.concurrency;
 
 import java.util.Optional;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.anchoranalysis.core.functional.FunctionalIterate;
 import org.anchoranalysis.core.functional.checked.CheckedFunction;
 import org.anchoranalysis.core.log.Logger;
@@ -109,6 +110,24 @@ public class ConcurrentModelPool<T extends InferenceModel> implements AutoClosea
         }
     }
 
+    /**
+     * Creates a batcher, that combines requests from concurrent callers into batches, each
+     * executed with a single call on a model from this pool.
+     *
+     * @param <I> input-type, for a single request.
+     * @param <O> output-type, for a single request.
+     * @param batchFunction performs inference on a batch.
+     * @param maxBatchSize the maximum number of requests in a batch.
+     * @param maxWait the maximum time to wait for a batch to fill, after its first request has
+     *     arrived.
+     * @param unit the time-unit of {@code maxWait}.
+     * @return a newly created batcher, that uses this pool.
+     */
+    public <I, O> ConcurrentModelBatcher<T, I, O> batcher(
+            BatchFunction<T, I, O> batchFunction, int maxBatchSize, long maxWait, TimeUnit unit) {
+        return new ConcurrentModelBatcher<>(this, batchFunction, maxBatchSize, maxWait, unit);
+    }
+
     /**
      * Close all models, to indicate they are no longer in use, and to perform tidy-up.
      *
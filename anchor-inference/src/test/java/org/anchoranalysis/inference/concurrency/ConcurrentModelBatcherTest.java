@@ -0,0 +1,221 @@
+/*-
+ * #%L
+ * anchor-inference
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.inference.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.core.log.NullMessageLogger;
+import org.anchoranalysis.inference.InferenceModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ConcurrentModelBatcher}.
+ *
+ * @author Owen Feehan
+ */
+class ConcurrentModelBatcherTest {
+
+    /** A model that does nothing, as inference is performed by each test's batch-function. */
+    private static class FakeModel implements InferenceModel {
+        @Override
+        public void close() {
+            // NOTHING TO DO
+        }
+    }
+
+    /** A maximum wait, in seconds, that is never expected to elapse. */
+    private static final int LONG_WAIT = 20;
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    /** The sizes of each batch that was executed, in order of execution. */
+    private List<Integer> batchSizes;
+
+    private ConcurrentModelPool<FakeModel> pool;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() throws CreateModelFailedException {
+        batchSizes = Collections.synchronizedList(new ArrayList<>());
+        pool =
+                new ConcurrentModelPool<>(
+                        ConcurrencyPlan.singleCPUProcessor(0),
+                        useGPU -> Optional.of(new ConcurrentModel<>(new FakeModel(), false)),
+                        new Logger(new NullMessageLogger()));
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** A full batch executes immediately, without waiting, and each caller receives its output. */
+    @Test
+    void testFullBatch() throws Exception {
+        ConcurrentModelBatcher<FakeModel, Integer, Integer> batcher =
+                pool.batcher(this::doubleAll, MAX_BATCH_SIZE, LONG_WAIT, TimeUnit.SECONDS);
+
+        List<Future<Object>> futures = submitAll(batcher, Arrays.asList(1, 2, 3));
+
+        assertEquals(Arrays.asList(2, 4, 6), results(futures));
+        assertEquals(Arrays.asList(MAX_BATCH_SIZE), batchSizes);
+    }
+
+    /** A partial batch executes after the maximum wait has elapsed. */
+    @Test
+    void testPartialBatchAfterTimeout() throws Throwable {
+        ConcurrentModelBatcher<FakeModel, Integer, Integer> batcher =
+                pool.batcher(this::doubleAll, MAX_BATCH_SIZE, 50, TimeUnit.MILLISECONDS);
+
+        assertEquals(10, batcher.executeOrWait(5));
+        assertEquals(Arrays.asList(1), batchSizes);
+    }
+
+    /** When a batch produces the wrong number of outputs, every caller in the batch fails. */
+    @Test
+    void testWrongOutputCount() throws Exception {
+        ConcurrentModelBatcher<FakeModel, Integer, Integer> batcher =
+                pool.batcher(
+                        (model, inputs) -> Arrays.asList(0),
+                        MAX_BATCH_SIZE,
+                        LONG_WAIT,
+                        TimeUnit.SECONDS);
+
+        List<Future<Object>> futures = submitAll(batcher, Arrays.asList(1, 2, 3));
+
+        for (Object result : results(futures)) {
+            assertTrue(result instanceof IllegalStateException);
+        }
+    }
+
+    /** An exception thrown while executing a batch is thrown to every caller in the batch. */
+    @Test
+    void testExceptionToAllCallers() throws Exception {
+        ConcurrentModelBatcher<FakeModel, Integer, Integer> batcher =
+                pool.batcher(
+                        (model, inputs) -> {
+                            throw new ConcurrentModelException(
+                                    new UnsupportedOperationException());
+                        },
+                        MAX_BATCH_SIZE,
+                        LONG_WAIT,
+                        TimeUnit.SECONDS);
+
+        List<Future<Object>> futures = submitAll(batcher, Arrays.asList(1, 2, 3));
+
+        for (Object result : results(futures)) {
+            assertTrue(result instanceof UnsupportedOperationException);
+        }
+    }
+
+    /**
+     * Callers that arrive while a full batch awaits execution join a later batch.
+     *
+     * <p>Many more callers than the maximum batch size arrive simultaneously, so that some arrive
+     * while a batch is full but not yet taken for execution.
+     */
+    @Test
+    void testCallersArriveWhileBatchFull() throws Exception {
+        ConcurrentModelBatcher<FakeModel, Integer, Integer> batcher =
+                pool.batcher(this::doubleAll, MAX_BATCH_SIZE, 200, TimeUnit.MILLISECONDS);
+
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 31; i++) {
+            inputs.add(i);
+        }
+
+        List<Future<Object>> futures = submitAll(batcher, inputs);
+
+        assertEquals(
+                inputs.stream().map(input -> input * 2).collect(Collectors.toList()),
+                results(futures));
+        assertEquals(inputs.size(), batchSizes.stream().mapToInt(Integer::intValue).sum());
+        for (int size : batchSizes) {
+            assertTrue(size <= MAX_BATCH_SIZE);
+        }
+    }
+
+    /** A batch-function that doubles each input, and records the size of the batch. */
+    private List<Integer> doubleAll(ConcurrentModel<FakeModel> model, List<Integer> inputs) {
+        batchSizes.add(inputs.size());
+        return inputs.stream().map(input -> input * 2).collect(Collectors.toList());
+    }
+
+    /**
+     * Submits each input from a separate thread, all starting together.
+     *
+     * <p>Each future returns either the output, or any exception thrown.
+     */
+    private List<Future<Object>> submitAll(
+            ConcurrentModelBatcher<FakeModel, Integer, Integer> batcher, List<Integer> inputs) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Integer input : inputs) {
+            futures.add(
+                    executor.submit(
+                            () -> {
+                                start.await();
+                                try {
+                                    return batcher.executeOrWait(input);
+                                } catch (Throwable e) { // NOSONAR
+                                    return e;
+                                }
+                            }));
+        }
+        start.countDown();
+        return futures;
+    }
+
+    /** The result of each future, waiting no longer than {@code LONG_WAIT}. */
+    private static List<Object> results(List<Future<Object>> futures)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(LONG_WAIT, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
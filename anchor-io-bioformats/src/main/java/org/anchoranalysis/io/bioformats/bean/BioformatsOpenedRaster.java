@@ -63,6 +63,7 @@ import org.anchoranalysis.io.bioformats.copyconvert.ConvertTo;
 import org.anchoranalysis.io.bioformats.copyconvert.ConvertToFactory;
 import org.anchoranalysis.io.bioformats.copyconvert.CopyConvert;
 import org.anchoranalysis.io.bioformats.copyconvert.ImageFileShape;
+import org.anchoranalysis.spatial.box.BoundingBox;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.commons.math3.util.Pair;
@@ -100,6 +101,15 @@ class BioformatsOpenedRaster implements OpenedImageFile {
     /** A list of channel-names or {@link Optional#empty()} if unavailable. */
     private final Optional<List<String>> channelNames;
 
+    /**
+     * When positive, frames are read lazily, retaining at most this many in memory. When zero, all
+     * frames are read immediately.
+     */
+    private final int lazyFramesRetained;
+
+    /** Whether {@link #close} has been called, after which no further frames can be read. */
+    private boolean closed = false;
+
     /**
      * Creates with a particular {@link IFormatReader} and associated metadata.
      *
@@ -109,14 +119,18 @@ class BioformatsOpenedRaster implements OpenedImageFile {
      * @param calculateOrientation any correction of orientation to be applied as bytes are
      *     converted.
      * @param timestamps timestamps and other file-attributes for the image being opened.
+     * @param lazyFramesRetained when positive, frames are read lazily, retaining at most this many
+     *     in memory. When zero, all frames are read immediately.
      */
     public BioformatsOpenedRaster(
             IFormatReader reader,
             IMetadata metadata,
             ReadOptions readOptions,
             CalculateOrientationChange calculateOrientation,
-            CheckedSupplier<ImageTimestampsAttributes, ImageIOException> timestamps) {
+            CheckedSupplier<ImageTimestampsAttributes, ImageIOException> timestamps,
+            int lazyFramesRetained) {
         this.reader = reader;
+        this.lazyFramesRetained = lazyFramesRetained;
         this.metadata = metadata;
         this.readOptions = readOptions;
         this.calculateOrientation = calculateOrientation;
@@ -137,7 +151,70 @@ class BioformatsOpenedRaster implements OpenedImageFile {
 
         VoxelDataType dataType = multiplexFormat(pixelType);
 
-        return openAsType(seriesIndex, dataType, logger);
+        if (lazyFramesRetained > 0 && sizeT > 1) {
+            return TimeSeries.lazy(
+                    sizeT,
+                    lazyFramesRetained,
+                    dataType,
+                    frameIndex -> openFrameAsType(seriesIndex, frameIndex, dataType, logger));
+        } else {
+            return openAsType(seriesIndex, dataType, logger);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>When no orientation change is needed, only the bytes inside {@code box} are read from the
+     * file, and all frames are read immediately. Otherwise, the entire series is read and the
+     * region subsequently extracted.
+     */
+    @Override
+    public TimeSeries open(int seriesIndex, BoundingBox box, Logger logger)
+            throws ImageIOException {
+        if (calculateOrientation(logger) != OrientationChange.KEEP_UNCHANGED) {
+            return OpenedImageFile.super.open(seriesIndex, box, logger);
+        }
+
+        VoxelDataType dataType = multiplexFormat(reader.getPixelType());
+        try {
+            LOG.debug(String.format("Opening region %s of series %d", box, seriesIndex));
+
+            reader.setSeries(seriesIndex);
+
+            Dimensions dimensions = dimensionsWithoutOrientationChange(seriesIndex);
+            if (!dimensions.extent().contains(box)) {
+                throw new ImageIOException(
+                        String.format(
+                                "The region %s is not contained within the image of size %s",
+                                box, dimensions.extent()));
+            }
+
+            Pair<List<Channel>, TimeSeries> pair =
+                    createUninitialisedChannels(
+                            dimensions.duplicateChangeExtent(box.extent()),
+                            multiplexVoxelDataType(dataType),
+                            logger);
+
+            ConvertTo<?> convertTo =
+                    ConvertToFactory.create(
+                            reader, dataType, readOptions.effectiveBitsPerPixel(reader));
+
+            CopyConvert.copyAllFramesRegion(
+                    reader,
+                    pair.getFirst(),
+                    new ImageFileShape(dimensions, numberChannels, sizeT),
+                    convertTo,
+                    readOptions,
+                    box);
+
+            return pair.getSecond();
+        } catch (FormatException | IOException | CreateException e) {
+            throw new ImageIOException(
+                    String.format(
+                            "An error occurred opening region %s of series %d", box, seriesIndex),
+                    e);
+        }
     }
 
     @Override
@@ -167,10 +244,13 @@ class BioformatsOpenedRaster implements OpenedImageFile {
 
     @Override
     public void close() throws ImageIOException {
-        try {
-            reader.close();
-        } catch (IOException e) {
-            throw new ImageIOException("Could not close bioformats file", e);
+        synchronized (reader) {
+            try {
+                closed = true;
+                reader.close();
+            } catch (IOException e) {
+                throw new ImageIOException("Could not close bioformats file", e);
+            }
         }
     }
 
@@ -236,6 +316,65 @@ class BioformatsOpenedRaster implements OpenedImageFile {
         }
     }
 
+    /**
+     * Opens a single frame as a specific data-type.
+     *
+     * <p>This is synchronized on the reader, as frames may be lazily read from different threads,
+     * but the reader is not thread-safe.
+     */
+    private Stack openFrameAsType(
+            int seriesIndex, int frameIndex, VoxelDataType dataType, Logger logger)
+            throws ImageIOException {
+        synchronized (reader) {
+            if (closed) {
+                throw new ImageIOException(
+                        String.format(
+                                "Cannot read frame %d, as the image-file has already been closed",
+                                frameIndex));
+            }
+            try {
+                LOG.debug(
+                        String.format(
+                                "Opening frame %d of series %d as %s",
+                                frameIndex, seriesIndex, dataType));
+
+                reader.setSeries(seriesIndex);
+
+                Dimensions dimensions = dimensionsWithoutOrientationChange(seriesIndex);
+
+                List<Channel> channels = new ArrayList<>(numberChannels);
+                Stack stack =
+                        createEmptyStack(
+                                multiplexVoxelDataType(dataType),
+                                calculateOrientation(logger).dimensions(dimensions),
+                                channels::add,
+                                logger);
+
+                ConvertTo<?> convertTo =
+                        ConvertToFactory.create(
+                                reader, dataType, readOptions.effectiveBitsPerPixel(reader));
+
+                CopyConvert.copyFrame(
+                        reader,
+                        channels,
+                        new ImageFileShape(dimensions, numberChannels, sizeT),
+                        convertTo,
+                        readOptions,
+                        calculateOrientation(logger),
+                        frameIndex);
+                return stack;
+            } catch (IncorrectImageSizeException e) {
+                throw new AnchorImpossibleSituationException();
+            } catch (FormatException | IOException | CreateException e) {
+                throw new ImageIOException(
+                        String.format(
+                                "An error occurred opening frame %d of series %d",
+                                frameIndex, seriesIndex),
+                        e);
+            }
+        }
+    }
+
     private Pair<List<Channel>, TimeSeries> createUninitialisedChannels(
             Dimensions dimensions, ChannelFactorySingleType factory, Logger logger)
             throws ImageIOException {
@@ -67,6 +67,14 @@ public class BioformatsReader extends StackReaderOrientationCorrection {
     // START BEAN PROPERTIES
     /** Options that influence how stack is read. */
     @BeanField @Getter @Setter private ReadOptions options = new Default();
+
+    /**
+     * When positive, the frames of a time-series are only read when first accessed, and at most
+     * this many frames are retained in memory. When zero, all frames are read immediately.
+     *
+     * <p>Lazily-read frames can only be accessed while the opened file remains open.
+     */
+    @BeanField @Getter @Setter private int lazyFramesRetained = 0;
     // END BEAN PROPERTIES
 
     /**
@@ -105,7 +113,8 @@ public class BioformatsReader extends StackReaderOrientationCorrection {
                     metadata,
                     options,
                     orientationCorrection,
-                    () -> ImageTimestampsAttributesFactory.fromPath(filePath));
+                    () -> ImageTimestampsAttributesFactory.fromPath(filePath),
+                    lazyFramesRetained);
         } catch (UnknownFormatException e) {
             throw new ImageIOException("An unknown file format was used: " + filePath);
         } catch (Exception e) {
@@ -117,6 +117,20 @@ public abstract class ConvertTo<T> {
         log.debug(String.format("copy to byte %d end", z));
     }
 
+    /**
+     * Whether a converted buffer may directly reuse the memory of the source buffer, rather than
+     * copying from it.
+     *
+     * <p>When true, the memory of a source buffer becomes part of the destination, and so must not
+     * be reused for any subsequent source buffer.
+     *
+     * @return true if the source memory may be reused, false if it is always copied. By default,
+     *     false.
+     */
+    public boolean mayReuseSourceMemory() {
+        return false;
+    }
+
     /**
      * Always called before any batch of calls to {@link #convertSliceOfSingleChannel}.
      *
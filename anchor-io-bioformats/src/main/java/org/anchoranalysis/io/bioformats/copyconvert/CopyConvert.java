@@ -30,14 +30,20 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
 import loci.formats.FormatException;
+import loci.formats.FormatTools;
 import loci.formats.IFormatReader;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.anchoranalysis.image.core.channel.Channel;
+import org.anchoranalysis.image.core.dimensions.Dimensions;
 import org.anchoranalysis.image.core.dimensions.OrientationChange;
 import org.anchoranalysis.io.bioformats.DestinationChannelForIndex;
 import org.anchoranalysis.io.bioformats.bean.options.ReadOptions;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.Extent;
 
 /**
  * Copies the bytes from a {@link IFormatReader} to a list of channels, converting if necessary.
@@ -70,49 +76,244 @@ public class CopyConvert {
             ReadOptions readOptions,
             OrientationChange orientationCorrection)
             throws FormatException, IOException {
+        copyFramesMatching(
+                reader,
+                (channelIndex, frameIndex) ->
+                        destination.get(
+                                destinationIndex(
+                                        channelIndex,
+                                        frameIndex,
+                                        targetShape.getNumberChannels())),
+                targetShape,
+                convertTo,
+                readOptions,
+                orientationCorrection,
+                frameIndex -> true,
+                Optional.empty());
+    }
+
+    /**
+     * Like {@link #copyAllFrames} but copies only a region of each frame.
+     *
+     * <p>Only the bytes inside {@code region} are read from {@code reader}, and no orientation
+     * correction occurs.
+     *
+     * @param reader the source of the copy.
+     * @param destination the destination of the copy, where each channel has the same size as
+     *     {@code region}.
+     * @param targetShape the shape of the entire image-file (not only of the region).
+     * @param convertTo how to convert the source bytes to the desired target form.
+     * @param readOptions Options that influence how stack is read.
+     * @param region the region to copy, which must be contained within {@code targetShape}.
+     * @throws FormatException when the operation fails due to file-format problems.
+     * @throws IOException when the operation fails due to read or write IO problems.
+     */
+    public static void copyAllFramesRegion(
+            IFormatReader reader,
+            List<Channel> destination,
+            ImageFileShape targetShape,
+            ConvertTo<?> convertTo,
+            ReadOptions readOptions,
+            BoundingBox region)
+            throws FormatException, IOException {
+        copyFramesMatching(
+                reader,
+                (channelIndex, frameIndex) ->
+                        destination.get(
+                                destinationIndex(
+                                        channelIndex,
+                                        frameIndex,
+                                        targetShape.getNumberChannels())),
+                targetShape,
+                convertTo,
+                readOptions,
+                OrientationChange.KEEP_UNCHANGED,
+                frameIndex -> true,
+                Optional.of(region));
+    }
+
+    /**
+     * Copies all channels, z-slices (in a byte-array) for a single frame into a destination set of
+     * {@link Channel}s converting them if necessary along the way.
+     *
+     * <p>Only the bytes for {@code frameIndex} are read from {@code reader}.
+     *
+     * @param reader the source of the copy.
+     * @param destination the destination of the copy, one channel for each channel in the frame.
+     * @param targetShape the shape of the image-file to convert to (before any orientation
+     *     correction), including all frames.
+     * @param convertTo how to convert the source bytes to the desired target form.
+     * @param readOptions Options that influence how stack is read.
+     * @param orientationCorrection any correction of orientation to be applied as bytes are
+     *     converted.
+     * @param frameIndex the index of the frame to copy (zero-indexed).
+     * @throws FormatException when the operation fails due to file-format problems.
+     * @throws IOException when the operation fails due to read or write IO problems.
+     */
+    public static void copyFrame(
+            IFormatReader reader,
+            List<Channel> destination,
+            ImageFileShape targetShape,
+            ConvertTo<?> convertTo,
+            ReadOptions readOptions,
+            OrientationChange orientationCorrection,
+            int frameIndex)
+            throws FormatException, IOException {
+        copyFramesMatching(
+                reader,
+                (channelIndex, frame) -> destination.get(channelIndex),
+                targetShape,
+                convertTo,
+                readOptions,
+                orientationCorrection,
+                frame -> frame == frameIndex,
+                Optional.empty());
+    }
+
+    /** Selects the destination channel for a particular channel and frame. */
+    @FunctionalInterface
+    private interface SelectDestination {
+        Channel select(int channelIndex, int frameIndex);
+    }
+
+    /**
+     * Copies only the frames whose index matches {@code includeFrame}.
+     *
+     * <p>A single byte-array, sized to hold one plane, is allocated up-front and reused when
+     * reading every plane, unless {@link ConvertTo#mayReuseSourceMemory()} indicates that the
+     * converted voxels may retain the source bytes, in which case a new array is allocated for each
+     * plane.
+     *
+     * <p>When {@code region} is present, only the bytes inside the region are read from each plane,
+     * and planes outside the region's z-range are skipped entirely.
+     */
+    private static void copyFramesMatching(
+            IFormatReader reader,
+            SelectDestination destination,
+            ImageFileShape targetShape,
+            ConvertTo<?> convertTo,
+            ReadOptions readOptions,
+            OrientationChange orientationCorrection,
+            IntPredicate includeFrame,
+            Optional<BoundingBox> region)
+            throws FormatException, IOException {
         int numberChannelsPerByteArray = readOptions.channelsPerByteArray(reader);
 
         int numberByteArraysPerIteration =
                 calculateByteArraysPerIteration(
                         targetShape.getNumberChannels(), numberChannelsPerByteArray);
 
+        ImageFileEncoding encoding =
+                new ImageFileEncoding(
+                        reader.isRGB(), reader.isInterleaved(), numberChannelsPerByteArray);
+
+        ByteOrder order = reader.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+
+        Dimensions dimensionsToConvert =
+                region.map(
+                                box ->
+                                        targetShape
+                                                .getImageDimensions()
+                                                .duplicateChangeExtent(box.extent()))
+                        .orElse(targetShape.getImageDimensions());
+
+        PlaneReader planeReader =
+                new PlaneReader(reader, region, !convertTo.mayReuseSourceMemory());
+
         IterateOverSlices.iterateDimensionsOrder(
                 reader.getDimensionOrder(),
                 targetShape,
                 numberByteArraysPerIteration,
                 (t, z, c, readerIndex) -> {
+                    if (!includeFrame.test(t) || !planeReader.includesSlice(z)) {
+                        return;
+                    }
 
                     /** Selects a destination channel for a particular relative channel */
                     DestinationChannelForIndex destinationChannel =
-                            channelIndexRelative ->
-                                    destination.get(
-                                            destinationIndex(
-                                                    c + channelIndexRelative,
-                                                    t,
-                                                    targetShape.getNumberChannels()));
-
-                    ImageFileEncoding encoding =
-                            new ImageFileEncoding(
-                                    reader.isRGB(),
-                                    reader.isInterleaved(),
-                                    numberChannelsPerByteArray);
+                            channelIndexRelative -> destination.select(c + channelIndexRelative, t);
+
                     convertTo.copyAllChannels(
-                            targetShape.getImageDimensions(),
-                            openByteBuffer(reader, readerIndex),
+                            dimensionsToConvert,
+                            planeReader.read(readerIndex, order),
                             destinationChannel,
-                            z,
+                            planeReader.relativeSlice(z),
                             encoding,
                             orientationCorrection);
                 });
     }
 
-    /** Reads bytes from a {@link IFormatReader} making sure the endianness is correct. */
-    private static ByteBuffer openByteBuffer(IFormatReader reader, int index)
-            throws FormatException, IOException {
-        byte[] bufferArray = reader.openBytes(index);
-        ByteBuffer buffer = ByteBuffer.wrap(bufferArray);
-        buffer.order(reader.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
-        return buffer;
+    /**
+     * Reads the bytes of a plane, or of a region of a plane, from a {@link IFormatReader} into an
+     * array, which is optionally reused for every plane.
+     */
+    private static class PlaneReader {
+
+        private final IFormatReader reader;
+        private final Optional<BoundingBox> region;
+
+        /** The number of bytes in a plane (or in a region of a plane). */
+        private final int planeSize;
+
+        /** If present, an array that is reused for every plane. */
+        private final Optional<byte[]> reusedBuffer;
+
+        /**
+         * Creates for a particular reader.
+         *
+         * @param reader the reader to read planes from.
+         * @param region if present, only this region of each plane is read.
+         * @param reuseBuffer if true, the same array is reused for every plane. This is only safe
+         *     if the bytes of a plane are no longer referenced, after they are converted.
+         */
+        public PlaneReader(
+                IFormatReader reader, Optional<BoundingBox> region, boolean reuseBuffer) {
+            this.reader = reader;
+            this.region = region;
+            if (region.isPresent()) {
+                Extent extent = region.get().extent();
+                this.planeSize = FormatTools.getPlaneSize(reader, extent.x(), extent.y());
+            } else {
+                this.planeSize = FormatTools.getPlaneSize(reader);
+            }
+            this.reusedBuffer = reuseBuffer ? Optional.of(new byte[planeSize]) : Optional.empty();
+        }
+
+        /** Whether the z-slice {@code z} should be read. */
+        public boolean includesSlice(int z) {
+            return region.map(
+                            box ->
+                                    z >= box.cornerMin().z()
+                                            && z < box.calculateCornerMaxExclusive().z())
+                    .orElse(true);
+        }
+
+        /** The index of slice {@code z} in the destination. */
+        public int relativeSlice(int z) {
+            return region.map(box -> z - box.cornerMin().z()).orElse(z);
+        }
+
+        /** Reads the bytes of a plane into an array, making sure the endianness is correct. */
+        public ByteBuffer read(int index, ByteOrder order) throws FormatException, IOException {
+            byte[] planeBuffer = reusedBuffer.orElseGet(() -> new byte[planeSize]);
+            byte[] bufferArray;
+            if (region.isPresent()) {
+                BoundingBox box = region.get();
+                bufferArray =
+                        reader.openBytes(
+                                index,
+                                planeBuffer,
+                                box.cornerMin().x(),
+                                box.cornerMin().y(),
+                                box.extent().x(),
+                                box.extent().y());
+            } else {
+                bufferArray = reader.openBytes(index, planeBuffer);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bufferArray);
+            buffer.order(order);
+            return buffer;
+        }
     }
 
     private static int calculateByteArraysPerIteration(
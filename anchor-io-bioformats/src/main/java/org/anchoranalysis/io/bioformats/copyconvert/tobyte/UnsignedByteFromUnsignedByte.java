@@ -52,6 +52,11 @@ public abstract class UnsignedByteFromUnsignedByte extends ToUnsignedByte {
         return UnsignedByteVoxelType.INSTANCE.numberBytes();
     }
 
+    @Override
+    public boolean mayReuseSourceMemory() {
+        return true;
+    }
+
     @Override
     protected UnsignedByteBuffer convert(
             ByteBuffer source,
@@ -25,10 +25,25 @@
  */
 package org.anchoranalysis.io.bioformats.bean;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.anchoranalysis.core.exception.CreateException;
+import org.anchoranalysis.core.exception.friendly.AnchorFriendlyRuntimeException;
 import org.anchoranalysis.core.format.ImageFileFormat;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.core.time.ExecutionTimeRecorderIgnore;
+import org.anchoranalysis.image.core.channel.Channel;
 import org.anchoranalysis.image.io.ImageIOException;
+import org.anchoranalysis.image.io.stack.input.OpenedImageFile;
+import org.anchoranalysis.image.io.stack.time.TimeSeries;
+import org.anchoranalysis.image.voxel.datatype.UnsignedByteVoxelType;
 import org.anchoranalysis.io.bioformats.ConfigureBioformatsLogging;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.box.Extent;
+import org.anchoranalysis.spatial.point.Point3i;
+import org.anchoranalysis.test.LoggerFixture;
 import org.anchoranalysis.test.TestLoader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,6 +70,23 @@ class BioformatsReaderTest {
     private static final String EXTENSION_TIFF = ImageFileFormat.TIFF.getDefaultExtension();
     private static final String EXTENSION_PNG = ImageFileFormat.PNG.getDefaultExtension();
 
+    /**
+     * An unsigned 8-bit single-channel image with three z-slices, where the voxel at {@code
+     * (x,y,z)} has intensity {@code (60 * z + x + 2 * y) % 256}.
+     */
+    private static final String PATH_THREE_SLICES = "images/tif/unsigned_8bit_three_slices.tif";
+
+    /** The size of the image at {@link #PATH_THREE_SLICES}. */
+    private static final Extent EXTENT_THREE_SLICES = new Extent(40, 30, 3);
+
+    /**
+     * An unsigned 8-bit single-channel image with three frames, where the voxel at {@code (x,y)}
+     * in frame {@code t} has intensity {@code (70 * t + x + y) % 256}.
+     */
+    private static final String PATH_THREE_FRAMES = "images/tif/unsigned_8bit_three_frames.tif";
+
+    private Logger logger = LoggerFixture.suppressedLogger();
+
     @BeforeEach
     void setUp() {
         tester = new ExpectedImageTester(loader);
@@ -83,4 +115,78 @@ class BioformatsReaderTest {
     void testWithResolution() throws ImageIOException {
         tester.assertWithResolution(EXTENSION_TIFF, 6900);
     }
+
+    /** Each z-slice of an unsigned 8-bit single-channel image should retain distinct voxels. */
+    @Test
+    void testMultipleSlices() throws Exception {
+        try (OpenedImageFile file = openThreeSlices()) {
+            Channel channel = file.open(logger).getFrame(0).getChannel(0);
+            assertEquals(EXTENT_THREE_SLICES, channel.extent());
+            for (int z = 0; z < EXTENT_THREE_SLICES.z(); z++) {
+                for (int y = 0; y < EXTENT_THREE_SLICES.y(); y++) {
+                    for (int x = 0; x < EXTENT_THREE_SLICES.x(); x++) {
+                        assertEquals(expectedIntensity(x, y, z), channel.extract().voxel(x, y, z));
+                    }
+                }
+            }
+        }
+    }
+
+    /** Reading a region of a multi-slice image should match the same region of the entire image. */
+    @Test
+    void testRegionMultipleSlices() throws Exception {
+        BoundingBox box = BoundingBox.createReuse(new Point3i(5, 3, 1), new Extent(20, 15, 2));
+        try (OpenedImageFile file = openThreeSlices()) {
+            Channel entire = file.open(logger).getFrame(0).getChannel(0);
+            Channel region = file.open(0, box, logger).getFrame(0).getChannel(0);
+            Channel expected =
+                    new Channel(
+                            entire.voxels().any().extract().region(box, false),
+                            entire.resolution());
+            assertTrue(expected.equalsDeep(region, false));
+        }
+    }
+
+    /**
+     * Frames of a lazily-read time-series should remain available after the file is closed, only
+     * if they are first retained. Otherwise, reading a later frame should fail.
+     *
+     * <p>This also checks that {@link OpenedImageFile#openCheckType} does not read frames.
+     */
+    @Test
+    void testLazyFramesAfterClose() throws Exception {
+        BioformatsReader reader = new BioformatsReader();
+        reader.setLazyFramesRetained(1);
+
+        TimeSeries retained;
+        TimeSeries lazy;
+        try (OpenedImageFile file =
+                reader.openFile(
+                        loader.resolveTestPath(PATH_THREE_FRAMES),
+                        ExecutionTimeRecorderIgnore.instance())) {
+            lazy = file.openCheckType(0, UnsignedByteVoxelType.INSTANCE, logger);
+            retained = file.open(logger).retainAllFrames();
+        }
+
+        assertEquals(3, retained.size());
+        for (int t = 0; t < retained.size(); t++) {
+            Channel channel = retained.getFrame(t).getChannel(0);
+            assertEquals(70 * t + 5, channel.extract().voxel(3, 2));
+        }
+
+        // As checking the type should not read any frames, the last frame was never read (and
+        // retained), so it cannot be read after closing
+        assertThrows(AnchorFriendlyRuntimeException.class, () -> lazy.getFrame(2));
+    }
+
+    private OpenedImageFile openThreeSlices() throws ImageIOException {
+        return new BioformatsReader()
+                .openFile(
+                        loader.resolveTestPath(PATH_THREE_SLICES),
+                        ExecutionTimeRecorderIgnore.instance());
+    }
+
+    private static int expectedIntensity(int x, int y, int z) {
+        return (60 * z + x + 2 * y) % 256;
+    }
 }
@@ -32,6 +32,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import org.anchoranalysis.core.log.Logger;
 import org.anchoranalysis.core.log.error.ErrorReporter;
 import org.anchoranalysis.io.input.file.NamedFile;
 
@@ -118,6 +120,19 @@ public interface InputFromManager {
         }
     }
 
+    /**
+     * An estimate of the memory required to hold the data of the input, once loaded.
+     *
+     * <p>The estimate should be cheap to calculate, e.g. from metadata only, without loading the
+     * data itself.
+     *
+     * @param logger where to write informative messages or non-fatal errors.
+     * @return the estimated number of bytes, if an estimate is possible.
+     */
+    default OptionalLong estimateMemoryBytes(Logger logger) {
+        return OptionalLong.empty();
+    }
+
     /**
      * Performs all tidying up, file-closing etc. after we are finished using the {@link
      * InputFromManager}
@@ -0,0 +1,192 @@
+/*-
+ * #%L
+ * anchor-io-input
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.io.input;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.io.input.bean.InputManager;
+import org.anchoranalysis.io.input.bean.InputManagerParameters;
+
+/**
+ * Inputs that are searched for on a separate thread, with each input made available as soon as it
+ * is found.
+ *
+ * <p>Found inputs are placed in a bounded queue. If inputs are found faster than they are taken,
+ * the search waits until there is space in the queue.
+ *
+ * <p>The search begins immediately when constructed, and continues until all inputs are found, an
+ * error occurs, or {@link #close} is called.
+ *
+ * @author Owen Feehan
+ * @param <T> input-type
+ */
+public class StreamedInputs<T extends InputFromManager> implements AutoCloseable {
+
+    /** Placed in the queue after the last input. */
+    private static final Object END = new Object();
+
+    /** How long to wait, in milliseconds, for space in the queue, before checking for closure. */
+    private static final long WAIT_FOR_SPACE_MILLIS = 100;
+
+    /** Inputs that have been found, but not yet taken, followed eventually by {@link #END}. */
+    private final BlockingQueue<Object> queue;
+
+    /** The thread that searches for inputs. */
+    private final Thread searchThread;
+
+    /** Set if the search fails, and thrown after the last input has been taken. */
+    private volatile InputReadFailedException failure;
+
+    /** Set when {@link #close} is called. */
+    private volatile boolean closed = false;
+
+    /** Set after {@link #END} has been taken from the queue. */
+    private boolean ended = false;
+
+    /** An input already taken from the queue by {@link #hasNext}, but not yet by {@link #next}. */
+    private Optional<T> pending = Optional.empty();
+
+    /**
+     * Creates and immediately starts searching for inputs.
+     *
+     * @param inputManager the manager that searches for inputs, via {@link
+     *     InputManager#inputs(InputManagerParameters, java.util.function.Consumer)}.
+     * @param parameters parameters passed to {@code inputManager}.
+     * @param capacity the maximum number of found inputs that may wait to be taken.
+     */
+    public StreamedInputs(
+            InputManager<T> inputManager, InputManagerParameters parameters, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.searchThread = new Thread(() -> search(inputManager, parameters), "input-search");
+        this.searchThread.setDaemon(true);
+        this.searchThread.start();
+    }
+
+    /**
+     * Takes the next input, waiting until one is found, or until the search is complete.
+     *
+     * @return the next input, or {@link Optional#empty} if the search is complete and every input
+     *     has been taken.
+     * @throws InputReadFailedException if the search for inputs failed. This is thrown only once,
+     *     after all inputs found before the failure have been taken.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Optional<T> next() throws InputReadFailedException, InterruptedException {
+        if (pending.isPresent()) {
+            Optional<T> input = pending;
+            pending = Optional.empty();
+            return input;
+        } else {
+            return take();
+        }
+    }
+
+    /**
+     * Whether another input exists, waiting until one is found, or until the search is complete.
+     *
+     * @return true iff a subsequent call to {@link #next} will return an input.
+     * @throws InputReadFailedException if the search for inputs failed, as with {@link #next}.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean hasNext() throws InputReadFailedException, InterruptedException {
+        if (!pending.isPresent()) {
+            pending = take();
+        }
+        return pending.isPresent();
+    }
+
+    /** Stops the search, if it is still underway, discarding any inputs that are not yet taken. */
+    @Override
+    public void close() {
+        closed = true;
+        searchThread.interrupt();
+        queue.clear();
+    }
+
+    /** Takes the next element from the queue, waiting if necessary. */
+    @SuppressWarnings("unchecked")
+    private Optional<T> take() throws InputReadFailedException, InterruptedException {
+        if (ended) {
+            return Optional.empty();
+        }
+        Object element = queue.take();
+        if (element == END) {
+            ended = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return Optional.empty();
+        } else {
+            return Optional.of((T) element);
+        }
+    }
+
+    /** Runs the search, placing {@link #END} in the queue when complete. */
+    private void search(InputManager<T> inputManager, InputManagerParameters parameters) {
+        try {
+            inputManager.inputs(parameters, this::add);
+        } catch (InputReadFailedException e) {
+            failure = e;
+        } catch (CancellationException e) {
+            // The search was stopped via close(), so there is nobody to report to.
+        } catch (RuntimeException e) {
+            failure = new InputReadFailedException("An error occurred searching for inputs", e);
+        }
+
+        try {
+            if (!closed) {
+                queue.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds an input to the queue, waiting for space if necessary.
+     *
+     * <p>This may be called concurrently from several threads.
+     *
+     * @throws CancellationException if {@link #close} has been called.
+     */
+    private void add(T input) {
+        try {
+            while (!closed) {
+                if (queue.offer(input, WAIT_FOR_SPACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+            throw new CancellationException("The search for inputs was stopped.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The search for inputs was interrupted.");
+        }
+    }
+}
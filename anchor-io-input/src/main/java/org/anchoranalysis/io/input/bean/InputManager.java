@@ -26,6 +26,7 @@
 
 package org.anchoranalysis.io.input.bean;
 
+import java.util.function.Consumer;
 import org.anchoranalysis.bean.AnchorBean;
 import org.anchoranalysis.io.input.InputFromManager;
 import org.anchoranalysis.io.input.InputReadFailedException;
@@ -55,4 +56,24 @@ public abstract class InputManager<T extends InputFromManager> extends AnchorBea
      */
     public abstract InputsWithDirectory<T> inputs(InputManagerParameters parameters)
             throws InputReadFailedException;
+
+    /**
+     * Passes each input to a {@link Consumer}, so that inputs can be processed before all inputs
+     * have been found.
+     *
+     * <p>By default, all inputs are first found via {@link #inputs(InputManagerParameters)}, and
+     * then passed to {@code consumer} in order. Sub-classes can override this to pass each input
+     * as soon as it is found, e.g. via {@link
+     * org.anchoranalysis.io.input.bean.files.FilesProvider#create(InputManagerParameters,
+     * Consumer)}.
+     *
+     * @param parameters the parameters.
+     * @param consumer called with each input, possibly concurrently from several threads, and in
+     *     no particular order.
+     * @throws InputReadFailedException if inputs cannot be successfully read from the file-system.
+     */
+    public void inputs(InputManagerParameters parameters, Consumer<T> consumer)
+            throws InputReadFailedException {
+        inputs(parameters).inputs().forEach(consumer);
+    }
 }
@@ -30,6 +30,7 @@ import java.io.File;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.anchoranalysis.bean.AnchorBean;
 import org.anchoranalysis.io.input.InputContextParameters;
 import org.anchoranalysis.io.input.bean.InputManagerParameters;
@@ -52,6 +53,22 @@ public abstract class FilesProvider extends AnchorBean<FilesProvider> {
     public abstract List<File> create(InputManagerParameters parameters)
             throws FilesProviderException;
 
+    /**
+     * Passes each file to a {@link Consumer}, as it is found.
+     *
+     * <p>This allows files to be processed before all files are found. By default, all files are
+     * first found via {@link #create(InputManagerParameters)}, and then passed in order.
+     * Sub-classes may override this to pass files earlier.
+     *
+     * @param parameters parameters influencing how input-files are obtained.
+     * @param consumer called with each file. It may be called concurrently from several threads.
+     * @throws FilesProviderException if the files cannot be successfully established.
+     */
+    public void create(InputManagerParameters parameters, Consumer<File> consumer)
+            throws FilesProviderException {
+        create(parameters).forEach(consumer);
+    }
+
     /**
      * A root directory for these files, if it exists.
      *
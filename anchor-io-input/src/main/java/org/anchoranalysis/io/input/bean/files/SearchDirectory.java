@@ -31,6 +31,7 @@ import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -80,8 +81,16 @@ public class SearchDirectory extends FilesProviderWithDirectoryString {
      */
     @BeanField @Getter @Setter private boolean acceptDirectoryErrors = false;
 
-    /** If true, the files are sorted after being searched, to achieve a deterministic order. */
-    private boolean sort = true;
+    /**
+     * If true, the files are sorted after being searched, to achieve a deterministic order.
+     *
+     * <p>If false, files are returned in the order they are found, which differs between
+     * file-systems, and between successive searches.
+     *
+     * <p>When files are passed to a consumer as they are found, only the files within each
+     * directory are sorted.
+     */
+    @BeanField @Getter @Setter private boolean sort = true;
     // END BEAN PROPERTIES
 
     /**
@@ -120,6 +129,30 @@ public class SearchDirectory extends FilesProviderWithDirectoryString {
         }
     }
 
+    /**
+     * Passes each matching file to a {@link Consumer} as soon as its directory has been listed,
+     * without waiting for the search to complete.
+     *
+     * <p>If {@code sort} is true, the files within each directory are sorted, but files in
+     * different directories have no particular order.
+     */
+    @Override
+    public void create(InputManagerParameters parameters, Consumer<File> consumer)
+            throws FilesProviderException {
+        try {
+            matcher.matchingFiles(
+                    getDirectoryAsPath(parameters.getInputContext()),
+                    recursive,
+                    ignoreHidden,
+                    OptionalFactory.create(maxDirectoryDepth >= 0, maxDirectoryDepth),
+                    Optional.of(parameters),
+                    sort,
+                    consumer);
+        } catch (InputReadFailedException e) {
+            throw new FilesProviderException(e);
+        }
+    }
+
     /**
      * Sets both the directory and the glob from a string containing both.
      *
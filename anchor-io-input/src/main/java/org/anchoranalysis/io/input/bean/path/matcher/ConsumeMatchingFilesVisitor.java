@@ -1,72 +0,0 @@
-/*-
- * #%L
- * anchor-io
- * %%
- * Copyright (C) 2010 - 2020 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
- * %%
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- *
- * The above copyright notice and this permission notice shall be included in
- * all copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
- * THE SOFTWARE.
- * #L%
- */
-
-package org.anchoranalysis.io.input.bean.path.matcher;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.function.Consumer;
-import lombok.AllArgsConstructor;
-import org.anchoranalysis.io.input.path.matcher.DualPathPredicates;
-
-/**
- * Calls a {@link Consumer} as each file is visited, if it matches a predicate.
- *
- * <p>Subdirectories are also disconsidered if they fail to match a predicate.
- *
- * @author Owen Feehan
- */
-@AllArgsConstructor
-class ConsumeMatchingFilesVisitor extends SimpleFileVisitor<Path> {
-
-    /** The predicates that determine if files and directories match. */
-    private DualPathPredicates predicates;
-
-    /** The consumer that is called on every matching file. */
-    private Consumer<File> consumer;
-
-    @Override
-    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-        if (attrs.isRegularFile() && !attrs.isDirectory() && predicates.matchFile(file)) {
-            consumer.accept(file.normalize().toFile());
-        }
-        return FileVisitResult.CONTINUE;
-    }
-
-    @Override
-    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-            throws IOException {
-        if (predicates.getDirectory().test(dir)) {
-            return super.preVisitDirectory(dir, attrs);
-        } else {
-            return FileVisitResult.SKIP_SUBTREE;
-        }
-    }
-}
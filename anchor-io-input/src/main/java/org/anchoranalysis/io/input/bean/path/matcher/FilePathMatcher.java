@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.anchoranalysis.bean.AnchorBean;
 import org.anchoranalysis.core.functional.checked.CheckedPredicate;
 import org.anchoranalysis.io.input.InputContextParameters;
@@ -112,6 +113,52 @@ public abstract class FilePathMatcher extends AnchorBean<FilePathMatcher> {
         }
     }
 
+    /**
+     * Like {@link #matchingFiles(Path, boolean, boolean, boolean, Optional, Optional)} but passes
+     * each file to a {@link Consumer} as it is found, rather than returning them all at the end.
+     *
+     * @param directory root directory to search.
+     * @param recursive whether to recursively search.
+     * @param ignoreHidden whether to ignore hidden files/directories or not.
+     * @param maxDirectoryDepth a maximum depth in directories to search.
+     * @param parameters parameters providing input-context
+     * @param sortEachDirectory if true, the files in each directory are sorted before being passed
+     *     to {@code consumer}. Files in different directories have no particular order.
+     * @param consumer called with each file matching the conditions. It may be called concurrently
+     *     from several threads.
+     * @throws InputReadFailedException if an error occurs reading/writing or interacting with the
+     *     filesystem.
+     */
+    public void matchingFiles(
+            Path directory,
+            boolean recursive,
+            boolean ignoreHidden,
+            Optional<Integer> maxDirectoryDepth,
+            Optional<InputManagerParameters> parameters,
+            boolean sortEachDirectory,
+            Consumer<File> consumer)
+            throws InputReadFailedException {
+
+        checkDirectoryPreconditions(directory);
+
+        DualPathPredicates predicates =
+                createPredicates(
+                        directory,
+                        ignoreHidden,
+                        parameters.map(InputManagerParameters::getInputContext));
+        try {
+            FindMatchingFiles.search(
+                    directory,
+                    predicates,
+                    recursive && canMatchSubdirectories(),
+                    maxDirectoryDepth,
+                    sortEachDirectory,
+                    consumer);
+        } catch (FindFilesException e) {
+            throw new InputReadFailedException("Cannot find matching files", e);
+        }
+    }
+
     /**
      * Create a predicate to be used for matching against path.
      *
@@ -28,15 +28,18 @@ package org.anchoranalysis.io.input.bean.path.matcher;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileSystemException;
-import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.EnumSet;
-import java.util.LinkedList;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.anchoranalysis.io.input.path.matcher.DualPathPredicates;
@@ -45,7 +48,9 @@ import org.anchoranalysis.io.input.path.matcher.FindFilesException;
 /**
  * Finds files in a {@code directory} that satisfy certain constraints.
  *
- * <p>It may be searched recursively or not.
+ * <p>It may be searched recursively or not. A recursive search visits subdirectories
+ * concurrently, using a pool of threads dedicated to the search, as the threads mostly block on
+ * I/O.
  *
  * @author Owen Feehan
  */
@@ -53,8 +58,15 @@ import org.anchoranalysis.io.input.path.matcher.FindFilesException;
 class FindMatchingFiles {
 
     /**
-     * Searches a {@code directory} for files that match the {@code constraints} - with an optional
-     * logger.
+     * The number of threads that search directories concurrently.
+     *
+     * <p>As listing a directory is dominated by latency, rather than by processing, this may
+     * usefully exceed the number of processors.
+     */
+    private static final int NUMBER_SEARCH_THREADS = 16;
+
+    /**
+     * Searches a {@code directory} for files that match the {@code constraints}.
      *
      * <p>Assign 1 to {@code maxDirectoryDepth} to consider only the immediate files in {@code
      * directory}.
@@ -65,7 +77,7 @@ class FindMatchingFiles {
      * @param maxDirectoryDepth limits on the depth of how many sub-directories are to be recursed.
      *     If unassigned, there is no limit.
      * @return a newly created list containing all files in {@code directory} that match the
-     *     constraints.
+     *     constraints, in no particular order.
      * @throws FindFilesException if a fatal error is encountered during the search.
      */
     public static List<File> search(
@@ -74,14 +86,40 @@ class FindMatchingFiles {
             boolean recursive,
             Optional<Integer> maxDirectoryDepth)
             throws FindFilesException {
+        List<File> out = Collections.synchronizedList(new ArrayList<>());
+        search(directory, predicates, recursive, maxDirectoryDepth, false, out::add);
+        return new ArrayList<>(out);
+    }
 
-        List<File> out = new LinkedList<>();
+    /**
+     * Searches a {@code directory} for files that match the {@code constraints}, passing each to a
+     * {@link Consumer} as it is found.
+     *
+     * <p>The matching files of each directory are passed as soon as the directory has been listed.
+     *
+     * @param directory the directory to search.
+     * @param predicates the constraints applied to the paths.
+     * @param recursive whether to search recursively.
+     * @param maxDirectoryDepth limits on the depth of how many sub-directories are to be recursed.
+     *     If unassigned, there is no limit.
+     * @param sortEachDirectory if true, the matching files in each directory are sorted, before
+     *     being passed to {@code consumer}. Files in different directories have no particular
+     *     order.
+     * @param consumer called with each matching file. It may be called concurrently from several
+     *     threads.
+     * @throws FindFilesException if a fatal error is encountered during the search.
+     */
+    public static void search(
+            Path directory,
+            DualPathPredicates predicates,
+            boolean recursive,
+            Optional<Integer> maxDirectoryDepth,
+            boolean sortEachDirectory,
+            Consumer<File> consumer)
+            throws FindFilesException {
         try {
-            Files.walkFileTree(
-                    directory,
-                    EnumSet.of(FileVisitOption.FOLLOW_LINKS),
-                    recursive ? maxDirectoryDepth.orElse(Integer.MAX_VALUE) : 1,
-                    new ConsumeMatchingFilesVisitor(predicates, out::add));
+            int maxDepth = recursive ? maxDirectoryDepth.orElse(Integer.MAX_VALUE) : 1;
+            searchConcurrently(directory, predicates, maxDepth, sortEachDirectory, consumer);
         } catch (AccessDeniedException e) {
             throw new FindFilesException(String.format("Cannot access directory: %s", e.getFile()));
         } catch (FileSystemException e) {
@@ -92,6 +130,40 @@ class FindMatchingFiles {
             throw new FindFilesException(
                     String.format("An IO error occurring accessing directory: %s", e.toString()));
         }
-        return out;
+    }
+
+    /** Searches {@code directory} with a separate task for each subdirectory. */
+    private static void searchConcurrently(
+            Path directory,
+            DualPathPredicates predicates,
+            int maxDepth,
+            boolean sortEachDirectory,
+            Consumer<File> consumer)
+            throws IOException {
+        if (!predicates.getDirectory().test(directory)) {
+            return;
+        }
+
+        List<Object> ancestors = new ArrayList<>();
+        Object rootKey = Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+        if (rootKey != null) {
+            ancestors.add(rootKey);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(NUMBER_SEARCH_THREADS);
+        try {
+            pool.invoke(
+                    new FindMatchingFilesTask(
+                            directory,
+                            predicates,
+                            maxDepth - 1,
+                            ancestors,
+                            sortEachDirectory,
+                            consumer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
     }
 }
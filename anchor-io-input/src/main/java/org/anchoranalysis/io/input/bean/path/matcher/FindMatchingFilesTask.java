@@ -0,0 +1,160 @@
+/*-
+ * #%L
+ * anchor-io-input
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.io.input.bean.path.matcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import lombok.AllArgsConstructor;
+import org.anchoranalysis.io.input.path.matcher.DualPathPredicates;
+
+/**
+ * Finds matching files in a directory, searching any subdirectories concurrently as separate
+ * tasks.
+ *
+ * <p>On network shares in particular, listing a directory is dominated by latency, so searching
+ * many subdirectories at once is much faster than a sequential walk.
+ *
+ * <p>The matching files in each directory are passed to a {@link Consumer} as soon as the directory
+ * has been listed, so that they may be processed before the search completes. The consumer may be
+ * called concurrently from several threads.
+ *
+ * <p>Symbolic links are followed, as with {@link
+ * java.nio.file.FileVisitOption#FOLLOW_LINKS}. A broken link is ignored, and a link to one of its
+ * own ancestor directories throws a {@link FileSystemLoopException}.
+ *
+ * <p>Any {@link IOException} is rethrown, wrapped in an {@link UncheckedIOException}.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor
+class FindMatchingFilesTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The directory to search. */
+    private final transient Path directory;
+
+    /** The predicates that determine if files and directories match. */
+    private final transient DualPathPredicates predicates;
+
+    /**
+     * How many further levels of subdirectories may be entered, below {@code directory}.
+     *
+     * <p>Zero means that only the files immediately in {@code directory} are considered.
+     */
+    private final int remainingDepth;
+
+    /** The file-keys of {@code directory} and all its ancestors, to detect cycles. */
+    private final transient List<Object> ancestors;
+
+    /** If true, the matching files in each directory are sorted, before being consumed. */
+    private final boolean sortEachDirectory;
+
+    /** Called with each matching file. */
+    private final transient Consumer<File> consumer;
+
+    @Override
+    protected void compute() {
+        List<File> files = new ArrayList<>();
+        List<FindMatchingFilesTask> subdirectories = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                BasicFileAttributes attributes = readAttributes(path);
+                if (attributes.isDirectory()) {
+                    if (remainingDepth > 0 && predicates.getDirectory().test(path)) {
+                        FindMatchingFilesTask task = createSubdirectoryTask(path, attributes);
+                        task.fork();
+                        subdirectories.add(task);
+                    }
+                } else if (attributes.isRegularFile() && predicates.matchFile(path)) {
+                    files.add(path.normalize().toFile());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (sortEachDirectory) {
+            Collections.sort(files);
+        }
+        files.forEach(consumer);
+
+        for (FindMatchingFilesTask task : subdirectories) {
+            task.join();
+        }
+    }
+
+    /** Creates a task to search a subdirectory, checking that it is not also an ancestor. */
+    private FindMatchingFilesTask createSubdirectoryTask(Path path, BasicFileAttributes attributes)
+            throws FileSystemLoopException {
+        List<Object> ancestorsSubdirectory = new ArrayList<>(ancestors);
+        Object key = attributes.fileKey();
+        if (key != null) {
+            if (ancestors.contains(key)) {
+                throw new FileSystemLoopException(path.toString());
+            }
+            ancestorsSubdirectory.add(key);
+        }
+        return new FindMatchingFilesTask(
+                path,
+                predicates,
+                remainingDepth - 1,
+                ancestorsSubdirectory,
+                sortEachDirectory,
+                consumer);
+    }
+
+    /**
+     * Reads the attributes of the target of a path, or of the path itself if it is a broken
+     * symbolic link.
+     */
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            try {
+                return Files.readAttributes(
+                        path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException eNoFollow) {
+                e.addSuppressed(eNoFollow);
+                throw e;
+            }
+        }
+    }
+}
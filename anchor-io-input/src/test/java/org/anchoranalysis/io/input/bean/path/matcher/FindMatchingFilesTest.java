@@ -25,11 +25,22 @@
  */
 package org.anchoranalysis.io.input.bean.path.matcher;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import org.anchoranalysis.io.input.path.matcher.DualPathPredicates;
 import org.anchoranalysis.io.input.path.matcher.FindFilesException;
 import org.anchoranalysis.test.TestLoader;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Tests {@link FindMatchingFiles}.
@@ -38,9 +49,14 @@ import org.junit.jupiter.api.Test;
  */
 class FindMatchingFilesTest {
 
+    private static final DualPathPredicates ALL =
+            new DualPathPredicates(path -> true, path -> true);
+
     private FindMatchingFilesFixture fixture =
             new FindMatchingFilesFixture(TestLoader.createFromMavenWorkingDirectory());
 
+    @TempDir Path directory;
+
     @Test
     void testFlatUnfiltered() throws FindFilesException {
         doTestBoth(4, 4, false, false);
@@ -61,6 +77,45 @@ class FindMatchingFilesTest {
         doTestBoth(2, 6, true, true);
     }
 
+    /** A symbolic link whose target does not exist is ignored, rather than failing the search. */
+    @Test
+    void testBrokenSymbolicLink() throws IOException, FindFilesException {
+        Files.createFile(directory.resolve("a.txt"));
+        Files.createSymbolicLink(directory.resolve("broken.txt"), directory.resolve("missing"));
+
+        List<File> files = FindMatchingFiles.search(directory, ALL, true, Optional.empty());
+        assertEquals(Arrays.asList(directory.resolve("a.txt").toFile()), files);
+    }
+
+    /** A symbolic link to an ancestor directory is an error, as it forms a cycle. */
+    @Test
+    void testSymbolicLinkCycle() throws IOException {
+        Path subdirectory = Files.createDirectory(directory.resolve("sub"));
+        Files.createSymbolicLink(subdirectory.resolve("loop"), directory);
+
+        assertThrows(
+                FindFilesException.class,
+                () -> FindMatchingFiles.search(directory, ALL, true, Optional.empty()));
+    }
+
+    /** The files of each directory are consumed in sorted order, when requested. */
+    @Test
+    void testConsumeSortEachDirectory() throws IOException, FindFilesException {
+        Path subdirectory = Files.createDirectory(directory.resolve("sub"));
+        for (String name : Arrays.asList("c.txt", "a.txt", "b.txt")) {
+            Files.createFile(directory.resolve(name));
+            Files.createFile(subdirectory.resolve(name));
+        }
+
+        List<File> files = new ArrayList<>();
+        FindMatchingFiles.search(
+                directory, ALL, true, Optional.empty(), true, file -> addSynchronized(files, file));
+
+        assertEquals(6, files.size());
+        assertEquals(sortedNames(), namesIn(files, directory));
+        assertEquals(sortedNames(), namesIn(files, subdirectory));
+    }
+
     /**
      * Executes the finder both recursively and non-recursively, and checks the the number of files
      * is as expected.
@@ -87,6 +142,27 @@ class FindMatchingFilesTest {
                 expectedNumberNonRecursive, expectedNumberRecursive, nested, predicates);
     }
 
+    private static void addSynchronized(List<File> files, File file) {
+        synchronized (files) {
+            files.add(file);
+        }
+    }
+
+    /** The names of the files in {@code files} whose parent is {@code parent}, in their order. */
+    private static List<String> namesIn(List<File> files, Path parent) {
+        List<String> names = new ArrayList<>();
+        for (File file : files) {
+            if (file.getParentFile().equals(parent.toFile())) {
+                names.add(file.getName());
+            }
+        }
+        return names;
+    }
+
+    private static List<String> sortedNames() {
+        return Arrays.asList("a.txt", "b.txt", "c.txt");
+    }
+
     /** Whether the path ends with a text extension, including leading period. */
     private static boolean endsWithTxt(Path path) {
         return path.toString().toLowerCase().endsWith(".txt");
@@ -141,6 +141,47 @@ public class OutputManager extends AnchorBean<OutputManager> {
             Optional<Consumer<Path>> callUponDirectoryCreation,
             Optional<Logger> logger)
             throws BindFailedException {
+        return createExperimentOutputter(
+                experimentIdentifier,
+                outputsEnabled,
+                recordedOutputs,
+                writeContext,
+                prefixerContext,
+                callUponDirectoryCreation,
+                logger,
+                false);
+    }
+
+    /**
+     * Like {@link #createExperimentOutputter(Optional, MultiLevelOutputEnabled, Optional,
+     * OutputWriteContext, PathPrefixerContext, Optional, Optional)} but optionally reusing an
+     * existing output directory.
+     *
+     * @param experimentIdentifier if defined, an identifier for the experiment, to be included in
+     *     the directory root.
+     * @param recordedOutputs if defined, remembers which outputs are written or not.
+     * @param outputsEnabled which outputs are enabled.
+     * @param writeContext context needed for writing.
+     * @param prefixerContext parameters for the file-path prefixer.
+     * @param callUponDirectoryCreation when defined, this {@code consumer} is called (with the
+     *     directory path) when the directory is first created.
+     * @param logger logger for warning for information messages when outputting.
+     * @param reuseExistingDirectory when true, an existing output directory is reused, leaving its
+     *     contents intact, regardless of {@code silentlyDeleteExisting}.
+     * @return a newly created outputter.
+     * @throws BindFailedException when an outputter cannot be successfully bound to an output
+     *     directory.
+     */
+    public OutputterChecked createExperimentOutputter(
+            Optional<String> experimentIdentifier,
+            MultiLevelOutputEnabled outputsEnabled,
+            Optional<MultiLevelRecordedOutputs> recordedOutputs,
+            OutputWriteContext writeContext,
+            PathPrefixerContext prefixerContext,
+            Optional<Consumer<Path>> callUponDirectoryCreation,
+            Optional<Logger> logger,
+            boolean reuseExistingDirectory)
+            throws BindFailedException {
 
         try {
             DirectoryWithPrefix prefix =
@@ -152,7 +193,9 @@ public class OutputManager extends AnchorBean<OutputManager> {
                     writeContext,
                     recordedOutputs,
                     new DirectoryCreationParameters(
-                            silentlyDeleteExisting, callUponDirectoryCreation),
+                            silentlyDeleteExisting,
+                            reuseExistingDirectory,
+                            callUponDirectoryCreation),
                     logger);
 
         } catch (PathPrefixerException e) {
@@ -46,9 +46,17 @@ public class DirectoryCreationParameters {
      *
      * <p>When false, an exception is thrown if an existing directory with the same path already
      * exists.
+     *
+     * <p>This is ignored if {@code reuseExistingDirectory} is true.
      */
     private final boolean deleteExistingDirectory;
 
+    /**
+     * When true, any existing directory with the same path is reused as-is, without deleting its
+     * contents, and without throwing an exception.
+     */
+    private final boolean reuseExistingDirectory;
+
     /**
      * When defined, this {@code consumer} is called when the directory is first created, as it is
      * created lazily only when first needed.
@@ -62,7 +70,19 @@ public class DirectoryCreationParameters {
      * creation.
      */
     public DirectoryCreationParameters() {
-        this.deleteExistingDirectory = false;
-        this.callUponDirectoryCreation = Optional.empty();
+        this(false, Optional.empty());
+    }
+
+    /**
+     * Creates to <i>not</i> reuse existing directories.
+     *
+     * @param deleteExistingDirectory when true, this will delete any existing directory with the
+     *     same path. When false, an exception is thrown if it already exists.
+     * @param callUponDirectoryCreation when defined, this {@code consumer} is called when the
+     *     directory is first created.
+     */
+    public DirectoryCreationParameters(
+            boolean deleteExistingDirectory, Optional<Consumer<Path>> callUponDirectoryCreation) {
+        this(deleteExistingDirectory, false, callUponDirectoryCreation);
     }
 }
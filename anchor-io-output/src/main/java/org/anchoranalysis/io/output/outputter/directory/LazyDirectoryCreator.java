@@ -43,6 +43,7 @@ import org.apache.commons.io.FileUtils;
  * <ul>
  *   <li>checks if a directory already exists at the path, and throws an errror
  *   <li>deletes existing directory contents
+ *   <li>reuses an existing directory, leaving its contents unchanged
  *   <li>creates the directory and any intermediate paths
  *   <li>first calls an initiation routine on parent initializer
  * </ul>
@@ -63,6 +64,12 @@ class LazyDirectoryCreator implements WriterExecuteBeforeEveryOperation {
      */
     private final boolean deleteExisting;
 
+    /**
+     * When true, any existing directory with the same path is reused, without deleting its
+     * contents. This takes precedence over {@code deleteExisting}.
+     */
+    private final boolean reuseExisting;
+
     /**
      * A parent whose {@link #execute} is called before our {@link #execute} is called (if empty(),
      * ignored)
@@ -87,7 +94,7 @@ class LazyDirectoryCreator implements WriterExecuteBeforeEveryOperation {
 
                 parent.ifPresent(WriterExecuteBeforeEveryOperation::execute);
 
-                if (outputDirectory.toFile().exists()) {
+                if (outputDirectory.toFile().exists() && !reuseExisting) {
                     if (deleteExisting) {
                         FileUtils.deleteQuietly(outputDirectory.toFile());
                     } else {
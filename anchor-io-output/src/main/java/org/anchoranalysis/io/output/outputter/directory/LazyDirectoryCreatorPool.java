@@ -171,6 +171,7 @@ class LazyDirectoryCreatorPool {
                         new LazyDirectoryCreator(
                                 directoryFull,
                                 parameters.isDeleteExistingDirectory(),
+                                parameters.isReuseExistingDirectory(),
                                 opBefore,
                                 opAfter));
     }
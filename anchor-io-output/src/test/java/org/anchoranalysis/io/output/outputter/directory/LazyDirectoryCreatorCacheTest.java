@@ -28,6 +28,8 @@ package org.anchoranalysis.io.output.outputter.directory;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import org.anchoranalysis.core.index.GetOperationFailedException;
@@ -88,6 +90,26 @@ class LazyDirectoryCreatorCacheTest {
         executeAndCheckBefore(pathDirect, false);
     }
 
+    /**
+     * Tests that an existing directory is reused, without deleting its contents, when requested.
+     *
+     * @throws GetOperationFailedException if the exception throws it.
+     * @throws IOException if the existing file cannot be created.
+     */
+    @Test
+    void testReuseExisting() throws GetOperationFailedException, IOException {
+        Path pathDirect = pathFor(RELATIVE_PATH_DIRECT);
+        Path existingFile = Files.createDirectories(pathDirect).resolve("existing.txt");
+        Files.createFile(existingFile);
+
+        directoryCreator =
+                new LazyDirectoryCreatorPool(
+                        directory, new DirectoryCreationParameters(true, true, Optional.empty()));
+        executeAndCheckBefore(pathDirect, true);
+        assertPathValid(pathDirect);
+        assertTrue(existingFile.toFile().exists(), "existing file is retained");
+    }
+
     /**
      * Executes an operation on a particular path with a <i>before</i> optations, and checks before
      * has been called
@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * anchor-math
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.math.histogram;
+
+import java.util.Arrays;
+import lombok.AllArgsConstructor;
+
+/**
+ * Stores the count for every bin in an array, including bins with zero count.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor
+final class DenseCounts implements HistogramCounts {
+
+    private final int[] counts;
+
+    /**
+     * Creates with zero count for all bins.
+     *
+     * @param size the number of bins.
+     */
+    public DenseCounts(int size) {
+        this.counts = new int[size];
+    }
+
+    @Override
+    public int get(int index) {
+        return counts[index];
+    }
+
+    @Override
+    public void set(int index, int count) {
+        counts[index] = count;
+    }
+
+    @Override
+    public void increment(int index, int increase) {
+        counts[index] += increase;
+    }
+
+    @Override
+    public int nextNonZero(int index) {
+        for (int i = Math.max(index, 0); i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int previousNonZero(int index) {
+        for (int i = Math.min(index, counts.length - 1); i >= 0; i--) {
+            if (counts[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return counts.length;
+    }
+
+    @Override
+    public HistogramCounts chopBefore(int index) {
+        return new DenseCounts(Arrays.copyOfRange(counts, index, counts.length));
+    }
+
+    @Override
+    public HistogramCounts duplicate() {
+        return new DenseCounts(counts.clone());
+    }
+}
@@ -28,7 +28,6 @@ package org.anchoranalysis.math.histogram;
 
 import static java.lang.Math.toIntExact;
 
-import java.util.Arrays;
 import java.util.function.DoublePredicate;
 import java.util.function.IntFunction;
 import java.util.function.IntPredicate;
@@ -37,7 +36,6 @@ import lombok.Getter;
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.core.exception.friendly.AnchorImpossibleSituationException;
 import org.anchoranalysis.math.statistics.VarianceCalculatorLong;
-import org.apache.commons.lang.ArrayUtils;
 
 /**
  * A histogram of integer values.
@@ -49,10 +47,20 @@ import org.apache.commons.lang.ArrayUtils;
  * <p>This can be used to record a discrete probability distribution, and is typically used in the
  * Anchor software to record the distribution of image voxel intensity values.
  *
- * <p>Note that this is dense implementation and memory is allocated to store all values from {@code
- * minValue} to {@code maxValue} (inclusive). This can be a lot of memory for e.g. unsigned-short
- * value types. However, it allows for a maximally efficient incrementing through voxels in an
- * image, without intermediate structures.
+ * <p>By default, a dense implementation is used, and memory is allocated to store all values from
+ * {@code minValue} to {@code maxValue} (inclusive). This allows for a maximally efficient
+ * incrementing through voxels in an image, without intermediate structures.
+ *
+ * <p>Alternatively, a histogram created via {@link #createSparse(int, int)} with a large range of values
+ * (e.g. for unsigned-short value types), initially stores only values with non-zero count, as
+ * sorted pairs of value and count. This suits histograms of few voxels (e.g. those in a small
+ * object), where allocating every value would dominate. It switches to the dense implementation, if
+ * a sufficiently large fraction of values become occupied, or if the total count exceeds the number
+ * of values.
+ *
+ * <p>Operations that summarize the distribution (e.g. {@link #mean()}, {@link #quantile(double)},
+ * {@link #calculateMode()}, {@link #addHistogram(Histogram)}) visit only values with non-zero
+ * count, when sparse.
  *
  * @author Owen Feehan
  */
@@ -71,13 +79,36 @@ public final class Histogram {
         void accept(int bin, int count);
     }
 
+    /**
+     * A histogram created with {@link #createSparse(int, int)} with more values than this, initially
+     * stores only values with non-zero count.
+     */
+    private static final int MAX_SIZE_INITIALLY_DENSE = 4096;
+
+    /**
+     * A sparse histogram becomes dense, when more than {@code 1/DENSE_FRACTION} of its values have
+     * non-zero count.
+     */
+    private static final int DENSE_FRACTION = 8;
+
     /** Minimum possible value in the histogram (inclusive). */
     private int minValue;
 
     /** Maximum possible value in the histogram (inclusive). */
     @Getter private int maxValue;
 
-    private int[] counts;
+    /** The count for each bin, stored either densely or sparsely. */
+    private HistogramCounts counts;
+
+    /**
+     * Identical to {@code counts} when stored densely, otherwise null.
+     *
+     * <p>This allows the common dense case to be incremented without an interface call.
+     */
+    private DenseCounts dense;
+
+    /** Whether the counts may initially be stored sparsely, if the range of values is large. */
+    private final boolean sparseAllowed;
 
     private long sumCount = 0;
 
@@ -97,20 +128,63 @@ public final class Histogram {
      * @param maxValue maximum possible value in the histogram (inclusive).
      */
     public Histogram(int minValue, int maxValue) {
-        counts = new int[maxValue - minValue + 1];
+        this(minValue, maxValue, false);
+    }
+
+    /**
+     * Constructs with a minimum and maximum value, and whether counts may be stored sparsely.
+     *
+     * @param minValue minimum possible value in the histogram (inclusive).
+     * @param maxValue maximum possible value in the histogram (inclusive).
+     * @param sparseAllowed whether the counts may initially be stored sparsely, if the range of
+     *     values is large.
+     */
+    private Histogram(int minValue, int maxValue, boolean sparseAllowed) {
+        this.sparseAllowed = sparseAllowed;
+        assignCounts(createCounts(maxValue - minValue + 1));
         sumCount = 0;
         this.maxValue = maxValue;
         this.minValue = minValue;
     }
 
+    /**
+     * Creates a histogram, with a minimum value of 0, that stores only values with non-zero count,
+     * when the range of values is large.
+     *
+     * <p>See {@link #createSparse(int, int)}.
+     *
+     * @param maxValue maximum possible value in the histogram (inclusive).
+     * @return a newly created histogram, with zero count for all values.
+     */
+    public static Histogram createSparse(int maxValue) {
+        return createSparse(0, maxValue);
+    }
+
+    /**
+     * Creates a histogram that stores only values with non-zero count, when the range of values is
+     * large.
+     *
+     * <p>This is suited to histograms that are expected to have few values with non-zero count,
+     * relative to the range of values e.g. the voxels in a small object, in an image with a large
+     * range of intensity values. The histogram automatically switches to dense storage, when it
+     * becomes efficient to do so.
+     *
+     * @param minValue minimum possible value in the histogram (inclusive).
+     * @param maxValue maximum possible value in the histogram (inclusive).
+     * @return a newly created histogram, with zero count for all values.
+     */
+    public static Histogram createSparse(int minValue, int maxValue) {
+        return new Histogram(minValue, maxValue, true);
+    }
+
     /**
      * Creates a deep-copy of the current object.
      *
      * @return a deep-copy.
      */
     public Histogram duplicate() {
-        Histogram out = new Histogram(minValue, maxValue);
-        out.counts = ArrayUtils.clone(counts);
+        Histogram out = new Histogram(minValue, maxValue, sparseAllowed);
+        out.assignCounts(counts.duplicate());
         out.sumCount = sumCount;
         return out;
     }
@@ -118,9 +192,7 @@ public final class Histogram {
     /** Sets the count for all values to 0. */
     public void reset() {
         sumCount = 0;
-        for (int i = minValue; i <= maxValue; i++) {
-            set(i, 0);
-        }
+        assignCounts(createCounts(counts.size()));
     }
 
     /**
@@ -130,8 +202,8 @@ public final class Histogram {
      */
     public void zeroValue(int value) {
         int index = index(value);
-        sumCount -= counts[index];
-        counts[index] = 0;
+        sumCount -= counts.get(index);
+        counts.set(index, 0);
     }
 
     /**
@@ -143,8 +215,9 @@ public final class Histogram {
     public void transferCount(int valueFrom, int valueTo) {
         int indexFrom = index(valueFrom);
 
-        incrementCount(valueTo, counts[indexFrom]);
-        counts[indexFrom] = 0;
+        int countFrom = counts.get(indexFrom);
+        counts.set(indexFrom, 0);
+        incrementCount(valueTo, countFrom);
     }
 
     /**
@@ -153,8 +226,8 @@ public final class Histogram {
      * @param value the value whose count will be incremented by one.
      */
     public void incrementValue(int value) {
-        incrementCount(value, 1);
         sumCount++;
+        incrementCount(value, 1);
     }
 
     /**
@@ -164,8 +237,8 @@ public final class Histogram {
      * @param increase how much to increase the count by.
      */
     public void incrementValueBy(int value, int increase) {
-        incrementCount(value, increase);
         sumCount += increase;
+        incrementCount(value, increase);
     }
 
     /**
@@ -187,11 +260,11 @@ public final class Histogram {
      *     removed.
      */
     public void removeBelowThreshold(int threshold) {
-        for (int bin = minValue; bin < threshold; bin++) {
+        for (int bin = nextNonZero(minValue); bin < threshold; bin = nextNonZero(bin + 1)) {
             zeroValue(bin);
         }
         // Now chop off the unneeded values and set a new minimum
-        chopBefore(index(threshold));
+        assignCounts(counts.chopBefore(index(threshold)));
         this.minValue = threshold;
     }
 
@@ -211,7 +284,11 @@ public final class Histogram {
      * @return the corresponding count.
      */
     public int getCount(int value) {
-        return counts[index(value)];
+        if (dense != null) {
+            return dense.get(index(value));
+        } else {
+            return counts.get(index(value));
+        }
     }
 
     /**
@@ -222,7 +299,7 @@ public final class Histogram {
      * @return the number of values represented in the histogram.
      */
     public int size() {
-        return counts.length;
+        return counts.size();
     }
 
     /**
@@ -245,10 +322,12 @@ public final class Histogram {
                     "Cannot add histograms with different min-bin-values");
         }
 
-        for (int bin = minValue; bin <= getMaxValue(); bin++) {
+        for (int bin = other.nextNonZero(minValue);
+                bin <= maxValue;
+                bin = other.nextNonZero(bin + 1)) {
             int otherCount = other.getCount(bin);
-            incrementCount(bin, otherCount);
             sumCount += otherCount;
+            incrementCount(bin, otherCount);
         }
     }
 
@@ -266,7 +345,7 @@ public final class Histogram {
 
         long sum = 0;
 
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
             sum += getCountAsLong(bin) * bin;
         }
 
@@ -298,7 +377,7 @@ public final class Histogram {
         double threshold = quantile * sumCount;
 
         long sum = 0;
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
             sum += getCount(bin);
 
             if (sum > threshold) {
@@ -317,13 +396,7 @@ public final class Histogram {
      *     in the range are zero.
      */
     public boolean hasNonZeroCount(int threshold) {
-
-        for (int bin = threshold; bin <= maxValue; bin++) {
-            if (getCount(bin) > 0) {
-                return true;
-            }
-        }
-        return false;
+        return nextNonZero(Math.max(threshold, minValue)) <= maxValue;
     }
 
     /**
@@ -340,7 +413,7 @@ public final class Histogram {
         int maxIndex = -1;
         int maxCount = -1;
 
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
             int count = getCount(bin);
             if (count > maxCount) {
                 maxCount = count;
@@ -360,10 +433,9 @@ public final class Histogram {
     public int calculateMaximum() throws OperationFailedException {
         checkAtLeastOneItemExists();
 
-        for (int bin = maxValue; bin >= minValue; bin--) {
-            if (getCount(bin) > 0) {
-                return bin;
-            }
+        int bin = previousNonZero(maxValue);
+        if (bin >= minValue) {
+            return bin;
         }
 
         throw new AnchorImpossibleSituationException();
@@ -378,10 +450,9 @@ public final class Histogram {
     public int calculateMinimum() throws OperationFailedException {
         checkAtLeastOneItemExists();
 
-        for (int bin = minValue; bin <= maxValue; bin++) {
-            if (getCount(bin) > 0) {
-                return bin;
-            }
+        int bin = nextNonZero(minValue);
+        if (bin <= maxValue) {
+            return bin;
         }
 
         throw new AnchorImpossibleSituationException();
@@ -455,7 +526,7 @@ public final class Histogram {
 
         long sum = 0;
 
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
 
             if (predicate.test(bin)) {
                 sum += getCountAsLong(bin);
@@ -477,9 +548,9 @@ public final class Histogram {
      */
     public Histogram threshold(DoublePredicate predicate) {
 
-        Histogram out = new Histogram(maxValue);
+        Histogram out = new Histogram(0, maxValue, sparseAllowed);
         out.sumCount = 0;
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
 
             if (predicate.test(bin)) {
                 int count = getCount(bin);
@@ -521,12 +592,12 @@ public final class Histogram {
      */
     public Histogram cropRemoveSmallerValues(long maxCount) {
 
-        Histogram out = new Histogram(maxValue);
+        Histogram out = new Histogram(0, maxValue, sparseAllowed);
 
         long remaining = maxCount;
 
         // We keep taking pixels from the histogram until we have reached our quota
-        for (int bin = getMaxValue(); bin >= minValue; bin--) {
+        for (int bin = previousNonZero(maxValue); bin >= minValue; bin = previousNonZero(bin - 1)) {
 
             int count = getCount(bin);
 
@@ -553,12 +624,12 @@ public final class Histogram {
      */
     public Histogram cropRemoveLargerValues(long maxCount) {
 
-        Histogram out = new Histogram(maxValue);
+        Histogram out = new Histogram(0, maxValue, sparseAllowed);
 
         long remaining = maxCount;
 
         // We keep taking pixels from the histogram until we have reached our quota
-        for (int bin = minValue; bin <= getMaxValue(); bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
 
             int count = getCount(bin);
 
@@ -605,7 +676,7 @@ public final class Histogram {
 
         double sum = 0;
 
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
             double binSubtracted = (bin - subtractValue);
             sum += getCountAsLong(bin) * Math.pow(binSubtracted, power);
         }
@@ -642,7 +713,7 @@ public final class Histogram {
 
         long sum = 0;
 
-        for (int bin = minValue; bin <= maxValue; bin++) {
+        for (int bin = nextNonZero(minValue); bin <= maxValue; bin = nextNonZero(bin + 1)) {
             long add = getCountAsLong(bin) * function.applyAsLong(bin);
             sum += add;
         }
@@ -650,27 +721,92 @@ public final class Histogram {
         return sum;
     }
 
+    /**
+     * Whether the counts are currently stored sparsely.
+     *
+     * @return true if only values with non-zero count are stored, false if all values are stored.
+     */
+    boolean isStoredSparsely() {
+        return dense == null;
+    }
+
     // The index in the array the value is stored at
     private int index(int value) {
         return value - minValue;
     }
 
+    /**
+     * The smallest value, greater or equal to {@code value}, with non-zero count.
+     *
+     * @return the value, or {@code maxValue + 1} if no such value exists.
+     */
+    private int nextNonZero(int value) {
+        int index = counts.nextNonZero(index(value));
+        return index != -1 ? index + minValue : maxValue + 1;
+    }
+
+    /**
+     * The largest value, less or equal to {@code value}, with non-zero count.
+     *
+     * @return the value, or {@code minValue - 1} if no such value exists.
+     */
+    private int previousNonZero(int value) {
+        int index = counts.previousNonZero(index(value));
+        return index != -1 ? index + minValue : minValue - 1;
+    }
+
     /** Assigns a count for a particular value. */
     private void set(int value, int countToAssign) {
-        counts[index(value)] = countToAssign;
+        if (dense != null) {
+            dense.set(index(value), countToAssign);
+        } else {
+            counts.set(index(value), countToAssign);
+            switchToDenseIfNeeded();
+        }
     }
 
     /** Increments the count for a particular value. */
     private void incrementCount(int value, int incrementBy) {
-        counts[index(value)] += incrementBy;
+        if (dense != null) {
+            dense.increment(index(value), incrementBy);
+        } else {
+            counts.increment(index(value), incrementBy);
+            switchToDenseIfNeeded();
+        }
     }
 
-    private long getCountAsLong(int value) {
-        return getCount(value);
+    /**
+     * Switches from sparse to dense storage, once sufficiently many values are occupied, or once
+     * the total count exceeds the number of values.
+     *
+     * <p>In the latter case, the cost of allocating the dense storage is small, relative to the
+     * cost of having incremented the sparse storage.
+     */
+    private void switchToDenseIfNeeded() {
+        SparseCounts sparse = (SparseCounts) counts;
+        if (sparse.numberOccupied() > sparse.size() / DENSE_FRACTION
+                || sumCount > sparse.size()) {
+            assignCounts(sparse.toDense());
+        }
     }
 
-    private void chopBefore(int index) {
-        counts = Arrays.copyOfRange(counts, index, counts.length);
+    /** Assigns the counts, and updates {@code dense} correspondingly. */
+    private void assignCounts(HistogramCounts counts) {
+        this.counts = counts;
+        this.dense = counts instanceof DenseCounts ? (DenseCounts) counts : null;
+    }
+
+    /** Creates storage for the counts, choosing sparse storage for larger sizes, if allowed. */
+    private HistogramCounts createCounts(int size) {
+        if (sparseAllowed && size > MAX_SIZE_INITIALLY_DENSE) {
+            return new SparseCounts(size);
+        } else {
+            return new DenseCounts(size);
+        }
+    }
+
+    private long getCountAsLong(int value) {
+        return getCount(value);
     }
 
     private void checkAtLeastOneItemExists() throws OperationFailedException {
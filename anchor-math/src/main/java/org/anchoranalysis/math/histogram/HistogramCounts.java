@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * anchor-math
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.math.histogram;
+
+/**
+ * Stores the count for each bin of a {@link Histogram}.
+ *
+ * <p>Bins are identified by an index, beginning at zero for the minimum value in the histogram.
+ *
+ * @author Owen Feehan
+ */
+interface HistogramCounts {
+
+    /**
+     * The count for a particular bin.
+     *
+     * @param index the index of the bin.
+     * @return the count.
+     */
+    int get(int index);
+
+    /**
+     * Assigns a count for a particular bin.
+     *
+     * @param index the index of the bin.
+     * @param count the count to assign.
+     */
+    void set(int index, int count);
+
+    /**
+     * Increases the count for a particular bin.
+     *
+     * @param index the index of the bin.
+     * @param increase how much to increase the count by.
+     */
+    void increment(int index, int increase);
+
+    /**
+     * The smallest index, greater or equal to {@code index}, whose bin has a non-zero count.
+     *
+     * @param index the index to start searching from (inclusive).
+     * @return the index, or -1 if no such bin exists.
+     */
+    int nextNonZero(int index);
+
+    /**
+     * The largest index, less or equal to {@code index}, whose bin has a non-zero count.
+     *
+     * @param index the index to start searching from (inclusive).
+     * @return the index, or -1 if no such bin exists.
+     */
+    int previousNonZero(int index);
+
+    /**
+     * The number of bins that are currently stored.
+     *
+     * @return the number of bins.
+     */
+    int size();
+
+    /**
+     * Removes all bins before a particular index, so that {@code index} becomes index zero.
+     *
+     * @param index the index that will become the first bin.
+     * @return counts with the bins removed, which may or may not be the same instance.
+     */
+    HistogramCounts chopBefore(int index);
+
+    /**
+     * Creates a deep-copy.
+     *
+     * @return a deep-copy.
+     */
+    HistogramCounts duplicate();
+}
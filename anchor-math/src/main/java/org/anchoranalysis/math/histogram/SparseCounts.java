@@ -0,0 +1,197 @@
+/*-
+ * #%L
+ * anchor-math
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.math.histogram;
+
+import java.util.Arrays;
+
+/**
+ * Stores only the bins with non-zero count, as pairs of index and count, sorted by index.
+ *
+ * <p>Accessing a bin requires a binary search, but memory and iteration grow only with the number
+ * of bins that are occupied, rather than with the range of values in the histogram.
+ *
+ * @author Owen Feehan
+ */
+class SparseCounts implements HistogramCounts {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The total number of bins, both occupied and unoccupied. */
+    private final int size;
+
+    /**
+     * The index of each occupied bin, in ascending order.
+     *
+     * <p>Only the first {@code occupied} elements are used.
+     */
+    private int[] indices;
+
+    /** The count of each occupied bin, corresponding to {@code indices}. */
+    private int[] counts;
+
+    /** The number of occupied bins. */
+    private int occupied = 0;
+
+    /**
+     * Creates with zero count for all bins.
+     *
+     * @param size the number of bins.
+     */
+    public SparseCounts(int size) {
+        this.size = size;
+        this.indices = new int[INITIAL_CAPACITY];
+        this.counts = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public int get(int index) {
+        int position = search(index);
+        return position >= 0 ? counts[position] : 0;
+    }
+
+    @Override
+    public void set(int index, int count) {
+        int position = search(index);
+        if (position >= 0) {
+            if (count != 0) {
+                counts[position] = count;
+            } else {
+                remove(position);
+            }
+        } else if (count != 0) {
+            insert(-position - 1, index, count);
+        }
+    }
+
+    @Override
+    public void increment(int index, int increase) {
+        int position = search(index);
+        if (position >= 0) {
+            counts[position] += increase;
+            if (counts[position] == 0) {
+                remove(position);
+            }
+        } else if (increase != 0) {
+            insert(-position - 1, index, increase);
+        }
+    }
+
+    @Override
+    public int nextNonZero(int index) {
+        int position = search(index);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return position < occupied ? indices[position] : -1;
+    }
+
+    @Override
+    public int previousNonZero(int index) {
+        int position = search(index);
+        if (position < 0) {
+            // The position before the insertion point
+            position = -position - 2;
+        }
+        return position >= 0 ? indices[position] : -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public HistogramCounts chopBefore(int index) {
+        SparseCounts out = new SparseCounts(size - index);
+        int first = nextNonZero(index);
+        if (first != -1) {
+            int position = search(first);
+            out.occupied = occupied - position;
+            out.indices = new int[Math.max(out.occupied, INITIAL_CAPACITY)];
+            out.counts = new int[out.indices.length];
+            for (int i = 0; i < out.occupied; i++) {
+                out.indices[i] = indices[position + i] - index;
+                out.counts[i] = counts[position + i];
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public HistogramCounts duplicate() {
+        SparseCounts out = new SparseCounts(size);
+        out.indices = indices.clone();
+        out.counts = counts.clone();
+        out.occupied = occupied;
+        return out;
+    }
+
+    /**
+     * The number of bins with non-zero count.
+     *
+     * @return the number of occupied bins.
+     */
+    public int numberOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Creates a dense representation with identical counts.
+     *
+     * @return newly-created dense counts.
+     */
+    public DenseCounts toDense() {
+        DenseCounts out = new DenseCounts(size);
+        for (int i = 0; i < occupied; i++) {
+            out.set(indices[i], counts[i]);
+        }
+        return out;
+    }
+
+    /** Like {@link Arrays#binarySearch(int[], int)} but only among the occupied bins. */
+    private int search(int index) {
+        return Arrays.binarySearch(indices, 0, occupied, index);
+    }
+
+    private void insert(int position, int index, int count) {
+        if (occupied == indices.length) {
+            indices = Arrays.copyOf(indices, occupied * 2);
+            counts = Arrays.copyOf(counts, occupied * 2);
+        }
+        System.arraycopy(indices, position, indices, position + 1, occupied - position);
+        System.arraycopy(counts, position, counts, position + 1, occupied - position);
+        indices[position] = index;
+        counts[position] = count;
+        occupied++;
+    }
+
+    private void remove(int position) {
+        System.arraycopy(indices, position + 1, indices, position, occupied - position - 1);
+        System.arraycopy(counts, position + 1, counts, position, occupied - position - 1);
+        occupied--;
+    }
+}
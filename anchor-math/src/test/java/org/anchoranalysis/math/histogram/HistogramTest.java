@@ -26,6 +26,8 @@
 package org.anchoranalysis.math.histogram;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.anchoranalysis.core.exception.OperationFailedException;
 import org.anchoranalysis.math.arithmetic.Counter;
@@ -40,6 +42,9 @@ class HistogramTest {
 
     private static final double TOLERANCE = 0.1;
 
+    /** The maximum value of a histogram with a large range, as for unsigned-short voxels. */
+    private static final int MAX_VALUE_LARGE = 65535;
+
     private Histogram histogram = createHistogram();
 
     @Test
@@ -136,8 +141,106 @@ class HistogramTest {
         assertEquals(170, counter.getCount());
     }
 
+    /** A histogram with a large range of values, stored sparsely, produces identical results. */
+    @Test
+    void testSparse() throws OperationFailedException {
+        Histogram sparse = populate(Histogram.createSparse(3, MAX_VALUE_LARGE));
+        sparse.addHistogram(populate(Histogram.createSparse(3, MAX_VALUE_LARGE)));
+        histogram.addHistogram(createHistogram());
+        assertTrue(sparse.isStoredSparsely());
+        assertEquals(histogram.mean(), sparse.mean());
+        assertEquals(histogram.quantile(0.3), sparse.quantile(0.3));
+        assertEquals(histogram.calculateMode(), sparse.calculateMode());
+        assertEquals(histogram.calculateMaximum(), sparse.calculateMaximum());
+        assertEquals(histogram.calculateSumSquares(), sparse.calculateSumSquares());
+        assertEquals(
+                histogram.cropRemoveSmallerValues(3).calculateSum(),
+                sparse.cropRemoveSmallerValues(3).calculateSum());
+    }
+
+    /** A histogram with a large range of values is stored densely, unless created as sparse. */
+    @Test
+    void testDenseByDefault() {
+        assertFalse(new Histogram(MAX_VALUE_LARGE).isStoredSparsely());
+        assertTrue(Histogram.createSparse(MAX_VALUE_LARGE).isStoredSparsely());
+        assertFalse(Histogram.createSparse(255).isStoredSparsely());
+    }
+
+    /** A sparse histogram becomes dense, when many values are occupied, preserving counts. */
+    @Test
+    void testSparseToDenseOccupied() throws OperationFailedException {
+        Histogram sparse = Histogram.createSparse(MAX_VALUE_LARGE);
+        Histogram dense = new Histogram(MAX_VALUE_LARGE);
+
+        int numberValues = (MAX_VALUE_LARGE + 1) / 8;
+        for (int value = 0; value < numberValues; value++) {
+            sparse.incrementValue(value * 2);
+            dense.incrementValue(value * 2);
+        }
+        assertTrue(sparse.isStoredSparsely(), "sparse before sufficient values are occupied");
+
+        sparse.incrementValue(MAX_VALUE_LARGE);
+        dense.incrementValue(MAX_VALUE_LARGE);
+        assertFalse(sparse.isStoredSparsely(), "dense after sufficient values are occupied");
+        assertIdentical(dense, sparse);
+    }
+
+    /** A sparse histogram becomes dense, when its total count exceeds the number of values. */
+    @Test
+    void testSparseToDenseTotalCount() throws OperationFailedException {
+        Histogram sparse = populate(Histogram.createSparse(MAX_VALUE_LARGE));
+        Histogram dense = populate(new Histogram(MAX_VALUE_LARGE));
+        assertTrue(sparse.isStoredSparsely());
+
+        sparse.incrementValueBy(7, MAX_VALUE_LARGE);
+        dense.incrementValueBy(7, MAX_VALUE_LARGE);
+        assertFalse(sparse.isStoredSparsely());
+        assertIdentical(dense, sparse);
+    }
+
+    /** Removing values below a threshold from a sparse histogram, keeps it sparse. */
+    @Test
+    void testSparseRemoveBelowThreshold() throws OperationFailedException {
+        Histogram sparse = populate(Histogram.createSparse(MAX_VALUE_LARGE));
+        Histogram dense = populate(new Histogram(MAX_VALUE_LARGE));
+        sparse.incrementValueBy(40000, 3);
+        dense.incrementValueBy(40000, 3);
+
+        sparse.removeBelowThreshold(9);
+        dense.removeBelowThreshold(9);
+
+        assertTrue(sparse.isStoredSparsely());
+        assertEquals(MAX_VALUE_LARGE - 8, sparse.size());
+        assertEquals(18, sparse.getTotalCount());
+        assertEquals(9, sparse.calculateMinimum());
+        assertEquals(3, sparse.getCount(40000));
+        assertIdentical(dense, sparse);
+
+        // Further increments are placed correctly, relative to the new minimum
+        sparse.incrementValue(10);
+        dense.incrementValue(10);
+        assertEquals(1, sparse.getCount(10));
+        assertIdentical(dense, sparse);
+    }
+
+    /** Asserts that two histograms have identical counts and summary statistics. */
+    private static void assertIdentical(Histogram expected, Histogram actual)
+            throws OperationFailedException {
+        assertEquals(expected.size(), actual.size(), "size");
+        assertEquals(expected.getTotalCount(), actual.getTotalCount(), "total count");
+        assertEquals(expected.mean(), actual.mean(), "mean");
+        assertEquals(expected.calculateMode(), actual.calculateMode(), "mode");
+        assertEquals(expected.calculateMinimum(), actual.calculateMinimum(), "minimum");
+        assertEquals(expected.calculateMaximum(), actual.calculateMaximum(), "maximum");
+        expected.iterateValues(
+                (bin, count) -> assertEquals(count, actual.getCount(bin), "count for " + bin));
+    }
+
     private static Histogram createHistogram() {
-        Histogram histogram = new Histogram(3, 20);
+        return populate(new Histogram(3, 20));
+    }
+
+    private static Histogram populate(Histogram histogram) {
         histogram.incrementValueBy(12, 10);
         histogram.incrementValueBy(5, 1);
         histogram.incrementValueBy(9, 5);
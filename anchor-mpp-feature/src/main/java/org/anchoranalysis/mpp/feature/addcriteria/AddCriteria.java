@@ -47,4 +47,17 @@ public interface AddCriteria<T> extends OrderedFeatureList<FeatureInputPairMemo>
             Optional<FeatureCalculatorMulti<FeatureInputPairMemo>> session,
             boolean do3D)
             throws CreateException;
+
+    /**
+     * Whether an edge can only ever be generated between two marks whose bounding-boxes (around
+     * all regions) intersect.
+     *
+     * <p>When true, a collection may skip calling {@link #generateEdge} for any pair of marks whose
+     * bounding-boxes do not intersect, typically by using a spatial index.
+     *
+     * @return true if an edge is only possible between marks with intersecting bounding-boxes.
+     */
+    default boolean requiresIntersectingBoxes() {
+        return false;
+    }
 }
@@ -72,6 +72,11 @@ public class AddCriteriaEnergyPair implements AddCriteria<EnergyPair> {
         return Optional.of(energyPairs.shallowDuplicate().append(featuresAddCriteria));
     }
 
+    @Override
+    public boolean requiresIntersectingBoxes() {
+        return pairAddCriteria.requiresIntersectingBoxes();
+    }
+
     // Returns null if to reject an edge
     @Override
     public Optional<EnergyPair> generateEdge(
@@ -51,6 +51,12 @@ public class AddCriteriaNever<T> implements AddCriteria<T> {
         return Optional.empty();
     }
 
+    @Override
+    public boolean requiresIntersectingBoxes() {
+        // No edge is ever generated
+        return true;
+    }
+
     @Override
     public Optional<FeatureList<FeatureInputPairMemo>> orderedListOfFeatures() {
         // No features involved
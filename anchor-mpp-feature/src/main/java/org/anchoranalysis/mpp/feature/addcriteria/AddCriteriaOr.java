@@ -66,6 +66,11 @@ public class AddCriteriaOr extends AddCriteriaPair {
         return false;
     }
 
+    @Override
+    public boolean requiresIntersectingBoxes() {
+        return list.stream().allMatch(AddCriteriaPair::requiresIntersectingBoxes);
+    }
+
     @Override
     public Optional<FeatureList<FeatureInputPairMemo>> orderedListOfFeatures()
             throws CreateException {
@@ -67,6 +67,11 @@ public class ArbitraryPointCommon extends AddCriteriaPair {
         return mark2Cast.getPoints().contains(mark1Cast.getPoints().get(0));
     }
 
+    @Override
+    public boolean requiresIntersectingBoxes() {
+        return true;
+    }
+
     @Override
     public Optional<FeatureList<FeatureInputPairMemo>> orderedListOfFeatures() {
         return Optional.empty();
@@ -57,6 +57,12 @@ public class BoundingBoxIntersection extends AddCriteriaPair {
                 .existsWith(boxFor(mark2.getMark(), dimensions));
     }
 
+    @Override
+    public boolean requiresIntersectingBoxes() {
+        // When the z-dimension is suppressed, boxes may intersect in two dimensions only
+        return !suppressZ;
+    }
+
     @Override
     public Optional<FeatureList<FeatureInputPairMemo>> orderedListOfFeatures() {
         return Optional.empty();
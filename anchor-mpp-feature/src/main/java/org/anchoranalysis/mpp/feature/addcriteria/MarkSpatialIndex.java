@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * anchor-mpp-feature
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.mpp.feature.addcriteria;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import org.anchoranalysis.image.core.dimensions.Dimensions;
+import org.anchoranalysis.mpp.mark.Mark;
+import org.anchoranalysis.mpp.mark.voxelized.memo.VoxelizedMarkMemo;
+import org.anchoranalysis.spatial.box.BoundingBox;
+import org.anchoranalysis.spatial.rtree.BoundingBoxRTree;
+
+/**
+ * Indexes marks by their bounding-boxes, so that marks whose bounding-boxes intersect can be
+ * efficiently found.
+ *
+ * @author Owen Feehan
+ */
+class MarkSpatialIndex {
+
+    /** A memo that is stored in the index, together with its bounding-box. */
+    @AllArgsConstructor
+    private static class IndexedMemo {
+        private final VoxelizedMarkMemo memo;
+        private final BoundingBox box;
+    }
+
+    /** The dimensions of the scene the marks reside in. */
+    private final Dimensions dimensions;
+
+    /** The memos, indexed by bounding-box. */
+    private BoundingBoxRTree<VoxelizedMarkMemo> tree;
+
+    /** Each mark in the index, mapped to its memo and bounding-box, so it can later be removed. */
+    private Map<Mark, IndexedMemo> indexed;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param dimensions the dimensions of the scene the marks reside in.
+     */
+    public MarkSpatialIndex(Dimensions dimensions) {
+        this.dimensions = dimensions;
+        this.tree = new BoundingBoxRTree<>();
+        this.indexed = new HashMap<>();
+    }
+
+    /**
+     * Adds a mark to the index, replacing any existing entry for the same mark.
+     *
+     * @param memo the memo for the mark to add.
+     */
+    public void add(VoxelizedMarkMemo memo) {
+        remove(memo.getMark());
+        BoundingBox box = boxFor(memo);
+        tree.add(box, memo);
+        indexed.put(memo.getMark(), new IndexedMemo(memo, box));
+    }
+
+    /**
+     * Removes a mark from the index, if it exists.
+     *
+     * @param mark the mark to remove.
+     */
+    public void remove(Mark mark) {
+        IndexedMemo existing = indexed.remove(mark);
+        if (existing != null) {
+            tree.remove(existing.box, existing.memo);
+        }
+    }
+
+    /**
+     * Memos for all marks in the index whose bounding-boxes intersect with a particular mark's.
+     *
+     * @param memo the memo for the mark to search with, which is itself excluded from the results.
+     * @return a stream of memos for any intersecting marks.
+     */
+    public Stream<VoxelizedMarkMemo> intersectingWith(VoxelizedMarkMemo memo) {
+        return tree.intersectsWithStream(boxFor(memo))
+                .filter(other -> !other.getMark().equals(memo.getMark()));
+    }
+
+    /**
+     * Creates a duplicate of the index, whose later changes do not affect this index.
+     *
+     * @return a newly created index, with identical contents.
+     */
+    public MarkSpatialIndex duplicate() {
+        MarkSpatialIndex out = new MarkSpatialIndex(dimensions);
+        out.tree = tree.duplicate();
+        out.indexed = new HashMap<>(indexed);
+        return out;
+    }
+
+    /** The bounding-box around all regions of a mark. */
+    private BoundingBox boxFor(VoxelizedMarkMemo memo) {
+        return memo.getMark().boxAllRegions(dimensions);
+    }
+}
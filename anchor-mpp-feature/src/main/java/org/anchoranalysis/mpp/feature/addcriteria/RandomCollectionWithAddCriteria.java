@@ -28,11 +28,14 @@ package org.anchoranalysis.mpp.feature.addcriteria;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
 import org.anchoranalysis.bean.annotation.BeanField;
+import org.anchoranalysis.core.cache.CachedSupplier;
 import org.anchoranalysis.core.exception.CreateException;
 import org.anchoranalysis.core.exception.InitializeException;
 import org.anchoranalysis.core.exception.OperationFailedException;
@@ -42,7 +45,6 @@ import org.anchoranalysis.core.graph.GraphWithPayload;
 import org.anchoranalysis.core.graph.TypedEdge;
 import org.anchoranalysis.core.log.Logger;
 import org.anchoranalysis.core.random.RandomNumberGenerator;
-import org.anchoranalysis.feature.bean.list.FeatureList;
 import org.anchoranalysis.feature.calculate.bound.FeatureCalculatorMulti;
 import org.anchoranalysis.feature.energy.EnergyStack;
 import org.anchoranalysis.feature.initialization.FeatureInitialization;
@@ -85,6 +87,21 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
     private Logger logger;
     private SharedFeatures sharedFeatures;
 
+    /**
+     * Calculates features for the add-criteria, created once only, and reused for all subsequent
+     * additions.
+     *
+     * <p>It is never shared with a copy, as a session retains state between calculations.
+     */
+    private CachedSupplier<Optional<FeatureCalculatorMulti<FeatureInputPairMemo>>, CreateException>
+            session = createSession();
+
+    /**
+     * Indexes the marks spatially, so only marks with intersecting bounding-boxes are considered
+     * as pairs. This only exists if the add-criteria require intersecting bounding-boxes.
+     */
+    private Optional<MarkSpatialIndex> spatialIndex = Optional.empty();
+
     public RandomCollectionWithAddCriteria(Class<?> pairTypeClass) {
         this.pairTypeClass = pairTypeClass;
         graph = new GraphWithPayload<>(true);
@@ -99,6 +116,7 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
         out.hasInit = this.hasInit;
         out.logger = this.logger;
         out.sharedFeatures = this.sharedFeatures;
+        out.spatialIndex = this.spatialIndex.map(MarkSpatialIndex::duplicate);
         return out;
     }
 
@@ -111,6 +129,7 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
         out.hasInit = this.hasInit;
         out.logger = this.logger;
         out.sharedFeatures = this.sharedFeatures;
+        out.spatialIndex = this.spatialIndex.map(MarkSpatialIndex::duplicate);
         return out;
     }
 
@@ -129,23 +148,18 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
                 graph.addVertex(marks.getMemoForIndex(i).getMark());
             }
 
-            Optional<FeatureList<FeatureInputPairMemo>> features =
-                    addCriteria.orderedListOfFeatures();
+            this.energyStack = stack;
+            this.session = createSession();
 
-            Optional<FeatureCalculatorMulti<FeatureInputPairMemo>> session =
-                    OptionalUtilities.map(
-                            features,
-                            f ->
-                                    FeatureSession.with(
-                                            f,
-                                            new FeatureInitialization(stack.getParameters()),
-                                            sharedFeatures,
-                                            logger));
+            if (addCriteria.requiresIntersectingBoxes()) {
+                this.spatialIndex = Optional.of(new MarkSpatialIndex(stack.dimensions()));
+            } else {
+                this.spatialIndex = Optional.empty();
+            }
 
-            initGraph(marks, stack, session);
+            initGraph(marks, stack);
 
             this.hasInit = true;
-            this.energyStack = stack;
 
         } catch (CreateException e) {
             throw new InitializeException(e);
@@ -158,7 +172,7 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
         checkInit();
         try {
             this.graph.addVertex(newMark.getMark());
-            calculatePairsForMark(marksExisting, newMark, energyStack);
+            calculatePairsForMark(marksExisting, newMark);
         } catch (CreateException e) {
             throw new UpdateMarkSetException(e);
         }
@@ -190,6 +204,7 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
         checkInit();
         try {
             this.graph.removeVertex(mark.getMark());
+            spatialIndex.ifPresent(index -> index.remove(mark.getMark()));
         } catch (OperationFailedException e) {
             throw new UpdateMarkSetException(e);
         }
@@ -197,7 +212,6 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
 
     // START DELEGATES
 
-    // Each pair appears twice
     public Set<T> createPairsUnique() {
         HashSet<T> setOut = new HashSet<>();
         for (TypedEdge<Mark, T> pair : pairsMaybeDuplicates()) {
@@ -235,15 +249,12 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
         return true;
     }
 
-    // As pairs can be duplicated, this is not strictly UNIFORM sampling, but usually each item
-    // appears twice
-    //  it's more efficient to sample from this, than to always insist upon uniqueness, as this
-    // involves
-    //  creating a HashMap each query (due to the implementation)
+    // As the graph stores each edge once only, in an indexed list, this is in fact uniform
+    // sampling in constant time
     @Override
     public T sampleRandomPairNonUniform(RandomNumberGenerator randomNumberGenerator) {
 
-        int count = this.graph.edgesMaybeDuplicates().size();
+        int count = this.graph.numberEdges();
 
         if (count == 0) {
             throw new AnchorFriendlyRuntimeException("No edges exist to sample from");
@@ -251,80 +262,99 @@ public class RandomCollectionWithAddCriteria<T> extends RandomCollection<T> {
 
         // Pick an element from the existing configuration
         int index = randomNumberGenerator.sampleIntFromRange(count);
-
-        int i = 0;
-        for (TypedEdge<Mark, T> edge : pairsMaybeDuplicates()) {
-            if (i++ == index) {
-                return edge.getPayload();
-            }
-        }
-
-        throw new AnchorFriendlyRuntimeException("Invalid index chosen for randomPair");
+        return graph.edgeAt(index).getPayload();
     }
 
-    private void initGraph(
-            MemoForIndex marks,
-            EnergyStack stack,
-            Optional<FeatureCalculatorMulti<FeatureInputPairMemo>> session)
-            throws CreateException {
+    private void initGraph(MemoForIndex marks, EnergyStack stack) throws CreateException {
         // Some energy components need to be calculated individually
         for (int i = 0; i < marks.size(); i++) {
 
             VoxelizedMarkMemo srcMark = marks.getMemoForIndex(i);
 
-            for (int j = 0; j < i; j++) {
+            if (spatialIndex.isPresent()) {
+                // Only marks with a lower index, and an intersecting bounding-box, are considered
+                for (VoxelizedMarkMemo destMark : intersectingMarks(srcMark)) {
+                    addEdgeIfCriteriaMet(srcMark, destMark, stack);
+                }
+                spatialIndex.get().add(srcMark);
+            } else {
+                for (int j = 0; j < i; j++) {
+                    addEdgeIfCriteriaMet(srcMark, marks.getMemoForIndex(j), stack);
+                }
+            }
+        }
+    }
 
-                VoxelizedMarkMemo destMark = marks.getMemoForIndex(j);
+    private void calculatePairsForMark(MemoForIndex marksExisting, VoxelizedMarkMemo newMark)
+            throws CreateException {
 
-                addCriteria
-                        .generateEdge(srcMark, destMark, stack, session, stack.dimensions().z() > 1)
-                        .ifPresent(
-                                pair -> graph.addEdge(srcMark.getMark(), destMark.getMark(), pair));
+        if (spatialIndex.isPresent()) {
+            Set<Mark> existing = marksIn(marksExisting);
+            // Only existing marks whose bounding-boxes intersect with the new mark can form a pair
+            for (VoxelizedMarkMemo otherMark : intersectingMarks(newMark)) {
+                if (existing.contains(otherMark.getMark())) {
+                    addEdgeIfCriteriaMet(otherMark, newMark, energyStack);
+                }
+            }
+            spatialIndex.get().add(newMark);
+        } else {
+            // We calculate how the new mark interacts with all the other marks
+            for (int i = 0; i < marksExisting.size(); i++) {
+
+                VoxelizedMarkMemo otherMark = marksExisting.getMemoForIndex(i);
+                if (!otherMark.getMark().equals(newMark.getMark())) {
+                    addEdgeIfCriteriaMet(otherMark, newMark, energyStack);
+                }
             }
         }
     }
 
-    private void calculatePairsForMark(
-            MemoForIndex pxlMarkMemoList, VoxelizedMarkMemo newMark, EnergyStack energyStack)
+    /** Adds an edge between two marks, if the add-criteria generate one. */
+    private void addEdgeIfCriteriaMet(
+            VoxelizedMarkMemo mark1, VoxelizedMarkMemo mark2, EnergyStack stack)
             throws CreateException {
+        addCriteria
+                .generateEdge(mark1, mark2, stack, session.get(), stack.dimensions().z() > 1)
+                .ifPresent(pair -> graph.addEdge(mark1.getMark(), mark2.getMark(), pair));
+    }
+
+    /** Marks in the spatial-index whose bounding-boxes intersect with {@code mark}. */
+    private List<VoxelizedMarkMemo> intersectingMarks(VoxelizedMarkMemo mark) {
+        return spatialIndex.get().intersectingWith(mark).collect(Collectors.toList());
+    }
 
-        Optional<FeatureCalculatorMulti<FeatureInputPairMemo>> session;
+    /** The marks in {@code memos}. */
+    private static Set<Mark> marksIn(MemoForIndex memos) {
+        Set<Mark> out = new HashSet<>();
+        for (int i = 0; i < memos.size(); i++) {
+            out.add(memos.getMemoForIndex(i).getMark());
+        }
+        return out;
+    }
 
+    /** Lazily creates a session to calculate any features needed by the add-criteria. */
+    private CachedSupplier<Optional<FeatureCalculatorMulti<FeatureInputPairMemo>>, CreateException>
+            createSession() {
+        return CachedSupplier.cacheChecked(this::startSession);
+    }
+
+    /** Starts a session to calculate any features needed by the add-criteria. */
+    private Optional<FeatureCalculatorMulti<FeatureInputPairMemo>> startSession()
+            throws CreateException {
         try {
-            session =
-                    OptionalUtilities.map(
-                            addCriteria.orderedListOfFeatures(),
-                            f ->
-                                    FeatureSession.with(
-                                            f,
-                                            new FeatureInitialization(energyStack.getParameters()),
-                                            sharedFeatures,
-                                            logger));
+            return OptionalUtilities.map(
+                    addCriteria.orderedListOfFeatures(),
+                    features ->
+                            FeatureSession.with(
+                                    features,
+                                    new FeatureInitialization(energyStack.getParameters()),
+                                    sharedFeatures,
+                                    logger));
         } catch (InitializeException e) {
             throw new CreateException(e);
         }
-
-        // We calculate how the new mark interacts with all the other marks
-        for (int i = 0; i < pxlMarkMemoList.size(); i++) {
-
-            VoxelizedMarkMemo otherMark = pxlMarkMemoList.getMemoForIndex(i);
-            if (!otherMark.getMark().equals(newMark.getMark())) {
-                addCriteria
-                        .generateEdge(
-                                otherMark,
-                                newMark,
-                                energyStack,
-                                session,
-                                energyStack.dimensions().z() > 1)
-                        .ifPresent(
-                                pair ->
-                                        this.graph.addEdge(
-                                                otherMark.getMark(), newMark.getMark(), pair));
-            }
-        }
     }
 
-    // Each edge can appear many times
     private Collection<TypedEdge<Mark, T>> pairsMaybeDuplicates() {
         return graph.edgesMaybeDuplicates();
     }
@@ -0,0 +1,194 @@
+/*-
+ * #%L
+ * anchor-mpp-feature
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+package org.anchoranalysis.mpp.feature.addcriteria;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Random;
+import java.util.Set;
+import org.anchoranalysis.core.exception.InitializeException;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.core.log.NullMessageLogger;
+import org.anchoranalysis.feature.energy.EnergyStack;
+import org.anchoranalysis.feature.energy.EnergyStackWithoutParameters;
+import org.anchoranalysis.feature.shared.SharedFeatures;
+import org.anchoranalysis.image.core.dimensions.Dimensions;
+import org.anchoranalysis.mpp.bean.regionmap.RegionMapSingleton;
+import org.anchoranalysis.mpp.feature.mark.MemoList;
+import org.anchoranalysis.mpp.mark.Mark;
+import org.anchoranalysis.mpp.mark.UpdateMarkSetException;
+import org.anchoranalysis.mpp.mark.conic.Ellipse;
+import org.anchoranalysis.mpp.mark.voxelized.memo.VoxelizedMarkMemo;
+import org.anchoranalysis.mpp.pair.MarkPair;
+import org.anchoranalysis.spatial.orientation.Orientation2D;
+import org.anchoranalysis.spatial.point.Point2d;
+import org.anchoranalysis.spatial.point.Point3d;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link RandomCollectionWithAddCriteria}.
+ *
+ * <p>The pairs found when pruning with a {@link MarkSpatialIndex} are checked to be identical to
+ * those found by an exhaustive pairwise search, over randomly placed marks.
+ *
+ * @author Owen Feehan
+ */
+class RandomCollectionWithAddCriteriaTest {
+
+    private static final Dimensions DIMENSIONS = new Dimensions(200, 200, 1);
+
+    private static final int NUMBER_MARKS_INITIAL = 60;
+
+    private static final int NUMBER_MARKS_ADDITIONAL = 20;
+
+    private static final long SEED = 42;
+
+    /** Identical pairs are found after initialization. */
+    @Test
+    void testInitialize() throws InitializeException {
+        MemoList marks = randomMarks(new Random(SEED), NUMBER_MARKS_INITIAL, 0);
+        assertPairsEqual(createPairs(true, marks), createPairs(false, marks));
+    }
+
+    /** Identical pairs are found after marks are added, removed and exchanged. */
+    @Test
+    void testUpdate() throws InitializeException, UpdateMarkSetException {
+        Random random = new Random(SEED);
+        MemoList marks = randomMarks(random, NUMBER_MARKS_INITIAL, 0);
+
+        RandomCollectionWithAddCriteria<MarkPair<Mark>> pruned = createPairs(true, marks);
+        RandomCollectionWithAddCriteria<MarkPair<Mark>> exhaustive = createPairs(false, marks);
+
+        MemoList additional =
+                randomMarks(random, NUMBER_MARKS_ADDITIONAL, NUMBER_MARKS_INITIAL);
+        for (VoxelizedMarkMemo memo : additional) {
+            pruned.add(marks, memo);
+            exhaustive.add(marks, memo);
+            marks.add(memo);
+        }
+        assertPairsEqual(pruned, exhaustive);
+
+        for (int i = 0; i < NUMBER_MARKS_ADDITIONAL; i++) {
+            VoxelizedMarkMemo memo = marks.get(random.nextInt(marks.size()));
+            pruned.remove(marks, memo);
+            exhaustive.remove(marks, memo);
+            marks.remove(memo);
+        }
+        assertPairsEqual(pruned, exhaustive);
+
+        MemoList replacements =
+                randomMarks(
+                        random,
+                        NUMBER_MARKS_ADDITIONAL,
+                        NUMBER_MARKS_INITIAL + NUMBER_MARKS_ADDITIONAL);
+        for (VoxelizedMarkMemo memo : replacements) {
+            int index = random.nextInt(marks.size());
+            pruned.exchange(marks, marks.get(index), index, memo);
+            exhaustive.exchange(marks, marks.get(index), index, memo);
+            marks.set(index, memo);
+        }
+        assertPairsEqual(pruned, exhaustive);
+    }
+
+    /** Only the marks passed as existing are paired with an added mark. */
+    @Test
+    void testAddToSubset() throws InitializeException, UpdateMarkSetException {
+        Random random = new Random(SEED);
+        MemoList marks = randomMarks(random, NUMBER_MARKS_INITIAL, 0);
+
+        RandomCollectionWithAddCriteria<MarkPair<Mark>> pruned = createPairs(true, marks);
+        RandomCollectionWithAddCriteria<MarkPair<Mark>> exhaustive = createPairs(false, marks);
+
+        // Every second mark is considered to exist
+        MemoList subset = new MemoList();
+        for (int i = 0; i < marks.size(); i += 2) {
+            subset.add(marks.get(i));
+        }
+
+        for (VoxelizedMarkMemo memo :
+                randomMarks(random, NUMBER_MARKS_ADDITIONAL, NUMBER_MARKS_INITIAL)) {
+            pruned.add(subset, memo);
+            exhaustive.add(subset, memo);
+        }
+        assertPairsEqual(pruned, exhaustive);
+    }
+
+    /**
+     * Creates the pairs for marks, where pairs are formed between marks with intersecting
+     * bounding-boxes.
+     *
+     * @param spatialIndex if true, candidate pairs are pruned with a spatial-index. If false, all
+     *     pairs of marks are considered exhaustively. As the scene is two-dimensional, suppressing
+     *     the z-dimension does not change which bounding-boxes intersect, but it disables the
+     *     spatial-index.
+     */
+    private static RandomCollectionWithAddCriteria<MarkPair<Mark>> createPairs(
+            boolean spatialIndex, MemoList marks) throws InitializeException {
+        BoundingBoxIntersection criteria = new BoundingBoxIntersection();
+        criteria.setSuppressZ(!spatialIndex);
+        assertEquals(spatialIndex, criteria.requiresIntersectingBoxes());
+
+        RandomCollectionWithAddCriteria<MarkPair<Mark>> pairs =
+                new RandomCollectionWithAddCriteria<>(MarkPair.class);
+        pairs.setAddCriteria(criteria);
+        pairs.initUpdatableMarks(
+                marks,
+                new EnergyStack(DIMENSIONS),
+                new Logger(new NullMessageLogger()),
+                new SharedFeatures());
+        return pairs;
+    }
+
+    /** Asserts that both collections contain identical, and at least some, pairs. */
+    private static void assertPairsEqual(
+            RandomCollectionWithAddCriteria<MarkPair<Mark>> pruned,
+            RandomCollectionWithAddCriteria<MarkPair<Mark>> exhaustive) {
+        Set<MarkPair<Mark>> pairs = exhaustive.createPairsUnique();
+        assertFalse(pairs.isEmpty());
+        assertEquals(pairs, pruned.createPairsUnique());
+    }
+
+    /** Creates randomly placed and sized ellipses, with unique identifiers. */
+    private static MemoList randomMarks(Random random, int numberMarks, int firstIdentifier) {
+        EnergyStackWithoutParameters stack = new EnergyStackWithoutParameters(DIMENSIONS);
+        MemoList out = new MemoList();
+        for (int i = 0; i < numberMarks; i++) {
+            Ellipse mark = new Ellipse();
+            mark.setMarksExplicit(
+                    new Point3d(
+                            random.nextDouble() * DIMENSIONS.x(),
+                            random.nextDouble() * DIMENSIONS.y(),
+                            0),
+                    new Orientation2D(random.nextDouble() * Math.PI),
+                    new Point2d(5 + random.nextDouble() * 15, 5 + random.nextDouble() * 15));
+            mark.setId(firstIdentifier + i);
+            out.add(new VoxelizedMarkMemo(mark, stack, RegionMapSingleton.instance()));
+        }
+        return out;
+    }
+}
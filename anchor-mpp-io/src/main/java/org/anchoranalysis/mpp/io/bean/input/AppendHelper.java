@@ -161,7 +161,8 @@ class AppendHelper {
     private TimeSeries openRaster(Path path, StackReader stackReader) throws ImageIOException {
         try (OpenedImageFile openedFile =
                 stackReader.openFile(path, context.getExecutionTimeRecorder())) {
-            return openedFile.open(context.getLogger());
+            // The frames must all be read, before the file is closed
+            return openedFile.open(context.getLogger()).retainAllFrames();
         }
     }
 }
@@ -63,6 +63,26 @@ public class BoundingBoxRTree<T> extends RTree<T> {
         super(NUMBER_DIMENSIONS, maxNumberEntries);
     }
 
+    /**
+     * Creates an R-Tree with identical contents to another.
+     *
+     * @param source the tree whose contents are copied.
+     */
+    private BoundingBoxRTree(BoundingBoxRTree<T> source) {
+        super(source);
+    }
+
+    /**
+     * Creates a duplicate of the tree, with identical contents.
+     *
+     * <p>This occurs in constant time, and later changes to either tree do not affect the other.
+     *
+     * @return a newly created tree, with identical contents.
+     */
+    public BoundingBoxRTree<T> duplicate() {
+        return new BoundingBoxRTree<>(this);
+    }
+
     /**
      * Which objects contain a particular point?
      *
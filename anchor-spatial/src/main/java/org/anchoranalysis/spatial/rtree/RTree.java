@@ -72,6 +72,18 @@ public abstract class RTree<T> {
                         .create();
     }
 
+    /**
+     * Creates an R-Tree with identical contents to another.
+     *
+     * <p>As the underlying data structure is immutable, this occurs in constant time, and later
+     * changes to either tree do not affect the other.
+     *
+     * @param source the tree whose contents are copied.
+     */
+    protected RTree(RTree<T> source) {
+        this.tree = source.tree;
+    }
+
     /**
      * The total number of items stored in the tree.
      *
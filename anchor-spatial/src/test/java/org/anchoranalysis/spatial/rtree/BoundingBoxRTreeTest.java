@@ -116,6 +116,21 @@ class BoundingBoxRTreeTest {
         checker.assertSize(1);
     }
 
+    @Test
+    void duplicate() {
+        BoundingBoxRTree<Integer> duplicated = tree.duplicate();
+
+        // Changes to the original do not affect the duplicate
+        tree.remove(BOX2, 2);
+        tree.add(BOX_ADDITIONAL, 4);
+        assertIntersectsWith(BOX3, Arrays.asList(3, 4));
+        RTreeChecker.assertUnordered(Arrays.asList(2, 3), duplicated.intersectsWith(BOX3));
+
+        // Changes to the duplicate do not affect the original
+        duplicated.remove(BOX1, 1);
+        assertIntersectsWith(BOX1, Arrays.asList(1));
+    }
+
     /** Assert that particular payloads are expected to intersect with a box. */
     private void assertIntersectsWith(BoundingBox box, List<Integer> expectedIdentifiers) {
         RTreeChecker.assertUnordered(expectedIdentifiers, tree.intersectsWith(box));